@@ -0,0 +1,108 @@
+package hello.springmvc.loadtest;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * 한 URL을 순차로 호출하면서 첫 바이트까지의 시간(TTFB)과 전체 응답 시간을 잰다.
+ * 스트리밍 렌더링(mode=stream)과 버퍼링 렌더링(mode=buffered)을 비교할 때 사용한다.
+ *
+ * 예)
+ * ./gradlew :loadtest:firstByteProbe --args="--path=/response-view-report?rows=50000&mode=stream"
+ *
+ * 옵션
+ * --base-url  대상 서버 (기본 http://localhost:8080)
+ * --path      요청 경로
+ * --requests  측정 요청 수 (기본 50, 앞의 10건은 워밍업으로 버림)
+ * --server-report 서버 측 통계 경로, 측정 전에 DELETE로 초기화하고 끝나면 GET 결과를 출력
+ * --pid       대상 서버 프로세스 id, 지정하면 요청당 최대 힙(살아 있는 객체)을 잰다
+ *             응답을 heap-sample-every 바이트(기본 4MB) 읽을 때마다 읽기를 멈추고 jcmd 로 살아 있는 객체 크기를 읽는다.
+ *             읽기를 멈추면 서버는 소켓 버퍼가 찰 때 렌더링 중간에서 멈추므로, 소켓 버퍼보다 훨씬 큰 응답으로 재야 한다.
+ *             (요청당 최대 힙 = 요청 중 표본의 최댓값 - 요청 사이 힙, 이때 시간 값은 의미가 없다)
+ *
+ * ./gradlew :loadtest:firstByteProbe --args="--path=/response-view-report?rows=1000000&mode=buffered --requests=5 --pid=12345"
+ */
+public class FirstByteProbe {
+
+    private static final int WARMUP = 10;
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = LoadTestRunner.parse(args);
+        String baseUrl = options.getOrDefault("base-url", "http://localhost:8080");
+        String path = options.get("path");
+        if (path == null) {
+            throw new IllegalArgumentException("--path is required");
+        }
+        int requests = Integer.parseInt(options.getOrDefault("requests", "50"));
+        String serverReport = options.get("server-report");
+        ProcessMemory memory = options.containsKey("pid") ? new ProcessMemory(Long.parseLong(options.get("pid"))) : null;
+        long heapSampleEvery = Long.parseLong(options.getOrDefault("heap-sample-every", String.valueOf(4 << 20)));
+
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(Duration.ofMinutes(1)).build();
+        LoadTestRunner runner = new LoadTestRunner(baseUrl);
+
+        LatencyRecorder firstByte = new LatencyRecorder();
+        LatencyRecorder total = new LatencyRecorder();
+        long bytes = 0;
+        long idleHeapKb = -1;
+        long[] peakHeapKb = new long[requests];
+        for (int i = 0; i < WARMUP + requests; i++) {
+            if (i == WARMUP && serverReport != null) {
+                runner.send("DELETE", serverReport);
+            }
+            if (i == WARMUP && memory != null) {
+                idleHeapKb = memory.liveHeapKb();
+            }
+            boolean sampleHeap = memory != null && i >= WARMUP;
+            long nextSample = heapSampleEvery;
+            long start = System.nanoTime();
+            HttpResponse<InputStream> response = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+            long size = 0;
+            long firstByteAt = 0;
+            try (InputStream body = response.body()) {
+                byte[] buffer = new byte[8192];
+                int read;
+                while ((read = body.read(buffer)) != -1) {
+                    if (firstByteAt == 0) {
+                        firstByteAt = System.nanoTime();
+                    }
+                    size += read;
+                    if (sampleHeap && size >= nextSample) {
+                        peakHeapKb[i - WARMUP] = Math.max(peakHeapKb[i - WARMUP], memory.liveHeapKb());
+                        nextSample += heapSampleEvery;
+                    }
+                }
+            }
+            long end = System.nanoTime();
+            if (i >= WARMUP) {
+                firstByte.record(firstByteAt - start);
+                total.record(end - start);
+                bytes = size;
+            }
+        }
+
+        System.out.printf("%s%nresponse size=%d bytes, requests=%d%n", path, bytes, requests);
+        System.out.printf("ttfb  p50=%.2fms p99=%.2fms%n", firstByte.percentile(50) / 1e6, firstByte.percentile(99) / 1e6);
+        System.out.printf("total p50=%.2fms p99=%.2fms%n", total.percentile(50) / 1e6, total.percentile(99) / 1e6);
+        if (memory != null) {
+            long max = 0;
+            long sum = 0;
+            for (long peak : peakHeapKb) {
+                max = Math.max(max, peak - idleHeapKb);
+                sum += peak - idleHeapKb;
+            }
+            System.out.printf("live heap idle=%dkB, peak per request avg=%dkB max=%dkB (heap-sample-every=%d bytes)%n",
+                idleHeapKb, sum / requests, max, heapSampleEvery);
+        }
+        if (serverReport != null) {
+            System.out.printf("[server %s]%n%s%n", serverReport, runner.send("GET", serverReport));
+        }
+    }
+
+}
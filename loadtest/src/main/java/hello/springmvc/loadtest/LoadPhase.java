@@ -0,0 +1,49 @@
+package hello.springmvc.loadtest;
+
+import java.time.Duration;
+
+/**
+ * 시나리오 안에서 동시에 진행되는 부하 구간
+ * startAfter 만큼 기다렸다가 duration 동안 concurrency 개의 워커로 profile을 실행한다.
+ */
+public class LoadPhase {
+
+    private final String name;
+    private final LoadProfile profile;
+    private final int concurrency;
+    private final Duration startAfter;
+    private final Duration duration;
+
+    public LoadPhase(String name, LoadProfile profile, int concurrency, Duration startAfter, Duration duration) {
+        this.name = name;
+        this.profile = profile;
+        this.concurrency = concurrency;
+        this.startAfter = startAfter;
+        this.duration = duration;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public LoadProfile getProfile() {
+        return profile;
+    }
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    public Duration getStartAfter() {
+        return startAfter;
+    }
+
+    public Duration getDuration() {
+        return duration;
+    }
+
+    public Duration getEnd() {
+        return startAfter.plus(duration);
+    }
+
+}
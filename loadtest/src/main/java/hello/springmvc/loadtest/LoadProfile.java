@@ -0,0 +1,134 @@
+package hello.springmvc.loadtest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * 가중치가 있는 요청 묶음
+ * 서블릿 모듈(8080)과 리액티브 모듈(8081)에 같은 프로파일을 그대로 실행해서 비교한다.
+ */
+public class LoadProfile {
+
+    static final String JSON = "application/json";
+    static final String FORM = "application/x-www-form-urlencoded";
+    static final String TEXT = "text/plain";
+    static final String HELLO_JSON = "{\"username\": \"hello\", \"age\": 20}";
+    static final String USER_A_JSON = "{\"username\": \"userA\", \"age\": 20}";
+
+    private static final Map<String, LoadProfile> PROFILES = new LinkedHashMap<>();
+
+    static {
+        register(common());
+        register(servlet());
+    }
+
+    private final String name;
+    private final List<LoadRequest> requests;
+    private final int totalWeight;
+
+    public LoadProfile(String name, List<LoadRequest> requests) {
+        this.name = name;
+        this.requests = Collections.unmodifiableList(new ArrayList<>(requests));
+        this.totalWeight = requests.stream().mapToInt(LoadRequest::getWeight).sum();
+    }
+
+    /**
+     * 두 모듈이 공통으로 제공하는 엔드포인트
+     * - RequestParamController, RequestBodyJsonController, RequestBodyStringController,
+     *   ResponseBodyController, MappingClassController
+     */
+    public static LoadProfile common() {
+        List<LoadRequest> requests = new ArrayList<>();
+
+        requests.add(LoadRequest.get("/request-param-v1?username=hello&age=20", 2));
+        requests.add(LoadRequest.get("/request-param-v2?username=hello&age=20", 2));
+        requests.add(LoadRequest.get("/request-param-v3?username=hello&age=20", 2));
+        requests.add(LoadRequest.get("/request-param-v4?username=hello&age=20", 2));
+        requests.add(LoadRequest.get("/request-param-required?username=hello", 1));
+        requests.add(LoadRequest.get("/request-param-default", 1));
+        requests.add(LoadRequest.post("/request-param-map", FORM, "username=hello&age=20", 2));
+
+        requests.add(LoadRequest.post("/request-body-json-v1", JSON, HELLO_JSON, 3));
+        requests.add(LoadRequest.post("/request-body-json-v2", JSON, HELLO_JSON, 3));
+        requests.add(LoadRequest.post("/request-body-json-v3", JSON, HELLO_JSON, 3));
+        requests.add(LoadRequest.post("/request-body-json-v4", JSON, HELLO_JSON, 3));
+        requests.add(LoadRequest.post("/request-body-json-v5", JSON, HELLO_JSON, 5));
+
+        requests.add(LoadRequest.post("/request-body-string-v1", TEXT, "hello", 2));
+        requests.add(LoadRequest.post("/request-body-string-v3", TEXT, "hello", 2));
+        requests.add(LoadRequest.post("/request-body-string-v4", TEXT, "hello", 2));
+
+        requests.add(LoadRequest.get("/response-body-string-v1", 2));
+        requests.add(LoadRequest.get("/response-body-string-v2", 2));
+        requests.add(LoadRequest.get("/response-body-string-v3", 2));
+        requests.add(LoadRequest.get("/response-body-json-v1", 4));
+        requests.add(LoadRequest.get("/response-body-json-v2", 4));
+
+        // user-store 가 켜진 서블릿 모듈은 없는 회원의 PATCH/DELETE 가 404 이므로 userA 를 바디로 만들어 두고,
+        // 지우면 뒤따르는 요청이 404 가 되므로 DELETE 는 순서를 정할 수 없는 가중치 묶음에 넣지 않는다
+        requests.add(LoadRequest.get("/mapping/users", 3));
+        requests.add(LoadRequest.post("/mapping/users", JSON, USER_A_JSON, 1));
+        requests.add(LoadRequest.get("/mapping/users/userA", 5));
+        requests.add(LoadRequest.of("PATCH", "/mapping/users/userA", JSON, "{\"age\": 21}", 1));
+
+        return new LoadProfile("common", requests);
+    }
+
+    /**
+     * common + 서블릿 모듈에만 있는 엔드포인트
+     * - RequestHeaderController, ModelAttributeController, MappingController, LogTestController
+     */
+    public static LoadProfile servlet() {
+        List<LoadRequest> requests = new ArrayList<>(common().getRequests());
+
+        requests.add(LoadRequest.get("/headers", 3));
+        requests.add(LoadRequest.get("/model-attribute-v1?username=hello&age=20", 2));
+        requests.add(LoadRequest.post("/model-attribute-v2", FORM, "username=hello&age=20", 2));
+        requests.add(LoadRequest.get("/hello-basic", 2));
+        requests.add(LoadRequest.get("/mapping-get-v1", 2));
+        requests.add(LoadRequest.get("/mapping-get-v2", 2));
+        requests.add(LoadRequest.get("/mapping/userA", 2));
+        requests.add(LoadRequest.get("/mapping/users/userA/orders/100", 2));
+        requests.add(LoadRequest.get("/mapping-param?mode=debug", 1));
+        requests.add(LoadRequest.post("/mapping-consume", JSON, HELLO_JSON, 1));
+        requests.add(LoadRequest.get("/log-test", 1));
+
+        return new LoadProfile("servlet", requests);
+    }
+
+    public static void register(LoadProfile profile) {
+        PROFILES.put(profile.getName(), profile);
+    }
+
+    public static LoadProfile find(String name) {
+        LoadProfile profile = PROFILES.get(name);
+        if (profile == null) {
+            throw new IllegalArgumentException("unknown profile: " + name + ", available=" + PROFILES.keySet());
+        }
+        return profile;
+    }
+
+    public LoadRequest next(Random random) {
+        int target = random.nextInt(totalWeight);
+        for (LoadRequest request : requests) {
+            target -= request.getWeight();
+            if (target < 0) {
+                return request;
+            }
+        }
+        return requests.get(requests.size() - 1);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<LoadRequest> getRequests() {
+        return requests;
+    }
+
+}
@@ -0,0 +1,85 @@
+package hello.springmvc.loadtest;
+
+import java.time.Duration;
+
+/**
+ * 부하 프로파일을 구성하는 요청 하나
+ * weight 비율로 선택된다.
+ */
+public class LoadRequest {
+
+    private final String name;
+    private final String method;
+    private final String path;
+    private final String contentType;
+    private final String body;
+    private final int weight;
+    private final Duration uploadTime;
+
+    private LoadRequest(String name, String method, String path, String contentType, String body, int weight,
+                        Duration uploadTime) {
+        this.name = name;
+        this.method = method;
+        this.path = path;
+        this.contentType = contentType;
+        this.body = body;
+        this.weight = weight;
+        this.uploadTime = uploadTime;
+    }
+
+    private LoadRequest(String name, String method, String path, String contentType, String body, int weight) {
+        this(name, method, path, contentType, body, weight, Duration.ZERO);
+    }
+
+    public static LoadRequest get(String path, int weight) {
+        return new LoadRequest("GET " + path, "GET", path, null, null, weight);
+    }
+
+    public static LoadRequest post(String path, String contentType, String body, int weight) {
+        return new LoadRequest("POST " + path, "POST", path, contentType, body, weight);
+    }
+
+    public static LoadRequest of(String method, String path, int weight) {
+        return new LoadRequest(method + " " + path, method, path, null, null, weight);
+    }
+
+    public static LoadRequest of(String method, String path, String contentType, String body, int weight) {
+        return new LoadRequest(method + " " + path, method, path, contentType, body, weight);
+    }
+
+    /**
+     * 바디를 uploadTime 동안 나눠서 보내는 요청 (PacedInputStream)
+     */
+    public LoadRequest withUploadTime(Duration uploadTime) {
+        return new LoadRequest(name, method, path, contentType, body, weight, uploadTime);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    public int getWeight() {
+        return weight;
+    }
+
+    public Duration getUploadTime() {
+        return uploadTime;
+    }
+
+}
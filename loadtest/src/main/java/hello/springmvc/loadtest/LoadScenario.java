@@ -0,0 +1,138 @@
+package hello.springmvc.loadtest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 여러 부하 구간(LoadPhase)을 겹쳐서 실행하는 시나리오
+ */
+public class LoadScenario {
+
+    private static final Map<String, LoadScenario> SCENARIOS = new LinkedHashMap<>();
+
+    static {
+        register(slowBurst());
+        register(bodyFlood());
+        register(jsonBatch());
+    }
+
+    private final String name;
+    private final List<LoadPhase> phases;
+    private final String monitorPath;
+
+    public LoadScenario(String name, List<LoadPhase> phases, String monitorPath) {
+        this.name = name;
+        this.phases = Collections.unmodifiableList(new ArrayList<>(phases));
+        this.monitorPath = monitorPath;
+    }
+
+    /**
+     * 하나의 프로파일을 고정된 동시성으로 실행
+     */
+    public static LoadScenario of(LoadProfile profile, int concurrency, Duration duration) {
+        List<LoadPhase> phases = new ArrayList<>();
+        phases.add(new LoadPhase(profile.getName(), profile, concurrency, Duration.ZERO, duration));
+        return new LoadScenario(profile.getName(), phases, null);
+    }
+
+    /**
+     * 느린 핸들러 폭주
+     * - 0초부터 60초까지 common 프로파일을 16개 워커로 계속 실행
+     * - 15초부터 20초 동안 200ms 걸리는 /internal/slow 를 150개 워커로 몰아서 호출
+     * AdaptiveExecutor 의 한도가 폭주 동안 늘어났다가 끝나면 다시 줄어드는지 /internal/executor 로 관찰한다.
+     * 서버는 adaptive-executor.enabled=true, adaptive-executor.slow-endpoint-enabled=true 로 실행해야 한다.
+     */
+    public static LoadScenario slowBurst() {
+        LoadProfile slow = new LoadProfile("slow", Collections.singletonList(
+            LoadRequest.get("/internal/slow?millis=200", 1)));
+
+        List<LoadPhase> phases = new ArrayList<>();
+        phases.add(new LoadPhase("background", LoadProfile.common(), 16, Duration.ZERO, Duration.ofSeconds(60)));
+        phases.add(new LoadPhase("slow-burst", slow, 150, Duration.ofSeconds(15), Duration.ofSeconds(20)));
+        return new LoadScenario("slow-burst", phases, "/internal/executor");
+    }
+
+    /**
+     * 큰 JSON 바디 폭주 중의 가벼운 GET 지연 시간
+     * - 0초부터 40초까지 가벼운 GET(/mapping-get-v1, /hello-basic, /mapping/users/{userId})을 8개 워커로 실행
+     *   (폭주 전 10초, 폭주 중 20초, 폭주 후 10초를 구간별로 따로 집계)
+     * - 10초부터 20초 동안 256KB JSON 바디를 /request-body-json-v1 에 250개 워커로 몰아서 전송
+     *   바디는 느린 클라이언트처럼 2초에 걸쳐 나눠 보낸다. 요청마다 Tomcat 스레드를 오래 붙잡는 것이 문제 상황이다.
+     * bulkhead.enabled=true/false 로 각각 실행해서 light-during 구간의 p99를 비교한다.
+     * 폭주 구간의 거절(503)은 errors 로 집계되고, 워커는 Retry-After 만큼 쉬었다가 다시 보낸다.
+     */
+    public static LoadScenario bodyFlood() {
+        LoadProfile light = new LoadProfile("light", Arrays.asList(
+            LoadRequest.get("/mapping-get-v1", 1),
+            LoadRequest.get("/hello-basic", 1),
+            LoadRequest.get("/mapping/users/userA", 1)));
+        String largeJson = "{\"username\": \"" + "a".repeat(256 * 1024) + "\", \"age\": 20}";
+        LoadProfile flood = new LoadProfile("body-flood", Collections.singletonList(
+            LoadRequest.post("/request-body-json-v1", LoadProfile.JSON, largeJson, 1)
+                .withUploadTime(Duration.ofSeconds(2))));
+
+        List<LoadPhase> phases = new ArrayList<>();
+        phases.add(new LoadPhase("light-before", light, 8, Duration.ZERO, Duration.ofSeconds(10)));
+        phases.add(new LoadPhase("light-during", light, 8, Duration.ofSeconds(10), Duration.ofSeconds(20)));
+        phases.add(new LoadPhase("light-after", light, 8, Duration.ofSeconds(30), Duration.ofSeconds(10)));
+        phases.add(new LoadPhase("body-flood", flood, 250, Duration.ofSeconds(10), Duration.ofSeconds(20)));
+        return new LoadScenario("body-flood", phases, "/internal/bulkheads");
+    }
+
+    /**
+     * HelloData 를 하나씩 보낼 때와 배열로 묶어 보낼 때의 처리량, 지연 시간
+     * - 15초씩 차례로 /request-body-json-v5 (항목 1개) 와 /request-body-json-v5/batch (항목 10, 50, 200개) 를 8개 워커로 실행
+     *   (워커 수는 body 벌크헤드의 max-concurrent 와 같게 둔다)
+     * 구간마다 항목 처리량은 req/s x 항목 수, 지연 시간은 배치 하나가 끝날 때까지의 시간이다.
+     * 서버는 json-batch.enabled=true 로 실행하고, 끝난 뒤 /internal/json-batch 로 배치 수와 실패 항목 수를 확인한다.
+     */
+    public static LoadScenario jsonBatch() {
+        List<LoadPhase> phases = new ArrayList<>();
+        phases.add(new LoadPhase("single", new LoadProfile("single", Collections.singletonList(
+            LoadRequest.post("/request-body-json-v5", LoadProfile.JSON, LoadProfile.HELLO_JSON, 1))),
+            8, Duration.ZERO, Duration.ofSeconds(15)));
+        int start = 15;
+        for (int items : new int[]{10, 50, 200}) {
+            String body = "[" + String.join(",", Collections.nCopies(items, LoadProfile.HELLO_JSON)) + "]";
+            LoadProfile batch = new LoadProfile("batch-" + items, Collections.singletonList(
+                LoadRequest.post("/request-body-json-v5/batch", LoadProfile.JSON, body, 1)));
+            phases.add(new LoadPhase("batch-" + items, batch, 8, Duration.ofSeconds(start), Duration.ofSeconds(15)));
+            start += 15;
+        }
+        return new LoadScenario("json-batch", phases, "/internal/json-batch");
+    }
+
+    public static void register(LoadScenario scenario) {
+        SCENARIOS.put(scenario.getName(), scenario);
+    }
+
+    public static LoadScenario find(String name) {
+        LoadScenario scenario = SCENARIOS.get(name);
+        if (scenario == null) {
+            throw new IllegalArgumentException("unknown scenario: " + name + ", available=" + SCENARIOS.keySet());
+        }
+        return scenario;
+    }
+
+    public Duration getDuration() {
+        return phases.stream().map(LoadPhase::getEnd).max(Duration::compareTo).orElse(Duration.ZERO);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<LoadPhase> getPhases() {
+        return phases;
+    }
+
+    public String getMonitorPath() {
+        return monitorPath;
+    }
+
+}
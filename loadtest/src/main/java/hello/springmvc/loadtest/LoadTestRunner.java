@@ -0,0 +1,267 @@
+package hello.springmvc.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 같은 부하 프로파일을 서블릿 모듈과 리액티브 모듈에 각각 실행해서
+ * 처리량(req/s), 지연 시간(p50/p90/p99/max), 메모리(RSS)를 비교한다.
+ *
+ * 예)
+ * ./gradlew :loadtest:run --args="--base-url=http://localhost:8080 --pid=12345"
+ * ./gradlew :loadtest:run --args="--base-url=http://localhost:8081 --pid=12346"
+ * ./gradlew :loadtest:run --args="--scenario=slow-burst"
+ *
+ * 옵션
+ * --base-url     대상 서버 (기본 http://localhost:8080)
+ * --profile      부하 프로파일 이름 (기본 common)
+ * --scenario     여러 구간을 겹쳐서 실행하는 시나리오 이름, 지정하면 --profile, --duration은 무시
+ * --concurrency  동시에 요청을 보내는 워커 수 (기본 32)
+ * --warmup       측정 전에 버리는 워밍업 시간(초) (기본 10)
+ * --duration     측정 시간(초) (기본 30)
+ * --pid          대상 서버 프로세스 id, 지정하면 RSS를 함께 출력
+ * --server-report 서버 측 통계 경로(쉼표로 여러 개), 측정 전에 DELETE로 초기화하고 끝나면 GET 결과를 출력
+ *                예) --server-report=/internal/handler-cost
+ */
+public class LoadTestRunner {
+
+    private final HttpClient client = HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_1_1)
+        .connectTimeout(Duration.ofSeconds(5))
+        .build();
+
+    private final String baseUrl;
+
+    public LoadTestRunner(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        String baseUrl = options.getOrDefault("base-url", "http://localhost:8080");
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "32"));
+        long warmup = Long.parseLong(options.getOrDefault("warmup", "10"));
+        long duration = Long.parseLong(options.getOrDefault("duration", "30"));
+        ProcessMemory memory = options.containsKey("pid") ? new ProcessMemory(Long.parseLong(options.get("pid"))) : null;
+        String[] serverReports = options.containsKey("server-report") ? options.get("server-report").split(",") : new String[0];
+
+        LoadScenario scenario = options.containsKey("scenario")
+            ? LoadScenario.find(options.get("scenario"))
+            : LoadScenario.of(LoadProfile.find(options.getOrDefault("profile", "common")),
+                concurrency, Duration.ofSeconds(duration));
+
+        LoadTestRunner runner = new LoadTestRunner(baseUrl);
+
+        System.out.printf("target=%s scenario=%s warmup=%ds duration=%ds%n",
+            baseUrl, scenario.getName(), warmup, scenario.getDuration().getSeconds());
+        long rssBefore = memory != null ? memory.rssKb() : -1;
+
+        if (warmup > 0) {
+            LoadPhase first = scenario.getPhases().get(0);
+            runner.run(LoadScenario.of(first.getProfile(), first.getConcurrency(), Duration.ofSeconds(warmup)));
+        }
+        for (String path : serverReports) {
+            runner.send("DELETE", path);
+        }
+        Map<String, Map<String, LatencyRecorder>> result = runner.run(scenario);
+
+        for (LoadPhase phase : scenario.getPhases()) {
+            System.out.printf("%n[%s] concurrency=%d start=%ds duration=%ds%n", phase.getName(),
+                phase.getConcurrency(), phase.getStartAfter().getSeconds(), phase.getDuration().getSeconds());
+            print(result.get(phase.getName()), phase.getDuration().getSeconds());
+        }
+        if (memory != null) {
+            System.out.printf("rss before=%dkB after=%dkB peak=%dkB%n", rssBefore, memory.rssKb(), memory.peakRssKb());
+        }
+        for (String path : serverReports) {
+            System.out.printf("%n[server %s]%n%s%n", path, runner.send("GET", path));
+        }
+    }
+
+    /**
+     * 시나리오의 모든 구간을 동시에 시작하고, 모니터 경로가 있으면 1초마다 조회해서 출력한다.
+     * @return 구간 이름 -> 요청 이름별 지연 시간 기록
+     */
+    public Map<String, Map<String, LatencyRecorder>> run(LoadScenario scenario) throws Exception {
+        long start = System.nanoTime();
+        int workerCount = scenario.getPhases().stream().mapToInt(LoadPhase::getConcurrency).sum();
+        ExecutorService workers = Executors.newFixedThreadPool(workerCount);
+        ScheduledExecutorService monitor = Executors.newSingleThreadScheduledExecutor();
+        try {
+            if (scenario.getMonitorPath() != null) {
+                monitor.scheduleAtFixedRate(() -> monitor(scenario.getMonitorPath(), start), 0, 1, TimeUnit.SECONDS);
+            }
+
+            Map<String, List<Future<Map<String, LatencyRecorder>>>> futures = new LinkedHashMap<>();
+            for (LoadPhase phase : scenario.getPhases()) {
+                long phaseStart = start + phase.getStartAfter().toNanos();
+                long deadline = start + phase.getEnd().toNanos();
+                List<Future<Map<String, LatencyRecorder>>> phaseFutures = new ArrayList<>();
+                for (int i = 0; i < phase.getConcurrency(); i++) {
+                    phaseFutures.add(workers.submit(() -> work(phase.getProfile(), phaseStart, deadline)));
+                }
+                futures.put(phase.getName(), phaseFutures);
+            }
+
+            Map<String, Map<String, LatencyRecorder>> result = new LinkedHashMap<>();
+            for (Map.Entry<String, List<Future<Map<String, LatencyRecorder>>>> entry : futures.entrySet()) {
+                Map<String, LatencyRecorder> merged = new TreeMap<>();
+                for (Future<Map<String, LatencyRecorder>> future : entry.getValue()) {
+                    future.get().forEach((name, recorder) ->
+                        merged.computeIfAbsent(name, key -> new LatencyRecorder()).merge(recorder));
+                }
+                result.put(entry.getKey(), merged);
+            }
+            return result;
+        } finally {
+            monitor.shutdownNow();
+            workers.shutdownNow();
+        }
+    }
+
+    private Map<String, LatencyRecorder> work(LoadProfile profile, long startAt, long deadline) throws InterruptedException {
+        Map<String, LatencyRecorder> recorders = new HashMap<>();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        long wait = startAt - System.nanoTime();
+        if (wait > 0) {
+            TimeUnit.NANOSECONDS.sleep(wait);
+        }
+
+        while (System.nanoTime() < deadline) {
+            LoadRequest request = profile.next(random);
+            LatencyRecorder recorder = recorders.computeIfAbsent(request.getName(), key -> new LatencyRecorder());
+
+            long start = System.nanoTime();
+            try {
+                HttpResponse<Void> response = client.send(toHttpRequest(request), HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() >= 400) {
+                    recorder.error();
+                    backOff(response, deadline);
+                    continue;
+                }
+                recorder.record(System.nanoTime() - start);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                recorder.error();
+            }
+        }
+        return recorders;
+    }
+
+    /**
+     * 거절 응답에 Retry-After(초) 가 있으면 그만큼 쉬었다가 다시 보낸다. (바로 재시도하면 거절 자체가 부하가 된다)
+     */
+    private static void backOff(HttpResponse<?> response, long deadline) throws InterruptedException {
+        OptionalLong retryAfter = response.headers().firstValueAsLong("Retry-After");
+        if (retryAfter.isEmpty()) {
+            return;
+        }
+        long sleep = Math.min(TimeUnit.SECONDS.toNanos(retryAfter.getAsLong()), deadline - System.nanoTime());
+        if (sleep > 0) {
+            TimeUnit.NANOSECONDS.sleep(sleep);
+        }
+    }
+
+    private void monitor(String path, long start) {
+        long elapsed = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start);
+        System.out.printf("t=%3ds %s%n", elapsed, send("GET", path));
+    }
+
+    /**
+     * 서버 측 통계 조회/초기화 용도의 단건 요청
+     * @return 응답 바디, 실패하면 실패 사유
+     */
+    String send(String method, String path) {
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(5))
+                .method(method, HttpRequest.BodyPublishers.noBody())
+                .build();
+            return client.send(request, HttpResponse.BodyHandlers.ofString()).body();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return "interrupted";
+        } catch (Exception e) {
+            return "failed: " + e;
+        }
+    }
+
+    private HttpRequest toHttpRequest(LoadRequest request) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + request.getPath()))
+            .timeout(Duration.ofSeconds(30));
+        if (request.getContentType() != null) {
+            builder.header("Content-Type", request.getContentType());
+        }
+        HttpRequest.BodyPublisher body;
+        if (request.getBody() == null) {
+            body = HttpRequest.BodyPublishers.noBody();
+        } else if (request.getUploadTime().isZero()) {
+            body = HttpRequest.BodyPublishers.ofString(request.getBody());
+        } else {
+            byte[] bytes = request.getBody().getBytes(StandardCharsets.UTF_8);
+            body = HttpRequest.BodyPublishers.fromPublisher(HttpRequest.BodyPublishers.ofInputStream(
+                () -> new PacedInputStream(bytes, request.getUploadTime())), bytes.length);
+        }
+        return builder.method(request.getMethod(), body).build();
+    }
+
+    static void print(Map<String, LatencyRecorder> result, long durationSeconds) {
+        LatencyRecorder total = new LatencyRecorder();
+        System.out.printf("%-45s %9s %9s %9s %9s %9s %9s %7s%n",
+            "request", "count", "req/s", "p50(ms)", "p90(ms)", "p99(ms)", "max(ms)", "errors");
+        result.forEach((name, recorder) -> {
+            printRow(name, recorder, durationSeconds);
+            total.merge(recorder);
+        });
+        printRow("TOTAL", total, durationSeconds);
+    }
+
+    private static void printRow(String name, LatencyRecorder recorder, long durationSeconds) {
+        System.out.printf("%-45s %9d %9.1f %9.2f %9.2f %9.2f %9.2f %7d%n",
+            name,
+            recorder.getCount(),
+            (double) recorder.getCount() / durationSeconds,
+            millis(recorder.percentile(50)),
+            millis(recorder.percentile(90)),
+            millis(recorder.percentile(99)),
+            millis(recorder.percentile(100)),
+            recorder.getErrors());
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("option must be --key=value: " + arg);
+            }
+            int separator = arg.indexOf('=');
+            options.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        return options;
+    }
+
+}
@@ -0,0 +1,57 @@
+package hello.springmvc.loadtest;
+
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 바디를 duration 동안 일정한 속도로 나눠서 내보낸다. (느린 네트워크의 업로드 흉내)
+ * 서버 입장에서는 바디를 다 받을 때까지 요청 처리 스레드가 묶여 있게 된다.
+ */
+class PacedInputStream extends InputStream {
+
+    private static final int CHUNK_SIZE = 8 * 1024;
+
+    private final byte[] data;
+    private final long durationNanos;
+    private long startNanos = -1;
+    private int position;
+
+    PacedInputStream(byte[] data, Duration duration) {
+        this.data = data;
+        this.durationNanos = duration.toNanos();
+    }
+
+    @Override
+    public int read() throws InterruptedIOException {
+        byte[] one = new byte[1];
+        return read(one, 0, 1) == -1 ? -1 : one[0] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws InterruptedIOException {
+        if (position >= data.length) {
+            return -1;
+        }
+        if (startNanos < 0) {
+            startNanos = System.nanoTime();
+        }
+        // position 바이트를 보낸 시점이 전체 시간 중 어디쯤이어야 하는지 계산해서 그때까지 기다린다
+        long due = startNanos + (long) ((double) position / data.length * durationNanos);
+        long wait = due - System.nanoTime();
+        if (wait > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException();
+            }
+        }
+        int count = Math.min(Math.min(length, CHUNK_SIZE), data.length - position);
+        System.arraycopy(data, position, buffer, offset, count);
+        position += count;
+        return count;
+    }
+
+}
@@ -0,0 +1,73 @@
+package hello.springmvc.loadtest;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 대상 서버 프로세스의 메모리 사용량을 /proc/{pid}/status 에서 읽는다 (리눅스 전용)
+ * - VmRSS: 현재 상주 메모리
+ * - VmHWM: 프로세스 시작 이후 최대 상주 메모리
+ * 자바 힙의 살아 있는 객체 크기는 jcmd GC.class_histogram 의 합계에서 읽는다.
+ */
+public class ProcessMemory {
+
+    /** 히스토그램 마지막 줄 "Total   123456   7890123" (인스턴스 수, 바이트) */
+    private static final Pattern HISTOGRAM_TOTAL = Pattern.compile("Total\\s+\\d+\\s+(\\d+)");
+
+    private final long pid;
+    private final Path status;
+
+    public ProcessMemory(long pid) {
+        this.pid = pid;
+        this.status = Paths.get("/proc", String.valueOf(pid), "status");
+    }
+
+    public long rssKb() {
+        return read("VmRSS:");
+    }
+
+    public long peakRssKb() {
+        return read("VmHWM:");
+    }
+
+    /**
+     * 살아 있는 객체 크기
+     * GC.class_histogram 은 full GC 를 하고 그 시점의 객체만 센다. GC.run 후 GC.heap_info 를 따로 읽으면
+     * 그 사이에 새로 할당된 eden 이 섞이므로 쓰지 않는다. 대상 프로세스를 멈추므로 시간 측정과 같이 쓰면 안 된다.
+     */
+    public long liveHeapKb() throws IOException, InterruptedException {
+        Matcher matcher = HISTOGRAM_TOTAL.matcher(jcmd("GC.class_histogram"));
+        if (!matcher.find()) {
+            throw new IOException("no Total line in GC.class_histogram");
+        }
+        return Long.parseLong(matcher.group(1)) / 1024;
+    }
+
+    private String jcmd(String command) throws IOException, InterruptedException {
+        Process process = new ProcessBuilder("jcmd", String.valueOf(pid), command).redirectErrorStream(true).start();
+        String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        if (process.waitFor() != 0) {
+            throw new IOException("jcmd " + command + " failed: " + output);
+        }
+        return output;
+    }
+
+    private long read(String key) {
+        try {
+            for (String line : Files.readAllLines(status)) {
+                if (line.startsWith(key)) {
+                    return Long.parseLong(line.substring(key.length()).replace("kB", "").trim());
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            return -1;
+        }
+        return -1;
+    }
+
+}
@@ -0,0 +1,35 @@
+package hello.springmvc.reactive;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+/**
+ * MappingClassController 와 같은 의미로 동작하는 핸들러
+ * (/mapping/users/test 는 서블릿 모듈에서도 @PathVariable이 없어 항상 실패하므로 제외)
+ */
+@Component
+public class MappingClassHandler {
+
+    public Mono<ServerResponse> users(ServerRequest request) {
+        return ServerResponse.ok().bodyValue("get users");
+    }
+
+    public Mono<ServerResponse> addUser(ServerRequest request) {
+        return ServerResponse.ok().bodyValue("post user");
+    }
+
+    public Mono<ServerResponse> findUser(ServerRequest request) {
+        return ServerResponse.ok().bodyValue("get userId = " + request.pathVariable("userId"));
+    }
+
+    public Mono<ServerResponse> updateUser(ServerRequest request) {
+        return ServerResponse.ok().bodyValue("update userId=" + request.pathVariable("userId"));
+    }
+
+    public Mono<ServerResponse> deleteUser(ServerRequest request) {
+        return ServerResponse.ok().bodyValue("delete userId = " + request.pathVariable("userId"));
+    }
+
+}
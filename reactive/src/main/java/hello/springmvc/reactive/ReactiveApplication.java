@@ -0,0 +1,17 @@
+package hello.springmvc.reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+/**
+ * 서블릿 기반 springmvc 애플리케이션의 엔드포인트를
+ * WebFlux 함수형 라우터로 다시 구현한 비교용 애플리케이션
+ */
+@SpringBootApplication
+public class ReactiveApplication {
+
+	public static void main(String[] args) {
+		SpringApplication.run(ReactiveApplication.class, args);
+	}
+
+}
@@ -0,0 +1,68 @@
+package hello.springmvc.reactive;
+
+import static org.springframework.web.reactive.function.server.RequestPredicates.DELETE;
+import static org.springframework.web.reactive.function.server.RequestPredicates.GET;
+import static org.springframework.web.reactive.function.server.RequestPredicates.PATCH;
+import static org.springframework.web.reactive.function.server.RequestPredicates.POST;
+import static org.springframework.web.reactive.function.server.RequestPredicates.path;
+import static org.springframework.web.reactive.function.server.RouterFunctions.route;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+/**
+ * 서블릿 모듈의 컨트롤러와 같은 URL, 같은 HTTP 메서드로 라우팅한다.
+ * - @RequestMapping 처럼 메서드 제한이 없던 URL은 path()로 모든 메서드를 허용
+ * - @GetMapping, @PostMapping 등은 GET(), POST() 로 동일하게 제한
+ */
+@Configuration
+public class ReactiveRouter {
+
+    @Bean
+    public RouterFunction<ServerResponse> requestParamRoutes(RequestParamHandler handler) {
+        return route(path("/request-param-v1"), handler::requestParamV1)
+            .andRoute(path("/request-param-v2"), handler::requestParamV2)
+            .andRoute(path("/request-param-v3"), handler::requestParamV3)
+            .andRoute(path("/request-param-v4"), handler::requestParamV4)
+            .andRoute(path("/request-param-required"), handler::requestParamRequired)
+            .andRoute(path("/request-param-default"), handler::requestParamDefault)
+            .andRoute(path("/request-param-map"), handler::requestParamMap);
+    }
+
+    @Bean
+    public RouterFunction<ServerResponse> requestBodyJsonRoutes(RequestBodyJsonHandler handler) {
+        return route(POST("/request-body-json-v1"), handler::requestBodyJsonV1)
+            .andRoute(POST("/request-body-json-v2"), handler::requestBodyJsonV2)
+            .andRoute(POST("/request-body-json-v3"), handler::requestBodyJsonV3)
+            .andRoute(POST("/request-body-json-v4"), handler::requestBodyJsonV4)
+            .andRoute(POST("/request-body-json-v5"), handler::requestBodyJsonV5);
+    }
+
+    @Bean
+    public RouterFunction<ServerResponse> requestBodyStringRoutes(RequestBodyStringHandler handler) {
+        return route(POST("/request-body-string-v1"), handler::requestBodyString)
+            .andRoute(POST("/request-body-string-v3"), handler::requestBodyStringV3)
+            .andRoute(POST("/request-body-string-v4"), handler::requestBodyStringV4);
+    }
+
+    @Bean
+    public RouterFunction<ServerResponse> responseBodyRoutes(ResponseBodyHandler handler) {
+        return route(GET("/response-body-string-v1"), handler::responseBodyV1)
+            .andRoute(GET("/response-body-string-v2"), handler::responseBodyV2)
+            .andRoute(GET("/response-body-string-v3"), handler::responseBodyV3)
+            .andRoute(GET("/response-body-json-v1"), handler::responseBodyJsonV1)
+            .andRoute(GET("/response-body-json-v2"), handler::responseBodyJsonV2);
+    }
+
+    @Bean
+    public RouterFunction<ServerResponse> mappingClassRoutes(MappingClassHandler handler) {
+        return route(GET("/mapping/users"), handler::users)
+            .andRoute(POST("/mapping/users"), handler::addUser)
+            .andRoute(GET("/mapping/users/{userId}"), handler::findUser)
+            .andRoute(PATCH("/mapping/users/{userId}"), handler::updateUser)
+            .andRoute(DELETE("/mapping/users/{userId}"), handler::deleteUser);
+    }
+
+}
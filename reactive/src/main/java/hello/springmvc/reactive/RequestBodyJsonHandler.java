@@ -0,0 +1,101 @@
+package hello.springmvc.reactive;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hello.springmvc.basic.HelloData;
+import java.io.IOException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ServerWebInputException;
+import reactor.core.publisher.Mono;
+
+/**
+ * RequestBodyJsonController 와 같은 의미로 동작하는 핸들러
+ * {"username": "hello", "age": 20}
+ * content-type: application/json
+ *
+ * 바디가 비어 있거나 HelloData 로 변환할 수 없으면 400 (서블릿의 필수 @RequestBody, HttpMessageNotReadableException 과 같다)
+ */
+@Slf4j
+@Component
+public class RequestBodyJsonHandler {
+
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * 메시지 바디를 문자로 읽고 objectMapper로 직접 변환 (content-type 확인 X)
+     */
+    public Mono<ServerResponse> requestBodyJsonV1(ServerRequest request) {
+        return body(request).flatMap(messageBody -> {
+            log.info("messageBody= {}", messageBody);
+            HelloData data = readValue(messageBody);
+            log.info("username={}, age={}", data.getUsername(), data.getAge());
+            return ok();
+        });
+    }
+
+    public Mono<ServerResponse> requestBodyJsonV2(ServerRequest request) {
+        return body(request).flatMap(messageBody -> {
+            HelloData data = readValue(messageBody);
+            log.info("username={}, age={}", data.getUsername(), data.getAge());
+            return ok();
+        });
+    }
+
+    /**
+     * HTTP 메시지 리더(Jackson2JsonDecoder)가 바로 객체로 변환
+     */
+    public Mono<ServerResponse> requestBodyJsonV3(ServerRequest request) {
+        return helloData(request).flatMap(data -> {
+            log.info("username={} , age={}", data.getUsername(), data.getAge());
+            return ok();
+        });
+    }
+
+    public Mono<ServerResponse> requestBodyJsonV4(ServerRequest request) {
+        return helloData(request).flatMap(data -> {
+            log.info("username={}, age={}", data.getUsername(), data.getAge());
+            return ok();
+        });
+    }
+
+    /**
+     * JSON 요청 -> 객체 -> JSON 응답
+     */
+    public Mono<ServerResponse> requestBodyJsonV5(ServerRequest request) {
+        return helloData(request).flatMap(data -> {
+            log.info("username={}, age={}", data.getUsername(), data.getAge());
+            return ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(data);
+        });
+    }
+
+    private static Mono<String> body(ServerRequest request) {
+        return request.bodyToMono(String.class).switchIfEmpty(Mono.error(RequestBodyJsonHandler::missingBody));
+    }
+
+    private static Mono<HelloData> helloData(ServerRequest request) {
+        return request.bodyToMono(HelloData.class)
+            .onErrorMap(DecodingException.class, e -> new ServerWebInputException("JSON parse error", null, e))
+            .switchIfEmpty(Mono.error(RequestBodyJsonHandler::missingBody));
+    }
+
+    private static ServerWebInputException missingBody() {
+        return new ServerWebInputException("Required request body is missing");
+    }
+
+    private HelloData readValue(String messageBody) {
+        try {
+            return objectMapper.readValue(messageBody, HelloData.class);
+        } catch (IOException e) {
+            throw new ServerWebInputException("JSON parse error", null, e);
+        }
+    }
+
+    private static Mono<ServerResponse> ok() {
+        return ServerResponse.ok().bodyValue("OK");
+    }
+
+}
@@ -0,0 +1,45 @@
+package hello.springmvc.reactive;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+/**
+ * RequestBodyStringController 와 같은 의미로 동작하는 핸들러
+ * (v2는 서블릿 모듈에도 매핑이 없으므로 제외)
+ */
+@Slf4j
+@Component
+public class RequestBodyStringHandler {
+
+    public Mono<ServerResponse> requestBodyString(ServerRequest request) {
+        return request.bodyToMono(String.class).defaultIfEmpty("").flatMap(messageBody -> {
+            log.info("messageBody={}", messageBody);
+            return ok();
+        });
+    }
+
+    public Mono<ServerResponse> requestBodyStringV3(ServerRequest request) {
+        return request.bodyToMono(String.class).defaultIfEmpty("").flatMap(messageBody -> {
+            log.info("messageBody = {}", messageBody);
+            return ok();
+        });
+    }
+
+    /**
+     * @RequestBody String 은 바디가 필수
+     */
+    public Mono<ServerResponse> requestBodyStringV4(ServerRequest request) {
+        return request.bodyToMono(String.class).flatMap(messageBody -> {
+            log.info("messageBody = {}", messageBody);
+            return ok();
+        }).switchIfEmpty(ServerResponse.badRequest().build());
+    }
+
+    private static Mono<ServerResponse> ok() {
+        return ServerResponse.ok().bodyValue("OK");
+    }
+
+}
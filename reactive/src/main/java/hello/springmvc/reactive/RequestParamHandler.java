@@ -0,0 +1,120 @@
+package hello.springmvc.reactive;
+
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MultiValueMap;
+import org.springframework.util.StringUtils;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ServerWebInputException;
+import reactor.core.publisher.Mono;
+
+/**
+ * RequestParamController 와 같은 의미로 동작하는 핸들러
+ */
+@Slf4j
+@Component
+public class RequestParamHandler {
+
+    /**
+     * request.getParameter() 와 Integer.parseInt() 를 그대로 사용 (age가 없거나 숫자가 아니면 400)
+     */
+    public Mono<ServerResponse> requestParamV1(ServerRequest request) {
+        return RequestParams.of(request).flatMap(params -> {
+            String username = params.getFirst("username");
+            int age = toInt("age", params.getFirst("age"));
+            log.info("username={}, age={}", username, age);
+            return ok();
+        });
+    }
+
+    /**
+     * @RequestParam("username"), @RequestParam("age") - 둘 다 필수
+     */
+    public Mono<ServerResponse> requestParamV2(ServerRequest request) {
+        return RequestParams.of(request).flatMap(params -> {
+            String memberName = required(params, "username");
+            int memberAge = toInt("age", required(params, "age"));
+            log.info("username={}, age={}", memberName, memberAge);
+            return ok();
+        });
+    }
+
+    public Mono<ServerResponse> requestParamV3(ServerRequest request) {
+        return requestParamV2(request);
+    }
+
+    /**
+     * @RequestParam 생략 - 단순 타입은 required=false
+     */
+    public Mono<ServerResponse> requestParamV4(ServerRequest request) {
+        return RequestParams.of(request).flatMap(params -> {
+            String username = params.getFirst("username");
+            int age = toInt("age", params.getFirst("age"));
+            log.info("username={}, age={}", username, age);
+            return ok();
+        });
+    }
+
+    /**
+     * username 필수, age 선택 (빈 문자는 통과)
+     */
+    public Mono<ServerResponse> requestParamRequired(ServerRequest request) {
+        return RequestParams.of(request).flatMap(params -> {
+            String username = required(params, "username");
+            String age = params.getFirst("age");
+            log.info("username={}, age={}", username, StringUtils.hasText(age) ? toInt("age", age) : null);
+            return ok();
+        });
+    }
+
+    /**
+     * defaultValue는 빈 문자의 경우에도 적용
+     */
+    public Mono<ServerResponse> requestParamDefault(ServerRequest request) {
+        return RequestParams.of(request).flatMap(params -> {
+            String username = defaultValue(params, "username", "guest");
+            int age = toInt("age", defaultValue(params, "age", "-1"));
+            log.info("username={}, age={}", username, age);
+            return ok();
+        });
+    }
+
+    public Mono<ServerResponse> requestParamMap(ServerRequest request) {
+        return RequestParams.of(request).flatMap(params -> {
+            Map<String, String> paramMap = params.toSingleValueMap();
+            log.info("username={}, age={}", paramMap.get("username"), paramMap.get("age"));
+            return ok();
+        });
+    }
+
+    private static String required(MultiValueMap<String, String> params, String name) {
+        String value = params.getFirst(name);
+        if (value == null) {
+            throw new ServerWebInputException("Required request parameter '" + name + "' is not present");
+        }
+        return value;
+    }
+
+    /**
+     * @RequestParam int 변환 실패(TypeMismatchException)와 같이 400
+     */
+    private static int toInt(String name, String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new ServerWebInputException("Failed to convert request parameter '" + name + "' to int", null, e);
+        }
+    }
+
+    private static String defaultValue(MultiValueMap<String, String> params, String name, String defaultValue) {
+        String value = params.getFirst(name);
+        return StringUtils.hasLength(value) ? value : defaultValue;
+    }
+
+    private static Mono<ServerResponse> ok() {
+        return ServerResponse.ok().bodyValue("OK");
+    }
+
+}
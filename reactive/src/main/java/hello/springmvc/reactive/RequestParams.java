@@ -0,0 +1,26 @@
+package hello.springmvc.reactive;
+
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import reactor.core.publisher.Mono;
+
+/**
+ * 서블릿의 request.getParameter()는 쿼리 파라미터와 HTML Form 바디를 함께 조회한다.
+ * WebFlux는 두 가지를 따로 제공하므로 같은 의미가 되도록 합쳐서 돌려준다.
+ */
+abstract class RequestParams {
+
+    private RequestParams() {
+    }
+
+    static Mono<MultiValueMap<String, String>> of(ServerRequest request) {
+        // formData()는 content-type이 application/x-www-form-urlencoded가 아니면 빈 맵을 돌려준다
+        return request.formData().map(form -> {
+            MultiValueMap<String, String> params = new LinkedMultiValueMap<>(request.queryParams());
+            params.addAll(form);
+            return params;
+        });
+    }
+
+}
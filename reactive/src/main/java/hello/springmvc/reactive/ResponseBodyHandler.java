@@ -0,0 +1,44 @@
+package hello.springmvc.reactive;
+
+import hello.springmvc.basic.HelloData;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+/**
+ * ResponseBodyController 와 같은 의미로 동작하는 핸들러
+ */
+@Component
+public class ResponseBodyHandler {
+
+    public Mono<ServerResponse> responseBodyV1(ServerRequest request) {
+        return ServerResponse.ok().bodyValue("OK");
+    }
+
+    public Mono<ServerResponse> responseBodyV2(ServerRequest request) {
+        return ServerResponse.status(HttpStatus.OK).bodyValue("OK");
+    }
+
+    public Mono<ServerResponse> responseBodyV3(ServerRequest request) {
+        return ServerResponse.ok().bodyValue("OK");
+    }
+
+    public Mono<ServerResponse> responseBodyJsonV1(ServerRequest request) {
+        return ServerResponse.status(HttpStatus.OK).contentType(MediaType.APPLICATION_JSON).bodyValue(helloData());
+    }
+
+    public Mono<ServerResponse> responseBodyJsonV2(ServerRequest request) {
+        return ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(helloData());
+    }
+
+    private static HelloData helloData() {
+        HelloData helloData = new HelloData();
+        helloData.setUsername("userA");
+        helloData.setAge(20);
+        return helloData;
+    }
+
+}
@@ -0,0 +1,52 @@
+package hello.springmvc.reactive;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+class ReactiveRouterTest {
+
+    ReactiveRouter router = new ReactiveRouter();
+    WebTestClient client = WebTestClient.bindToRouterFunction(
+        router.requestBodyJsonRoutes(new RequestBodyJsonHandler())
+            .and(router.requestParamRoutes(new RequestParamHandler()))).build();
+
+    @Test
+    void emptyJsonBodyIs400() {
+        for (String path : new String[]{"/request-body-json-v1", "/request-body-json-v3"}) {
+            client.post().uri(path).contentType(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isBadRequest();
+        }
+    }
+
+    @Test
+    void undecodableJsonBodyIs400() {
+        for (String path : new String[]{"/request-body-json-v1", "/request-body-json-v3"}) {
+            client.post().uri(path).contentType(MediaType.APPLICATION_JSON).bodyValue("{\"age\": \"twenty\"}")
+                .exchange()
+                .expectStatus().isBadRequest();
+        }
+    }
+
+    @Test
+    void validJsonBodyIsEchoed() {
+        client.post().uri("/request-body-json-v5").contentType(MediaType.APPLICATION_JSON)
+            .bodyValue("{\"username\": \"hello\", \"age\": 20}")
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody().json("{\"username\": \"hello\", \"age\": 20}");
+    }
+
+    @Test
+    void badOrMissingIntParamIs400() {
+        client.get().uri("/request-param-v1?username=hello&age=twenty").exchange().expectStatus().isBadRequest();
+        client.get().uri("/request-param-v1?username=hello").exchange().expectStatus().isBadRequest();
+        client.get().uri("/request-param-v2?username=hello").exchange().expectStatus().isBadRequest();
+        client.get().uri("/request-param-default?age=").exchange().expectStatus().isOk();
+        client.get().uri("/request-param-v1?username=hello&age=20").exchange()
+            .expectStatus().isOk()
+            .expectBody(String.class).isEqualTo("OK");
+    }
+
+}
@@ -0,0 +1,137 @@
+package hello.springmvc.constant;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import hello.springmvc.negotiation.HeaderCache;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import javax.servlet.http.HttpServletResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.StringHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.support.StaticWebApplicationContext;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.method.support.HandlerMethodReturnValueHandler;
+import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+/**
+ * 고정 응답 핸들러 한 번 처리 비용 (RequestMappingHandlerAdapter.handle, 매핑 조회와 필터는 제외)
+ * - converter: 원래 @ResponseBody 처리 (협상, 컨버터 선택, 문자셋 인코딩, 헤더)
+ * - constant: @ConstantResponse, 미리 인코딩한 바이트를 출력 스트림에 바로 쓴다
+ * - servletWriter: v1 처럼 핸들러가 response.getWriter().write("OK")
+ *
+ * ./gradlew jmh -PjmhArgs="ConstantResponseBenchmark"
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConstantResponseBenchmark {
+
+    @Param({"converter", "constant"})
+    public String mode;
+
+    @Param({"string", "enum"})
+    public String body;
+
+    private RequestMappingHandlerAdapter adapter;
+    private HandlerMethod handlerMethod;
+    private HandlerMethod servletWriterMethod;
+    private MockHttpServletRequest request;
+
+    @Setup
+    public void setUp() throws Exception {
+        // 설정 파일이 없으면 logback 기본값이 DEBUG 라서 컨버터 경로만 요청마다 디버그 로그를 쓴다. 앱과 같은 INFO 로 맞춘다
+        ((Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.INFO);
+
+        List<HttpMessageConverter<?>> converters = new ArrayList<>();
+        // 스프링 부트 HttpMessageConverters 와 같은 설정 (Accept-Charset 헤더를 쓰지 않는다)
+        StringHttpMessageConverter stringConverter = new StringHttpMessageConverter(StandardCharsets.UTF_8);
+        stringConverter.setWriteAcceptCharset(false);
+        converters.add(stringConverter);
+        converters.add(new MappingJackson2HttpMessageConverter());
+        StaticWebApplicationContext context = new StaticWebApplicationContext();
+        context.setServletContext(new MockServletContext());
+        context.refresh();
+        adapter = new RequestMappingHandlerAdapter();
+        adapter.setApplicationContext(context);
+        adapter.setMessageConverters(converters);
+        adapter.afterPropertiesSet();
+
+        ConstantController controller = new ConstantController();
+        handlerMethod = new HandlerMethod(controller, "string".equals(body) ? "ok" : "status");
+        servletWriterMethod = new HandlerMethod(controller, "okV1", HttpServletResponse.class);
+        if ("constant".equals(mode)) {
+            // ConstantResponseConfig 와 같은 방식으로 설치한다
+            ConstantResponseReturnValueHandler handler =
+                new ConstantResponseReturnValueHandler(new HeaderCache<>("accept", 256));
+            handler.register(Map.of(RequestMappingInfo.paths("/ok").build(), handlerMethod),
+                adapter.getMessageConverters(), adapter::getReturnValueHandlers);
+            List<HandlerMethodReturnValueHandler> handlers = new ArrayList<>();
+            handlers.add(handler);
+            handlers.addAll(adapter.getReturnValueHandlers());
+            adapter.setReturnValueHandlers(handlers);
+        }
+        request = new MockHttpServletRequest("GET", "/ok");
+        request.addHeader("Accept", "*/*");
+    }
+
+    @Benchmark
+    public MockHttpServletResponse handle() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        ModelAndView mav = adapter.handle(request, response, handlerMethod);
+        return mav == null ? response : null;
+    }
+
+    @Benchmark
+    public MockHttpServletResponse servletWriter() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        adapter.handle(request, response, servletWriterMethod);
+        return response;
+    }
+
+    @RestController
+    public static class ConstantController {
+
+        public enum Status { READY, DRAINING }
+
+        @ConstantResponse("OK")
+        public String ok() {
+            return "OK";
+        }
+
+        @ConstantResponse
+        public Status status() {
+            return Status.READY;
+        }
+
+        public void okV1(HttpServletResponse response) throws IOException {
+            response.getWriter().write("OK");
+        }
+    }
+
+}
@@ -0,0 +1,232 @@
+package hello.springmvc.contention;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.OutputStreamAppender;
+import hello.springmvc.basic.HelloData;
+import hello.springmvc.basic.LogTestController;
+import hello.springmvc.basic.request.RequestBodyJsonController;
+import hello.springmvc.basic.requestmapping.MappingClassController;
+import hello.springmvc.basic.requestmapping.UserAgeQueryController;
+import hello.springmvc.cache.ClusterInvalidator;
+import hello.springmvc.cache.LoopbackTransport;
+import hello.springmvc.cache.ResponseCache;
+import hello.springmvc.cache.ResponseCacheProperties;
+import hello.springmvc.store.AgeRangePage;
+import hello.springmvc.store.UserStore;
+import hello.springmvc.store.UserStoreProperties;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.ThreadParams;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+/**
+ * 싱글톤 컨트롤러(와 컨트롤러가 쓰는 공유 컴포넌트)를 여러 요청 스레드가 동시에 호출할 때의 처리량
+ * 모든 스레드가 같은 컨트롤러 인스턴스를 쓰고, 요청 값만 스레드별로 다르다. (HTTP, 필터, 디스패치는 제외)
+ *
+ * - jsonV1, jsonV2: RequestBodyJsonController 의 objectMapper 필드 + 로그
+ * - logTest: LogTestController, 모든 스레드가 같은 appender 에 쓴다 (앱과 같은 INFO, 출력은 버린다)
+ * - findUser / addUser: MappingClassController -> ResponseCache, UserStore(WAL 쓰기 스레드 하나, fsync 끔)
+ * - countByAge / pageByAge: UserAgeQueryController -> 나이 인덱스
+ * - probeFalseSharing / probePadded: 스레드마다 자기 카운터만 올린다. 붙어 있는 카운터(같은 캐시 라인)와
+ *   128 바이트 떨어진 카운터의 차이가 이 장비에서 false sharing 이 보이는 모양이다.
+ *
+ * 스레드 수별 확장 효율과 경합 원인은 ContentionHarness 로 본다.
+ * ./gradlew jmh -PjmhArgs="ContentionBenchmark -t 4 -prof hello.springmvc.contention.ThreadContentionProfiler"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+public class ContentionBenchmark {
+
+    static final int USERS = 10_000;
+    private static final int SLOTS = 64;
+    /** long 16 개 = 128 바이트, 인접 캐시 라인 프리페치까지 피한다 */
+    private static final int PADDING = 16;
+
+    private Path directory;
+    private UserStore userStore;
+    private ClusterInvalidator invalidator;
+
+    private RequestBodyJsonController jsonController;
+    private LogTestController logTestController;
+    private MappingClassController mappingClassController;
+    private UserAgeQueryController ageQueryController;
+
+    private final AtomicLongArray adjacent = new AtomicLongArray(SLOTS);
+    private final AtomicLongArray padded = new AtomicLongArray(SLOTS * PADDING);
+
+    @Setup
+    public void setUp() throws IOException {
+        discardLogs();
+
+        directory = Files.createTempDirectory("contention");
+        UserStoreProperties storeProperties = new UserStoreProperties();
+        storeProperties.setDirectory(directory.toString());
+        storeProperties.setFsync(false);
+        userStore = new UserStore(storeProperties);
+        userStore.start();
+        for (int i = 0; i < USERS; i++) {
+            userStore.put("user" + i, helloData("user" + i, i % 100));
+        }
+
+        ResponseCacheProperties cacheProperties = new ResponseCacheProperties();
+        cacheProperties.getLoopback().setPort(0);
+        invalidator = new ClusterInvalidator(cacheProperties, new LoopbackTransport(cacheProperties.getLoopback()));
+        ResponseCache responseCache = new ResponseCache(cacheProperties.getMaxSize(), invalidator);
+        invalidator.start(responseCache);
+
+        StaticListableBeanFactory beans = new StaticListableBeanFactory(
+            Map.of("responseCache", responseCache, "userStore", userStore));
+        jsonController = new RequestBodyJsonController();
+        logTestController = new LogTestController();
+        mappingClassController = new MappingClassController(
+            beans.getBeanProvider(ResponseCache.class), beans.getBeanProvider(UserStore.class));
+        ageQueryController = new UserAgeQueryController(userStore);
+    }
+
+    /**
+     * 설정 파일이 없으면 logback 기본값이 DEBUG 콘솔이다. 앱과 같은 INFO + 패턴 인코딩을 하고 출력만 버린다.
+     */
+    private static void discardLogs() {
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        Logger root = context.getLogger(Logger.ROOT_LOGGER_NAME);
+        root.detachAndStopAllAppenders();
+        root.setLevel(Level.INFO);
+
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%d{yyyy-MM-dd HH:mm:ss.SSS} %5p --- [%15.15t] %-40.40logger{39} : %m%n");
+        encoder.start();
+        OutputStreamAppender<ILoggingEvent> appender = new OutputStreamAppender<>();
+        appender.setContext(context);
+        appender.setEncoder(encoder);
+        appender.setOutputStream(OutputStream.nullOutputStream());
+        appender.start();
+        root.addAppender(appender);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        invalidator.close();
+        userStore.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class RequestState {
+        int index;
+        int sequence;
+        String json;
+        byte[] jsonBytes;
+        HelloData user;
+
+        @Setup
+        public void setUp(ThreadParams threadParams) {
+            index = threadParams.getThreadIndex();
+            json = "{\"username\":\"thread" + index + "\",\"age\":" + (20 + index) + "}";
+            jsonBytes = json.getBytes(StandardCharsets.UTF_8);
+            user = helloData("thread" + index, 20);
+        }
+
+        String nextUserId() {
+            sequence = (sequence + 7919) % USERS;
+            return "user" + sequence;
+        }
+
+        int nextAge() {
+            sequence = (sequence + 37) % 90;
+            return sequence;
+        }
+    }
+
+    @Benchmark
+    public MockHttpServletResponse jsonV1(RequestState state) throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/request-body-json-v1");
+        request.setContent(state.jsonBytes);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        jsonController.requestBodyJsonV1(request, response);
+        return response;
+    }
+
+    @Benchmark
+    public String jsonV2(RequestState state) throws IOException {
+        return jsonController.requestBodyV2(state.json);
+    }
+
+    @Benchmark
+    public String logTest() {
+        return logTestController.logTest();
+    }
+
+    @Benchmark
+    public String findUser(RequestState state) {
+        return mappingClassController.findUser(state.nextUserId());
+    }
+
+    @Benchmark
+    public String addUser(RequestState state) {
+        state.user.setAge(state.sequence++ % 100);
+        return mappingClassController.addUser(state.user);
+    }
+
+    @Benchmark
+    public long countByAge(RequestState state) {
+        int min = state.nextAge();
+        return ageQueryController.countByAge(min, min + 9);
+    }
+
+    @Benchmark
+    public AgeRangePage pageByAge(RequestState state) {
+        int min = state.nextAge();
+        return ageQueryController.findByAge(min, min + 9, null, 20);
+    }
+
+    @Benchmark
+    public long probeFalseSharing(RequestState state) {
+        return adjacent.incrementAndGet(state.index % SLOTS);
+    }
+
+    @Benchmark
+    public long probePadded(RequestState state) {
+        return padded.incrementAndGet((state.index % SLOTS) * PADDING);
+    }
+
+    private static HelloData helloData(String username, int age) {
+        HelloData data = new HelloData();
+        data.setUsername(username);
+        data.setAge(age);
+        return data;
+    }
+
+}
@@ -0,0 +1,277 @@
+package hello.springmvc.contention;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+import org.openjdk.jmh.runner.options.VerboseMode;
+
+/**
+ * ContentionBenchmark 의 메서드를 1 ~ N 스레드로 실행해서 확장 곡선을 그리고,
+ * 효율(처리량(n) / (n * 처리량(1)))이 목표보다 낮은 메서드를 원인과 함께 표시한다.
+ *
+ * 원인 구분
+ * - monitor: synchronized 대기 (ThreadMXBean blocked)
+ * - park/wait: ReentrantLock, 큐, 다른 스레드 결과 대기 (ThreadMXBean waited)
+ * - gc: 측정 시간 중 GC 시간 비율이 높다 (할당량 B/op 를 같이 본다)
+ * - cache-line: 막히지도 GC 도 아닌데 느려진다. 같은 캐시 라인 쓰기(공유 카운터, CAS, false sharing) 의심,
+ *   perf 가 있으면 op 당 캐시 미스 증가 배수를 함께 보여준다. probeFalseSharing / probePadded 가 비교 기준이다.
+ *
+ * ./gradlew contention -PcontentionArgs="--threads=1,2,4,8 --target=0.7"
+ *
+ * 옵션
+ * --threads     스레드 수 목록 (기본 1, 2, 4 ... CPU 수), CPU 수보다 많은 스레드는 효율을 판정하지 않는다
+ * --cpus        판정에 쓰는 CPU 수 (기본 availableProcessors, 컨테이너 제한이 다를 때 지정)
+ * --target      확장 효율 목표 (기본 0.75)
+ * --include     메서드 이름 정규식 (기본 전체)
+ * --warmup      워밍업 반복 수 (기본 2), --iterations 측정 반복 수 (기본 3), --time 반복 시간(초) (기본 1)
+ * --perf        true 면 perfnorm 으로 캐시 미스를 잰다 (기본: perf 명령이 있으면 true)
+ * --csv         결과를 CSV 로도 쓴다 (곡선 그리기용)
+ */
+public class ContentionHarness {
+
+    private static final double BLOCKED_PCT_LIMIT = 5;
+    private static final double WAITED_PCT_LIMIT = 5;
+    /**
+     * 반복 경계에서 JMH 가 스레드를 맞추느라 기다리는 시간도 waited% 에 들어간다 (CPU 보다 스레드가 많으면 크다).
+     * 그래서 비율과 함께 op 당 횟수도 넘어야 코드의 대기로 본다.
+     */
+    private static final double PER_OP_LIMIT = 0.01;
+    private static final double GC_PCT_LIMIT = 10;
+    private static final double MISS_GROWTH_LIMIT = 2;
+
+    public static void main(String[] args) throws RunnerException, IOException {
+        Map<String, String> options = parse(args);
+        int cpus = Integer.parseInt(options.getOrDefault("cpus",
+            String.valueOf(Runtime.getRuntime().availableProcessors())));
+        List<Integer> threadCounts = options.containsKey("threads")
+            ? Arrays.stream(options.get("threads").split(",")).map(String::trim).map(Integer::parseInt)
+                .collect(Collectors.toList())
+            : defaultThreadCounts(cpus);
+        double target = Double.parseDouble(options.getOrDefault("target", "0.75"));
+        Pattern include = Pattern.compile(options.getOrDefault("include", ".*"));
+        int warmup = Integer.parseInt(options.getOrDefault("warmup", "2"));
+        int iterations = Integer.parseInt(options.getOrDefault("iterations", "3"));
+        int time = Integer.parseInt(options.getOrDefault("time", "1"));
+        boolean perf = Boolean.parseBoolean(options.getOrDefault("perf", String.valueOf(perfAvailable())));
+
+        List<String> methods = benchmarkMethods(include);
+        System.out.printf("cpus=%d threads=%s target=%.2f perf=%s methods=%s%n", cpus, threadCounts, target, perf, methods);
+        if (!threadCounts.contains(1)) {
+            throw new IllegalArgumentException("--threads must contain 1 (baseline for efficiency)");
+        }
+
+        List<Measurement> all = new ArrayList<>();
+        List<String> flags = new ArrayList<>();
+        for (String method : methods) {
+            List<Measurement> curve = new ArrayList<>();
+            for (int threads : threadCounts) {
+                ChainedOptionsBuilder builder = new OptionsBuilder()
+                    .include(Pattern.quote(ContentionBenchmark.class.getName() + "." + method) + "$")
+                    .threads(threads)
+                    .forks(1)
+                    .warmupIterations(warmup)
+                    .measurementIterations(iterations)
+                    .warmupTime(TimeValue.seconds(time))
+                    .measurementTime(TimeValue.seconds(time))
+                    .addProfiler(ThreadContentionProfiler.class)
+                    .addProfiler("gc")
+                    .verbosity(VerboseMode.SILENT);
+                if (perf) {
+                    builder.addProfiler("perfnorm");
+                }
+                RunResult result = new Runner(builder.build()).runSingle();
+                curve.add(new Measurement(method, threads, result, iterations * time));
+            }
+            Measurement base = curve.get(threadCounts.indexOf(1));
+            curve.forEach(measurement -> measurement.compareTo(base));
+            print(method, curve, cpus);
+            String flag = judge(curve, base, target, cpus);
+            if (flag != null) {
+                flags.add(String.format("%-18s %s", method, flag));
+            }
+            all.addAll(curve);
+        }
+
+        System.out.printf("%n[below target efficiency %.2f]%n", target);
+        if (flags.isEmpty()) {
+            System.out.println("none");
+        }
+        flags.forEach(System.out::println);
+        if (options.containsKey("csv")) {
+            writeCsv(Paths.get(options.get("csv")), all);
+        }
+    }
+
+    private static List<Integer> defaultThreadCounts(int cpus) {
+        TreeSet<Integer> counts = new TreeSet<>();
+        for (int threads = 1; threads <= cpus; threads *= 2) {
+            counts.add(threads);
+        }
+        counts.add(cpus);
+        return new ArrayList<>(counts);
+    }
+
+    private static List<String> benchmarkMethods(Pattern include) {
+        return Arrays.stream(ContentionBenchmark.class.getDeclaredMethods())
+            .filter(method -> method.isAnnotationPresent(Benchmark.class))
+            .map(Method::getName)
+            .filter(name -> include.matcher(name).find())
+            .sorted()
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * @return 목표 효율 아래로 떨어진 첫 스레드 수와 원인, 괜찮으면 null
+     */
+    static String judge(List<Measurement> curve, Measurement base, double target, int cpus) {
+        for (Measurement measurement : curve) {
+            if (measurement.threads == 1 || measurement.threads > cpus || measurement.efficiency >= target) {
+                continue;
+            }
+            return String.format("efficiency %.2f at %d threads: %s", measurement.efficiency, measurement.threads,
+                cause(measurement, base));
+        }
+        return null;
+    }
+
+    static String cause(Measurement measurement, Measurement base) {
+        if (measurement.blockedPct >= BLOCKED_PCT_LIMIT && measurement.blockedPerOp >= PER_OP_LIMIT) {
+            return String.format("monitor contention (blocked %.1f%% of thread time, %.3f/op)",
+                measurement.blockedPct, measurement.blockedPerOp);
+        }
+        if (measurement.waitedPct >= WAITED_PCT_LIMIT && measurement.waitedPerOp >= PER_OP_LIMIT) {
+            return String.format("park/wait contention (waiting %.1f%% of thread time, %.3f/op)",
+                measurement.waitedPct, measurement.waitedPerOp);
+        }
+        if (measurement.gcPct >= GC_PCT_LIMIT) {
+            return String.format("gc (%.1f%% of wall time, %.0f B/op)", measurement.gcPct, measurement.allocPerOp);
+        }
+        if (measurement.missesPerOp > 0 && base.missesPerOp > 0) {
+            double growth = measurement.missesPerOp / base.missesPerOp;
+            if (growth >= MISS_GROWTH_LIMIT) {
+                return String.format("cache-line contention (cache misses/op x%.1f, shared writes or false sharing)", growth);
+            }
+        }
+        return "no blocking or gc: suspect shared cache-line writes (counters, CAS, false sharing) or memory bandwidth";
+    }
+
+    private static void print(String method, List<Measurement> curve, int cpus) {
+        System.out.printf("%n[%s]%n", method);
+        System.out.printf("%7s %12s %8s %10s %10s %9s %10s %9s %10s %6s %12s%n", "threads", "ops/s", "speedup",
+            "efficiency", "blocked/op", "blocked%", "waited/op", "waited%", "alloc B/op", "gc%", "misses/op");
+        for (Measurement m : curve) {
+            System.out.printf("%7d %12.0f %8.2f %10.2f %10.4f %9.1f %10.4f %9.1f %10.0f %6.1f %12s%s%n",
+                m.threads, m.opsPerSecond, m.speedup, m.efficiency, m.blockedPerOp, m.blockedPct, m.waitedPerOp,
+                m.waitedPct, m.allocPerOp, m.gcPct, m.missesPerOp > 0 ? String.format("%.2f", m.missesPerOp) : "-",
+                m.threads > cpus ? "  (threads > cpus)" : "");
+        }
+    }
+
+    private static void writeCsv(Path path, List<Measurement> measurements) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(path))) {
+            writer.println("method,threads,ops_per_second,speedup,efficiency,blocked_per_op,blocked_pct,"
+                + "waited_per_op,waited_pct,alloc_bytes_per_op,gc_pct,misses_per_op");
+            for (Measurement m : measurements) {
+                writer.printf("%s,%d,%.1f,%.4f,%.4f,%.6f,%.2f,%.6f,%.2f,%.1f,%.2f,%.4f%n", m.method, m.threads,
+                    m.opsPerSecond, m.speedup, m.efficiency, m.blockedPerOp, m.blockedPct, m.waitedPerOp, m.waitedPct,
+                    m.allocPerOp, m.gcPct, m.missesPerOp);
+            }
+        }
+        System.out.printf("%ncsv written to %s%n", path.toAbsolutePath());
+    }
+
+    private static boolean perfAvailable() {
+        try {
+            Process process = new ProcessBuilder("perf", "--version").redirectErrorStream(true).start();
+            return process.waitFor() == 0;
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("option must be --key=value: " + arg);
+            }
+            int separator = arg.indexOf('=');
+            options.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        return options;
+    }
+
+    static final class Measurement {
+        final String method;
+        final int threads;
+        final double opsPerSecond;
+        final double blockedPerOp;
+        final double blockedPct;
+        final double waitedPerOp;
+        final double waitedPct;
+        final double allocPerOp;
+        final double gcPct;
+        final double missesPerOp;
+        double speedup;
+        double efficiency;
+
+        Measurement(String method, int threads, RunResult result, int measuredSeconds) {
+            Map<String, Result> secondary = result.getSecondaryResults();
+            this.method = method;
+            this.threads = threads;
+            this.opsPerSecond = result.getPrimaryResult().getScore();
+            this.blockedPerOp = score(secondary, ThreadContentionProfiler.BLOCKED);
+            this.blockedPct = score(secondary, ThreadContentionProfiler.BLOCKED_PCT);
+            this.waitedPerOp = score(secondary, ThreadContentionProfiler.WAITED);
+            this.waitedPct = score(secondary, ThreadContentionProfiler.WAITED_PCT);
+            this.allocPerOp = score(secondary, "gc.alloc.rate.norm");
+            // gc.time 은 측정 반복 전체의 합(ms)
+            this.gcPct = 100.0 * score(secondary, "gc.time") / (measuredSeconds * 1000.0);
+            double misses = score(secondary, "L1-dcache-load-misses");
+            this.missesPerOp = misses > 0 ? misses : score(secondary, "cache-misses");
+        }
+
+        void compareTo(Measurement base) {
+            speedup = base.opsPerSecond == 0 ? 0 : opsPerSecond / base.opsPerSecond;
+            efficiency = speedup / threads;
+        }
+
+        /**
+         * 프로파일러마다 결과 이름 앞에 붙이는 접두사가 달라서 끝부분으로 찾는다
+         */
+        private static double score(Map<String, Result> secondary, String suffix) {
+            for (Map.Entry<String, Result> entry : secondary.entrySet()) {
+                if (entry.getKey().endsWith(suffix)) {
+                    return entry.getValue().getScore();
+                }
+            }
+            return 0;
+        }
+    }
+
+}
@@ -0,0 +1,95 @@
+package hello.springmvc.contention;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.profile.InternalProfiler;
+import org.openjdk.jmh.results.AggregationPolicy;
+import org.openjdk.jmh.results.IterationResult;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.ScalarResult;
+
+/**
+ * 벤치마크 스레드(jmh-worker)의 ThreadMXBean 카운터를 반복(iteration)마다 잰다.
+ * - contention.blocked: synchronized 진입을 기다린 횟수 / op
+ * - contention.blocked.pct: 스레드 시간 중 BLOCKED 비율
+ * - contention.waited: wait/park(ReentrantLock, 큐, Future 등) 횟수 / op
+ * - contention.waited.pct: 스레드 시간 중 WAITING/TIMED_WAITING 비율
+ *
+ * ./gradlew jmh -PjmhArgs="ContentionBenchmark -prof hello.springmvc.contention.ThreadContentionProfiler"
+ */
+public class ThreadContentionProfiler implements InternalProfiler {
+
+    static final String BLOCKED = "contention.blocked";
+    static final String BLOCKED_PCT = "contention.blocked.pct";
+    static final String WAITED = "contention.waited";
+    static final String WAITED_PCT = "contention.waited.pct";
+
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    private Map<Long, long[]> before = new HashMap<>();
+    private long startNanos;
+
+    @Override
+    public String getDescription() {
+        return "ThreadMXBean blocked/waited counts and time of benchmark threads";
+    }
+
+    @Override
+    public void beforeIteration(BenchmarkParams benchmarkParams, IterationParams iterationParams) {
+        if (threads.isThreadContentionMonitoringSupported() && !threads.isThreadContentionMonitoringEnabled()) {
+            threads.setThreadContentionMonitoringEnabled(true);
+        }
+        before = snapshot();
+        startNanos = System.nanoTime();
+    }
+
+    @Override
+    public Collection<? extends Result> afterIteration(BenchmarkParams benchmarkParams, IterationParams iterationParams,
+                                                       IterationResult result) {
+        double elapsedMillis = (System.nanoTime() - startNanos) / 1_000_000.0;
+        Map<Long, long[]> after = snapshot();
+        long[] delta = new long[4];
+        after.forEach((id, counters) -> {
+            // 이번 반복에 새로 생긴 스레드는 0 부터 센다
+            long[] previous = before.getOrDefault(id, new long[4]);
+            for (int i = 0; i < delta.length; i++) {
+                delta[i] += counters[i] - previous[i];
+            }
+        });
+
+        double ops = Math.max(1, result.getMetadata().getAllOps());
+        double threadMillis = Math.max(1, elapsedMillis * benchmarkParams.getThreads());
+        List<Result> results = new ArrayList<>();
+        results.add(new ScalarResult(BLOCKED, delta[0] / ops, "#/op", AggregationPolicy.AVG));
+        results.add(new ScalarResult(WAITED, delta[2] / ops, "#/op", AggregationPolicy.AVG));
+        // 시간 측정을 지원하지 않는 JVM 에서는 -1 이므로 비율을 내지 않는다
+        if (threads.isThreadContentionMonitoringEnabled()) {
+            results.add(new ScalarResult(BLOCKED_PCT, 100.0 * delta[1] / threadMillis, "%", AggregationPolicy.AVG));
+            results.add(new ScalarResult(WAITED_PCT, 100.0 * delta[3] / threadMillis, "%", AggregationPolicy.AVG));
+        }
+        return results;
+    }
+
+    /**
+     * 스레드 id -> [blocked 횟수, blocked ms, waited 횟수, waited ms]
+     */
+    private Map<Long, long[]> snapshot() {
+        Map<Long, long[]> counters = new HashMap<>();
+        for (ThreadInfo info : threads.getThreadInfo(threads.getAllThreadIds())) {
+            if (info != null && info.getThreadName().contains("jmh-worker")) {
+                counters.put(info.getThreadId(), new long[]{
+                    info.getBlockedCount(), Math.max(0, info.getBlockedTime()),
+                    info.getWaitedCount(), Math.max(0, info.getWaitedTime())});
+            }
+        }
+        return counters;
+    }
+
+}
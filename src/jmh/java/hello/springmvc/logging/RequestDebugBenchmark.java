@@ -0,0 +1,73 @@
+package hello.springmvc.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 꺼져 있는 debug 로그 한 줄(log.isDebugEnabled())의 비용
+ * - baseline: TurboFilter 없음 (log-control 이 꺼져 있거나, 디버그 요청이 없을 때)
+ * - filterInstalled: 필터를 항상 등록해 두었을 때 (다른 스레드가 디버그 요청 처리 중인 동안과 같다)
+ * - debugRequest: 현재 스레드가 디버그 요청을 처리 중 (필터가 ACCEPT)
+ *
+ * ./gradlew jmh -PjmhArgs="RequestDebugBenchmark"
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RequestDebugBenchmark {
+
+    @Param({"baseline", "filterInstalled", "debugRequest"})
+    public String mode;
+
+    private LoggerContext loggerContext;
+    private RequestDebugSwitch debugSwitch;
+    private Logger logger;
+
+    @Setup
+    public void setUp() {
+        loggerContext = new LoggerContext();
+        loggerContext.getLogger(Logger.ROOT_LOGGER_NAME).setLevel(Level.INFO);
+        logger = loggerContext.getLogger("hello.springmvc.basic.LogTestController");
+
+        RequestDebugTurboFilter filter = new RequestDebugTurboFilter(List.of("hello.springmvc"));
+        debugSwitch = new RequestDebugSwitch(loggerContext, filter);
+        if ("filterInstalled".equals(mode)) {
+            filter.start();
+            loggerContext.addTurboFilter(filter);
+        } else if ("debugRequest".equals(mode)) {
+            debugSwitch.begin(Level.DEBUG);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        if ("debugRequest".equals(mode)) {
+            debugSwitch.end();
+        }
+        loggerContext.stop();
+    }
+
+    @Benchmark
+    public boolean isDebugEnabled() {
+        return logger.isDebugEnabled();
+    }
+
+}
@@ -0,0 +1,120 @@
+package hello.springmvc.store;
+
+import hello.springmvc.basic.HelloData;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 회원 users 명(나이 0~99)에서 10살 범위 조회
+ * - count / page: 나이 인덱스, 이진 탐색 + 결과 수 (deepPage 는 범위 한가운데 커서 다음 페이지)
+ * - fullScanCount: 인덱스 없이 맵 전체를 훑어서 세기
+ * - update: 쓰기 스레드가 나이를 바꿀 때 인덱스 비용 (변경분이 쌓이면 별도 스레드에서 base 에 합친다)
+ * - pending=true: 시작할 때 merge-threshold 바로 아래까지 나이를 바꿔 두어 active 변경분이 가득 찬 상태에서 잰다
+ *
+ * ./gradlew jmh -PjmhArgs="AgeIndexBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms3g", "-Xmx3g"})
+public class AgeIndexBenchmark {
+
+    private static final int PAGE_SIZE = 100;
+
+    @Param({"1000000", "5000000"})
+    public int users;
+
+    @Param({"false", "true"})
+    public boolean pending;
+
+    private Map<String, HelloData> map;
+    private int[] ages;
+    private AgeIndex index;
+
+    @Setup
+    public void setUp() {
+        map = new HashMap<>(users * 4 / 3 + 1);
+        ages = new int[users];
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < users; i++) {
+            HelloData data = new HelloData();
+            data.setUsername("user" + i);
+            data.setAge(random.nextInt(100));
+            map.put(data.getUsername(), data);
+            ages[i] = data.getAge();
+        }
+        index = AgeIndex.build(map);
+        if (pending) {
+            for (int i = 0; i < AgeIndex.mergeThreshold(users) - 1; i++) {
+                update();
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        index.close();
+    }
+
+    @Benchmark
+    public long count() {
+        int min = ThreadLocalRandom.current().nextInt(90);
+        return index.count(min, min + 9);
+    }
+
+    @Benchmark
+    public List<AgeIndex.Key> page() {
+        int min = ThreadLocalRandom.current().nextInt(90);
+        return index.scan(min, min + 9, null, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<AgeIndex.Key> deepPage() {
+        int min = ThreadLocalRandom.current().nextInt(90);
+        AgeIndex.Key after = new AgeIndex.Key(min + 5, "user" + ThreadLocalRandom.current().nextInt(users));
+        return index.scan(min, min + 9, after, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public long fullScanCount() {
+        int min = ThreadLocalRandom.current().nextInt(90);
+        int max = min + 9;
+        long count = 0;
+        for (HelloData data : map.values()) {
+            if (data.getAge() >= min && data.getAge() <= max) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * AverageTime 에서 벤치마크 메서드는 한 스레드라 UserStore 의 쓰기 스레드 하나와 같다
+     */
+    @Benchmark
+    public void update() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int user = random.nextInt(users);
+        int age = random.nextInt(100);
+        index.put("user" + user, ages[user], age);
+        ages[user] = age;
+    }
+
+}
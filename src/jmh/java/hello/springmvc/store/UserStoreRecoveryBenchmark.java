@@ -0,0 +1,94 @@
+package hello.springmvc.store;
+
+import hello.springmvc.basic.HelloData;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 시작할 때 회원 records 건을 복구하는 시간
+ * - wal: 압축 전, 모든 레코드가 WAL 에 있다
+ * - snapshot: 압축 후, 스냅샷 헤더의 레코드 수로 맵 크기를 미리 잡는다
+ *
+ * ./gradlew jmh -PjmhArgs="UserStoreRecoveryBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgs = {"-Xms3g", "-Xmx3g"})
+public class UserStoreRecoveryBenchmark {
+
+    @Param({"10000000"})
+    public int records;
+
+    @Param({"wal", "snapshot"})
+    public String layout;
+
+    private Path directory;
+    private UserStoreProperties properties;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("user-store-recovery");
+        properties = new UserStoreProperties();
+        properties.setDirectory(directory.toString());
+
+        boolean snapshot = "snapshot".equals(layout);
+        Path file = snapshot ? WalFiles.snapshot(directory, 1) : WalFiles.wal(directory, 1);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            WalFiles.writeFully(channel, snapshot ? WalFiles.snapshotHeader(records) : WalFiles.walHeader());
+            ByteBuffer buffer = ByteBuffer.allocate(1024 * 1024);
+            HelloData data = new HelloData();
+            for (int i = 0; i < records; i++) {
+                String userId = "user" + i;
+                data.setUsername(userId);
+                data.setAge(i % 100);
+                WalRecord record = WalRecord.put(userId, data);
+                if (buffer.remaining() < record.encodedSize()) {
+                    buffer.flip();
+                    WalFiles.writeFully(channel, buffer);
+                    buffer.clear();
+                }
+                record.encode(buffer);
+            }
+            buffer.flip();
+            WalFiles.writeFully(channel, buffer);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public int recover() throws IOException {
+        try (UserStore store = new UserStore(properties)) {
+            store.start();
+            return store.size();
+        }
+    }
+
+}
@@ -0,0 +1,80 @@
+package hello.springmvc.store;
+
+import hello.springmvc.basic.HelloData;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 요청 스레드 128개(Tomcat 기본 200개에 가깝게)가 동시에 회원을 저장할 때 초당 커밋 수 (fsync 포함)
+ * - maxBatchSize=1: 쓰기마다 fsync (그룹 커밋 없음)
+ * - maxBatchSize=16, 256: 대기열에 쌓인 쓰기를 묶어서 fsync 한 번
+ * - batchWindowMicros: 첫 쓰기 뒤에 더 기다리는 시간
+ *
+ * ./gradlew jmh -PjmhArgs="UserStoreWriteBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 1, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Threads(128)
+@Fork(1)
+public class UserStoreWriteBenchmark {
+
+    @Param({"1", "16", "256"})
+    public int maxBatchSize;
+
+    @Param({"0", "500"})
+    public int batchWindowMicros;
+
+    private Path directory;
+    private UserStore store;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("user-store-bench");
+        UserStoreProperties properties = new UserStoreProperties();
+        properties.setDirectory(directory.toString());
+        properties.setMaxBatchSize(maxBatchSize);
+        properties.setBatchWindow(Duration.ofNanos(TimeUnit.MICROSECONDS.toNanos(batchWindowMicros)));
+        store = new UserStore(properties);
+        store.start();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        store.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public void put() {
+        String userId = "user" + ThreadLocalRandom.current().nextInt(100_000);
+        HelloData data = new HelloData();
+        data.setUsername(userId);
+        data.setAge(20);
+        store.put(userId, data);
+    }
+
+}
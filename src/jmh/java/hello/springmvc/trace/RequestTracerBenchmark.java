@@ -0,0 +1,57 @@
+package hello.springmvc.trace;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+/**
+ * 샘플링되지 않은 빠른 요청 하나의 trace 비용 (보관하지 않는 경우)
+ * 요청마다 서블릿 요청처럼 단계 5개를 begin/end 한다.
+ *
+ * ./gradlew jmh -PjmhArgs="RequestTracerBenchmark"
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RequestTracerBenchmark {
+
+    private static final Phase[] PHASES = Phase.values();
+
+    private RequestTracer tracer;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setUp() {
+        TraceProperties properties = new TraceProperties();
+        properties.setSampleRate(0);
+        properties.setSlowThreshold(Duration.ofSeconds(10));
+        tracer = new RequestTracer(properties);
+        request = new MockHttpServletRequest("GET", "/hello-basic");
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public void unsampledRequest() {
+        tracer.start();
+        for (Phase phase : PHASES) {
+            tracer.end(tracer.begin(phase));
+        }
+        tracer.finish(request, response);
+    }
+
+}
@@ -9,6 +9,7 @@ Logback - http://logback.qos.ch
 쉽게 이야기해서 SLF4J는 인터페이스이고, 그 구현체로 Logback 같은 로그 라이브러리를 선택하면 된다.
 실무에서는 스프링 부트가 기본으로 제공하는 Logback을 대부분 사용한다.
  */
+import hello.springmvc.constant.ConstantResponse;
 import lombok.extern.slf4j.Slf4j;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -26,6 +27,7 @@ public class LogTestController {
 
 //    private final Logger log = LoggerFactory.getLogger(getClass());
 
+    @ConstantResponse("OK")
     @RequestMapping("/log-test")
     public String logTest() {
         String name = "Spring";
@@ -2,6 +2,7 @@ package hello.springmvc.basic.request;
 
 
 import hello.springmvc.basic.HelloData;
+import hello.springmvc.constant.ConstantResponse;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -21,6 +22,7 @@ public class ModelAttributeController {
      * @return
      */
     @ResponseBody
+    @ConstantResponse("OK")
     @RequestMapping("/model-attribute-v1")
     public String modelAttributeV1(@ModelAttribute HelloData helloData) {
         log.info("username={}, age={}", helloData.getUsername(), helloData.getAge());
@@ -54,6 +56,7 @@ public class ModelAttributeController {
      * @return
      */
     @ResponseBody
+    @ConstantResponse("OK")
     @RequestMapping("/model-attribute-v2")
     public String modelAttributeV2(HelloData helloData) {
         log.info("username={}, age={}", helloData.getUsername(), helloData.getAge());
@@ -0,0 +1,48 @@
+package hello.springmvc.basic.request;
+
+import hello.springmvc.basic.HelloData;
+import hello.springmvc.batch.JsonBatchItems;
+import hello.springmvc.batch.JsonBatchProcessor;
+import hello.springmvc.batch.JsonBatchResult;
+import hello.springmvc.bulkhead.HandlerGroup;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * /request-body-json-v5 를 여러 번 부르는 대신 HelloData 배열을 한 번에 보낸다.
+ * [{"username": "hello", "age": 20}, {"username": "kim", "age": 30}]
+ * content-type: application/json
+ *
+ * 응답의 results 는 요청 배열과 같은 순서이고, 항목마다 index, status, data(성공) 또는 error(실패)가 있다.
+ * - 모두 성공하면 200
+ * - partial=true 이면 실패한 항목이 있어도 나머지 결과와 함께 207
+ * - partial=false(기본) 이면 실패한 항목이 하나라도 있으면 400, 항목을 모두 변환할 수 있을 때만 처리한다
+ *   (처리하지 않은 나머지 항목은 424)
+ * - json-batch.max-items 보다 많으면 413 (넘는 항목을 만나면 나머지 배열은 읽지 않는다)
+ */
+@Slf4j
+@RestController
+@RequiredArgsConstructor
+@HandlerGroup("body")
+@ConditionalOnProperty(prefix = "json-batch", name = "enabled", havingValue = "true")
+public class RequestBodyJsonBatchController {
+
+    private final JsonBatchProcessor jsonBatchProcessor;
+
+    @PostMapping("/request-body-json-v5/batch")
+    public ResponseEntity<JsonBatchResult<HelloData>> requestBodyJsonBatch(
+        @RequestBody JsonBatchItems items,
+        @RequestParam(defaultValue = "false") boolean partial) {
+        // 항목을 JsonNode 로 받아서 하나가 잘못되어도 배열 전체가 400 이 되지 않게 한다
+        JsonBatchResult<HelloData> result = jsonBatchProcessor.process(items, HelloData.class, partial,
+            data -> log.info("username={}, age={}", data.getUsername(), data.getAge()));
+        return ResponseEntity.status(jsonBatchProcessor.status(result, partial)).body(result);
+    }
+
+}
@@ -2,6 +2,7 @@ package hello.springmvc.basic.request;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import hello.springmvc.basic.HelloData;
+import hello.springmvc.bulkhead.HandlerGroup;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import javax.servlet.ServletInputStream;
@@ -21,6 +22,7 @@ import org.springframework.web.bind.annotation.ResponseBody;
  */
 @Slf4j
 @Controller
+@HandlerGroup("body")
 public class RequestBodyJsonController {
 
     /*
@@ -1,5 +1,7 @@
 package hello.springmvc.basic.request;
 
+import hello.springmvc.body.SpooledBody;
+import hello.springmvc.bulkhead.HandlerGroup;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Writer;
@@ -17,6 +19,7 @@ import org.springframework.web.bind.annotation.ResponseBody;
 
 @Slf4j
 @Controller
+@HandlerGroup("body")
 public class RequestBodyStringController {
 
     /*
@@ -115,6 +118,22 @@ public class RequestBodyStringController {
         return "OK";
     }
 
+    /**
+     * SpooledBody: body-spool 필터가 미리 읽어 둔 바디
+     * - threshold 이하면 메모리 버퍼, 넘으면 메모리 매핑된 임시 파일
+     * - 문자열로 바꾸지 않고 크기만 확인하므로 큰 바디도 힙에 올라가지 않는다
+     * - body-spool.enabled=false 이면 null
+     */
+    @ResponseBody
+    @PostMapping("/request-body-string-v5")
+    public String requestBodyStringV5(SpooledBody body) {
+        if (body == null) {
+            return "OK";
+        }
+        log.info("size = {}, spooled = {}", body.size(), body.isSpooled());
+        return "OK " + body.size();
+    }
+
     /*
     - 요청 파라미터를 조회하는 기능: @RequestParam, @ModelAttribute
     - HTTP 메시지 바디를 직접 조회하는 기능: @RequestBOdy
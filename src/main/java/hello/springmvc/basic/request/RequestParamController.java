@@ -1,5 +1,6 @@
 package hello.springmvc.basic.request;
 
+import hello.springmvc.constant.ConstantResponse;
 import java.util.Map;
 import java.util.Objects;
 import javax.servlet.http.HttpServletRequest;
@@ -40,6 +41,7 @@ public class RequestParamController {
      * @return OK
      */
     @ResponseBody
+    @ConstantResponse("OK")
     @RequestMapping("/request-param-v2")
     public String requestParamV2(
         @RequestParam("username") String memberName,
@@ -58,6 +60,7 @@ public class RequestParamController {
      * @return
      */
     @ResponseBody
+    @ConstantResponse("OK")
     @RequestMapping("/request-param-v3")
     public String requestParamV3(
         @RequestParam String username,
@@ -77,6 +80,7 @@ public class RequestParamController {
      * @return
      */
     @ResponseBody
+    @ConstantResponse("OK")
     @RequestMapping("/request-param-v4")
     public String requestParamV4(String username, int age) {
         log.info("username={}, age={}", username, age);
@@ -100,6 +104,7 @@ public class RequestParamController {
      * @return
      */
     @ResponseBody
+    @ConstantResponse("OK")
     @RequestMapping("/request-param-required")
     public String requestParamRequired(
         @RequestParam(required = true) String username,
@@ -121,6 +126,7 @@ public class RequestParamController {
      * @return
      */
     @ResponseBody
+    @ConstantResponse("OK")
     @RequestMapping("/request-param-default")
     public String requestParamDefault(
         @RequestParam(required = true, defaultValue = "guest") String username,
@@ -142,6 +148,7 @@ public class RequestParamController {
      * @return
      */
     @ResponseBody
+    @ConstantResponse("OK")
    @RequestMapping("/request-param-map")
     public String requestParamMap(@RequestParam Map<String, Object> paramMap) {
         log.info("username={}, age={}", paramMap.get("username"), paramMap.get("age"));
@@ -1,41 +1,97 @@
 package hello.springmvc.basic.requestmapping;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import hello.springmvc.basic.HelloData;
+import hello.springmvc.cache.ResponseCache;
+import hello.springmvc.constant.ConstantResponse;
+import hello.springmvc.store.UserStore;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
 
 @RestController
 @Slf4j
 @RequestMapping("/mapping/users")
 public class MappingClassController {
 
+    /**
+     * response-cache.enabled=true 이면 회원 조회 결과를 캐시하고,
+     * 수정/삭제할 때 모든 노드의 캐시에서 지운다. 꺼져 있으면 null
+     */
+    private final ResponseCache responseCache;
+
+    /**
+     * user-store.enabled=true 이면 등록/수정/삭제를 WAL 에 남기고, 조회할 때 나이를 함께 돌려준다. 꺼져 있으면 null
+     */
+    private final UserStore userStore;
+
+    public MappingClassController(ObjectProvider<ResponseCache> responseCache, ObjectProvider<UserStore> userStore) {
+        this.responseCache = responseCache.getIfAvailable();
+        this.userStore = userStore.getIfAvailable();
+    }
+
+    @ConstantResponse("get users")
     @GetMapping
     public String users() {
         return "get users";
     }
 
+    /**
+     * {"username": "userA", "age": 20} -> username 을 userId 로 저장
+     */
+    @ConstantResponse("post user")
     @PostMapping
-    public String addUser() {
+    public String addUser(@RequestBody(required = false) HelloData helloData) {
+        if (userStore != null && helloData != null && helloData.getUsername() != null) {
+            userStore.put(helloData.getUsername(), helloData);
+            invalidateUser(helloData.getUsername());
+        }
         return "post user";
     }
 
     @GetMapping("/{userId}")
     public String findUser(@PathVariable String userId) {
-        return "get userId = " + userId;
+        if (responseCache == null) {
+            return describeUser(userId);
+        }
+        return responseCache.get("users:" + userId, () -> describeUser(userId));
     }
 
+    /**
+     * {"age": 21} -> 바디에 있는 필드만 바꾸고 나머지는 저장된 값을 유지한다.
+     * user-store 가 켜져 있으면 없는 회원은 404 (PATCH 로 새 회원을 만들지 않는다)
+     */
     @PatchMapping("/{userId}")
-    public String updateUser(@PathVariable String userId) {
+    public String updateUser(@PathVariable String userId, @RequestBody(required = false) JsonNode changes) {
+        if (userStore != null) {
+            Integer age = intField(changes, "age");
+            HelloData updated = age == null ? userStore.find(userId) : userStore.update(userId, user -> user.setAge(age));
+            if (updated == null) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "user not found: " + userId);
+            }
+        }
+        invalidateUser(userId);
         return "update userId=" + userId;
     }
 
+    /**
+     * user-store 가 켜져 있으면 없는 회원은 404 (WAL 에 쓰지 않는다)
+     */
     @DeleteMapping("/{userId}")
     public String deleteUser(@PathVariable String userId) {
+        if (userStore != null && !userStore.delete(userId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "user not found: " + userId);
+        }
+        invalidateUser(userId);
         return "delete userId = " + userId;
     }
 
@@ -44,4 +100,29 @@ public class MappingClassController {
         return "testUser userId = " + userId;
     }
 
+    private String describeUser(String userId) {
+        HelloData user = userStore == null ? null : userStore.find(userId);
+        if (user == null) {
+            return "get userId = " + userId;
+        }
+        return "get userId = " + userId + ", age = " + user.getAge();
+    }
+
+    private static Integer intField(JsonNode node, String name) {
+        JsonNode value = node == null ? null : node.get(name);
+        if (value == null || value.isNull()) {
+            return null;
+        }
+        if (!value.isInt()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, name + " must be an int");
+        }
+        return value.intValue();
+    }
+
+    private void invalidateUser(String userId) {
+        if (responseCache != null) {
+            responseCache.invalidate("users:" + userId);
+        }
+    }
+
 }
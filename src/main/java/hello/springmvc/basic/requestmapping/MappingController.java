@@ -1,5 +1,6 @@
 package hello.springmvc.basic.requestmapping;
 
+import hello.springmvc.constant.ConstantResponse;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -20,6 +21,7 @@ public class MappingController {
      * 대부분의 속성을 배열[] 로 제공하므로 다중 설정이 가능하다. {"/hello-basic", "/hello-go"}
      * @return OK
      */
+    @ConstantResponse("OK")
     @RequestMapping("/hello-basic")
     public String helloBasic() {
         log.info("hello Basic");
@@ -40,6 +42,7 @@ public class MappingController {
      * GET
      * @return OK
      */
+    @ConstantResponse("OK")
     @RequestMapping(value = "/mapping-get-v1", method = RequestMethod.GET)
     public String mappingGetV1() {
         log.info("mapping Get V1");
@@ -55,6 +58,7 @@ public class MappingController {
      * @PatchMapping
      * @return OK
      */
+    @ConstantResponse("OK")
     @GetMapping(value = "/mapping-get-v2") // 이렇게 하는 게 더 직관적
     public String mappingGetV2() {
         log.info("mapping-get-v2");
@@ -71,6 +75,7 @@ public class MappingController {
      * @param data
      * @return "OK"
      */
+    @ConstantResponse("OK")
     @GetMapping("/mapping/{userId}")
     public String mappingPath(@PathVariable("userId") String data) {
         log.info("mapping userId = {}", data);
@@ -88,6 +93,7 @@ public class MappingController {
      * @param orderId
      * @return
      */
+    @ConstantResponse("OK")
     @GetMapping("/mapping/users/{userId}/orders/{orderId}")
     public String mappingPath(@PathVariable String userId, @PathVariable Long orderId) {
         log.info("mappingPath userId = {}, orderId = {}", userId, orderId);
@@ -103,6 +109,7 @@ public class MappingController {
      * params={"mode=debug", "data=good"}
      * @return "OK"
      */
+    @ConstantResponse("OK")
     @GetMapping(value = "/mapping-param", params = "mode=debug")
     public String mappingParam() {
         log.info("mappingParam");
@@ -117,6 +124,7 @@ public class MappingController {
      * headers="mode!=debug" (!=)
      * @return OK
      */
+    @ConstantResponse("OK")
     @GetMapping(value = "/mapping-header", headers = "mode=debug")
     public String mappingHeader() {
         log.info("mappingHeader");
@@ -136,6 +144,7 @@ public class MappingController {
      * HTTP 요청의 Content-Type 헤더를 기반으로 미디어 타입으로 매핑한다.
      * 만약 맞지 않으면 HTTP 415 상태코드(Unsupported Media Type)을 반환한다.
      */
+    @ConstantResponse("OK")
     @PostMapping(value = "/mapping-consume", consumes = "application/json")
     public String mappingConsumes() {
         log.info("mappingConsumes");
@@ -150,6 +159,7 @@ public class MappingController {
      * produces = "*\/*"
      * @return OK
      */
+    @ConstantResponse("OK")
     @PostMapping(value = "/mapping-produce", produces = "text/html")
     public String mappingProduces() {
         log.info("mappingProduces");
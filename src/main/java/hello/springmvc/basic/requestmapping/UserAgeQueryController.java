@@ -0,0 +1,52 @@
+package hello.springmvc.basic.requestmapping;
+
+import hello.springmvc.store.AgeRangePage;
+import hello.springmvc.store.UserStore;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * 나이 범위로 회원 조회 (user-store 의 나이 인덱스)
+ * - GET /mapping/users-by-age?min=20&max=29&size=100 : (나이, userId) 순서로 한 페이지, 응답의 next 를 after 로 넘기면 다음 페이지
+ * - GET /mapping/users-by-age/count?min=20&max=29
+ * 범위 끝 위치는 이진 탐색으로 찾으므로 회원 수와 상관없이 결과 수만큼만 걸린다.
+ * /mapping/users/{userId} 아래에 두면 user-store 가 꺼졌을 때 "by-age" 가 userId 로 매핑되므로 경로를 따로 둔다.
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/mapping/users-by-age")
+@ConditionalOnProperty(prefix = "user-store", name = "enabled", havingValue = "true")
+public class UserAgeQueryController {
+
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    private final UserStore userStore;
+
+    @GetMapping
+    public AgeRangePage findByAge(@RequestParam(defaultValue = "0") int min,
+                                  @RequestParam(defaultValue = "" + Integer.MAX_VALUE) int max,
+                                  @RequestParam(required = false) String after,
+                                  @RequestParam(defaultValue = "100") int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        try {
+            return userStore.findByAge(min, max, after, size);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    @GetMapping("/count")
+    public long countByAge(@RequestParam(defaultValue = "0") int min,
+                           @RequestParam(defaultValue = "" + Integer.MAX_VALUE) int max) {
+        return userStore.countByAge(min, max);
+    }
+
+}
@@ -2,9 +2,11 @@ package hello.springmvc.basic.response;
 
 
 import hello.springmvc.basic.HelloData;
+import hello.springmvc.cache.ResponseCache;
 import java.io.IOException;
 import javax.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
@@ -29,6 +31,16 @@ HTTP 메시지 바디에 직접 데이터를 입력한다.
  */
 public class ResponseBodyController {
 
+    /**
+     * response-cache.enabled=true 이면 노드 로컬 응답 캐시, 꺼져 있으면 null
+     * 변경되면 DELETE /internal/response-cache?key=hello-data:userA 로 모든 노드에서 지운다.
+     */
+    private final ResponseCache responseCache;
+
+    public ResponseBodyController(ObjectProvider<ResponseCache> responseCache) {
+        this.responseCache = responseCache.getIfAvailable();
+    }
+
     /**
      * 서블릿을 직접 다룰 때 처럼 HttpServletResponse 객체를 통해
      * HTTP 메시지 바디에 직접 OK 응답 메시지를 전달
@@ -74,11 +86,17 @@ public class ResponseBodyController {
      */
     @GetMapping("/response-body-json-v1")
     public ResponseEntity<HelloData> responseBodyJsonV1() {
+        HelloData helloData = responseCache == null
+            ? createHelloData() : responseCache.get("hello-data:userA", this::createHelloData);
+
+        return new ResponseEntity<>(helloData, HttpStatus.OK);
+    }
+
+    private HelloData createHelloData() {
         HelloData helloData = new HelloData();
         helloData.setUsername("userA");
         helloData.setAge(20);
-
-        return new ResponseEntity<>(helloData, HttpStatus.OK);
+        return helloData;
     }
 
 
@@ -51,13 +51,21 @@ HTTP 응답 - 정적 리소스, 뷰 템플릿
 
 package hello.springmvc.basic.response;
 
+import hello.springmvc.basic.HelloData;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.servlet.ModelAndView;
 
 @Controller
 public class ResponseViewController { // 뷰 템플릿을 호출하는 컨트롤러
 
+    private static final int MAX_REPORT_ROWS = 1_000_000;
+
     /*
     String을 반환하는 경우 - View or HTTP 메시지
     @ResponseBody가 없으면 response/hello로 뷰 리졸버가 실행되어서 뷰를 찾고, 렌더링
@@ -88,6 +96,38 @@ public class ResponseViewController { // 뷰 템플릿을 호출하는 컨트롤
         return mav;
     }
 
+    /**
+     * 수만 건의 행을 가진 리포트 뷰
+     * - mode=buffered: 모든 행을 List로 만든 뒤 일반 뷰로 렌더링
+     * - mode=stream: 행을 Iterable로 넘기고 "stream:" 뷰로 렌더링
+     *   th:each가 행을 하나씩 만들어 쓰고, streaming-view.chunk-size 만큼 쌓일 때마다 클라이언트로 flush 된다.
+     */
+    @RequestMapping("/response-view-report")
+    public ModelAndView responseViewReport(
+        @RequestParam(defaultValue = "10000") int rows,
+        @RequestParam(defaultValue = "stream") String mode
+    ) {
+        int count = Math.min(rows, MAX_REPORT_ROWS);
+
+        if ("buffered".equals(mode)) {
+            List<HelloData> list = reportRows(count).collect(Collectors.toList());
+            return new ModelAndView("response/report").addObject("rows", list);
+        }
+
+        // iterator()를 호출할 때마다 처음부터 다시 만든다 (한 번만 순회 가능한 Iterator를 넘기지 않는다)
+        Iterable<HelloData> lazyRows = () -> reportRows(count).iterator();
+        return new ModelAndView("stream:response/report").addObject("rows", lazyRows);
+    }
+
+    private static Stream<HelloData> reportRows(int count) {
+        return IntStream.range(0, count).mapToObj(i -> {
+            HelloData helloData = new HelloData();
+            helloData.setUsername("user" + i);
+            helloData.setAge(i % 100);
+            return helloData;
+        });
+    }
+
     /*
     타임리프 (Tymeleaf)
     Thymeleaf is a modern server-side Java template engine for both web and standalone environments.
@@ -0,0 +1,26 @@
+package hello.springmvc.batch;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * json-batch.enabled=true 이면 POST /request-body-json-v5/batch 로 HelloData 배열을 한 번에 받는다.
+ * 메시지 컨버터와 같은 ObjectMapper 로 변환하므로 항목 하나의 결과는 /request-body-json-v5 와 같다.
+ */
+@Configuration
+@EnableConfigurationProperties(JsonBatchProperties.class)
+@ConditionalOnProperty(prefix = "json-batch", name = "enabled", havingValue = "true")
+public class JsonBatchConfig {
+
+    /**
+     * 종료할 때 처리 중인 배치를 기다렸다가 풀을 닫는다.
+     */
+    @Bean(destroyMethod = "close")
+    public JsonBatchProcessor jsonBatchProcessor(JsonBatchProperties properties, ObjectMapper objectMapper) {
+        return new JsonBatchProcessor(properties, objectMapper);
+    }
+
+}
@@ -0,0 +1,24 @@
+package hello.springmvc.batch;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * 배치 처리 수, 실패한 항목 수, ForkJoinPool 상태
+ * GET /internal/json-batch
+ */
+@RestController
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "json-batch", name = "enabled", havingValue = "true")
+public class JsonBatchController {
+
+    private final JsonBatchProcessor jsonBatchProcessor;
+
+    @GetMapping("/internal/json-batch")
+    public JsonBatchStats stats() {
+        return jsonBatchProcessor.stats();
+    }
+
+}
@@ -0,0 +1,18 @@
+package hello.springmvc.batch;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+
+/**
+ * 배치 항목 하나의 처리 결과
+ * index 는 요청 배열에서의 위치이고, 결과는 항상 요청과 같은 순서로 돌려준다.
+ */
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class JsonBatchItem<T> {
+    private int index;
+    /** 항목별 HTTP 상태 (200 성공, 400 변환 실패, 500 처리 중 예외) */
+    private int status;
+    private T data;
+    private String error;
+}
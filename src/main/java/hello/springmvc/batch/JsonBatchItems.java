@@ -0,0 +1,11 @@
+package hello.springmvc.batch;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import java.util.ArrayList;
+
+/**
+ * 배치 요청 본문, JSON 배열의 항목들
+ * 메시지 컨버터가 읽을 때 JsonBatchItemsDeserializer 가 항목을 하나씩 읽으면서 max-items 를 확인한다.
+ */
+public class JsonBatchItems extends ArrayList<JsonNode> {
+}
@@ -0,0 +1,46 @@
+package hello.springmvc.batch;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import java.io.IOException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.jackson.JsonComponent;
+
+/**
+ * JSON 배열을 항목 하나씩 읽고, max-items 를 넘는 항목을 만나면 나머지를 읽지 않고 413
+ * (List 로 받으면 배열 전체를 만든 뒤에야 크기를 확인할 수 있다)
+ */
+@JsonComponent
+@ConditionalOnProperty(prefix = "json-batch", name = "enabled", havingValue = "true")
+public class JsonBatchItemsDeserializer extends JsonDeserializer<JsonBatchItems> {
+
+    /** JsonBatchProcessor 는 ObjectMapper 를 쓰고 ObjectMapper 는 이 클래스를 쓰므로, 처음 읽을 때 가져온다 */
+    private final ObjectProvider<JsonBatchProcessor> processor;
+
+    public JsonBatchItemsDeserializer(ObjectProvider<JsonBatchProcessor> processor) {
+        this.processor = processor;
+    }
+
+    @Override
+    public JsonBatchItems deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+        if (!parser.isExpectedStartArrayToken()) {
+            return (JsonBatchItems) context.handleUnexpectedToken(JsonBatchItems.class, parser);
+        }
+        JsonBatchProcessor batchProcessor = processor.getObject();
+        JsonBatchItems items = new JsonBatchItems();
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (token == null) {
+                throw context.wrongTokenException(parser, JsonBatchItems.class, JsonToken.END_ARRAY,
+                    "unexpected end of batch array");
+            }
+            batchProcessor.checkSize(items.size() + 1);
+            items.add(context.readTree(parser));
+        }
+        return items;
+    }
+
+}
@@ -0,0 +1,254 @@
+package hello.springmvc.batch;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * JSON 배열의 항목을 전용 ForkJoinPool 에서 나눠 처리한다.
+ * - 항목 범위를 반으로 나누는 RecursiveAction 으로 split-threshold 이하가 될 때까지 쪼개고,
+ *   각 항목의 결과는 요청 배열과 같은 위치에 쓴다. 그래서 병렬로 처리해도 응답 순서는 요청 순서와 같다.
+ * - 항목 수가 split-threshold 이하이면 풀에 넘기지 않고 요청 스레드에서 바로 처리한다.
+ * - 공용 풀(ForkJoinPool.commonPool)을 쓰지 않으므로 parallel stream 등 다른 작업과 스레드를 나눠 쓰지 않고,
+ *   동시에 여러 배치가 와도 배치 처리에 쓰는 스레드는 parallelism 개를 넘지 않는다.
+ * - partial=true 이면 항목 하나가 실패해도 나머지는 계속 처리하고, 실패는 그 항목의 status/error 로 돌려준다.
+ * - partial=false 이면 모든 항목을 먼저 변환해 보고, 하나라도 변환에 실패하면 handler 를 부르지 않는다.
+ */
+@Slf4j
+public class JsonBatchProcessor {
+
+    private final ObjectMapper objectMapper;
+    private final ForkJoinPool pool;
+    private final int parallelism;
+    private final int splitThreshold;
+    private final int maxItems;
+
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder items = new LongAdder();
+    private final LongAdder failedItems = new LongAdder();
+    private final LongAdder partialBatches = new LongAdder();
+    private final LongAdder rejectedBatches = new LongAdder();
+    private final LongAdder oversizedBatches = new LongAdder();
+    private final AtomicInteger largestBatch = new AtomicInteger();
+
+    public JsonBatchProcessor(JsonBatchProperties properties, ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.parallelism = properties.getParallelism() > 0
+            ? properties.getParallelism() : Runtime.getRuntime().availableProcessors();
+        this.splitThreshold = Math.max(1, properties.getSplitThreshold());
+        this.maxItems = properties.getMaxItems();
+        this.pool = new ForkJoinPool(parallelism, pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("json-batch-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+    }
+
+    /**
+     * max-items 를 넘는 배치는 처리하지 않고 413
+     * (JsonBatchItemsDeserializer 가 항목을 하나 읽을 때마다 부른다)
+     */
+    public void checkSize(int size) {
+        if (size > maxItems) {
+            oversizedBatches.increment();
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                "batch has " + size + " items, max-items=" + maxItems);
+        }
+    }
+
+    /**
+     * 각 항목을 type 으로 변환해서 handler 에 넘긴다.
+     * 변환에 실패한 항목은 400, handler 가 예외를 던진 항목은 500 으로 표시한다.
+     *
+     * @param partial false 이면 변환을 모두 끝낸 뒤, 실패한 항목이 없을 때만 handler 를 부른다.
+     *                변환에 성공했지만 다른 항목 때문에 처리하지 않은 항목은 424 로 표시한다.
+     *                (handler 에서 난 실패는 이미 처리한 항목을 되돌리지 않는다)
+     */
+    public <T> JsonBatchResult<T> process(List<JsonNode> nodes, Class<T> type, boolean partial,
+                                          Consumer<? super T> handler) {
+        // 항목마다 다른 인덱스에만 set 하므로 크기가 고정된 리스트를 여러 스레드가 나눠 채워도 된다
+        List<JsonBatchItem<T>> results = new ArrayList<>(Collections.nCopies(nodes.size(), null));
+        if (partial) {
+            forEachItem(nodes.size(), i -> results.set(i, handleItem(convertItem(i, nodes.get(i), type), handler)));
+        } else {
+            forEachItem(nodes.size(), i -> results.set(i, convertItem(i, nodes.get(i), type)));
+            if (allSucceeded(results)) {
+                forEachItem(nodes.size(), i -> results.set(i, handleItem(results.get(i), handler)));
+            } else {
+                for (JsonBatchItem<T> item : results) {
+                    if (item.getStatus() == HttpStatus.OK.value()) {
+                        item.setStatus(HttpStatus.FAILED_DEPENDENCY.value());
+                        item.setError("not processed because other items failed (partial=false)");
+                        item.setData(null);
+                    }
+                }
+            }
+        }
+
+        int failed = 0;
+        for (JsonBatchItem<T> result : results) {
+            if (result.getStatus() != HttpStatus.OK.value()) {
+                failed++;
+            }
+        }
+        batches.increment();
+        items.add(nodes.size());
+        failedItems.add(failed);
+        largestBatch.accumulateAndGet(nodes.size(), Math::max);
+
+        JsonBatchResult<T> result = new JsonBatchResult<>();
+        result.setTotal(nodes.size());
+        result.setSucceeded(nodes.size() - failed);
+        result.setFailed(failed);
+        result.setResults(results);
+        return result;
+    }
+
+    /**
+     * 배치 응답 상태
+     * - 모두 성공: 200
+     * - 실패한 항목이 있고 partial=true: 207 (항목별 status 확인)
+     * - 실패한 항목이 있고 partial=false: 400 (배치 전체 실패, 실패한 항목은 results 에서 확인)
+     */
+    public HttpStatus status(JsonBatchResult<?> result, boolean partial) {
+        if (result.getFailed() == 0) {
+            return HttpStatus.OK;
+        }
+        if (partial) {
+            partialBatches.increment();
+            return HttpStatus.MULTI_STATUS;
+        }
+        rejectedBatches.increment();
+        return HttpStatus.BAD_REQUEST;
+    }
+
+    public JsonBatchStats stats() {
+        JsonBatchStats stats = new JsonBatchStats();
+        stats.setParallelism(parallelism);
+        stats.setSplitThreshold(splitThreshold);
+        stats.setMaxItems(maxItems);
+        stats.setPoolSize(pool.getPoolSize());
+        stats.setActiveThreads(pool.getActiveThreadCount());
+        stats.setSteals(pool.getStealCount());
+        stats.setBatches(batches.sum());
+        stats.setItems(items.sum());
+        stats.setFailedItems(failedItems.sum());
+        stats.setPartialBatches(partialBatches.sum());
+        stats.setRejectedBatches(rejectedBatches.sum());
+        stats.setOversizedBatches(oversizedBatches.sum());
+        stats.setLargestBatch(largestBatch.get());
+        return stats;
+    }
+
+    public void close() throws InterruptedException {
+        pool.shutdown();
+        if (!pool.awaitTermination(5, TimeUnit.SECONDS)) {
+            log.warn("json-batch pool did not terminate in 5s");
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * [0, size) 의 각 위치에 action 을 실행한다. size 가 split-threshold 이하이면 요청 스레드에서 바로 한다.
+     */
+    private void forEachItem(int size, IntConsumer action) {
+        ItemTask task = new ItemTask(action, 0, size);
+        if (size <= splitThreshold) {
+            task.compute();
+        } else {
+            pool.invoke(task);
+        }
+    }
+
+    private static boolean allSucceeded(List<? extends JsonBatchItem<?>> results) {
+        for (JsonBatchItem<?> result : results) {
+            if (result.getStatus() != HttpStatus.OK.value()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 변환에 성공하면 status 200 에 data 를 담아 돌려준다. (handler 는 아직 부르지 않았다)
+     */
+    private <T> JsonBatchItem<T> convertItem(int index, JsonNode node, Class<T> type) {
+        JsonBatchItem<T> item = new JsonBatchItem<>();
+        item.setIndex(index);
+        if (node == null || !node.isObject()) {
+            item.setStatus(HttpStatus.BAD_REQUEST.value());
+            item.setError("expected JSON object but was " + (node == null ? "null" : node.getNodeType()));
+            return item;
+        }
+
+        T value;
+        try {
+            value = objectMapper.treeToValue(node, type);
+        } catch (JsonProcessingException e) {
+            item.setStatus(HttpStatus.BAD_REQUEST.value());
+            item.setError(e.getOriginalMessage());
+            return item;
+        }
+        item.setStatus(HttpStatus.OK.value());
+        item.setData(value);
+        return item;
+    }
+
+    private <T> JsonBatchItem<T> handleItem(JsonBatchItem<T> item, Consumer<? super T> handler) {
+        if (item.getStatus() != HttpStatus.OK.value()) {
+            return item;
+        }
+        try {
+            handler.accept(item.getData());
+        } catch (RuntimeException e) {
+            log.warn("batch item {} failed", item.getIndex(), e);
+            item.setStatus(HttpStatus.INTERNAL_SERVER_ERROR.value());
+            item.setError(e.toString());
+            item.setData(null);
+        }
+        return item;
+    }
+
+    /**
+     * [from, to) 범위의 항목을 처리한다. 범위가 split-threshold 보다 크면 반으로 나눠 한쪽을 fork 한다.
+     */
+    private class ItemTask extends RecursiveAction {
+
+        private final IntConsumer action;
+        private final int from;
+        private final int to;
+
+        ItemTask(IntConsumer action, int from, int to) {
+            this.action = action;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= splitThreshold) {
+                for (int i = from; i < to; i++) {
+                    action.accept(i);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new ItemTask(action, from, middle), new ItemTask(action, middle, to));
+        }
+    }
+
+}
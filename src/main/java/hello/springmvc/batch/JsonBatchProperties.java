@@ -0,0 +1,24 @@
+package hello.springmvc.batch;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * json-batch.* 설정
+ * - parallelism: 배치 항목을 나눠 처리하는 ForkJoinPool 스레드 수 (0 이면 CPU 수)
+ * - max-items: 한 요청에 받을 수 있는 최대 항목 수 (넘으면 413)
+ * - split-threshold: 이 개수 이하로 나뉘면 더 쪼개지 않고 한 스레드에서 차례로 처리한다
+ *   (항목 하나의 처리가 짧아서 너무 잘게 나누면 작업을 나누고 합치는 비용이 더 크다)
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "json-batch")
+public class JsonBatchProperties {
+
+    private boolean enabled = false;
+    private int parallelism = 0;
+    private int maxItems = 1000;
+    private int splitThreshold = 32;
+
+}
@@ -0,0 +1,12 @@
+package hello.springmvc.batch;
+
+import java.util.List;
+import lombok.Data;
+
+@Data
+public class JsonBatchResult<T> {
+    private int total;
+    private int succeeded;
+    private int failed;
+    private List<JsonBatchItem<T>> results;
+}
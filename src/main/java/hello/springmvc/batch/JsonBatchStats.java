@@ -0,0 +1,24 @@
+package hello.springmvc.batch;
+
+import lombok.Data;
+
+@Data
+public class JsonBatchStats {
+    private int parallelism;
+    private int splitThreshold;
+    private int maxItems;
+    /** ForkJoinPool 상태 */
+    private int poolSize;
+    private int activeThreads;
+    private long steals;
+    private long batches;
+    private long items;
+    private long failedItems;
+    /** 일부 항목만 실패해서 207 로 응답한 배치 수 */
+    private long partialBatches;
+    /** 실패한 항목이 있어 배치 전체를 400 으로 거절한 수 */
+    private long rejectedBatches;
+    /** max-items 를 넘어 413 으로 거절한 수 */
+    private long oversizedBatches;
+    private int largestBatch;
+}
@@ -0,0 +1,33 @@
+package hello.springmvc.body;
+
+import java.util.List;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@EnableConfigurationProperties(BodySpoolProperties.class)
+@ConditionalOnProperty(prefix = "body-spool", name = "enabled", havingValue = "true")
+public class BodySpoolConfig implements WebMvcConfigurer {
+
+    @Bean
+    public BodySpooler bodySpooler(BodySpoolProperties properties) {
+        return new BodySpooler(properties);
+    }
+
+    @Bean
+    public FilterRegistrationBean<BodySpoolFilter> bodySpoolFilter(BodySpooler bodySpooler,
+                                                                    BodySpoolProperties properties) {
+        return new FilterRegistrationBean<>(new BodySpoolFilter(bodySpooler, properties.getPathPatterns()));
+    }
+
+    @Override
+    public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
+        resolvers.add(new SpooledBodyArgumentResolver());
+    }
+
+}
@@ -0,0 +1,24 @@
+package hello.springmvc.body;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * 메모리/스풀 처리 건수, 스풀 바이트, 거절 수, 버퍼 풀 상태 조회
+ * GET /internal/body-spool
+ */
+@RestController
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "body-spool", name = "enabled", havingValue = "true")
+public class BodySpoolController {
+
+    private final BodySpooler spooler;
+
+    @GetMapping("/internal/body-spool")
+    public BodySpoolStats stats() {
+        return spooler.stats();
+    }
+
+}
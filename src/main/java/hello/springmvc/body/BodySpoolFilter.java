@@ -0,0 +1,71 @@
+package hello.springmvc.body;
+
+import java.io.IOException;
+import java.util.List;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * 대상 경로의 POST/PUT/PATCH 요청 바디를 먼저 SpooledBody 로 읽고,
+ * 핸들러는 래핑된 요청에서 읽는다. 요청이 끝나면 버퍼 반납, 임시 파일 삭제.
+ *
+ * HTML Form(application/x-www-form-urlencoded, multipart)은 서블릿 컨테이너가
+ * 요청 파라미터로 직접 읽어야 하므로 제외한다.
+ */
+public class BodySpoolFilter extends OncePerRequestFilter {
+
+    /** 핸들러에서 SpooledBody 를 꺼낼 때 사용하는 요청 속성 이름 */
+    public static final String SPOOLED_BODY_ATTRIBUTE = BodySpoolFilter.class.getName() + ".body";
+
+    private final BodySpooler spooler;
+    private final List<String> pathPatterns;
+    private final PathMatcher pathMatcher = new AntPathMatcher();
+
+    public BodySpoolFilter(BodySpooler spooler, List<String> pathPatterns) {
+        this.spooler = spooler;
+        this.pathPatterns = pathPatterns;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+        throws ServletException, IOException {
+        SpooledBody body;
+        try {
+            body = spooler.read(request.getInputStream(), request.getContentLengthLong());
+        } catch (BodyTooLargeException e) {
+            response.sendError(HttpStatus.PAYLOAD_TOO_LARGE.value(), e.getMessage());
+            return;
+        }
+
+        try {
+            request.setAttribute(SPOOLED_BODY_ATTRIBUTE, body);
+            chain.doFilter(new SpooledBodyRequest(request, body), response);
+        } finally {
+            request.removeAttribute(SPOOLED_BODY_ATTRIBUTE);
+            body.close();
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String method = request.getMethod();
+        if (!"POST".equals(method) && !"PUT".equals(method) && !"PATCH".equals(method)) {
+            return true;
+        }
+        String contentType = request.getContentType();
+        if (contentType != null && (contentType.startsWith(MediaType.APPLICATION_FORM_URLENCODED_VALUE)
+            || contentType.startsWith("multipart/"))) {
+            return true;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return pathPatterns.stream().noneMatch(pattern -> pathMatcher.match(pattern, path));
+    }
+
+}
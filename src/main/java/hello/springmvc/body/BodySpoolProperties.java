@@ -0,0 +1,30 @@
+package hello.springmvc.body;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * body-spool.* 설정
+ * - threshold: 이 크기 이하의 바디는 풀에서 빌린 메모리 버퍼에 담고, 넘으면 임시 파일로 옮긴다
+ * - max-size: 이 크기를 넘는 바디는 413(Payload Too Large)로 거절
+ * - pool-size: 미리 만들어 재사용하는 threshold 크기 버퍼 개수 (Content-Length 를 모르거나 threshold 이상인 요청만 사용)
+ * - path-patterns: 적용할 요청 경로 (Ant 패턴)
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "body-spool")
+public class BodySpoolProperties {
+
+    private boolean enabled = false;
+    private DataSize threshold = DataSize.ofKilobytes(64);
+    private DataSize maxSize = DataSize.ofMegabytes(10);
+    private int poolSize = 32;
+    /** 비어 있으면 java.io.tmpdir */
+    private String directory;
+    private List<String> pathPatterns = new ArrayList<>(List.of("/request-body-*"));
+
+}
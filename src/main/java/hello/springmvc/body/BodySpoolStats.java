@@ -0,0 +1,18 @@
+package hello.springmvc.body;
+
+import lombok.Data;
+
+@Data
+public class BodySpoolStats {
+    private int threshold;
+    private long maxSize;
+    private long inMemory;
+    private long exactSizeBuffers;
+    private long spooled;
+    private long spooledBytes;
+    private long rejected;
+    private int activeSpoolFiles;
+    private int pooledBuffersAvailable;
+    private long poolMisses;
+    private long deleteFailures;
+}
@@ -0,0 +1,191 @@
+package hello.springmvc.body;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.util.StringUtils;
+
+/**
+ * 요청 바디를 끝까지 읽어서 SpooledBody 로 만든다.
+ *
+ * 1. Content-Length 가 threshold 보다 작으면 딱 그 크기의 버퍼를 새로 만들어 읽는다.
+ *    (작은 요청마다 threshold 크기 버퍼를 차지하지 않는다, 짧은 배열은 TLAB 에서 할당되어 풀보다 싸다)
+ *    Content-Length 를 모르거나 threshold 이상이면 풀에서 threshold 크기 버퍼를 빌려 읽는다. 그 안에 다 들어오면 메모리에 둔다.
+ * 2. 넘치면 임시 파일을 만들어 지금까지 읽은 내용과 나머지를 쓰고, 읽기 전용으로 매핑한다.
+ * 3. Content-Length 또는 실제로 읽은 크기가 max-size를 넘으면 BodyTooLargeException.
+ */
+@Slf4j
+public class BodySpooler {
+
+    private final int threshold;
+    private final long maxSize;
+    private final Path directory;
+    private final BlockingQueue<byte[]> pool;
+
+    private final LongAdder inMemoryCount = new LongAdder();
+    private final LongAdder exactSizeCount = new LongAdder();
+    private final LongAdder spooledCount = new LongAdder();
+    private final LongAdder spooledBytes = new LongAdder();
+    private final LongAdder rejectedCount = new LongAdder();
+    private final LongAdder poolMisses = new LongAdder();
+    private final LongAdder deleteFailures = new LongAdder();
+    private final AtomicInteger activeFiles = new AtomicInteger();
+
+    public BodySpooler(BodySpoolProperties properties) {
+        this.threshold = (int) properties.getThreshold().toBytes();
+        this.maxSize = properties.getMaxSize().toBytes();
+        this.directory = Paths.get(StringUtils.hasText(properties.getDirectory())
+            ? properties.getDirectory() : System.getProperty("java.io.tmpdir"));
+        this.pool = new ArrayBlockingQueue<>(Math.max(1, properties.getPoolSize()));
+        for (int i = 0; i < properties.getPoolSize(); i++) {
+            pool.offer(new byte[threshold]);
+        }
+    }
+
+    /**
+     * @param contentLength 모르면 -1
+     */
+    public SpooledBody read(InputStream in, long contentLength) throws IOException {
+        if (contentLength > maxSize) {
+            rejectedCount.increment();
+            throw new BodyTooLargeException(maxSize);
+        }
+
+        byte[] buffer;
+        if (contentLength >= 0 && contentLength < threshold) {
+            exactSizeCount.increment();
+            buffer = new byte[(int) contentLength];
+        } else {
+            buffer = acquireBuffer();
+        }
+        try {
+            int length = fill(in, buffer);
+            int next = length == buffer.length ? in.read() : -1;
+            if (next == -1) {
+                inMemoryCount.increment();
+                SpooledBody body = new SpooledBody(this, buffer, length);
+                buffer = null;
+                return body;
+            }
+            return spool(in, buffer, length, next);
+        } finally {
+            if (buffer != null) {
+                releaseBuffer(buffer);
+            }
+        }
+    }
+
+    /**
+     * @param head 지금까지 읽은 버퍼, Content-Length 보다 긴 바디가 들어와서 딱 맞춘 버퍼가 넘쳤으면
+     *             나머지는 풀에서 빌린 버퍼로 옮긴다
+     */
+    private SpooledBody spool(InputStream in, byte[] head, int length, int next) throws IOException {
+        Path file = Files.createTempFile(directory, "body-", ".spool");
+        activeFiles.incrementAndGet();
+        FileChannel channel = null;
+        byte[] buffer = head.length == threshold ? head : acquireBuffer();
+        try {
+            channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            writeFully(channel, head, length);
+            buffer[0] = (byte) next;
+            writeFully(channel, buffer, 1);
+            long total = length + 1L;
+
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                total += read;
+                if (total > maxSize) {
+                    rejectedCount.increment();
+                    throw new BodyTooLargeException(maxSize);
+                }
+                writeFully(channel, buffer, read);
+            }
+
+            SpooledBody body = new SpooledBody(this, file, channel);
+            spooledCount.increment();
+            spooledBytes.add(total);
+            return body;
+        } catch (IOException | RuntimeException e) {
+            if (channel != null) {
+                channel.close();
+            }
+            releaseFile(file, Files.deleteIfExists(file));
+            throw e;
+        } finally {
+            if (buffer != head) {
+                releaseBuffer(buffer);
+            }
+        }
+    }
+
+    private static int fill(InputStream in, byte[] buffer) throws IOException {
+        int length = 0;
+        int read;
+        while (length < buffer.length && (read = in.read(buffer, length, buffer.length - length)) != -1) {
+            length += read;
+        }
+        return length;
+    }
+
+    private static void writeFully(FileChannel channel, byte[] buffer, int length) throws IOException {
+        ByteBuffer source = ByteBuffer.wrap(buffer, 0, length);
+        while (source.hasRemaining()) {
+            channel.write(source);
+        }
+    }
+
+    private byte[] acquireBuffer() {
+        byte[] buffer = pool.poll();
+        if (buffer == null) {
+            // 풀이 비면 새로 만든다. 반납할 때 풀이 가득 차 있으면 버려진다.
+            poolMisses.increment();
+            buffer = new byte[threshold];
+        }
+        return buffer;
+    }
+
+    /**
+     * Content-Length 에 맞춰 만든 버퍼는 풀에 넣지 않는다.
+     */
+    void releaseBuffer(byte[] buffer) {
+        if (buffer.length == threshold) {
+            pool.offer(buffer);
+        }
+    }
+
+    void releaseFile(Path file, boolean deleted) {
+        activeFiles.decrementAndGet();
+        if (!deleted) {
+            deleteFailures.increment();
+            file.toFile().deleteOnExit();
+            log.warn("spool file not deleted: {}", file);
+        }
+    }
+
+    public BodySpoolStats stats() {
+        BodySpoolStats stats = new BodySpoolStats();
+        stats.setThreshold(threshold);
+        stats.setMaxSize(maxSize);
+        stats.setInMemory(inMemoryCount.sum());
+        stats.setExactSizeBuffers(exactSizeCount.sum());
+        stats.setSpooled(spooledCount.sum());
+        stats.setSpooledBytes(spooledBytes.sum());
+        stats.setRejected(rejectedCount.sum());
+        stats.setActiveSpoolFiles(activeFiles.get());
+        stats.setPooledBuffersAvailable(pool.size());
+        stats.setPoolMisses(poolMisses.sum());
+        stats.setDeleteFailures(deleteFailures.sum());
+        return stats;
+    }
+
+}
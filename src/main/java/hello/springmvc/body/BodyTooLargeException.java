@@ -0,0 +1,11 @@
+package hello.springmvc.body;
+
+import java.io.IOException;
+
+public class BodyTooLargeException extends IOException {
+
+    public BodyTooLargeException(long maxSize) {
+        super("request body exceeds " + maxSize + " bytes");
+    }
+
+}
@@ -0,0 +1,87 @@
+package hello.springmvc.body;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * 요청 바디 하나
+ * - threshold 이하: Content-Length 에 맞춘 byte[] 또는 풀에서 빌린 byte[] (close 하면 풀에 반납)
+ * - threshold 초과: 임시 파일을 읽기 전용으로 메모리 매핑 (close 하면 파일 삭제)
+ *
+ * 핸들러는 asByteBuffer() 또는 getInputStream()으로 읽는다.
+ * 요청이 끝나면 버퍼가 재사용되므로 핸들러 밖으로 ByteBuffer를 들고 나가면 안 된다.
+ */
+public class SpooledBody implements Closeable {
+
+    private final BodySpooler spooler;
+    private final byte[] buffer;
+    private final int length;
+    private final Path file;
+    private final FileChannel channel;
+    private final ByteBuffer mapped;
+    private boolean closed;
+
+    SpooledBody(BodySpooler spooler, byte[] buffer, int length) {
+        this.spooler = spooler;
+        this.buffer = buffer;
+        this.length = length;
+        this.file = null;
+        this.channel = null;
+        this.mapped = null;
+    }
+
+    SpooledBody(BodySpooler spooler, Path file, FileChannel channel) throws IOException {
+        this.spooler = spooler;
+        this.buffer = null;
+        this.length = 0;
+        this.file = file;
+        this.channel = channel;
+        this.mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    }
+
+    public boolean isSpooled() {
+        return file != null;
+    }
+
+    public long size() {
+        return isSpooled() ? mapped.capacity() : length;
+    }
+
+    /**
+     * @return 읽기 전용 뷰, 호출할 때마다 position 0 부터 읽는 새 뷰
+     */
+    public ByteBuffer asByteBuffer() {
+        return isSpooled() ? mapped.asReadOnlyBuffer() : ByteBuffer.wrap(buffer, 0, length).asReadOnlyBuffer();
+    }
+
+    public InputStream getInputStream() {
+        return new ByteBufferInputStream(asByteBuffer());
+    }
+
+    /**
+     * MappedByteBuffer는 자바 11에서 직접 해제할 수 없어 GC 시점에 해제된다.
+     * 리눅스에서는 매핑 중인 파일도 삭제할 수 있으므로 디스크 공간은 바로 돌려받는다.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (isSpooled()) {
+            try {
+                channel.close();
+            } finally {
+                spooler.releaseFile(file, Files.deleteIfExists(file));
+            }
+        } else {
+            spooler.releaseBuffer(buffer);
+        }
+    }
+
+}
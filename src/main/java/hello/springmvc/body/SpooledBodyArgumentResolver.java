@@ -0,0 +1,27 @@
+package hello.springmvc.body;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+/**
+ * 핸들러 메서드의 SpooledBody 파라미터에 현재 요청 바디를 넘겨준다.
+ * 필터 대상이 아닌 요청이면 null
+ */
+public class SpooledBodyArgumentResolver implements HandlerMethodArgumentResolver {
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return SpooledBody.class.equals(parameter.getParameterType());
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        return webRequest.getAttribute(BodySpoolFilter.SPOOLED_BODY_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+    }
+
+}
@@ -0,0 +1,47 @@
+package hello.springmvc.body;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.UnsupportedEncodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+
+/**
+ * 원래 요청의 바디 대신 SpooledBody 를 읽게 하는 래퍼
+ * getInputStream(), getReader()를 여러 번 호출해도 처음부터 다시 읽는다.
+ */
+class SpooledBodyRequest extends HttpServletRequestWrapper {
+
+    private final SpooledBody body;
+
+    SpooledBodyRequest(HttpServletRequest request, SpooledBody body) {
+        super(request);
+        this.body = body;
+    }
+
+    @Override
+    public ServletInputStream getInputStream() {
+        return new ByteBufferInputStream(body.asByteBuffer());
+    }
+
+    @Override
+    public BufferedReader getReader() throws UnsupportedEncodingException {
+        String encoding = getCharacterEncoding();
+        Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.ISO_8859_1;
+        return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+    }
+
+    @Override
+    public int getContentLength() {
+        return body.size() > Integer.MAX_VALUE ? -1 : (int) body.size();
+    }
+
+    @Override
+    public long getContentLengthLong() {
+        return body.size();
+    }
+
+}
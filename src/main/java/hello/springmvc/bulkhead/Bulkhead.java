@@ -0,0 +1,108 @@
+package hello.springmvc.bulkhead;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 그룹 하나의 동시 처리 한도와 대기열
+ *
+ * 1. 빈 자리가 있으면 바로 들어간다.
+ * 2. 없으면 대기열(max-queue)에 들어가 max-wait 동안 순서대로(fair) 기다린다.
+ * 3. 대기열도 차 있거나 max-wait 이 지나면 거절한다.
+ *
+ * 한 그룹의 요청이 아무리 몰려도 Tomcat 워커 스레드를 (max-concurrent + max-queue) 개까지만 차지한다.
+ */
+public class Bulkhead {
+
+    private final String name;
+    private final BulkheadProperties.Group config;
+    private final Semaphore permits;
+    private final long maxWaitNanos;
+
+    private final AtomicInteger queued = new AtomicInteger();
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejectedQueueFull = new LongAdder();
+    private final LongAdder rejectedTimeout = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final LongAccumulator maxWaitObserved = new LongAccumulator(Math::max, 0);
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder totalServiceNanos = new LongAdder();
+    private final LongAccumulator peakActive = new LongAccumulator(Math::max, 0);
+
+    public Bulkhead(String name, BulkheadProperties.Group config) {
+        this.name = name;
+        this.config = config;
+        this.permits = new Semaphore(config.getMaxConcurrent(), true);
+        this.maxWaitNanos = config.getMaxWait().toNanos();
+    }
+
+    /**
+     * @return 들어가면 true, 이 경우 반드시 exit()를 호출해야 한다
+     */
+    public boolean tryEnter() {
+        long start = System.nanoTime();
+        if (!permits.tryAcquire()) {
+            if (queued.incrementAndGet() > config.getMaxQueue()) {
+                queued.decrementAndGet();
+                rejectedQueueFull.increment();
+                return false;
+            }
+            boolean acquired;
+            try {
+                acquired = permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                acquired = false;
+            } finally {
+                queued.decrementAndGet();
+            }
+            if (!acquired) {
+                rejectedTimeout.increment();
+                return false;
+            }
+            long waited = System.nanoTime() - start;
+            totalWaitNanos.add(waited);
+            maxWaitObserved.accumulate(waited);
+        }
+        accepted.increment();
+        peakActive.accumulate(config.getMaxConcurrent() - permits.availablePermits());
+        return true;
+    }
+
+    public void exit(long serviceNanos) {
+        permits.release();
+        completed.increment();
+        totalServiceNanos.add(serviceNanos);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public BulkheadProperties.Group getConfig() {
+        return config;
+    }
+
+    public BulkheadStats stats() {
+        long acceptedCount = accepted.sum();
+        long completedCount = completed.sum();
+        BulkheadStats stats = new BulkheadStats();
+        stats.setGroup(name);
+        stats.setMaxConcurrent(config.getMaxConcurrent());
+        stats.setMaxQueue(config.getMaxQueue());
+        stats.setActive(config.getMaxConcurrent() - permits.availablePermits());
+        stats.setQueued(queued.get());
+        stats.setPeakActive(peakActive.get());
+        stats.setAccepted(acceptedCount);
+        stats.setRejectedQueueFull(rejectedQueueFull.sum());
+        stats.setRejectedTimeout(rejectedTimeout.sum());
+        stats.setAverageWaitMillis(acceptedCount == 0 ? 0 : totalWaitNanos.sum() / 1e6 / acceptedCount);
+        stats.setMaxWaitMillis(maxWaitObserved.get() / 1e6);
+        stats.setAverageServiceMillis(completedCount == 0 ? 0 : totalServiceNanos.sum() / 1e6 / completedCount);
+        return stats;
+    }
+
+}
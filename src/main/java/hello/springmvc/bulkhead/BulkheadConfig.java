@@ -0,0 +1,44 @@
+package hello.springmvc.bulkhead;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+/**
+ * bulkhead.enabled=true 이면 그룹별로 동시 처리 수와 대기열을 제한한다.
+ */
+@Configuration
+@EnableConfigurationProperties(BulkheadProperties.class)
+@ConditionalOnProperty(prefix = "bulkhead", name = "enabled", havingValue = "true")
+public class BulkheadConfig {
+
+    @Bean
+    public BulkheadRegistry bulkheadRegistry(BulkheadProperties properties) {
+        return new BulkheadRegistry(properties);
+    }
+
+    /**
+     * 모든 서블릿 필터보다 먼저 실행된다. 그래서 큰 바디는 자리를 얻은 뒤에 읽고,
+     * 요청 추적(trace)과 핸들러 지연 시간에는 그룹 대기 시간이 포함되지 않는다.
+     */
+    @Bean
+    public WebServerFactoryCustomizer<TomcatServletWebServerFactory> bulkheadValveCustomizer(BulkheadRegistry bulkheadRegistry) {
+        return factory -> factory.addContextValves(new BulkheadValve(bulkheadRegistry));
+    }
+
+    /**
+     * 핸들러 매핑이 모두 등록된 뒤에 @HandlerGroup 규칙을 만든다.
+     * (Valve 는 웹 서버를 만들 때 먼저 생성되므로 그때는 매핑 정보가 없다)
+     */
+    @Bean
+    public SmartInitializingSingleton handlerGroupRegistrar(BulkheadRegistry bulkheadRegistry,
+                                                            RequestMappingHandlerMapping requestMappingHandlerMapping) {
+        return () -> bulkheadRegistry.registerAnnotatedHandlers(requestMappingHandlerMapping.getHandlerMethods());
+    }
+
+}
@@ -0,0 +1,25 @@
+package hello.springmvc.bulkhead;
+
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * 그룹별 동시 처리 수, 대기열, 거절 수, 평균 대기/처리 시간
+ * GET /internal/bulkheads
+ */
+@RestController
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "bulkhead", name = "enabled", havingValue = "true")
+public class BulkheadController {
+
+    private final BulkheadRegistry registry;
+
+    @GetMapping("/internal/bulkheads")
+    public List<BulkheadStats> stats() {
+        return registry.stats();
+    }
+
+}
@@ -0,0 +1,43 @@
+package hello.springmvc.bulkhead;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * bulkhead.groups.<이름>.* 설정
+ * - max-concurrent: 그룹 안에서 동시에 처리하는 요청 수
+ * - max-queue: 동시 처리 한도가 찼을 때 기다릴 수 있는 요청 수, 넘으면 바로 거절
+ * - max-wait: 대기열에서 기다리는 최대 시간, 넘으면 거절
+ * - reject-status, retry-after: 거절 응답의 상태 코드와 Retry-After 헤더(초)
+ * - path-patterns, methods: 그룹에 넣을 요청 (@HandlerGroup 으로도 지정할 수 있다, methods 가 비어 있으면 모든 메서드)
+ *
+ * 그룹에 속하지 않은 요청은 제한 없이 Tomcat 워커 풀에서 처리한다.
+ * 그룹마다 (max-concurrent + max-queue) 합이 Tomcat 최대 스레드 수보다 충분히 작아야 나머지 요청의 스레드가 남는다.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "bulkhead")
+public class BulkheadProperties {
+
+    private boolean enabled = false;
+    private Map<String, Group> groups = new LinkedHashMap<>();
+
+    @Getter
+    @Setter
+    public static class Group {
+        private int maxConcurrent = 10;
+        private int maxQueue = 20;
+        private Duration maxWait = Duration.ofMillis(500);
+        private int rejectStatus = 503;
+        private Duration retryAfter = Duration.ofSeconds(1);
+        private List<String> pathPatterns = new ArrayList<>();
+        private List<String> methods = new ArrayList<>();
+    }
+
+}
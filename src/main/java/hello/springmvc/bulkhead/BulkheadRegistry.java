@@ -0,0 +1,119 @@
+package hello.springmvc.bulkhead;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+/**
+ * 그룹별 Bulkhead 와 요청 -> 그룹 배정 규칙
+ *
+ * 요청마다 핸들러 조회를 한 번 더 하지 않도록, @HandlerGroup 이 붙은 핸들러는
+ * 시작할 때 매핑 정보(경로 패턴, 메서드)를 규칙으로 바꿔 둔다.
+ * 설정 파일의 path-patterns 규칙이 애노테이션보다 먼저 적용된다.
+ */
+@Slf4j
+public class BulkheadRegistry {
+
+    private final PathPatternParser parser = PathPatternParser.defaultInstance;
+    private final Map<String, Bulkhead> bulkheads = new LinkedHashMap<>();
+    private final List<BulkheadRule> configuredRules = new ArrayList<>();
+    private volatile List<BulkheadRule> rules;
+
+    public BulkheadRegistry(BulkheadProperties properties) {
+        properties.getGroups().forEach((name, group) -> {
+            Bulkhead bulkhead = new Bulkhead(name, group);
+            bulkheads.put(name, bulkhead);
+            Set<String> methods = group.getMethods().stream()
+                .map(method -> method.toUpperCase(Locale.ROOT))
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+            for (String pattern : group.getPathPatterns()) {
+                configuredRules.add(new BulkheadRule(bulkhead, methods, parser.parse(pattern), "properties"));
+            }
+        });
+        this.rules = Collections.unmodifiableList(new ArrayList<>(configuredRules));
+    }
+
+    /**
+     * @HandlerGroup 이 붙은 핸들러 메서드의 매핑을 규칙으로 추가한다.
+     */
+    public void registerAnnotatedHandlers(Map<RequestMappingInfo, HandlerMethod> handlerMethods) {
+        List<BulkheadRule> annotatedRules = new ArrayList<>();
+        handlerMethods.forEach((info, handlerMethod) -> {
+            HandlerGroup handlerGroup = findHandlerGroup(handlerMethod);
+            if (handlerGroup == null) {
+                return;
+            }
+            Bulkhead bulkhead = bulkheads.get(handlerGroup.value());
+            if (bulkhead == null) {
+                throw new IllegalStateException("@HandlerGroup(\"" + handlerGroup.value() + "\") on "
+                    + handlerMethod + " has no bulkhead.groups." + handlerGroup.value() + " configuration");
+            }
+            Set<String> methods = info.getMethodsCondition().getMethods().stream()
+                .map(RequestMethod::name)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+            String source = handlerMethod.getBeanType().getSimpleName() + "#" + handlerMethod.getMethod().getName();
+            for (String pattern : info.getPatternValues()) {
+                annotatedRules.add(new BulkheadRule(bulkhead, methods, parser.parse(pattern), source));
+            }
+        });
+
+        List<BulkheadRule> merged = new ArrayList<>(configuredRules);
+        merged.addAll(annotatedRules);
+        rules = Collections.unmodifiableList(merged);
+        log.info("bulkhead groups={}, rules={}", bulkheads.keySet(), merged.size());
+    }
+
+    private static HandlerGroup findHandlerGroup(HandlerMethod handlerMethod) {
+        HandlerGroup handlerGroup = AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getMethod(), HandlerGroup.class);
+        if (handlerGroup != null) {
+            return handlerGroup;
+        }
+        return AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getBeanType(), HandlerGroup.class);
+    }
+
+    /**
+     * @param path 컨텍스트 경로를 뺀 요청 경로
+     * @return 해당 그룹, 어느 그룹에도 속하지 않으면 null
+     */
+    public Bulkhead find(String method, String path) {
+        List<BulkheadRule> current = rules;
+        if (current.isEmpty()) {
+            return null;
+        }
+        PathContainer pathContainer = PathContainer.parsePath(path);
+        for (BulkheadRule rule : current) {
+            if (rule.matches(method, pathContainer)) {
+                return rule.getBulkhead();
+            }
+        }
+        return null;
+    }
+
+    public List<BulkheadStats> stats() {
+        List<BulkheadRule> current = rules;
+        List<BulkheadStats> stats = new ArrayList<>();
+        for (Bulkhead bulkhead : bulkheads.values()) {
+            BulkheadStats groupStats = bulkhead.stats();
+            groupStats.setRules(current.stream()
+                .filter(rule -> rule.getBulkhead() == bulkhead)
+                .map(BulkheadRule::toString)
+                .collect(Collectors.toList()));
+            stats.add(groupStats);
+        }
+        return stats;
+    }
+
+}
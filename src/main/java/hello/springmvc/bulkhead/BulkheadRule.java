@@ -0,0 +1,37 @@
+package hello.springmvc.bulkhead;
+
+import java.util.Set;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.util.pattern.PathPattern;
+
+/**
+ * (HTTP 메서드, 경로 패턴) -> 그룹
+ */
+class BulkheadRule {
+
+    private final Bulkhead bulkhead;
+    private final Set<String> methods;
+    private final PathPattern pattern;
+    private final String source;
+
+    BulkheadRule(Bulkhead bulkhead, Set<String> methods, PathPattern pattern, String source) {
+        this.bulkhead = bulkhead;
+        this.methods = methods;
+        this.pattern = pattern;
+        this.source = source;
+    }
+
+    boolean matches(String method, PathContainer path) {
+        return (methods.isEmpty() || methods.contains(method)) && pattern.matches(path);
+    }
+
+    Bulkhead getBulkhead() {
+        return bulkhead;
+    }
+
+    @Override
+    public String toString() {
+        return (methods.isEmpty() ? "*" : String.join(",", methods)) + " " + pattern.getPatternString() + " <- " + source;
+    }
+
+}
@@ -0,0 +1,23 @@
+package hello.springmvc.bulkhead;
+
+import java.util.List;
+import lombok.Data;
+
+@Data
+public class BulkheadStats {
+    private String group;
+    private int maxConcurrent;
+    private int maxQueue;
+    private int active;
+    private int queued;
+    private long peakActive;
+    private long accepted;
+    private long rejectedQueueFull;
+    private long rejectedTimeout;
+    /** 대기열을 거쳐 들어간 요청까지 포함한 평균 대기 시간 */
+    private double averageWaitMillis;
+    private double maxWaitMillis;
+    private double averageServiceMillis;
+    /** 이 그룹에 요청을 배정하는 규칙 (메서드 + 경로 패턴 <- 출처) */
+    private List<String> rules;
+}
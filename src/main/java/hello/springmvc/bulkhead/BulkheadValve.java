@@ -0,0 +1,60 @@
+package hello.springmvc.bulkhead;
+
+import java.io.IOException;
+import javax.servlet.ServletException;
+import org.apache.catalina.connector.Request;
+import org.apache.catalina.connector.Response;
+import org.apache.catalina.valves.ValveBase;
+import org.apache.coyote.ActionCode;
+import org.springframework.http.HttpHeaders;
+
+/**
+ * 요청이 속한 그룹의 자리를 얻은 다음에 필터와 핸들러를 실행한다.
+ * 바디 읽기(body-spool)와 파싱도 자리를 얻은 뒤에 일어나므로 그룹 한도에 포함된다.
+ *
+ * 서블릿 필터가 아니라 Tomcat Valve 로 구현한 이유
+ * 거절한 요청의 바디는 읽지 않았는데, 필터에서 응답만 보내면 Tomcat 이 요청을 끝내면서 남은 바디를
+ * max-swallow-size 까지 읽어서 버린다. 느리게 올라오는 큰 바디라면 거절한 요청도 그동안 워커 스레드를 잡고 있다.
+ * Valve 에서는 Tomcat 요청 객체에 바로 접근할 수 있으므로 이 동작을 끄고 연결을 닫는다.
+ */
+public class BulkheadValve extends ValveBase {
+
+    private final BulkheadRegistry registry;
+
+    public BulkheadValve(BulkheadRegistry registry) {
+        super(true);
+        this.registry = registry;
+    }
+
+    @Override
+    public void invoke(Request request, Response response) throws IOException, ServletException {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        Bulkhead bulkhead = registry.find(request.getMethod(), path);
+        if (bulkhead == null) {
+            getNext().invoke(request, response);
+            return;
+        }
+
+        if (!bulkhead.tryEnter()) {
+            reject(bulkhead, request, response);
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            getNext().invoke(request, response);
+        } finally {
+            bulkhead.exit(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * 에러 페이지로 보내지 않고 상태 코드와 Retry-After 헤더만 바로 응답한다.
+     */
+    private static void reject(Bulkhead bulkhead, Request request, Response response) {
+        BulkheadProperties.Group config = bulkhead.getConfig();
+        response.setStatus(config.getRejectStatus());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(config.getRetryAfter().getSeconds()));
+        request.getCoyoteRequest().action(ActionCode.DISABLE_SWALLOW_INPUT, null);
+    }
+
+}
@@ -0,0 +1,20 @@
+package hello.springmvc.bulkhead;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 핸들러를 bulkhead 그룹에 넣는다. (클래스에 붙이면 모든 핸들러 메서드에 적용)
+ * 그룹 설정은 bulkhead.groups.<이름>.* 으로 한다.
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface HandlerGroup {
+
+    String value();
+
+}
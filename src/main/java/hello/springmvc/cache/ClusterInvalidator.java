@@ -0,0 +1,293 @@
+package hello.springmvc.cache;
+
+import hello.springmvc.cache.InvalidationMessage.Type;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.util.StringUtils;
+
+/**
+ * 다른 노드와 무효화 메시지를 주고받는다.
+ *
+ * 보내기
+ * - publish()는 키를 대기 목록(Set)에 넣기만 한다. 같은 키는 한 번만 보낸다. (coalescing)
+ * - batch-window 마다 대기 목록을 꺼내서 max-packet-size 이하의 메시지들로 나눠 보낸다.
+ * - 대기 키가 max-pending-keys 를 넘으면 키 목록 대신 FLUSH 메시지 하나를 보낸다.
+ * - heartbeat-interval 마다 마지막 시퀀스 번호를 HEARTBEAT 로 알린다.
+ *
+ * 받기
+ * - 노드별로 마지막으로 받은 시퀀스 번호를 기억한다.
+ * - 번호가 건너뛰면(gap) 놓친 메시지가 있다는 뜻이므로 로컬 캐시를 전부 비운다.
+ * - 처음 보는 노드(또는 재시작한 노드)도 그 전에 놓친 메시지가 있을 수 있으므로 비운다.
+ * - 이미 받은 번호는 무시한다.
+ *
+ * 채널을 열지 못하면 isConnected()가 false 가 되고, ResponseCache 는 값을 저장하지 않는다.
+ */
+@Slf4j
+public class ClusterInvalidator implements Closeable {
+
+    private final ResponseCacheProperties properties;
+    private final InvalidationTransport transport;
+    private final String nodeId;
+    private final long epoch = System.currentTimeMillis();
+    private final ScheduledExecutorService scheduler;
+
+    private final Object lock = new Object();
+    private Set<String> pending = new LinkedHashSet<>();
+    private boolean pendingFlush;
+    /** 스케줄러 스레드에서만 변경 */
+    private long sequence;
+
+    /** 수신 스레드에서만 변경 */
+    private final Map<String, PeerState> peers = new ConcurrentHashMap<>();
+    private volatile ResponseCache cache;
+    private volatile boolean connected;
+
+    private final LongAdder sentMessages = new LongAdder();
+    private final LongAdder sentKeys = new LongAdder();
+    private final LongAdder coalescedKeys = new LongAdder();
+    private final LongAdder sendFailures = new LongAdder();
+    private final LongAdder receivedMessages = new LongAdder();
+    private final LongAdder receivedKeys = new LongAdder();
+    private final LongAdder duplicates = new LongAdder();
+    private final LongAdder gaps = new LongAdder();
+    private final LongAdder flushes = new LongAdder();
+
+    public ClusterInvalidator(ResponseCacheProperties properties, InvalidationTransport transport) {
+        this.properties = properties;
+        this.transport = transport;
+        this.nodeId = StringUtils.hasText(properties.getNodeId())
+            ? properties.getNodeId() : UUID.randomUUID().toString().substring(0, 8);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "response-cache-invalidator");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void start(ResponseCache cache) {
+        this.cache = cache;
+        try {
+            transport.start(this::receive);
+            connected = true;
+            log.info("response cache node {} invalidation over {}", nodeId, transport.describe());
+        } catch (IOException e) {
+            log.warn("response cache invalidation channel unavailable ({}), caching disabled", transport.describe(), e);
+        }
+
+        long batchWindow = properties.getBatchWindow().toMillis();
+        long heartbeat = properties.getHeartbeatInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::sendPending, batchWindow, batchWindow, TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(this::sendHeartbeat, heartbeat, heartbeat, TimeUnit.MILLISECONDS);
+    }
+
+    public boolean isConnected() {
+        return connected;
+    }
+
+    public void publish(String key) {
+        synchronized (lock) {
+            if (pendingFlush || !pending.add(key)) {
+                coalescedKeys.increment();
+                return;
+            }
+            if (pending.size() > properties.getMaxPendingKeys()) {
+                coalescedKeys.add(pending.size());
+                pending = new LinkedHashSet<>();
+                pendingFlush = true;
+            }
+        }
+    }
+
+    public void publishFlush() {
+        synchronized (lock) {
+            coalescedKeys.add(pending.size());
+            pending = new LinkedHashSet<>();
+            pendingFlush = true;
+        }
+    }
+
+    /**
+     * 스케줄러에서 실행되므로 예외를 밖으로 던지면 이후 전송이 모두 멈춘다.
+     * 보내지 못한 키는 알 수 없으므로 다음 주기에 전체 flush 를 보낸다.
+     */
+    void sendPending() {
+        try {
+            sendPendingKeys();
+        } catch (RuntimeException e) {
+            sendFailures.increment();
+            log.warn("response cache invalidation send failed, flushing peers on next batch", e);
+            publishFlush();
+        }
+    }
+
+    private void sendPendingKeys() {
+        Set<String> keys;
+        boolean flush;
+        synchronized (lock) {
+            if (!pendingFlush && pending.isEmpty()) {
+                return;
+            }
+            keys = pending;
+            flush = pendingFlush;
+            pending = new LinkedHashSet<>();
+            pendingFlush = false;
+        }
+
+        // 데이터그램 하나에 들어가지 않는 키가 있으면 키 목록 대신 전체 flush
+        if (!flush && keys.stream().anyMatch(key -> !InvalidationMessage.fits(nodeId, key))) {
+            flush = true;
+        }
+        if (flush) {
+            send(new InvalidationMessage(Type.FLUSH, nodeId, epoch, ++sequence, Collections.emptyList()));
+            return;
+        }
+
+        int headerSize = InvalidationMessage.headerSize(nodeId);
+        List<String> batch = new ArrayList<>();
+        int size = headerSize;
+        for (String key : keys) {
+            int keySize = InvalidationMessage.encodedSize(key);
+            if (!batch.isEmpty() && size + keySize > properties.getMaxPacketSize()) {
+                send(new InvalidationMessage(Type.KEYS, nodeId, epoch, ++sequence, batch));
+                batch = new ArrayList<>();
+                size = headerSize;
+            }
+            batch.add(key);
+            size += keySize;
+        }
+        send(new InvalidationMessage(Type.KEYS, nodeId, epoch, ++sequence, batch));
+    }
+
+    private void sendHeartbeat() {
+        try {
+            send(new InvalidationMessage(Type.HEARTBEAT, nodeId, epoch, sequence, Collections.emptyList()));
+        } catch (RuntimeException e) {
+            sendFailures.increment();
+            log.warn("response cache heartbeat send failed", e);
+        }
+    }
+
+    private void send(InvalidationMessage message) {
+        if (!connected) {
+            return;
+        }
+        try {
+            transport.send(message.encode());
+            if (message.getType() != Type.HEARTBEAT) {
+                sentMessages.increment();
+                sentKeys.add(message.getKeys().size());
+            }
+        } catch (IOException e) {
+            // 받는 쪽에서는 다음 메시지나 HEARTBEAT 에서 번호가 건너뛴 것으로 감지한다
+            sendFailures.increment();
+            log.warn("response cache invalidation send failed: {}", e.toString());
+        }
+    }
+
+    void receive(byte[] packet) {
+        InvalidationMessage message = InvalidationMessage.decode(packet);
+        if (message == null || nodeId.equals(message.getNodeId())) {
+            return;
+        }
+
+        PeerState peer = peers.get(message.getNodeId());
+        if (peer == null || peer.epoch != message.getEpoch()) {
+            long last = message.getType() == Type.HEARTBEAT ? message.getSequence() : message.getSequence() - 1;
+            peer = new PeerState(message.getEpoch(), last);
+            peers.put(message.getNodeId(), peer);
+            flush();
+        }
+
+        if (message.getType() == Type.HEARTBEAT) {
+            if (message.getSequence() > peer.lastSequence) {
+                gaps.increment();
+                flush();
+                peer.lastSequence = message.getSequence();
+            }
+            return;
+        }
+
+        if (message.getSequence() <= peer.lastSequence) {
+            duplicates.increment();
+            return;
+        }
+        receivedMessages.increment();
+        if (message.getSequence() > peer.lastSequence + 1) {
+            gaps.increment();
+            flush();
+        } else if (message.getType() == Type.FLUSH) {
+            flush();
+        } else {
+            for (String key : message.getKeys()) {
+                cache.evict(key);
+            }
+            receivedKeys.add(message.getKeys().size());
+        }
+        peer.lastSequence = message.getSequence();
+    }
+
+    private void flush() {
+        flushes.increment();
+        cache.clear();
+    }
+
+    ResponseCacheStats stats() {
+        ResponseCacheStats stats = new ResponseCacheStats();
+        stats.setNodeId(nodeId);
+        stats.setTransport(transport.describe());
+        stats.setConnected(connected);
+        stats.setSequence(sequence);
+        stats.setSentMessages(sentMessages.sum());
+        stats.setSentKeys(sentKeys.sum());
+        stats.setCoalescedKeys(coalescedKeys.sum());
+        stats.setSendFailures(sendFailures.sum());
+        stats.setReceivedMessages(receivedMessages.sum());
+        stats.setReceivedKeys(receivedKeys.sum());
+        stats.setDuplicates(duplicates.sum());
+        stats.setGaps(gaps.sum());
+        stats.setFlushes(flushes.sum());
+        Map<String, Long> peerSequences = new LinkedHashMap<>();
+        peers.forEach((peerId, peer) -> peerSequences.put(peerId, peer.lastSequence));
+        stats.setPeers(peerSequences);
+        return stats;
+    }
+
+    @Override
+    public void close() throws IOException {
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // 종료 직전의 무효화도 보낸다
+        sendPending();
+        connected = false;
+        transport.close();
+    }
+
+    private static class PeerState {
+        private final long epoch;
+        private volatile long lastSequence;
+
+        private PeerState(long epoch, long lastSequence) {
+            this.epoch = epoch;
+            this.lastSequence = lastSequence;
+        }
+    }
+
+}
@@ -0,0 +1,113 @@
+package hello.springmvc.cache;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import lombok.Getter;
+
+/**
+ * 노드 사이에 주고받는 무효화 메시지
+ *
+ * | magic(int) | type(byte) | nodeId(UTF) | epoch(long) | sequence(long) | keyCount(int) | keys(UTF)... |
+ *
+ * - (nodeId, epoch) 마다 sequence 는 1부터 하나씩 증가한다. (HEARTBEAT 는 번호를 쓰지 않고 마지막 번호를 알린다)
+ * - epoch 는 노드 시작 시각이라, 같은 nodeId 로 재시작해도 새 시퀀스로 구분된다.
+ */
+@Getter
+public class InvalidationMessage {
+
+    private static final int MAGIC = 0x52434931; // "RCI1"
+    /** UDP 데이터그램 하나에 담을 수 있는 최대 바이트 수 */
+    private static final int MAX_DATAGRAM_SIZE = 65_507;
+
+    public enum Type {
+        KEYS, FLUSH, HEARTBEAT
+    }
+
+    private final Type type;
+    private final String nodeId;
+    private final long epoch;
+    private final long sequence;
+    private final List<String> keys;
+
+    public InvalidationMessage(Type type, String nodeId, long epoch, long sequence, List<String> keys) {
+        this.type = type;
+        this.nodeId = nodeId;
+        this.epoch = epoch;
+        this.sequence = sequence;
+        this.keys = keys;
+    }
+
+    /**
+     * writeUTF 로 기록했을 때 키 하나가 차지하는 바이트 수
+     */
+    static int encodedSize(String key) {
+        return 2 + key.getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    static int headerSize(String nodeId) {
+        return 4 + 1 + encodedSize(nodeId) + 8 + 8 + 4;
+    }
+
+    /**
+     * 키 하나만 담은 메시지가 데이터그램 하나에 들어가는지 (writeUTF 의 65535 바이트 제한보다 작다)
+     */
+    static boolean fits(String nodeId, String key) {
+        return headerSize(nodeId) + encodedSize(key) <= MAX_DATAGRAM_SIZE;
+    }
+
+    public byte[] encode() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(MAGIC);
+            out.writeByte(type.ordinal());
+            out.writeUTF(nodeId);
+            out.writeLong(epoch);
+            out.writeLong(sequence);
+            out.writeInt(keys.size());
+            for (String key : keys) {
+                out.writeUTF(key);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * @return 이 형식이 아닌 패킷이면 null
+     */
+    public static InvalidationMessage decode(byte[] packet) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(packet))) {
+            if (in.readInt() != MAGIC) {
+                return null;
+            }
+            int typeIndex = in.readByte();
+            if (typeIndex < 0 || typeIndex >= Type.values().length) {
+                return null;
+            }
+            Type type = Type.values()[typeIndex];
+            String nodeId = in.readUTF();
+            long epoch = in.readLong();
+            long sequence = in.readLong();
+            int keyCount = in.readInt();
+            if (keyCount < 0 || keyCount > packet.length) {
+                return null;
+            }
+            List<String> keys = keyCount == 0 ? Collections.emptyList() : new ArrayList<>(keyCount);
+            for (int i = 0; i < keyCount; i++) {
+                keys.add(in.readUTF());
+            }
+            return new InvalidationMessage(type, nodeId, epoch, sequence, keys);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+}
@@ -0,0 +1,23 @@
+package hello.springmvc.cache;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.function.Consumer;
+
+/**
+ * 무효화 메시지를 다른 노드로 보내고 받는 채널
+ * 전달을 보장하지 않아도 된다. 유실은 시퀀스 번호로 감지해서 캐시 전체를 비운다.
+ */
+public interface InvalidationTransport extends Closeable {
+
+    /**
+     * 수신을 시작한다. receiver 는 수신 스레드에서 호출된다.
+     * 자기 자신이 보낸 패킷도 받을 수 있다.
+     */
+    void start(Consumer<byte[]> receiver) throws IOException;
+
+    void send(byte[] packet) throws IOException;
+
+    String describe();
+
+}
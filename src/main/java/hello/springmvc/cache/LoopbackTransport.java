@@ -0,0 +1,71 @@
+package hello.springmvc.cache;
+
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.Arrays;
+import java.util.function.Consumer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 127.0.0.1 UDP 유니캐스트로 지정한 포트들에 보낸다.
+ * 멀티캐스트가 막힌 환경(컨테이너, CI)에서 한 머신에 여러 인스턴스를 띄워 확인할 때 사용한다.
+ */
+@Slf4j
+public class LoopbackTransport implements InvalidationTransport {
+
+    private final ResponseCacheProperties.Loopback properties;
+    private DatagramSocket socket;
+
+    public LoopbackTransport(ResponseCacheProperties.Loopback properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public void start(Consumer<byte[]> receiver) throws IOException {
+        socket = new DatagramSocket(new InetSocketAddress(InetAddress.getLoopbackAddress(), properties.getPort()));
+
+        Thread thread = new Thread(() -> receiveLoop(receiver), "response-cache-loopback");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void receiveLoop(Consumer<byte[]> receiver) {
+        byte[] buffer = new byte[65_535];
+        DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+        while (!socket.isClosed()) {
+            try {
+                packet.setLength(buffer.length);
+                socket.receive(packet);
+                receiver.accept(Arrays.copyOf(packet.getData(), packet.getLength()));
+            } catch (IOException e) {
+                if (!socket.isClosed()) {
+                    log.warn("loopback receive failed", e);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void send(byte[] packet) throws IOException {
+        InetAddress loopback = InetAddress.getLoopbackAddress();
+        for (Integer peer : properties.getPeers()) {
+            socket.send(new DatagramPacket(packet, packet.length, loopback, peer));
+        }
+    }
+
+    @Override
+    public String describe() {
+        return "loopback " + properties.getPort() + " -> " + properties.getPeers();
+    }
+
+    @Override
+    public void close() {
+        if (socket != null) {
+            socket.close();
+        }
+    }
+
+}
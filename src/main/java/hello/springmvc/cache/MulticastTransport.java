@@ -0,0 +1,82 @@
+package hello.springmvc.cache;
+
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.MulticastSocket;
+import java.net.NetworkInterface;
+import java.util.Arrays;
+import java.util.function.Consumer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.util.StringUtils;
+
+/**
+ * UDP 멀티캐스트 그룹으로 보내고 받는다.
+ * SO_REUSEADDR 로 바인딩하므로 한 머신에서 여러 인스턴스가 같은 그룹/포트를 쓸 수 있다.
+ */
+@Slf4j
+public class MulticastTransport implements InvalidationTransport {
+
+    private final ResponseCacheProperties.Multicast properties;
+    private MulticastSocket socket;
+    private InetSocketAddress group;
+
+    public MulticastTransport(ResponseCacheProperties.Multicast properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public void start(Consumer<byte[]> receiver) throws IOException {
+        group = new InetSocketAddress(InetAddress.getByName(properties.getGroup()), properties.getPort());
+        socket = new MulticastSocket(properties.getPort());
+        socket.setTimeToLive(properties.getTimeToLive());
+        NetworkInterface networkInterface = null;
+        if (StringUtils.hasText(properties.getInterfaceName())) {
+            networkInterface = NetworkInterface.getByName(properties.getInterfaceName());
+            if (networkInterface == null) {
+                throw new IOException("unknown network interface: " + properties.getInterfaceName());
+            }
+            socket.setNetworkInterface(networkInterface);
+        }
+        socket.joinGroup(group, networkInterface);
+
+        Thread thread = new Thread(() -> receiveLoop(receiver), "response-cache-multicast");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void receiveLoop(Consumer<byte[]> receiver) {
+        byte[] buffer = new byte[65_535];
+        DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+        while (!socket.isClosed()) {
+            try {
+                packet.setLength(buffer.length);
+                socket.receive(packet);
+                receiver.accept(Arrays.copyOf(packet.getData(), packet.getLength()));
+            } catch (IOException e) {
+                if (!socket.isClosed()) {
+                    log.warn("multicast receive failed", e);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void send(byte[] packet) throws IOException {
+        socket.send(new DatagramPacket(packet, packet.length, group));
+    }
+
+    @Override
+    public String describe() {
+        return "multicast " + properties.getGroup() + ":" + properties.getPort();
+    }
+
+    @Override
+    public void close() {
+        if (socket != null) {
+            socket.close();
+        }
+    }
+
+}
@@ -0,0 +1,120 @@
+package hello.springmvc.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 응답 객체를 담는 노드 로컬 캐시
+ *
+ * invalidate()는 이 노드에서 바로 지우고 ClusterInvalidator 로 다른 노드에도 알린다.
+ * evict(), clear()는 이 노드에서만 지운다. (다른 노드에서 받은 무효화 메시지 처리용)
+ *
+ * 값을 만드는 동안 무효화가 일어나면 만든 값은 저장하지 않는다.
+ * 무효화될 때마다 generation 을 올리고, 저장할 때 로딩 전에 읽은 값과 비교한다.
+ *
+ * 값은 넣은 순서대로 LinkedHashMap 에 두고 maxSize 를 넘으면 가장 먼저 넣은 값을 지운다.
+ * 키마다 항목이 하나뿐이므로 무효화 후 다시 넣은 키는 가장 새 값이 된다.
+ */
+public class ResponseCache {
+
+    private final int maxSize;
+    private final ClusterInvalidator invalidator;
+    /** values 로 동기화한다 */
+    private final Map<String, Object> values;
+    private final AtomicLong generation = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public ResponseCache(int maxSize, ClusterInvalidator invalidator) {
+        this.maxSize = maxSize;
+        this.invalidator = invalidator;
+        this.values = new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Object> eldest) {
+                if (size() > ResponseCache.this.maxSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T get(String key, Supplier<T> loader) {
+        Object value;
+        synchronized (values) {
+            value = values.get(key);
+        }
+        if (value != null) {
+            hits.increment();
+            return (T) value;
+        }
+        misses.increment();
+
+        long loadGeneration = generation.get();
+        T loaded = loader.get();
+        // 무효화 채널이 끊겼으면 다른 노드의 변경을 알 수 없으므로 저장하지 않는다
+        if (loaded != null && invalidator.isConnected()) {
+            put(key, loaded, loadGeneration);
+        }
+        return loaded;
+    }
+
+    private void put(String key, Object value, long loadGeneration) {
+        // evict 는 generation 을 올린 뒤 같은 lock 에서 지우므로, 여기서 같으면 그 뒤의 evict 가 이 값을 지운다
+        synchronized (values) {
+            if (generation.get() == loadGeneration) {
+                values.putIfAbsent(key, value);
+            }
+        }
+    }
+
+    /**
+     * 모든 노드에서 key 를 지운다.
+     */
+    public void invalidate(String key) {
+        evict(key);
+        invalidator.publish(key);
+    }
+
+    /**
+     * 모든 노드의 캐시를 비운다.
+     */
+    public void invalidateAll() {
+        clear();
+        invalidator.publishFlush();
+    }
+
+    void evict(String key) {
+        generation.incrementAndGet();
+        synchronized (values) {
+            values.remove(key);
+        }
+    }
+
+    void clear() {
+        generation.incrementAndGet();
+        synchronized (values) {
+            values.clear();
+        }
+    }
+
+    public ResponseCacheStats stats() {
+        ResponseCacheStats stats = invalidator.stats();
+        synchronized (values) {
+            stats.setSize(values.size());
+        }
+        stats.setMaxSize(maxSize);
+        stats.setHits(hits.sum());
+        stats.setMisses(misses.sum());
+        stats.setEvictions(evictions.sum());
+        return stats;
+    }
+
+}
@@ -0,0 +1,28 @@
+package hello.springmvc.cache;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(ResponseCacheProperties.class)
+@ConditionalOnProperty(prefix = "response-cache", name = "enabled", havingValue = "true")
+public class ResponseCacheConfig {
+
+    @Bean(destroyMethod = "close")
+    public ClusterInvalidator clusterInvalidator(ResponseCacheProperties properties) {
+        InvalidationTransport transport = properties.getTransport() == ResponseCacheProperties.Transport.LOOPBACK
+            ? new LoopbackTransport(properties.getLoopback())
+            : new MulticastTransport(properties.getMulticast());
+        return new ClusterInvalidator(properties, transport);
+    }
+
+    @Bean
+    public ResponseCache responseCache(ResponseCacheProperties properties, ClusterInvalidator clusterInvalidator) {
+        ResponseCache responseCache = new ResponseCache(properties.getMaxSize(), clusterInvalidator);
+        clusterInvalidator.start(responseCache);
+        return responseCache;
+    }
+
+}
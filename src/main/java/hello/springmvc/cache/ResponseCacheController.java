@@ -0,0 +1,36 @@
+package hello.springmvc.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * GET /internal/response-cache: 캐시/무효화 채널 상태
+ * DELETE /internal/response-cache?key=users:1 : 모든 노드에서 key 무효화 (key 가 없으면 전체)
+ */
+@RestController
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "response-cache", name = "enabled", havingValue = "true")
+public class ResponseCacheController {
+
+    private final ResponseCache responseCache;
+
+    @GetMapping("/internal/response-cache")
+    public ResponseCacheStats stats() {
+        return responseCache.stats();
+    }
+
+    @DeleteMapping("/internal/response-cache")
+    public ResponseCacheStats invalidate(@RequestParam(required = false) String key) {
+        if (key == null) {
+            responseCache.invalidateAll();
+        } else {
+            responseCache.invalidate(key);
+        }
+        return responseCache.stats();
+    }
+
+}
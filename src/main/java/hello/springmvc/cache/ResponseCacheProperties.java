@@ -0,0 +1,61 @@
+package hello.springmvc.cache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * response-cache.* 설정
+ * - max-size: 노드 로컬 캐시 최대 항목 수
+ * - node-id: 비어 있으면 시작할 때마다 새로 만든다
+ * - transport: loopback(기본, 같은 머신의 지정한 포트들) 또는 multicast(같은 그룹에 가입한 모든 노드, 여러 머신에 배포할 때)
+ * - batch-window: 이 시간 동안 모인 무효화 키를 중복 제거해서 한 번에 보낸다
+ * - heartbeat-interval: 마지막 시퀀스 번호를 주기적으로 알려서, 마지막 메시지가 유실돼도 받는 쪽이 알 수 있게 한다
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "response-cache")
+public class ResponseCacheProperties {
+
+    private boolean enabled = false;
+    private int maxSize = 10_000;
+    private String nodeId;
+
+    private Transport transport = Transport.LOOPBACK;
+    private Duration batchWindow = Duration.ofMillis(20);
+    private Duration heartbeatInterval = Duration.ofSeconds(1);
+    /** 한 배치에 모인 키가 이 수를 넘으면 키 목록 대신 전체 flush 메시지를 보낸다 */
+    private int maxPendingKeys = 1_000;
+    /** 데이터그램 하나의 최대 크기, 키가 많으면 여러 메시지로 나눈다 */
+    private int maxPacketSize = 1_400;
+
+    private final Multicast multicast = new Multicast();
+    private final Loopback loopback = new Loopback();
+
+    public enum Transport {
+        MULTICAST, LOOPBACK
+    }
+
+    @Getter
+    @Setter
+    public static class Multicast {
+        private String group = "239.255.27.1";
+        private int port = 4446;
+        /** 비어 있으면 OS 기본 인터페이스 */
+        private String interfaceName;
+        private int timeToLive = 1;
+    }
+
+    @Getter
+    @Setter
+    public static class Loopback {
+        /** 이 노드가 받는 127.0.0.1 UDP 포트 */
+        private int port = 7071;
+        /** 무효화 메시지를 보낼 다른 노드들의 포트 */
+        private List<Integer> peers = new ArrayList<>();
+    }
+
+}
@@ -0,0 +1,32 @@
+package hello.springmvc.cache;
+
+import java.util.Map;
+import lombok.Data;
+
+@Data
+public class ResponseCacheStats {
+    private String nodeId;
+    private String transport;
+    private boolean connected;
+
+    private int size;
+    private int maxSize;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /** 이 노드가 마지막으로 보낸 시퀀스 번호 */
+    private long sequence;
+    private long sentMessages;
+    private long sentKeys;
+    private long coalescedKeys;
+    private long sendFailures;
+
+    private long receivedMessages;
+    private long receivedKeys;
+    private long duplicates;
+    private long gaps;
+    private long flushes;
+    /** 다른 노드별 마지막으로 받은 시퀀스 번호 */
+    private Map<String, Long> peers;
+}
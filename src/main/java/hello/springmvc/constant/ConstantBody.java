@@ -0,0 +1,62 @@
+package hello.springmvc.constant;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.http.MediaType;
+
+/**
+ * 미리 인코딩한 응답 본문과 Content-Type
+ */
+class ConstantBody {
+
+    private final Object value;
+    /** 원래 처리기가 이 값에 대해 만들 수 있는 타입 (produces 또는 컨버터가 지원하는 타입) */
+    private final List<MediaType> producible;
+    private final MediaType mediaType;
+    private final String contentType;
+    private final byte[] bytes;
+
+    private final LongAdder hits = new LongAdder();
+
+    ConstantBody(Object value, List<MediaType> producible, MediaType mediaType, String contentType, byte[] bytes) {
+        this.value = value;
+        this.producible = producible;
+        this.mediaType = mediaType;
+        this.contentType = contentType;
+        this.bytes = bytes;
+    }
+
+    void write(HttpServletResponse response) throws IOException {
+        hits.increment();
+        response.setContentType(contentType);
+        response.setContentLength(bytes.length);
+        response.getOutputStream().write(bytes);
+    }
+
+    Object getValue() {
+        return value;
+    }
+
+    List<MediaType> getProducible() {
+        return producible;
+    }
+
+    MediaType getMediaType() {
+        return mediaType;
+    }
+
+    String getContentType() {
+        return contentType;
+    }
+
+    int getLength() {
+        return bytes.length;
+    }
+
+    long getHits() {
+        return hits.sum();
+    }
+
+}
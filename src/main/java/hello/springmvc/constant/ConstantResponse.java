@@ -0,0 +1,24 @@
+package hello.springmvc.constant;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 항상 같은 값을 돌려주는 @ResponseBody 핸들러에 붙인다.
+ * constant-response.enabled=true 이면 시작할 때 HttpMessageConverter 로 응답을 한 번 인코딩해 두고,
+ * 요청마다 컨버터 선택/문자셋 인코딩 없이 미리 만든 바이트와 헤더를 그대로 쓴다.
+ *
+ * - String 반환: value 에 반환 값을 적는다. 실제 반환 값이 다르면 원래 경로로 처리한다.
+ * - enum 반환: value 를 비워 두면 상수마다 미리 인코딩한다.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ConstantResponse {
+
+    String value() default "";
+
+}
@@ -0,0 +1,44 @@
+package hello.springmvc.constant;
+
+import hello.springmvc.negotiation.HeaderCache;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.method.support.HandlerMethodReturnValueHandler;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+/**
+ * constant-response.enabled=true 이면 @ConstantResponse 핸들러의 응답을 미리 인코딩해서
+ * 반환 값 처리기 목록 맨 앞에 둔다. (꺼져 있으면 @ConstantResponse 는 아무 일도 하지 않는다)
+ */
+@Configuration
+@EnableConfigurationProperties(ConstantResponseProperties.class)
+@ConditionalOnProperty(prefix = "constant-response", name = "enabled", havingValue = "true")
+public class ConstantResponseConfig {
+
+    @Bean
+    public ConstantResponseReturnValueHandler constantResponseReturnValueHandler(ConstantResponseProperties properties) {
+        return new ConstantResponseReturnValueHandler(new HeaderCache<>("constant-response-accept",
+            properties.getAcceptCacheSize()));
+    }
+
+    @Bean
+    public SmartInitializingSingleton constantResponseInstaller(ConstantResponseReturnValueHandler handler,
+                                                                RequestMappingHandlerMapping requestMappingHandlerMapping,
+                                                                RequestMappingHandlerAdapter requestMappingHandlerAdapter) {
+        return () -> {
+            handler.register(requestMappingHandlerMapping.getHandlerMethods(),
+                requestMappingHandlerAdapter.getMessageConverters(), requestMappingHandlerAdapter::getReturnValueHandlers);
+            List<HandlerMethodReturnValueHandler> handlers = new ArrayList<>();
+            handlers.add(handler);
+            handlers.addAll(requestMappingHandlerAdapter.getReturnValueHandlers());
+            requestMappingHandlerAdapter.setReturnValueHandlers(handlers);
+        };
+    }
+
+}
@@ -0,0 +1,25 @@
+package hello.springmvc.constant;
+
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * @ConstantResponse 핸들러별 미리 인코딩한 응답과 사용 횟수
+ * GET /internal/constant-responses
+ */
+@RestController
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "constant-response", name = "enabled", havingValue = "true")
+public class ConstantResponseController {
+
+    private final ConstantResponseReturnValueHandler constantResponseReturnValueHandler;
+
+    @GetMapping("/internal/constant-responses")
+    public List<ConstantResponseStats> stats() {
+        return constantResponseReturnValueHandler.stats();
+    }
+
+}
@@ -0,0 +1,19 @@
+package hello.springmvc.constant;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * constant-response.* 설정
+ * - accept-cache-size: 협상 결과를 캐시해 둘 (응답 본문, Accept 헤더 값) 의 최대 개수
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "constant-response")
+public class ConstantResponseProperties {
+
+    private boolean enabled = false;
+    private int acceptCacheSize = 256;
+
+}
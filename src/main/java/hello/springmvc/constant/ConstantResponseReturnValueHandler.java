@@ -0,0 +1,318 @@
+package hello.springmvc.constant;
+
+import hello.springmvc.negotiation.HeaderCache;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import javax.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.GenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.method.support.HandlerMethodReturnValueHandler;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+
+/**
+ * @ConstantResponse 핸들러의 반환 값을 미리 인코딩한 바이트로 바로 쓴다.
+ *
+ * 시작할 때 원래 @ResponseBody 처리기와 같은 규칙(produces 또는 컨버터가 만들 수 있는 타입 중 가장 구체적인 것,
+ * 등록 순서대로 처음 canWrite 하는 컨버터)으로 Accept: *&#47;* 일 때의 응답을 만들어 둔다.
+ * 요청마다 반환 값과 Accept 헤더만 확인한다. Accept 가 없거나 *&#47;* 가 아니면 같은 규칙으로 고른 타입이
+ * 미리 인코딩한 타입과 같을 때만 바로 쓰고 (Accept 값별로 캐시한다), 다르면 원래 처리기로 넘긴다.
+ */
+@Slf4j
+public class ConstantResponseReturnValueHandler implements HandlerMethodReturnValueHandler {
+
+    private static final List<MediaType> ALL_APPLICATION_MEDIA_TYPES =
+        List.of(MediaType.ALL, new MediaType("application"));
+
+    private final HeaderCache<AcceptKey, Boolean> acceptCache;
+
+    private volatile Map<Method, Entry> entries = Collections.emptyMap();
+    private volatile Supplier<List<HandlerMethodReturnValueHandler>> fallbackHandlers = Collections::emptyList;
+
+    public ConstantResponseReturnValueHandler(HeaderCache<AcceptKey, Boolean> acceptCache) {
+        this.acceptCache = acceptCache;
+    }
+
+    /**
+     * @ConstantResponse 가 붙은 핸들러 메서드의 응답을 인코딩한다.
+     *
+     * @param fallbackHandlers 반환 값이 다르거나 Accept 가 맞지 않을 때 처리할 처리기 목록
+     *                         (다른 설정이 나중에 처리기를 감쌀 수 있으므로 처리할 때마다 가져온다)
+     */
+    public void register(Map<RequestMappingInfo, HandlerMethod> handlerMethods,
+                         List<HttpMessageConverter<?>> converters,
+                         Supplier<List<HandlerMethodReturnValueHandler>> fallbackHandlers) {
+        Map<Method, Entry> registered = new LinkedHashMap<>();
+        handlerMethods.forEach((info, handlerMethod) -> {
+            ConstantResponse annotation =
+                AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getMethod(), ConstantResponse.class);
+            if (annotation == null || registered.containsKey(handlerMethod.getMethod())) {
+                return;
+            }
+            if (!AnnotatedElementUtils.hasAnnotation(handlerMethod.getBeanType(), ResponseBody.class)
+                && !AnnotatedElementUtils.hasAnnotation(handlerMethod.getMethod(), ResponseBody.class)) {
+                throw new IllegalStateException("@ConstantResponse on " + handlerMethod + " requires @ResponseBody");
+            }
+            Set<MediaType> produces = info.getProducesCondition().getProducibleMediaTypes();
+            registered.put(handlerMethod.getMethod(), new Entry(handlerMethod.toString(),
+                encode(handlerMethod, annotation, produces, converters)));
+        });
+        this.fallbackHandlers = fallbackHandlers;
+        this.entries = registered;
+        log.info("constant responses pre-encoded for {} handlers", registered.size());
+    }
+
+    private static Map<Object, ConstantBody> encode(HandlerMethod handlerMethod, ConstantResponse annotation,
+                                                    Set<MediaType> produces, List<HttpMessageConverter<?>> converters) {
+        Class<?> returnType = handlerMethod.getMethod().getReturnType();
+        if (returnType.isEnum()) {
+            if (!annotation.value().isEmpty()) {
+                throw new IllegalStateException("@ConstantResponse on enum handler " + handlerMethod + " must not have a value");
+            }
+            return encodeEnum(returnType.asSubclass(Enum.class), produces, converters);
+        }
+        if (returnType != String.class || annotation.value().isEmpty()) {
+            throw new IllegalStateException("@ConstantResponse on " + handlerMethod
+                + " requires a String return type with a value, or an enum return type");
+        }
+        return Collections.singletonMap(annotation.value(), encodeValue(annotation.value(), produces, converters));
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Map<Object, ConstantBody> encodeEnum(Class<? extends Enum> enumType, Set<MediaType> produces,
+                                                        List<HttpMessageConverter<?>> converters) {
+        Map<Object, ConstantBody> bodies = new EnumMap(enumType);
+        for (Enum<?> constant : enumType.getEnumConstants()) {
+            bodies.put(constant, encodeValue(constant, produces, converters));
+        }
+        return bodies;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static ConstantBody encodeValue(Object value, Set<MediaType> produces,
+                                            List<HttpMessageConverter<?>> converters) {
+        // 몸체가 있는 enum 상수는 익명 하위 클래스이므로 선언 타입으로 인코딩한다
+        Class<?> valueType = value instanceof Enum ? ((Enum<?>) value).getDeclaringClass() : value.getClass();
+        List<MediaType> producible = producibleMediaTypes(valueType, produces, converters);
+        MediaType mediaType = negotiate(Collections.singletonList(MediaType.ALL), producible);
+        if (mediaType == null) {
+            mediaType = MediaType.APPLICATION_OCTET_STREAM;
+        }
+        for (HttpMessageConverter<?> converter : converters) {
+            CapturedMessage message = new CapturedMessage();
+            try {
+                if (converter instanceof GenericHttpMessageConverter
+                    && ((GenericHttpMessageConverter) converter).canWrite(valueType, valueType, mediaType)) {
+                    ((GenericHttpMessageConverter) converter).write(value, valueType, mediaType, message);
+                } else if (!(converter instanceof GenericHttpMessageConverter) && converter.canWrite(valueType, mediaType)) {
+                    ((HttpMessageConverter) converter).write(value, mediaType, message);
+                } else {
+                    continue;
+                }
+            } catch (IOException e) {
+                throw new IllegalStateException("cannot encode constant response " + value, e);
+            }
+            MediaType contentType = message.headers.getContentType() == null ? mediaType : message.headers.getContentType();
+            return new ConstantBody(value, producible, mediaType, contentType.toString(), message.body.toByteArray());
+        }
+        throw new IllegalStateException("no HttpMessageConverter can write " + valueType.getName() + " as " + mediaType);
+    }
+
+    /**
+     * AbstractMessageConverterMethodProcessor.getProducibleMediaTypes 와 같다: produces, 없으면 쓸 수 있는 컨버터의 타입
+     */
+    private static List<MediaType> producibleMediaTypes(Class<?> valueType, Set<MediaType> produces,
+                                                        List<HttpMessageConverter<?>> converters) {
+        if (!produces.isEmpty()) {
+            return new ArrayList<>(produces);
+        }
+        List<MediaType> producible = new ArrayList<>();
+        for (HttpMessageConverter<?> converter : converters) {
+            boolean canWrite = converter instanceof GenericHttpMessageConverter
+                ? ((GenericHttpMessageConverter<?>) converter).canWrite(valueType, valueType, null)
+                : converter.canWrite(valueType, null);
+            if (canWrite) {
+                producible.addAll(converter.getSupportedMediaTypes(valueType));
+            }
+        }
+        return producible.isEmpty() ? Collections.singletonList(MediaType.ALL) : producible;
+    }
+
+    /**
+     * AbstractMessageConverterMethodProcessor.writeWithMessageConverters 가 고르는 타입, 맞는 타입이 없으면 (406) null
+     *
+     * @param acceptable Accept 헤더를 파싱한 값
+     */
+    private static MediaType negotiate(List<MediaType> acceptable, List<MediaType> producible) {
+        List<MediaType> requested = new ArrayList<>(acceptable.isEmpty() ? List.of(MediaType.ALL) : acceptable);
+        MediaType.sortBySpecificityAndQuality(requested);
+        List<MediaType> mediaTypesToUse = new ArrayList<>();
+        for (MediaType requestedType : requested) {
+            for (MediaType producibleType : producible) {
+                if (requestedType.isCompatibleWith(producibleType)) {
+                    mediaTypesToUse.add(mostSpecific(requestedType, producibleType));
+                }
+            }
+        }
+        MediaType.sortBySpecificityAndQuality(mediaTypesToUse);
+        for (MediaType mediaType : mediaTypesToUse) {
+            if (mediaType.isConcrete()) {
+                return mediaType.removeQualityValue();
+            }
+            if (mediaType.isPresentIn(ALL_APPLICATION_MEDIA_TYPES)) {
+                return MediaType.APPLICATION_OCTET_STREAM;
+            }
+        }
+        return null;
+    }
+
+    private static MediaType mostSpecific(MediaType acceptType, MediaType produceType) {
+        MediaType produceTypeToUse = produceType.copyQualityValue(acceptType);
+        return MediaType.SPECIFICITY_COMPARATOR.compare(acceptType, produceTypeToUse) <= 0 ? acceptType : produceTypeToUse;
+    }
+
+    @Override
+    public boolean supportsReturnType(MethodParameter returnType) {
+        return entries.containsKey(returnType.getMethod());
+    }
+
+    @Override
+    public void handleReturnValue(Object returnValue, MethodParameter returnType,
+                                  ModelAndViewContainer mavContainer, NativeWebRequest webRequest) throws Exception {
+        Entry entry = entries.get(returnType.getMethod());
+        ConstantBody body = returnValue == null ? null : entry.bodies.get(returnValue);
+        HttpServletResponse response = webRequest.getNativeResponse(HttpServletResponse.class);
+        if (body != null && response != null && acceptable(body, webRequest.getHeader(HttpHeaders.ACCEPT))) {
+            mavContainer.setRequestHandled(true);
+            body.write(response);
+            return;
+        }
+
+        entry.fallbacks.increment();
+        for (HandlerMethodReturnValueHandler handler : fallbackHandlers.get()) {
+            if (handler != this && handler.supportsReturnType(returnType)) {
+                handler.handleReturnValue(returnValue, returnType, mavContainer, webRequest);
+                return;
+            }
+        }
+        throw new IllegalStateException("no return value handler for " + returnType.getMethod());
+    }
+
+    /**
+     * Accept 가 없거나 *&#47;* 이면 true, 아니면 원래 처리기가 고를 타입이 미리 인코딩한 타입과 같을 때만 true
+     * (브라우저처럼 *&#47;*;q=0.8 로 받기만 하는 경우 원래 처리기는 text/html 같은 다른 타입을 고른다)
+     */
+    private boolean acceptable(ConstantBody body, String accept) {
+        if (accept == null || MediaType.ALL_VALUE.equals(accept)) {
+            return true;
+        }
+        return acceptCache.get(new AcceptKey(body, accept), key -> {
+            List<MediaType> requested;
+            try {
+                requested = MediaType.parseMediaTypes(accept);
+            } catch (InvalidMediaTypeException e) {
+                return false;
+            }
+            return body.getMediaType().equals(negotiate(requested, body.getProducible()));
+        });
+    }
+
+    public List<ConstantResponseStats> stats() {
+        List<ConstantResponseStats> stats = new ArrayList<>();
+        for (Entry entry : entries.values()) {
+            ConstantResponseStats handlerStats = new ConstantResponseStats();
+            handlerStats.setHandler(entry.handler);
+            List<ConstantResponseStats.Body> bodies = new ArrayList<>();
+            for (ConstantBody body : entry.bodies.values()) {
+                ConstantResponseStats.Body bodyStats = new ConstantResponseStats.Body();
+                bodyStats.setValue(String.valueOf(body.getValue()));
+                bodyStats.setContentType(body.getContentType());
+                bodyStats.setBytes(body.getLength());
+                bodyStats.setHits(body.getHits());
+                bodies.add(bodyStats);
+            }
+            handlerStats.setBodies(bodies);
+            handlerStats.setFallbacks(entry.fallbacks.sum());
+            stats.add(handlerStats);
+        }
+        return stats;
+    }
+
+    /**
+     * (미리 인코딩한 본문, Accept 헤더 값), 본문은 같은 객체일 때만 같다
+     */
+    public static final class AcceptKey {
+        private final ConstantBody body;
+        private final String accept;
+
+        AcceptKey(ConstantBody body, String accept) {
+            this.body = body;
+            this.accept = accept;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof AcceptKey)) {
+                return false;
+            }
+            AcceptKey other = (AcceptKey) o;
+            return body == other.body && accept.equals(other.accept);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(body) + accept.hashCode();
+        }
+    }
+
+    private static final class Entry {
+        private final String handler;
+        private final Map<Object, ConstantBody> bodies;
+        private final LongAdder fallbacks = new LongAdder();
+
+        Entry(String handler, Map<Object, ConstantBody> bodies) {
+            this.handler = handler;
+            this.bodies = bodies;
+        }
+    }
+
+    /**
+     * 컨버터가 쓴 헤더와 본문을 메모리에 받는다.
+     */
+    private static final class CapturedMessage implements HttpOutputMessage {
+        private final HttpHeaders headers = new HttpHeaders();
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+        @Override
+        public OutputStream getBody() {
+            return body;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+    }
+
+}
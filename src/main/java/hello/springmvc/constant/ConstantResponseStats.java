@@ -0,0 +1,21 @@
+package hello.springmvc.constant;
+
+import java.util.List;
+import lombok.Data;
+
+@Data
+public class ConstantResponseStats {
+    private String handler;
+    /** 미리 인코딩한 값 (enum 이면 상수마다 하나) */
+    private List<Body> bodies;
+    /** 반환 값이 다르거나 Accept 가 맞지 않아 컨버터로 처리한 수 */
+    private long fallbacks;
+
+    @Data
+    public static class Body {
+        private String value;
+        private String contentType;
+        private int bytes;
+        private long hits;
+    }
+}
@@ -0,0 +1,223 @@
+package hello.springmvc.executor;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Tomcat 커넥터에 연결하는 워커 스레드 풀
+ *
+ * core = max = limit 으로 유지해서 limit 까지는 스레드를 만들고, 그 이상은 대기열에 쌓는다.
+ * 대기열(max-queue-size)까지 가득 차면 작은 overflow 풀에 넘기고, 거기서 실행되는 요청은 OverloadValve 가
+ * 핸들러를 부르지 않고 503 으로 응답한다. 거절된 작업을 그대로 예외로 돌려주면 Tomcat 은 응답 없이 연결을 닫는다.
+ * overflow 풀까지 가득 찬 경우에만 연결을 닫는다.
+ * 한도를 줄이면 남는 스레드는 keep-alive 후 종료된다 (allowCoreThreadTimeOut).
+ */
+@Slf4j
+public class AdaptiveExecutor extends ThreadPoolExecutor {
+
+    private static final ThreadLocal<Boolean> SHEDDING = new ThreadLocal<>();
+
+    private final AdaptiveLimit limit;
+    private final HandlerLatencyTracker latencyTracker;
+    private final OverflowHandler rejections;
+    private final ScheduledExecutorService adjuster;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+    private final LongAdder queueWaitSum = new LongAdder();
+    private final LongAdder queueWaitCount = new LongAdder();
+
+    public AdaptiveExecutor(AdaptiveExecutorProperties properties, HandlerLatencyTracker latencyTracker) {
+        this(new AdaptiveLimit(properties), latencyTracker, new OverflowHandler(properties), properties);
+    }
+
+    private AdaptiveExecutor(AdaptiveLimit limit, HandlerLatencyTracker latencyTracker,
+                             OverflowHandler rejections, AdaptiveExecutorProperties properties) {
+        super(limit.getLimit(), limit.getLimit(),
+            properties.getKeepAlive().toMillis(), TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(properties.getMaxQueueSize()),
+            threadFactory("http-adaptive-"), rejections);
+        allowCoreThreadTimeOut(true);
+
+        this.limit = limit;
+        this.latencyTracker = latencyTracker;
+        this.rejections = rejections;
+        this.adjuster = Executors.newSingleThreadScheduledExecutor(threadFactory("http-adaptive-adjuster-"));
+
+        long interval = properties.getAdjustInterval().toMillis();
+        adjuster.scheduleWithFixedDelay(this::adjust, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        super.execute(new TimedTask(command));
+    }
+
+    @Override
+    protected void beforeExecute(Thread t, Runnable r) {
+        if (r instanceof TimedTask) {
+            queueWaitSum.add(System.nanoTime() - ((TimedTask) r).enqueuedAt);
+            queueWaitCount.increment();
+        }
+        int current = inFlight.incrementAndGet();
+        peakInFlight.accumulateAndGet(current, Math::max);
+    }
+
+    @Override
+    protected void afterExecute(Runnable r, Throwable t) {
+        inFlight.decrementAndGet();
+    }
+
+    /**
+     * 구간 통계로 한도를 다시 계산하고 풀 크기에 반영한다.
+     */
+    void adjust() {
+        try {
+            long count = queueWaitCount.sumThenReset();
+            long sum = queueWaitSum.sumThenReset();
+            long avgQueueWait = count == 0 ? 0 : sum / count;
+            int peak = peakInFlight.getAndSet(inFlight.get());
+
+            int before = limit.getLimit();
+            int after = limit.update(avgQueueWait, latencyTracker.gradient(), peak);
+            if (after == before) {
+                return;
+            }
+
+            // core <= max 를 항상 지키도록 순서를 맞춘다
+            if (after > before) {
+                setMaximumPoolSize(after);
+                setCorePoolSize(after);
+            } else {
+                setCorePoolSize(after);
+                setMaximumPoolSize(after);
+            }
+            log.debug("adaptive limit {} -> {} (queueWait={}us, peakInFlight={}, queue={})",
+                before, after, avgQueueWait / 1000, peak, getQueue().size());
+        } catch (RuntimeException e) {
+            // 예외가 나면 scheduleWithFixedDelay가 멈추므로 여기서 끝낸다
+            log.warn("adaptive limit adjust failed", e);
+        }
+    }
+
+    /**
+     * 현재 스레드가 대기열이 넘쳐서 overflow 풀에서 실행 중인 요청이면 true (503 으로 응답해야 한다)
+     */
+    public static boolean isShedding() {
+        return SHEDDING.get() != null;
+    }
+
+    @Override
+    public void shutdown() {
+        adjuster.shutdown();
+        rejections.overflow.shutdown();
+        super.shutdown();
+    }
+
+    public int getLimit() {
+        return limit.getLimit();
+    }
+
+    public int getMinLimit() {
+        return limit.getMinLimit();
+    }
+
+    public int getMaxLimit() {
+        return limit.getMaxLimit();
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public int getQueueLength() {
+        return getQueue().size();
+    }
+
+    /** 503 으로 응답한 수 */
+    public long getRejectedCount() {
+        return rejections.shed.sum();
+    }
+
+    /** overflow 풀까지 가득 차서 연결을 닫은 수 */
+    public long getDroppedCount() {
+        return rejections.dropped.sum();
+    }
+
+    private static ThreadFactory threadFactory(String prefix) {
+        AtomicInteger sequence = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static class TimedTask implements Runnable {
+        private final Runnable delegate;
+        private final long enqueuedAt = System.nanoTime();
+
+        private TimedTask(Runnable delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void run() {
+            delegate.run();
+        }
+    }
+
+    private static class ShedTask implements Runnable {
+        private final Runnable delegate;
+
+        private ShedTask(Runnable delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void run() {
+            SHEDDING.set(Boolean.TRUE);
+            try {
+                delegate.run();
+            } finally {
+                SHEDDING.remove();
+            }
+        }
+    }
+
+    private static class OverflowHandler implements RejectedExecutionHandler {
+        private final LongAdder shed = new LongAdder();
+        private final LongAdder dropped = new LongAdder();
+        private final ThreadPoolExecutor overflow;
+
+        private OverflowHandler(AdaptiveExecutorProperties properties) {
+            this.overflow = new ThreadPoolExecutor(properties.getOverflowThreads(), properties.getOverflowThreads(),
+                0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(properties.getOverflowQueueSize()),
+                threadFactory("http-adaptive-overflow-"));
+        }
+
+        @Override
+        public void rejectedExecution(Runnable r, ThreadPoolExecutor executor) {
+            if (executor.isShutdown()) {
+                throw new RejectedExecutionException("adaptive executor is shut down");
+            }
+            try {
+                overflow.execute(new ShedTask(r));
+                shed.increment();
+            } catch (RejectedExecutionException e) {
+                dropped.increment();
+                throw new RejectedExecutionException("adaptive executor saturated: queue=" + executor.getQueue().size());
+            }
+        }
+    }
+
+}
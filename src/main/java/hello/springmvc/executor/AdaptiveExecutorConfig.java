@@ -0,0 +1,50 @@
+package hello.springmvc.executor;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * adaptive-executor.enabled=true 이면 Tomcat 커넥터의 고정 크기 워커 풀을 AdaptiveExecutor로 교체한다.
+ * 외부에서 넣어준 Executor는 Tomcat이 종료하지 않으므로 destroyMethod로 직접 종료한다.
+ * 대기열이 넘친 요청은 OverloadValve 가 503 으로 응답한다.
+ */
+@Configuration
+@EnableConfigurationProperties(AdaptiveExecutorProperties.class)
+@ConditionalOnProperty(prefix = "adaptive-executor", name = "enabled", havingValue = "true")
+public class AdaptiveExecutorConfig {
+
+    @Bean
+    public HandlerLatencyTracker handlerLatencyTracker() {
+        return new HandlerLatencyTracker();
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public AdaptiveExecutor adaptiveExecutor(AdaptiveExecutorProperties properties,
+                                             HandlerLatencyTracker handlerLatencyTracker) {
+        return new AdaptiveExecutor(properties, handlerLatencyTracker);
+    }
+
+    @Bean
+    public WebServerFactoryCustomizer<TomcatServletWebServerFactory> adaptiveExecutorCustomizer(AdaptiveExecutor adaptiveExecutor,
+                                                                                                AdaptiveExecutorProperties properties) {
+        return factory -> {
+            factory.addConnectorCustomizers(connector -> connector.getProtocolHandler().setExecutor(adaptiveExecutor));
+            factory.addEngineValves(new OverloadValve(properties));
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<HandlerLatencyFilter> handlerLatencyFilter(HandlerLatencyTracker handlerLatencyTracker) {
+        FilterRegistrationBean<HandlerLatencyFilter> registration =
+            new FilterRegistrationBean<>(new HandlerLatencyFilter(handlerLatencyTracker));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+}
@@ -0,0 +1,24 @@
+package hello.springmvc.executor;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * 현재 한도, 대기열 길이, 거절 수 조회
+ * GET /internal/executor
+ */
+@RestController
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "adaptive-executor", name = "enabled", havingValue = "true")
+public class AdaptiveExecutorController {
+
+    private final AdaptiveExecutor executor;
+
+    @GetMapping("/internal/executor")
+    public AdaptiveExecutorStats stats() {
+        return AdaptiveExecutorStats.of(executor);
+    }
+
+}
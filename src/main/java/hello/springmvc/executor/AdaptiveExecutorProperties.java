@@ -0,0 +1,49 @@
+package hello.springmvc.executor;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * adaptive-executor.* 설정
+ * - min-limit, max-limit: 동시 처리 스레드 수의 하한(floor), 상한(ceiling)
+ * - max-queue-size, overflow-*: 대기열이 가득 차면 overflow 스레드가 503 을 응답한다 (OverloadValve)
+ * - 나머지는 AdaptiveLimit 의 AIMD 동작을 조정한다.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "adaptive-executor")
+public class AdaptiveExecutorProperties {
+
+    private boolean enabled = false;
+
+    private int minLimit = 10;
+    private int maxLimit = 200;
+    /** Tomcat 기본 워커 풀(max-threads=200)과 같게 시작하고, 한가하면 AIMD 가 줄인다 */
+    private int initialLimit = 200;
+    /** Tomcat 기본 대기열처럼 제한 없음 */
+    private int maxQueueSize = Integer.MAX_VALUE;
+
+    /** 대기열까지 가득 차서 넘친 요청에 503 만 응답하는 스레드 수와 그 대기열 크기 (여기도 넘치면 연결을 닫는다) */
+    private int overflowThreads = 2;
+    private int overflowQueueSize = 1000;
+    /** 넘친 요청에 보내는 Retry-After */
+    private Duration retryAfter = Duration.ofSeconds(1);
+
+    /** 한도를 다시 계산하는 주기 */
+    private Duration adjustInterval = Duration.ofMillis(500);
+    /** 평균 대기열 대기 시간이 이 값을 넘으면 스레드가 부족한 것으로 본다 */
+    private Duration queueWaitTarget = Duration.ofMillis(5);
+    /** 핸들러 지연 시간이 평소(장기 평균)의 이 배수를 넘으면 동시성 과다로 보고 줄인다 */
+    private double latencyTolerance = 2.0;
+    private int increaseStep = 4;
+    private double backoffRatio = 0.9;
+    /** 구간 최대 동시 처리 수가 한도의 이 비율보다 작으면 유휴로 보고 줄인다 */
+    private double idleRatio = 0.5;
+    private Duration keepAlive = Duration.ofSeconds(60);
+
+    /** 부하 테스트용 /internal/slow 엔드포인트 등록 여부 (운영에서는 끈다) */
+    private boolean slowEndpointEnabled = false;
+
+}
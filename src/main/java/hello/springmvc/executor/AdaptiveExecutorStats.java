@@ -0,0 +1,32 @@
+package hello.springmvc.executor;
+
+import lombok.Data;
+
+@Data
+public class AdaptiveExecutorStats {
+    private int limit;
+    private int minLimit;
+    private int maxLimit;
+    private int poolSize;
+    private int inFlight;
+    private int queueLength;
+    /** 대기열이 넘쳐서 503 으로 응답한 수 */
+    private long rejected;
+    /** overflow 풀까지 넘쳐서 연결을 닫은 수 */
+    private long dropped;
+    private long completed;
+
+    public static AdaptiveExecutorStats of(AdaptiveExecutor executor) {
+        AdaptiveExecutorStats stats = new AdaptiveExecutorStats();
+        stats.setLimit(executor.getLimit());
+        stats.setMinLimit(executor.getMinLimit());
+        stats.setMaxLimit(executor.getMaxLimit());
+        stats.setPoolSize(executor.getPoolSize());
+        stats.setInFlight(executor.getInFlight());
+        stats.setQueueLength(executor.getQueueLength());
+        stats.setRejected(executor.getRejectedCount());
+        stats.setDropped(executor.getDroppedCount());
+        stats.setCompleted(executor.getCompletedTaskCount());
+        return stats;
+    }
+}
@@ -0,0 +1,76 @@
+package hello.springmvc.executor;
+
+/**
+ * AIMD(additive increase, multiplicative decrease) 방식의 동시성 한도
+ *
+ * 매 주기마다 다음 순서로 판단한다.
+ * 1. 핸들러 지연 시간 기울기(단기 평균 / 장기 평균)가 latencyTolerance를 넘음
+ *    -> 스레드를 늘린 결과 핸들러 자체가 느려졌다 (CPU, 락 경합) -> limit * backoffRatio
+ * 2. 평균 대기열 대기 시간이 queueWaitTarget을 넘음
+ *    -> 핸들러는 평소 속도인데 스레드가 모자라다 (느린 I/O 핸들러 몰림) -> limit + increaseStep
+ * 3. 구간 최대 동시 처리 수가 limit * idleRatio 보다 작음
+ *    -> 유휴 스레드가 메모리만 차지한다 -> 천천히 줄인다
+ * 결과는 항상 [minLimit, maxLimit] 안에 있다.
+ */
+public class AdaptiveLimit {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final int increaseStep;
+    private final double backoffRatio;
+    private final double latencyTolerance;
+    private final double idleRatio;
+    private final long queueWaitTargetNanos;
+
+    private volatile int limit;
+
+    public AdaptiveLimit(AdaptiveExecutorProperties properties) {
+        if (properties.getMinLimit() < 1 || properties.getMinLimit() > properties.getMaxLimit()) {
+            throw new IllegalArgumentException("adaptive-executor requires 1 <= min-limit <= max-limit");
+        }
+        this.minLimit = properties.getMinLimit();
+        this.maxLimit = properties.getMaxLimit();
+        this.increaseStep = properties.getIncreaseStep();
+        this.backoffRatio = properties.getBackoffRatio();
+        this.latencyTolerance = properties.getLatencyTolerance();
+        this.idleRatio = properties.getIdleRatio();
+        this.queueWaitTargetNanos = properties.getQueueWaitTarget().toNanos();
+        this.limit = clamp(properties.getInitialLimit());
+    }
+
+    /**
+     * @param avgQueueWaitNanos 구간 평균 대기열 대기 시간
+     * @param latencyGradient 핸들러 지연 시간 단기 평균 / 장기 평균 (샘플이 없으면 1.0)
+     * @param peakInFlight 구간 최대 동시 처리 수
+     * @return 새 한도
+     */
+    public synchronized int update(long avgQueueWaitNanos, double latencyGradient, int peakInFlight) {
+        int newLimit = limit;
+        if (latencyGradient > latencyTolerance) {
+            newLimit = (int) (limit * backoffRatio);
+        } else if (avgQueueWaitNanos > queueWaitTargetNanos) {
+            newLimit = limit + increaseStep;
+        } else if (peakInFlight < limit * idleRatio) {
+            newLimit = Math.max(peakInFlight + increaseStep, (int) (limit * backoffRatio));
+        }
+        limit = clamp(newLimit);
+        return limit;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getMinLimit() {
+        return minLimit;
+    }
+
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+
+    private int clamp(int value) {
+        return Math.max(minLimit, Math.min(maxLimit, value));
+    }
+
+}
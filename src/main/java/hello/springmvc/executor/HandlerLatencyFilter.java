@@ -0,0 +1,35 @@
+package hello.springmvc.executor;
+
+import java.io.IOException;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * 요청 처리 시간을 핸들러별로 HandlerLatencyTracker에 기록한다.
+ * 핸들러 키는 매칭된 URL 패턴을 사용한다. (/mapping/users/{userId} 처럼 경로 변수는 하나로 묶임)
+ */
+@RequiredArgsConstructor
+public class HandlerLatencyFilter extends OncePerRequestFilter {
+
+    private final HandlerLatencyTracker latencyTracker;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+        throws ServletException, IOException {
+        long start = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            if (pattern != null) {
+                latencyTracker.record(request.getMethod() + " " + pattern, System.nanoTime() - start);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,58 @@
+package hello.springmvc.executor;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 핸들러(HTTP 메서드 + URL 패턴)별 지연 시간을 모아서 기울기를 계산한다.
+ *
+ * 원래 느린 엔드포인트(예: /request-body-json-v1 에 큰 바디)가 몰리는 것과
+ * 모든 핸들러가 평소보다 느려지는 것을 구분하기 위해 핸들러별 장기 평균과 비교한다.
+ */
+public class HandlerLatencyTracker {
+
+    /** 장기 평균(EWMA) 반영 비율 */
+    private static final double ALPHA = 0.1;
+
+    private final Map<String, HandlerLatency> latencies = new ConcurrentHashMap<>();
+
+    public void record(String handler, long nanos) {
+        HandlerLatency latency = latencies.computeIfAbsent(handler, key -> new HandlerLatency());
+        latency.sum.add(nanos);
+        latency.count.increment();
+    }
+
+    /**
+     * 마지막 호출 이후 구간의 (단기 평균 / 장기 평균)을 요청 수로 가중 평균한다.
+     * 처음 보는 핸들러는 이번 구간 평균으로 장기 평균을 시작하므로 1.0으로 계산된다.
+     * @return 샘플이 없으면 1.0
+     */
+    public double gradient() {
+        double weighted = 0;
+        long total = 0;
+        for (HandlerLatency latency : latencies.values()) {
+            long count = latency.count.sumThenReset();
+            long sum = latency.sum.sumThenReset();
+            if (count == 0) {
+                continue;
+            }
+            double shortTerm = (double) sum / count;
+            if (latency.longTerm == 0) {
+                latency.longTerm = shortTerm;
+            }
+            weighted += shortTerm / latency.longTerm * count;
+            total += count;
+            latency.longTerm = latency.longTerm * (1 - ALPHA) + shortTerm * ALPHA;
+        }
+        return total == 0 ? 1.0 : weighted / total;
+    }
+
+    private static class HandlerLatency {
+        private final LongAdder sum = new LongAdder();
+        private final LongAdder count = new LongAdder();
+        // gradient()는 조정 스레드 하나에서만 호출된다
+        private double longTerm;
+    }
+
+}
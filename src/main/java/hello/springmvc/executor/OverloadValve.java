@@ -0,0 +1,36 @@
+package hello.springmvc.executor;
+
+import java.io.IOException;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletResponse;
+import org.apache.catalina.connector.Request;
+import org.apache.catalina.connector.Response;
+import org.apache.catalina.valves.ValveBase;
+import org.apache.coyote.ActionCode;
+import org.springframework.http.HttpHeaders;
+
+/**
+ * AdaptiveExecutor 의 대기열이 넘쳐서 overflow 풀에서 실행되는 요청은 필터와 핸들러를 부르지 않고 503 으로 응답한다.
+ * BulkheadValve 와 같이 바디는 읽지 않고 연결을 닫는다. Engine Valve 로 등록해서 다른 Valve 보다 먼저 실행된다.
+ */
+public class OverloadValve extends ValveBase {
+
+    private final String retryAfter;
+
+    public OverloadValve(AdaptiveExecutorProperties properties) {
+        super(true);
+        this.retryAfter = String.valueOf(properties.getRetryAfter().getSeconds());
+    }
+
+    @Override
+    public void invoke(Request request, Response response) throws IOException, ServletException {
+        if (!AdaptiveExecutor.isShedding()) {
+            getNext().invoke(request, response);
+            return;
+        }
+        response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        response.setHeader(HttpHeaders.RETRY_AFTER, retryAfter);
+        request.getCoyoteRequest().action(ActionCode.DISABLE_SWALLOW_INPUT, null);
+    }
+
+}
@@ -0,0 +1,26 @@
+package hello.springmvc.executor;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * 느린 I/O 핸들러를 흉내내는 부하 테스트용 엔드포인트
+ * adaptive-executor.slow-endpoint-enabled=true 일 때만 등록된다.
+ */
+@Slf4j
+@RestController
+@ConditionalOnProperty(prefix = "adaptive-executor", name = "slow-endpoint-enabled", havingValue = "true")
+public class SlowHandlerController {
+
+    private static final long MAX_MILLIS = 5000;
+
+    @GetMapping("/internal/slow")
+    public String slow(@RequestParam(defaultValue = "200") long millis) throws InterruptedException {
+        Thread.sleep(Math.min(millis, MAX_MILLIS));
+        return "OK";
+    }
+
+}
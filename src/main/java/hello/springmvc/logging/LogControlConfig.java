@@ -0,0 +1,48 @@
+package hello.springmvc.logging;
+
+import ch.qos.logback.classic.LoggerContext;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.util.StringUtils;
+
+/**
+ * log-control.enabled=true 이면 로거 레벨 변경 엔드포인트와 요청 단위 디버그 헤더를 사용한다.
+ * 요청 단위 디버그는 Logback TurboFilter 로 구현하므로 Logback 이 있어야 한다. (스프링 부트 기본)
+ * /internal/loggers 는 인증 없이 열려 있으므로 켤 때는 /internal/** 을 외부에서 막아야 한다. (프록시, 방화벽 등)
+ */
+@Slf4j
+@Configuration
+@EnableConfigurationProperties(LogControlProperties.class)
+@ConditionalOnClass(LoggerContext.class)
+@ConditionalOnProperty(prefix = "log-control", name = "enabled", havingValue = "true")
+public class LogControlConfig {
+
+    @Bean
+    public RequestDebugSwitch requestDebugSwitch(LogControlProperties properties) {
+        if (!StringUtils.hasText(properties.getToken())) {
+            log.warn("log-control.token is not set, {} header will be ignored", properties.getRequestHeader());
+        }
+        LoggerContext loggerContext = (LoggerContext) LoggerFactory.getILoggerFactory();
+        return new RequestDebugSwitch(loggerContext, new RequestDebugTurboFilter(properties.getLoggerPrefixes()));
+    }
+
+    /**
+     * 다른 필터(trace, 워커 풀 지연 시간 측정)의 로그도 포함하도록 최우선 순서로 등록한다.
+     */
+    @Bean
+    public FilterRegistrationBean<RequestDebugFilter> requestDebugFilter(RequestDebugSwitch requestDebugSwitch,
+                                                                        LogControlProperties properties) {
+        FilterRegistrationBean<RequestDebugFilter> registration =
+            new FilterRegistrationBean<>(new RequestDebugFilter(requestDebugSwitch, properties));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+}
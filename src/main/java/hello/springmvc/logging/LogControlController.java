@@ -0,0 +1,69 @@
+package hello.springmvc.logging;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.logging.LogLevel;
+import org.springframework.boot.logging.LoggerConfiguration;
+import org.springframework.boot.logging.LoggingSystem;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * 재시작 없이 로거 레벨 조회/변경
+ * - GET /internal/loggers?prefix=hello.springmvc
+ * - POST /internal/loggers/hello.springmvc?level=debug (level 이 없으면 설정을 지워서 상위 로거 레벨을 따른다)
+ * - GET /internal/loggers/request-debug : 요청 단위 디버그 상태
+ */
+@RestController
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "log-control", name = "enabled", havingValue = "true")
+public class LogControlController {
+
+    private final LoggingSystem loggingSystem;
+    private final RequestDebugSwitch requestDebugSwitch;
+
+    @GetMapping("/internal/loggers")
+    public List<LoggerLevel> loggers(@RequestParam(defaultValue = "") String prefix) {
+        return loggingSystem.getLoggerConfigurations().stream()
+            .filter(configuration -> configuration.getName().startsWith(prefix))
+            .map(LogControlController::toLoggerLevel)
+            .collect(Collectors.toList());
+    }
+
+    @PostMapping("/internal/loggers/{name:.+}")
+    public LoggerLevel setLevel(@PathVariable String name, @RequestParam(required = false) String level) {
+        LogLevel logLevel = level == null ? null : parseLevel(level);
+        loggingSystem.setLogLevel(name, logLevel);
+        return toLoggerLevel(loggingSystem.getLoggerConfiguration(name));
+    }
+
+    @GetMapping("/internal/loggers/request-debug")
+    public RequestDebugStats requestDebug() {
+        return requestDebugSwitch.stats();
+    }
+
+    private static LogLevel parseLevel(String level) {
+        try {
+            return LogLevel.valueOf(level.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                "level must be one of " + Arrays.toString(LogLevel.values()));
+        }
+    }
+
+    private static LoggerLevel toLoggerLevel(LoggerConfiguration configuration) {
+        LogLevel configured = configuration.getConfiguredLevel();
+        return new LoggerLevel(configuration.getName(),
+            configured == null ? null : configured.name(), configuration.getEffectiveLevel().name());
+    }
+
+}
@@ -0,0 +1,26 @@
+package hello.springmvc.logging;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * log-control.* 설정
+ * - request-header: 이 헤더(debug 또는 trace)가 있는 요청만 해당 레벨 로그를 남긴다
+ * - token: token-header 값이 일치하는 요청만 request-header 를 적용한다, 지정하지 않으면 request-header 를 모두 무시한다
+ * - logger-prefixes: 요청 단위 디버그를 적용할 로거 이름 접두사
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "log-control")
+public class LogControlProperties {
+
+    private boolean enabled = false;
+    private String requestHeader = "X-Debug-Log";
+    private String tokenHeader = "X-Debug-Token";
+    private String token;
+    private List<String> loggerPrefixes = new ArrayList<>(List.of("hello.springmvc"));
+
+}
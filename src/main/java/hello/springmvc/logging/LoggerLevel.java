@@ -0,0 +1,13 @@
+package hello.springmvc.logging;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class LoggerLevel {
+    private String name;
+    /** 직접 설정한 레벨, 상속받는 경우 null */
+    private String configuredLevel;
+    private String effectiveLevel;
+}
@@ -0,0 +1,66 @@
+package hello.springmvc.logging;
+
+import ch.qos.logback.classic.Level;
+import java.io.IOException;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * X-Debug-Log: debug (또는 trace) 헤더가 있는 요청을 처리하는 동안 해당 스레드의 로그 레벨을 낮춘다.
+ * 적용된 레벨은 같은 이름의 응답 헤더로 돌려준다.
+ * 외부에서 아무나 debug 로그를 켜지 못하도록 log-control.token 이 설정되어 있고 token-header 값이 일치할 때만 적용한다.
+ * token 이 없으면 헤더를 모두 무시한다.
+ */
+@Slf4j
+public class RequestDebugFilter extends OncePerRequestFilter {
+
+    private final RequestDebugSwitch debugSwitch;
+    private final LogControlProperties properties;
+
+    public RequestDebugFilter(RequestDebugSwitch debugSwitch, LogControlProperties properties) {
+        this.debugSwitch = debugSwitch;
+        this.properties = properties;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+        throws ServletException, IOException {
+        Level level = requestLevel(request);
+        if (level == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        response.setHeader(properties.getRequestHeader(), level.toString());
+        debugSwitch.begin(level);
+        try {
+            log.debug("request debug {} {} level={}", request.getMethod(), request.getRequestURI(), level);
+            chain.doFilter(request, response);
+        } finally {
+            debugSwitch.end();
+        }
+    }
+
+    private Level requestLevel(HttpServletRequest request) {
+        String value = request.getHeader(properties.getRequestHeader());
+        if (value == null) {
+            return null;
+        }
+        Level level = "trace".equalsIgnoreCase(value) ? Level.TRACE : "debug".equalsIgnoreCase(value) ? Level.DEBUG : null;
+        if (level == null) {
+            return null;
+        }
+        if (!StringUtils.hasText(properties.getToken())
+            || !properties.getToken().equals(request.getHeader(properties.getTokenHeader()))) {
+            debugSwitch.rejected();
+            return null;
+        }
+        return level;
+    }
+
+}
@@ -0,0 +1,11 @@
+package hello.springmvc.logging;
+
+import lombok.Data;
+
+@Data
+public class RequestDebugStats {
+    private int activeRequests;
+    private boolean filterInstalled;
+    private long debugRequests;
+    private long rejectedRequests;
+}
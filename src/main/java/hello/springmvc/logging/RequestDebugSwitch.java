@@ -0,0 +1,63 @@
+package hello.springmvc.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 요청 단위 디버그를 켜고 끈다.
+ *
+ * 디버그 요청이 하나라도 처리 중일 때만 TurboFilter 를 LoggerContext 에 등록한다.
+ * 평소에는 필터 목록이 비어 있으므로 레벨 검사 비용이 이 기능이 없을 때와 같다.
+ * (등록/해제는 디버그 요청의 시작과 끝에서만 일어나므로 드물다)
+ */
+public class RequestDebugSwitch {
+
+    private final LoggerContext loggerContext;
+    private final RequestDebugTurboFilter filter;
+    private int active;
+
+    private final LongAdder debugRequests = new LongAdder();
+    private final LongAdder rejectedRequests = new LongAdder();
+
+    public RequestDebugSwitch(LoggerContext loggerContext, RequestDebugTurboFilter filter) {
+        this.loggerContext = loggerContext;
+        this.filter = filter;
+    }
+
+    public void begin(Level level) {
+        debugRequests.increment();
+        filter.setRequestLevel(level);
+        synchronized (this) {
+            if (active++ == 0) {
+                filter.start();
+                loggerContext.addTurboFilter(filter);
+            }
+        }
+    }
+
+    public void end() {
+        filter.clearRequestLevel();
+        synchronized (this) {
+            if (--active == 0) {
+                loggerContext.getTurboFilterList().remove(filter);
+            }
+        }
+    }
+
+    void rejected() {
+        rejectedRequests.increment();
+    }
+
+    public RequestDebugStats stats() {
+        RequestDebugStats stats = new RequestDebugStats();
+        synchronized (this) {
+            stats.setActiveRequests(active);
+        }
+        stats.setFilterInstalled(loggerContext.getTurboFilterList().contains(filter));
+        stats.setDebugRequests(debugRequests.sum());
+        stats.setRejectedRequests(rejectedRequests.sum());
+        return stats;
+    }
+
+}
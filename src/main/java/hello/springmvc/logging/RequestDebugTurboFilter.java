@@ -0,0 +1,49 @@
+package hello.springmvc.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import java.util.List;
+import org.slf4j.Marker;
+
+/**
+ * 현재 스레드가 디버그 요청을 처리 중이면, 로거 레벨과 관계없이 요청 레벨 이상의 로그를 남긴다.
+ *
+ * Logback 은 모든 레벨 검사(isDebugEnabled, log.debug ...)마다 등록된 TurboFilter 를 호출한다.
+ * 그래서 이 필터는 디버그 요청이 처리 중인 동안에만 등록해 둔다. (RequestDebugSwitch)
+ */
+public class RequestDebugTurboFilter extends TurboFilter {
+
+    private final ThreadLocal<Level> requestLevel = new ThreadLocal<>();
+    private final String[] loggerPrefixes;
+
+    public RequestDebugTurboFilter(List<String> loggerPrefixes) {
+        this.loggerPrefixes = loggerPrefixes.toArray(new String[0]);
+        setName("request-debug");
+    }
+
+    void setRequestLevel(Level level) {
+        requestLevel.set(level);
+    }
+
+    void clearRequestLevel() {
+        requestLevel.remove();
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        Level threshold = requestLevel.get();
+        if (threshold == null || level == null || !level.isGreaterOrEqual(threshold)) {
+            return FilterReply.NEUTRAL;
+        }
+        String name = logger.getName();
+        for (String prefix : loggerPrefixes) {
+            if (name.startsWith(prefix)) {
+                return FilterReply.ACCEPT;
+            }
+        }
+        return FilterReply.NEUTRAL;
+    }
+
+}
@@ -0,0 +1,14 @@
+package hello.springmvc.negotiation;
+
+import lombok.Data;
+
+@Data
+public class CacheStats {
+    private String name;
+    private int size;
+    private int maxSize;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private double hitRate;
+}
@@ -0,0 +1,49 @@
+package hello.springmvc.negotiation;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+import org.springframework.web.accept.ContentNegotiationStrategy;
+import org.springframework.web.context.request.NativeWebRequest;
+
+/**
+ * HeaderContentNegotiationStrategy 와 같은 결과를 Accept 헤더 문자열 단위로 캐시한다.
+ * (파싱 + 구체성/품질 순 정렬을 요청마다 반복하지 않는다)
+ */
+public class CachingContentNegotiationStrategy implements ContentNegotiationStrategy {
+
+    private final HeaderCache<String, List<MediaType>> cache;
+
+    public CachingContentNegotiationStrategy(HeaderCache<String, List<MediaType>> cache) {
+        this.cache = cache;
+    }
+
+    @Override
+    public List<MediaType> resolveMediaTypes(NativeWebRequest request) throws HttpMediaTypeNotAcceptableException {
+        String[] headerValues = request.getHeaderValues(HttpHeaders.ACCEPT);
+        if (headerValues == null) {
+            return MEDIA_TYPE_ALL_LIST;
+        }
+        String accept = headerValues.length == 1 ? headerValues[0] : String.join(",", headerValues);
+
+        List<MediaType> mediaTypes = cache.getIfPresent(accept);
+        if (mediaTypes != null) {
+            return mediaTypes;
+        }
+        try {
+            List<MediaType> parsed = MediaType.parseMediaTypes(Arrays.asList(headerValues));
+            MediaType.sortBySpecificityAndQuality(parsed);
+            mediaTypes = Collections.unmodifiableList(parsed);
+        } catch (InvalidMediaTypeException ex) {
+            throw new HttpMediaTypeNotAcceptableException(
+                "Could not parse 'Accept' header " + Arrays.asList(headerValues) + ": " + ex.getMessage());
+        }
+        cache.put(accept, mediaTypes);
+        return mediaTypes;
+    }
+
+}
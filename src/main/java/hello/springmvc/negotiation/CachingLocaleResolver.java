@@ -0,0 +1,30 @@
+package hello.springmvc.negotiation;
+
+import java.util.Locale;
+import javax.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.servlet.i18n.AcceptHeaderLocaleResolver;
+
+/**
+ * Accept-Language 헤더 문자열별로 AcceptHeaderLocaleResolver 의 결과를 캐시한다.
+ * (RequestHeaderController 의 Locale 인자 등)
+ */
+public class CachingLocaleResolver extends AcceptHeaderLocaleResolver {
+
+    private final HeaderCache<String, Locale> cache;
+
+    public CachingLocaleResolver(HeaderCache<String, Locale> cache) {
+        this.cache = cache;
+    }
+
+    @Override
+    public Locale resolveLocale(HttpServletRequest request) {
+        String acceptLanguage = request.getHeader(HttpHeaders.ACCEPT_LANGUAGE);
+        if (acceptLanguage == null) {
+            return super.resolveLocale(request);
+        }
+        // 결과는 Accept-Language 값, 기본 Locale, 지원 Locale 목록으로만 결정된다
+        return cache.get(acceptLanguage, key -> super.resolveLocale(request));
+    }
+
+}
@@ -0,0 +1,195 @@
+package hello.springmvc.negotiation;
+
+import com.fasterxml.jackson.annotation.JsonView;
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Objects;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.core.GenericTypeResolver;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.GenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodReturnValueHandler;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import org.springframework.web.util.WebUtils;
+
+/**
+ * @ResponseBody 반환 값 처리기(RequestResponseBodyMethodProcessor)를 감싸서
+ * (핸들러 메서드, 반환 값 타입, 선언된 반환 타입, Accept 헤더) 별로 선택된 미디어 타입과 HttpMessageConverter 를 기억한다.
+ * 원래 처리기처럼 컨버터에는 선언된 제네릭 반환 타입(List<HelloData> 등)을 넘긴다.
+ *
+ * 처음에는 원래 처리기가 협상해서 응답을 쓰고, 그 결과 Content-Type 으로 컨버터를 찾아 저장한다.
+ * 다음부터는 협상(acceptable/producible 계산, 정렬, canWrite 순회)을 건너뛰고 바로 쓴다.
+ * 캐시 경로는 원래 처리기의 부가 처리를 하지 않으므로 다음 요청은 항상 원래 처리기로 처리한다.
+ * - @JsonView 가 붙은 메서드 (JsonViewResponseBodyAdvice)
+ * - 핸들러나 필터가 Content-Type 을 미리 정한 응답 (원래 처리기는 그 타입으로만 쓴다)
+ * - 마지막 경로 세그먼트에 확장자나 경로 파라미터가 있는 요청 (RFD 방지용 Content-Disposition 헤더)
+ * 사용자 ResponseBodyAdvice 가 있으면 NegotiationCacheConfig 가 이 처리기를 아예 설치하지 않는다.
+ */
+public class CachingResponseBodyReturnValueHandler implements HandlerMethodReturnValueHandler {
+
+    private final HandlerMethodReturnValueHandler delegate;
+    private final List<HttpMessageConverter<?>> converters;
+    private final HeaderCache<Key, Selection> cache;
+    private final HeaderCache<String, MediaType> contentTypes;
+
+    public CachingResponseBodyReturnValueHandler(HandlerMethodReturnValueHandler delegate,
+                                                 List<HttpMessageConverter<?>> converters,
+                                                 HeaderCache<Key, Selection> cache,
+                                                 HeaderCache<String, MediaType> contentTypes) {
+        this.delegate = delegate;
+        this.converters = converters;
+        this.cache = cache;
+        this.contentTypes = contentTypes;
+    }
+
+    @Override
+    public boolean supportsReturnType(MethodParameter returnType) {
+        return delegate.supportsReturnType(returnType);
+    }
+
+    @Override
+    public void handleReturnValue(Object returnValue, MethodParameter returnType,
+                                  ModelAndViewContainer mavContainer, NativeWebRequest webRequest) throws Exception {
+        HttpServletRequest request = webRequest.getNativeRequest(HttpServletRequest.class);
+        HttpServletResponse response = webRequest.getNativeResponse(HttpServletResponse.class);
+        if (returnValue == null || returnType.hasMethodAnnotation(JsonView.class)
+            || request == null || response == null || response.getContentType() != null
+            || mayNeedContentDisposition(request)) {
+            delegate.handleReturnValue(returnValue, returnType, mavContainer, webRequest);
+            return;
+        }
+
+        // AbstractMessageConverterMethodProcessor 와 같이 문자열은 String, 그 외에는 선언된 반환 타입으로 쓴다
+        Object body = returnValue instanceof CharSequence ? returnValue.toString() : returnValue;
+        Class<?> valueType = body.getClass();
+        Type targetType = body instanceof String ? String.class
+            : GenericTypeResolver.resolveType(returnType.getGenericParameterType(), returnType.getContainingClass());
+
+        Key key = new Key(returnType.getMethod(), valueType, targetType, accept(webRequest));
+        Selection selection = cache.getIfPresent(key);
+        if (selection != null) {
+            mavContainer.setRequestHandled(true);
+            write(selection, body, targetType, webRequest);
+            return;
+        }
+
+        delegate.handleReturnValue(returnValue, returnType, mavContainer, webRequest);
+
+        if (response.getContentType() != null) {
+            selection = select(valueType, targetType,
+                contentTypes.get(response.getContentType(), MediaType::parseMediaType));
+            if (selection != null) {
+                cache.put(key, selection);
+            }
+        }
+    }
+
+    /**
+     * CachingContentNegotiationStrategy 와 같이 Accept 헤더가 여러 개면 모두 이어 붙인다.
+     */
+    private static String accept(NativeWebRequest webRequest) {
+        String[] headerValues = webRequest.getHeaderValues(HttpHeaders.ACCEPT);
+        if (headerValues == null) {
+            return null;
+        }
+        return headerValues.length == 1 ? headerValues[0] : String.join(",", headerValues);
+    }
+
+    /**
+     * 원래 처리기가 Content-Disposition 을 붙일 수 있는 요청인지 (마지막 세그먼트에 '.', ';', 인코딩된 문자)
+     * 정확히 같은 판단을 하지 않고 넓게 잡아서 원래 처리기로 넘긴다.
+     */
+    private static boolean mayNeedContentDisposition(HttpServletRequest request) {
+        String uri = (String) request.getAttribute(WebUtils.INCLUDE_REQUEST_URI_ATTRIBUTE);
+        if (uri == null) {
+            uri = request.getRequestURI();
+        }
+        for (int i = uri.length() - 1; i >= 0; i--) {
+            char c = uri.charAt(i);
+            if (c == '/') {
+                return false;
+            }
+            if (c == '.' || c == ';' || c == '%') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private void write(Selection selection, Object body, Type targetType, NativeWebRequest webRequest) throws Exception {
+        ServletServerHttpResponse outputMessage =
+            new ServletServerHttpResponse(webRequest.getNativeResponse(HttpServletResponse.class));
+        if (selection.converter instanceof GenericHttpMessageConverter) {
+            ((GenericHttpMessageConverter) selection.converter)
+                .write(body, targetType, selection.mediaType, outputMessage);
+        } else {
+            ((HttpMessageConverter) selection.converter).write(body, selection.mediaType, outputMessage);
+        }
+    }
+
+    /**
+     * 원래 처리기와 같은 규칙(등록 순서대로 처음 canWrite 하는 컨버터)으로 컨버터를 찾는다.
+     */
+    private Selection select(Class<?> valueType, Type targetType, MediaType mediaType) {
+        for (HttpMessageConverter<?> converter : converters) {
+            boolean canWrite = converter instanceof GenericHttpMessageConverter
+                ? ((GenericHttpMessageConverter<?>) converter).canWrite(targetType, valueType, mediaType)
+                : converter.canWrite(valueType, mediaType);
+            if (canWrite) {
+                return new Selection(mediaType, converter);
+            }
+        }
+        return null;
+    }
+
+    public static final class Key {
+        private final Method method;
+        private final Class<?> valueType;
+        private final Type targetType;
+        private final String accept;
+
+        Key(Method method, Class<?> valueType, Type targetType, String accept) {
+            this.method = method;
+            this.valueType = valueType;
+            this.targetType = targetType;
+            this.accept = accept;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return method.equals(key.method) && valueType == key.valueType && targetType.equals(key.targetType)
+                && Objects.equals(accept, key.accept);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(method, valueType, targetType, accept);
+        }
+    }
+
+    public static final class Selection {
+        private final MediaType mediaType;
+        private final HttpMessageConverter<?> converter;
+
+        Selection(MediaType mediaType, HttpMessageConverter<?> converter) {
+            this.mediaType = mediaType;
+            this.converter = converter;
+        }
+    }
+
+}
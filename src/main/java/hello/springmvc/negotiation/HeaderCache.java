@@ -0,0 +1,85 @@
+package hello.springmvc.negotiation;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * 크기가 제한된 동시성 캐시
+ * 실제 트래픽은 서로 다른 헤더 값이 몇 개 되지 않으므로 대부분 조회만 일어난다.
+ * maxSize를 넘으면 먼저 들어온 값부터 제거해서, 임의의 헤더를 보내는 클라이언트가 있어도 메모리가 제한된다.
+ */
+public class HeaderCache<K, V> {
+
+    private final String name;
+    private final int maxSize;
+    private final Map<K, V> values = new ConcurrentHashMap<>();
+    private final Queue<K> insertionOrder = new ConcurrentLinkedQueue<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public HeaderCache(String name, int maxSize) {
+        this.name = name;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * @param loader 캐시에 없을 때 값을 만든다. null을 돌려주면 저장하지 않는다.
+     */
+    public V get(K key, Function<K, V> loader) {
+        V value = getIfPresent(key);
+        if (value != null) {
+            return value;
+        }
+        value = loader.apply(key);
+        if (value != null) {
+            put(key, value);
+        }
+        return value;
+    }
+
+    public V getIfPresent(K key) {
+        V value = values.get(key);
+        if (value != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        return value;
+    }
+
+    public void put(K key, V value) {
+        if (values.putIfAbsent(key, value) == null) {
+            insertionOrder.add(key);
+            while (values.size() > maxSize) {
+                K eldest = insertionOrder.poll();
+                if (eldest == null) {
+                    break;
+                }
+                if (values.remove(eldest) != null) {
+                    evictions.increment();
+                }
+            }
+        }
+    }
+
+    public CacheStats stats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        CacheStats stats = new CacheStats();
+        stats.setName(name);
+        stats.setSize(values.size());
+        stats.setMaxSize(maxSize);
+        stats.setHits(hitCount);
+        stats.setMisses(missCount);
+        stats.setEvictions(evictions.sum());
+        stats.setHitRate(hitCount + missCount == 0 ? 0 : (double) hitCount / (hitCount + missCount));
+        return stats;
+    }
+
+}
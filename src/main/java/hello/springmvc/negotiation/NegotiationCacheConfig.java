@@ -0,0 +1,118 @@
+package hello.springmvc.negotiation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.web.WebProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.web.method.ControllerAdviceBean;
+import org.springframework.web.method.support.HandlerMethodReturnValueHandler;
+import org.springframework.web.servlet.DispatcherServlet;
+import org.springframework.web.servlet.LocaleResolver;
+import org.springframework.web.servlet.config.annotation.ContentNegotiationConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.i18n.FixedLocaleResolver;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+import org.springframework.web.servlet.mvc.method.annotation.RequestResponseBodyMethodProcessor;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * negotiation-cache.enabled=true 이면
+ * - Accept 헤더 -> 정렬된 MediaType 목록
+ * - Accept-Language 헤더 -> Locale
+ * - Content-Type 문자열 -> MediaType
+ * - (핸들러 메서드, 반환 타입, Accept) -> 선택된 미디어 타입과 컨버터
+ * 를 캐시한다.
+ */
+@Slf4j
+@Configuration
+@EnableConfigurationProperties({NegotiationCacheProperties.class, WebProperties.class})
+@ConditionalOnProperty(prefix = "negotiation-cache", name = "enabled", havingValue = "true")
+public class NegotiationCacheConfig implements WebMvcConfigurer {
+
+    private final HeaderCache<String, List<MediaType>> acceptCache;
+    private final HeaderCache<String, Locale> localeCache;
+    private final HeaderCache<String, MediaType> contentTypeCache;
+    private final HeaderCache<CachingResponseBodyReturnValueHandler.Key, CachingResponseBodyReturnValueHandler.Selection> converterCache;
+
+    public NegotiationCacheConfig(NegotiationCacheProperties properties) {
+        int maxSize = properties.getMaxSize();
+        this.acceptCache = new HeaderCache<>("accept", maxSize);
+        this.localeCache = new HeaderCache<>("accept-language", maxSize);
+        this.contentTypeCache = new HeaderCache<>("content-type", maxSize);
+        this.converterCache = new HeaderCache<>("response-body-converter", maxSize);
+    }
+
+    @Bean
+    public List<HeaderCache<?, ?>> negotiationCaches() {
+        List<HeaderCache<?, ?>> caches = new ArrayList<>();
+        caches.add(acceptCache);
+        caches.add(localeCache);
+        caches.add(contentTypeCache);
+        caches.add(converterCache);
+        return caches;
+    }
+
+    /**
+     * 스프링 부트 기본 설정(spring.web.locale, spring.web.locale-resolver)을 그대로 따른다.
+     */
+    @Bean(name = DispatcherServlet.LOCALE_RESOLVER_BEAN_NAME)
+    public LocaleResolver localeResolver(WebProperties webProperties) {
+        if (webProperties.getLocaleResolver() == WebProperties.LocaleResolver.FIXED) {
+            return new FixedLocaleResolver(webProperties.getLocale());
+        }
+        CachingLocaleResolver localeResolver = new CachingLocaleResolver(localeCache);
+        localeResolver.setDefaultLocale(webProperties.getLocale());
+        return localeResolver;
+    }
+
+    /**
+     * 부트 기본값에서는 Accept 헤더 전략 하나만 사용하므로 캐시 전략으로 바꾼다.
+     * (spring.mvc.contentnegotiation.favor-parameter 를 켜면 이 설정을 함께 조정해야 한다)
+     */
+    @Override
+    public void configureContentNegotiation(ContentNegotiationConfigurer configurer) {
+        configurer.strategies(Collections.singletonList(new CachingContentNegotiationStrategy(acceptCache)));
+    }
+
+    /**
+     * 초기화가 끝난 RequestMappingHandlerAdapter 의 @ResponseBody 처리기를 캐시 처리기로 감싼다.
+     * 사용자 ResponseBodyAdvice 가 있으면 캐시 경로에서 적용할 수 없으므로 감싸지 않는다.
+     * (어댑터와 같이 @ControllerAdvice 빈도 확인한다, 지연 초기화/스코프 빈은 타입으로만 본다)
+     */
+    @Bean
+    public SmartInitializingSingleton responseBodyConverterCacheInstaller(
+        ApplicationContext applicationContext,
+        RequestMappingHandlerAdapter requestMappingHandlerAdapter,
+        ObjectProvider<ResponseBodyAdvice<?>> responseBodyAdvices) {
+        return () -> {
+            boolean hasAdvice = responseBodyAdvices.iterator().hasNext()
+                || ControllerAdviceBean.findAnnotatedBeans(applicationContext).stream()
+                .map(ControllerAdviceBean::getBeanType)
+                .anyMatch(type -> type != null && ResponseBodyAdvice.class.isAssignableFrom(type));
+            if (hasAdvice) {
+                log.info("ResponseBodyAdvice found, @ResponseBody converter cache is not installed");
+                return;
+            }
+            List<HandlerMethodReturnValueHandler> handlers =
+                new ArrayList<>(requestMappingHandlerAdapter.getReturnValueHandlers());
+            for (int i = 0; i < handlers.size(); i++) {
+                if (handlers.get(i) instanceof RequestResponseBodyMethodProcessor) {
+                    handlers.set(i, new CachingResponseBodyReturnValueHandler(handlers.get(i),
+                        requestMappingHandlerAdapter.getMessageConverters(), converterCache, contentTypeCache));
+                }
+            }
+            requestMappingHandlerAdapter.setReturnValueHandlers(handlers);
+        };
+    }
+
+}
@@ -0,0 +1,26 @@
+package hello.springmvc.negotiation;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * 캐시별 크기, 적중률, 제거 수 조회
+ * GET /internal/negotiation-cache
+ */
+@RestController
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "negotiation-cache", name = "enabled", havingValue = "true")
+public class NegotiationCacheController {
+
+    private final List<HeaderCache<?, ?>> caches;
+
+    @GetMapping("/internal/negotiation-cache")
+    public List<CacheStats> stats() {
+        return caches.stream().map(HeaderCache::stats).collect(Collectors.toList());
+    }
+
+}
@@ -0,0 +1,19 @@
+package hello.springmvc.negotiation;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * negotiation-cache.* 설정
+ * - max-size: 캐시 하나에 보관하는 서로 다른 헤더 값의 최대 개수
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "negotiation-cache")
+public class NegotiationCacheProperties {
+
+    private boolean enabled = false;
+    private int maxSize = 256;
+
+}
@@ -0,0 +1,17 @@
+package hello.springmvc.profiling;
+
+import lombok.Data;
+
+/**
+ * 핸들러 메서드 하나의 누적 할당량, CPU 시간
+ */
+@Data
+public class HandlerCost {
+    private String handler;
+    private long samples;
+    private long allocatedBytesPerRequest;
+    private long cpuMicrosPerRequest;
+    private long maxAllocatedBytes;
+    private long totalAllocatedBytes;
+    private long totalCpuMicros;
+}
@@ -0,0 +1,39 @@
+package hello.springmvc.profiling;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * handler-cost.enabled=true 이면 모든 핸들러 메서드에 HandlerCostInterceptor를 적용한다.
+ */
+@Configuration
+@EnableConfigurationProperties(HandlerCostProperties.class)
+@ConditionalOnProperty(prefix = "handler-cost", name = "enabled", havingValue = "true")
+public class HandlerCostConfig implements WebMvcConfigurer {
+
+    /**
+     * 같은 설정 클래스의 @Bean 은 생성자로 받을 수 없으므로(순환 참조) ObjectProvider 로 받아 addInterceptors 에서 꺼낸다.
+     */
+    private final ObjectProvider<HandlerCostRecorder> recorder;
+
+    public HandlerCostConfig(ObjectProvider<HandlerCostRecorder> recorder) {
+        this.recorder = recorder;
+    }
+
+    @Bean
+    public HandlerCostRecorder handlerCostRecorder(HandlerCostProperties properties) {
+        return new HandlerCostRecorder(properties);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new HandlerCostInterceptor(recorder.getObject()))
+            .excludePathPatterns("/internal/**");
+    }
+
+}
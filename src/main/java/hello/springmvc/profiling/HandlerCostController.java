@@ -0,0 +1,33 @@
+package hello.springmvc.profiling;
+
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * 핸들러 메서드별 요청당 할당량, CPU 시간 조회
+ * GET /internal/handler-cost
+ * DELETE /internal/handler-cost (초기화, 부하 테스트 측정 구간 시작 시 사용)
+ */
+@RestController
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "handler-cost", name = "enabled", havingValue = "true")
+public class HandlerCostController {
+
+    private final HandlerCostRecorder recorder;
+
+    @GetMapping("/internal/handler-cost")
+    public List<HandlerCost> costs() {
+        return recorder.snapshot();
+    }
+
+    @DeleteMapping("/internal/handler-cost")
+    public String reset() {
+        recorder.reset();
+        return "OK";
+    }
+
+}
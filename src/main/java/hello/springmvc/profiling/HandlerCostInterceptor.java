@@ -0,0 +1,48 @@
+package hello.springmvc.profiling;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * preHandle ~ afterCompletion 구간의 비용을 핸들러 메서드별로 기록한다.
+ * 인자 바인딩(@RequestParam, @RequestHeader MultiValueMap 등), 핸들러 호출,
+ * 메시지 컨버터, 뷰 렌더링까지 포함된다.
+ */
+@RequiredArgsConstructor
+public class HandlerCostInterceptor implements HandlerInterceptor {
+
+    private static final String SAMPLE = HandlerCostInterceptor.class.getName() + ".sample";
+
+    private final HandlerCostRecorder recorder;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod) {
+            HandlerCostRecorder.Sample sample = recorder.start();
+            if (sample != null) {
+                request.setAttribute(SAMPLE, sample);
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Object sample = request.getAttribute(SAMPLE);
+        if (sample != null) {
+            request.removeAttribute(SAMPLE);
+            recorder.stop(handlerName((HandlerMethod) handler), (HandlerCostRecorder.Sample) sample);
+        }
+    }
+
+    /**
+     * 예) RequestHeaderController.headers
+     */
+    static String handlerName(HandlerMethod handlerMethod) {
+        return handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName();
+    }
+
+}
@@ -0,0 +1,19 @@
+package hello.springmvc.profiling;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * handler-cost.* 설정
+ * - sample-rate: 측정할 요청 비율 (0.0 ~ 1.0), 운영에서는 낮게 두고 부하 테스트에서는 1.0
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "handler-cost")
+public class HandlerCostProperties {
+
+    private boolean enabled = false;
+    private double sampleRate = 0.01;
+
+}
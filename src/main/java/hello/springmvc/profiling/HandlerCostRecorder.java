@@ -0,0 +1,128 @@
+package hello.springmvc.profiling;
+
+import java.lang.management.ManagementFactory;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 현재 스레드의 할당 바이트, CPU 시간을 핸들러 실행 전후로 읽어서 핸들러별로 합산한다.
+ *
+ * com.sun.management.ThreadMXBean 은 HotSpot 계열 JVM에서 제공된다.
+ * 지원하지 않는 JVM에서는 해당 값이 0으로 기록된다.
+ */
+@Slf4j
+public class HandlerCostRecorder {
+
+    private final com.sun.management.ThreadMXBean threadMXBean;
+    private final boolean allocationSupported;
+    private final boolean cpuTimeSupported;
+    private final double sampleRate;
+
+    private final Map<String, Accumulator> costs = new ConcurrentHashMap<>();
+
+    public HandlerCostRecorder(HandlerCostProperties properties) {
+        this.threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        this.allocationSupported = threadMXBean.isThreadAllocatedMemorySupported();
+        this.cpuTimeSupported = threadMXBean.isCurrentThreadCpuTimeSupported();
+        this.sampleRate = properties.getSampleRate();
+
+        if (allocationSupported && !threadMXBean.isThreadAllocatedMemoryEnabled()) {
+            threadMXBean.setThreadAllocatedMemoryEnabled(true);
+        }
+        if (cpuTimeSupported && !threadMXBean.isThreadCpuTimeEnabled()) {
+            threadMXBean.setThreadCpuTimeEnabled(true);
+        }
+        log.info("handler cost sampling rate={}, allocation={}, cpuTime={}", sampleRate, allocationSupported, cpuTimeSupported);
+    }
+
+    /**
+     * @return 이번 요청이 샘플링 대상이 아니면 null
+     */
+    public Sample start() {
+        if (sampleRate <= 0 || (sampleRate < 1 && ThreadLocalRandom.current().nextDouble() >= sampleRate)) {
+            return null;
+        }
+        long threadId = Thread.currentThread().getId();
+        return new Sample(threadId, allocatedBytes(threadId), cpuTime());
+    }
+
+    public void stop(String handler, Sample sample) {
+        long threadId = Thread.currentThread().getId();
+        // 비동기 요청처럼 다른 스레드에서 끝나면 스레드별 카운터를 비교할 수 없다
+        if (sample.threadId != threadId) {
+            return;
+        }
+        long allocated = allocatedBytes(threadId) - sample.allocatedBytes;
+        long cpu = cpuTime() - sample.cpuNanos;
+
+        Accumulator accumulator = costs.computeIfAbsent(handler, key -> new Accumulator());
+        accumulator.samples.increment();
+        accumulator.allocatedBytes.add(allocated);
+        accumulator.cpuNanos.add(cpu);
+        accumulator.maxAllocatedBytes.accumulate(allocated);
+    }
+
+    /**
+     * @return 요청당 할당량이 큰 순서
+     */
+    public List<HandlerCost> snapshot() {
+        return costs.entrySet().stream()
+            .map(entry -> entry.getValue().toHandlerCost(entry.getKey()))
+            .sorted(Comparator.comparingLong(HandlerCost::getAllocatedBytesPerRequest).reversed())
+            .collect(Collectors.toList());
+    }
+
+    public void reset() {
+        costs.clear();
+    }
+
+    private long allocatedBytes(long threadId) {
+        return allocationSupported ? threadMXBean.getThreadAllocatedBytes(threadId) : 0;
+    }
+
+    private long cpuTime() {
+        return cpuTimeSupported ? threadMXBean.getCurrentThreadCpuTime() : 0;
+    }
+
+    public static class Sample {
+        private final long threadId;
+        private final long allocatedBytes;
+        private final long cpuNanos;
+
+        private Sample(long threadId, long allocatedBytes, long cpuNanos) {
+            this.threadId = threadId;
+            this.allocatedBytes = allocatedBytes;
+            this.cpuNanos = cpuNanos;
+        }
+    }
+
+    private static class Accumulator {
+        private final LongAdder samples = new LongAdder();
+        private final LongAdder allocatedBytes = new LongAdder();
+        private final LongAdder cpuNanos = new LongAdder();
+        private final LongAccumulator maxAllocatedBytes = new LongAccumulator(Math::max, 0);
+
+        private HandlerCost toHandlerCost(String handler) {
+            long count = samples.sum();
+            HandlerCost cost = new HandlerCost();
+            cost.setHandler(handler);
+            cost.setSamples(count);
+            cost.setTotalAllocatedBytes(allocatedBytes.sum());
+            cost.setTotalCpuMicros(cpuNanos.sum() / 1000);
+            cost.setMaxAllocatedBytes(maxAllocatedBytes.get());
+            if (count > 0) {
+                cost.setAllocatedBytesPerRequest(cost.getTotalAllocatedBytes() / count);
+                cost.setCpuMicrosPerRequest(cost.getTotalCpuMicros() / count);
+            }
+            return cost;
+        }
+    }
+
+}
@@ -0,0 +1,530 @@
+package hello.springmvc.store;
+
+import hello.springmvc.basic.HelloData;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 나이 보조 인덱스, (나이, userId) 순서로 정렬되어 있다.
+ *
+ * - base: 정렬된 기본형 배열 (int[] 나이, String[] userId), 바뀌지 않는다.
+ * - frozen: base 에 합치는 중인 변경분 (없으면 null)
+ * - active: 새 변경분, ConcurrentSkipListMap 에 (키 -> true: 아래 층에 없는 키 추가, false: 아래 층에 있는 키 삭제)
+ *   아래 층 상태로 되돌아가는 변경은 항목을 지운다. 층마다 나이별 개수 변화량(AgeDeltas)을 같이 둔다.
+ * active 가 merge-threshold 를 넘으면 frozen 으로 돌리고 별도 스레드에서 base 와 합친 새 배열을 만든다.
+ *
+ * - count: base 는 이진 탐색 두 번, 변경분은 층마다 나이별 변화량의 구간 합. O(log n)
+ * - scan: (나이, userId) 커서 다음부터 세 층을 병합하면서 읽는다. O(log n + 결과 수)
+ * 변경은 WAL 쓰기 스레드 하나에서만 한다. (UserStore.apply) 읽기는 어느 스레드에서나 할 수 있다.
+ */
+@Slf4j
+class AgeIndex {
+
+    private static final int MIN_MERGE_THRESHOLD = 4096;
+
+    private final ExecutorService merger;
+    private final LongAdder merges = new LongAdder();
+    private volatile View view;
+
+    private AgeIndex(Base base) {
+        this.view = new View(base, null, null, new ConcurrentSkipListMap<>(), new AgeDeltas());
+        this.merger = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "user-store-age-index");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 복구한 맵으로 base 를 만든다.
+     * 나이만 long 에 담아 기본형 정렬을 하고, 같은 나이끼리만 userId 로 정렬한다.
+     */
+    static AgeIndex build(Map<String, HelloData> users) {
+        int size = users.size();
+        String[] keys = new String[size];
+        long[] packed = new long[size];
+        int i = 0;
+        for (Map.Entry<String, HelloData> entry : users.entrySet()) {
+            if (i == size) {
+                break;
+            }
+            keys[i] = entry.getKey();
+            // 부호 있는 나이 순서가 유지되도록 상위 32비트에 나이, 하위 32비트에 위치
+            packed[i] = ((long) entry.getValue().getAge() << 32) | i;
+            i++;
+        }
+        size = i;
+        Arrays.sort(packed, 0, size);
+
+        int[] sortedAges = new int[size];
+        String[] sortedIds = new String[size];
+        for (int j = 0; j < size; j++) {
+            sortedAges[j] = (int) (packed[j] >> 32);
+            sortedIds[j] = keys[(int) packed[j]];
+        }
+        int start = 0;
+        for (int j = 1; j <= size; j++) {
+            if (j == size || sortedAges[j] != sortedAges[start]) {
+                Arrays.sort(sortedIds, start, j);
+                start = j;
+            }
+        }
+        return new AgeIndex(new Base(sortedAges, sortedIds));
+    }
+
+    /**
+     * @param previousAge 이전 나이, 새 회원이면 null
+     */
+    void put(String id, Integer previousAge, int age) {
+        if (previousAge != null) {
+            if (previousAge == age) {
+                return;
+            }
+            remove(id, previousAge);
+        }
+        change(new Key(age, id), true);
+    }
+
+    void remove(String id, int age) {
+        change(new Key(age, id), false);
+    }
+
+    private void change(Key key, boolean present) {
+        View current = view;
+        Boolean previous;
+        int delta;
+        if (current.presentBelowActive(key) == present) {
+            previous = current.active.remove(key);
+            delta = 0;
+        } else {
+            previous = current.active.put(key, present);
+            delta = present ? 1 : -1;
+        }
+        if (previous != null) {
+            delta -= previous ? 1 : -1;
+        }
+        if (delta != 0) {
+            current.activeDeltas.add(key.age, delta);
+        }
+        if (current.frozen == null && current.active.size() >= mergeThreshold(current.base.size())) {
+            freeze(current);
+        }
+    }
+
+    static int mergeThreshold(int baseSize) {
+        return Math.max(MIN_MERGE_THRESHOLD, baseSize / 32);
+    }
+
+    private synchronized void freeze(View current) {
+        View frozen = new View(current.base, current.active, current.activeDeltas,
+            new ConcurrentSkipListMap<>(), new AgeDeltas());
+        view = frozen;
+        merger.execute(() -> merge(frozen));
+    }
+
+    private void merge(View frozen) {
+        long start = System.nanoTime();
+        Base merged = frozen.base.merge(frozen.frozen);
+        synchronized (this) {
+            // active 는 그대로 두고, frozen 이 합쳐진 base 로 바꾼다 (active 항목은 base + frozen 기준이었으므로 그대로 맞다)
+            view = new View(merged, null, null, view.active, view.activeDeltas);
+        }
+        merges.increment();
+        log.debug("age index merged {} changes into {} entries in {}ms", frozen.frozen.size(), merged.size(),
+            (System.nanoTime() - start) / 1_000_000);
+    }
+
+    long count(int minAge, int maxAge) {
+        if (minAge > maxAge) {
+            return 0;
+        }
+        View current = view;
+        long count = current.base.lowerBound(maxAge + 1L) - current.base.lowerBound(minAge);
+        if (current.frozenDeltas != null) {
+            count += current.frozenDeltas.count(minAge, maxAge);
+        }
+        return count + current.activeDeltas.count(minAge, maxAge);
+    }
+
+    /**
+     * from 부터 나이가 maxAge 인 마지막 키까지
+     */
+    private static NavigableMap<Key, Boolean> range(ConcurrentSkipListMap<Key, Boolean> changes, Key from,
+        boolean inclusive, int maxAge) {
+        if (maxAge == Integer.MAX_VALUE) {
+            return changes.tailMap(from, inclusive);
+        }
+        return changes.subMap(from, inclusive, new Key(maxAge + 1, null), false);
+    }
+
+    /**
+     * @param after 이전 페이지의 마지막 항목 (첫 페이지면 null)
+     * @return 나이 범위 안에서 after 다음부터 최대 limit 개
+     */
+    List<Key> scan(int minAge, int maxAge, Key after, int limit) {
+        List<Key> result = new ArrayList<>(Math.min(limit, 1024));
+        if (minAge > maxAge || limit <= 0) {
+            return result;
+        }
+        Key from = after != null && after.compareTo(new Key(minAge, null)) >= 0 ? after : new Key(minAge, null);
+        boolean inclusive = from != after;
+
+        View current = view;
+        Layer active = new Layer(range(current.active, from, inclusive, maxAge));
+        Layer frozen = current.frozen == null ? Layer.EMPTY : new Layer(range(current.frozen, from, inclusive, maxAge));
+        int position = inclusive ? current.base.lowerBound(from) : current.base.upperBound(from);
+        int end = current.base.lowerBound(maxAge + 1L);
+
+        while (result.size() < limit) {
+            Key baseKey = position < end ? current.base.key(position) : null;
+            Key next = min(baseKey, min(frozen.peek(), active.peek()));
+            if (next == null) {
+                break;
+            }
+            // 같은 키는 위층이 이긴다: active > frozen > base
+            boolean present = true;
+            if (baseKey != null && baseKey.compareTo(next) == 0) {
+                position++;
+            }
+            if (frozen.peek() != null && frozen.peek().compareTo(next) == 0) {
+                present = frozen.next();
+            }
+            if (active.peek() != null && active.peek().compareTo(next) == 0) {
+                present = active.next();
+            }
+            if (present) {
+                result.add(next);
+            }
+        }
+        return result;
+    }
+
+    private static Key min(Key a, Key b) {
+        if (a == null) {
+            return b;
+        }
+        if (b == null) {
+            return a;
+        }
+        return a.compareTo(b) <= 0 ? a : b;
+    }
+
+    int size() {
+        View current = view;
+        long size = current.base.size() + current.activeDeltas.total();
+        if (current.frozenDeltas != null) {
+            size += current.frozenDeltas.total();
+        }
+        return (int) size;
+    }
+
+    long getMerges() {
+        return merges.sum();
+    }
+
+    int getPendingChanges() {
+        View current = view;
+        return current.active.size() + (current.frozen == null ? 0 : current.frozen.size());
+    }
+
+    void close() {
+        merger.shutdownNow();
+    }
+
+    /**
+     * (나이, userId), userId 가 null 이면 그 나이의 가장 앞
+     */
+    static final class Key implements Comparable<Key> {
+        final int age;
+        final String id;
+
+        Key(int age, String id) {
+            this.age = age;
+            this.id = id;
+        }
+
+        /**
+         * toString() 형식 "나이:userId", userId 에 ':' 가 있어도 첫 ':' 로만 나눈다
+         */
+        static Key parse(String cursor) {
+            int separator = cursor.indexOf(':');
+            if (separator <= 0 || separator == cursor.length() - 1) {
+                throw new IllegalArgumentException("invalid cursor: " + cursor);
+            }
+            return new Key(Integer.parseInt(cursor.substring(0, separator)), cursor.substring(separator + 1));
+        }
+
+        @Override
+        public int compareTo(Key other) {
+            int byAge = Integer.compare(age, other.age);
+            if (byAge != 0) {
+                return byAge;
+            }
+            if (id == null || other.id == null) {
+                return id == null ? (other.id == null ? 0 : -1) : 1;
+            }
+            return id.compareTo(other.id);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key && compareTo((Key) o) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * age + (id == null ? 0 : id.hashCode());
+        }
+
+        @Override
+        public String toString() {
+            return age + ":" + id;
+        }
+    }
+
+    private static final class View {
+        final Base base;
+        final ConcurrentSkipListMap<Key, Boolean> frozen;
+        final AgeDeltas frozenDeltas;
+        final ConcurrentSkipListMap<Key, Boolean> active;
+        final AgeDeltas activeDeltas;
+
+        View(Base base, ConcurrentSkipListMap<Key, Boolean> frozen, AgeDeltas frozenDeltas,
+             ConcurrentSkipListMap<Key, Boolean> active, AgeDeltas activeDeltas) {
+            this.base = base;
+            this.frozen = frozen;
+            this.frozenDeltas = frozenDeltas;
+            this.active = active;
+            this.activeDeltas = activeDeltas;
+        }
+
+        boolean presentBelowActive(Key key) {
+            if (frozen != null) {
+                Boolean present = frozen.get(key);
+                if (present != null) {
+                    return present;
+                }
+            }
+            return base.contains(key);
+        }
+    }
+
+    /**
+     * 변경분 한 층의 나이별 개수 변화량
+     *
+     * 0 ~ TREE_AGES-1 살은 펜윅 트리에 두어 구간 합이 O(log TREE_AGES) 이다.
+     * 그 밖의 나이는 드물어서 나이별 맵에 두고 범위 안의 나이 수만큼 더한다.
+     * 쓰기 스레드 하나만 바꾸므로 version 을 바꾸는 동안 홀수로 두고,
+     * 읽는 쪽은 읽기 전후 version 이 같은 짝수일 때의 합만 쓴다. (변경 하나가 트리 칸 여러 개에 걸치므로)
+     */
+    private static final class AgeDeltas {
+        private static final int TREE_AGES = 1024;
+
+        private final AtomicLongArray tree = new AtomicLongArray(TREE_AGES + 1);
+        private final ConcurrentSkipListMap<Integer, Long> outside = new ConcurrentSkipListMap<>();
+        private final AtomicLong version = new AtomicLong();
+        private volatile long total;
+
+        void add(int age, int delta) {
+            version.incrementAndGet();
+            if (age >= 0 && age < TREE_AGES) {
+                for (int i = age + 1; i <= TREE_AGES; i += i & -i) {
+                    tree.addAndGet(i, delta);
+                }
+            } else {
+                outside.compute(age, (key, value) -> {
+                    long sum = (value == null ? 0 : value) + delta;
+                    return sum == 0 ? null : sum;
+                });
+            }
+            total += delta;
+            version.incrementAndGet();
+        }
+
+        long count(int minAge, int maxAge) {
+            while (true) {
+                long before = version.get();
+                if ((before & 1) == 0) {
+                    long count = sum(minAge, maxAge);
+                    if (version.get() == before) {
+                        return count;
+                    }
+                }
+                Thread.onSpinWait();
+            }
+        }
+
+        long total() {
+            return total;
+        }
+
+        private long sum(int minAge, int maxAge) {
+            long sum = 0;
+            int low = Math.max(minAge, 0);
+            int high = Math.min(maxAge, TREE_AGES - 1);
+            if (low <= high) {
+                sum += prefix(high + 1) - prefix(low);
+            }
+            if (minAge < 0 || maxAge >= TREE_AGES) {
+                for (long delta : outside.subMap(minAge, true, maxAge, true).values()) {
+                    sum += delta;
+                }
+            }
+            return sum;
+        }
+
+        /** 0 ~ ages-1 살의 합 */
+        private long prefix(int ages) {
+            long sum = 0;
+            for (int i = ages; i > 0; i -= i & -i) {
+                sum += tree.get(i);
+            }
+            return sum;
+        }
+    }
+
+    /**
+     * 변경분 한 층을 키 순서로 읽는다.
+     */
+    private static final class Layer {
+        static final Layer EMPTY = new Layer(new ConcurrentSkipListMap<>());
+
+        private final Iterator<Map.Entry<Key, Boolean>> iterator;
+        private Map.Entry<Key, Boolean> head;
+
+        Layer(NavigableMap<Key, Boolean> entries) {
+            this.iterator = entries.entrySet().iterator();
+            this.head = iterator.hasNext() ? iterator.next() : null;
+        }
+
+        Key peek() {
+            return head == null ? null : head.getKey();
+        }
+
+        boolean next() {
+            boolean present = head.getValue();
+            head = iterator.hasNext() ? iterator.next() : null;
+            return present;
+        }
+    }
+
+    private static final class Base {
+        final int[] ages;
+        final String[] ids;
+
+        Base(int[] ages, String[] ids) {
+            this.ages = ages;
+            this.ids = ids;
+        }
+
+        int size() {
+            return ages.length;
+        }
+
+        Key key(int position) {
+            return new Key(ages[position], ids[position]);
+        }
+
+        /** age 이상인 첫 위치 (long 이라 maxAge + 1 이 넘치지 않는다) */
+        int lowerBound(long age) {
+            int low = 0;
+            int high = ages.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (ages[mid] < age) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        /** key 이상인 첫 위치 */
+        int lowerBound(Key key) {
+            int low = 0;
+            int high = ages.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (compare(mid, key) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        /** key 보다 큰 첫 위치 */
+        int upperBound(Key key) {
+            int low = 0;
+            int high = ages.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (compare(mid, key) <= 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        boolean contains(Key key) {
+            int position = lowerBound(key);
+            return position < ages.length && compare(position, key) == 0;
+        }
+
+        private int compare(int position, Key key) {
+            int byAge = Integer.compare(ages[position], key.age);
+            if (byAge != 0) {
+                return byAge;
+            }
+            return key.id == null ? 1 : ids[position].compareTo(key.id);
+        }
+
+        /**
+         * 변경분을 합친 새 배열을 만든다. 둘 다 정렬되어 있으므로 한 번 훑으면 된다.
+         */
+        Base merge(ConcurrentSkipListMap<Key, Boolean> changes) {
+            int added = 0;
+            for (Boolean present : changes.values()) {
+                added += present ? 1 : -1;
+            }
+            int size = ages.length + added;
+            int[] mergedAges = new int[size];
+            String[] mergedIds = new String[size];
+            int position = 0;
+            int out = 0;
+            for (Map.Entry<Key, Boolean> change : changes.entrySet()) {
+                Key key = change.getKey();
+                while (position < ages.length && compare(position, key) < 0) {
+                    mergedAges[out] = ages[position];
+                    mergedIds[out++] = ids[position++];
+                }
+                if (change.getValue()) {
+                    mergedAges[out] = key.age;
+                    mergedIds[out++] = key.id;
+                } else {
+                    // 삭제: base 에 있는 같은 키를 건너뛴다
+                    position++;
+                }
+            }
+            System.arraycopy(ages, position, mergedAges, out, ages.length - position);
+            System.arraycopy(ids, position, mergedIds, out, ids.length - position);
+            return new Base(mergedAges, mergedIds);
+        }
+    }
+
+}
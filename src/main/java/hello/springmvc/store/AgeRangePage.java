@@ -0,0 +1,19 @@
+package hello.springmvc.store;
+
+import hello.springmvc.basic.HelloData;
+import java.util.List;
+import lombok.Data;
+
+/**
+ * 나이 범위 조회 한 페이지
+ */
+@Data
+public class AgeRangePage {
+    private int minAge;
+    private int maxAge;
+    /** 범위 안의 전체 회원 수 */
+    private long total;
+    private List<HelloData> users;
+    /** 다음 페이지를 읽을 때 after 로 넘기는 값, 마지막 페이지면 null */
+    private String next;
+}
@@ -0,0 +1,348 @@
+package hello.springmvc.store;
+
+import hello.springmvc.basic.HelloData;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 회원(HelloData) 저장소, 외부 DB 없이 WAL 로 재시작 후에도 남긴다.
+ *
+ * - 쓰기: WalWriter 가 동시에 들어온 쓰기를 묶어서 fsync 한 번으로 커밋한 뒤 메모리 맵에 반영한다.
+ * - 읽기: 메모리 맵(ConcurrentHashMap)에서 바로 읽는다. 커밋이 끝난 쓰기만 보인다.
+ * - 압축: WAL 이 compaction-threshold 를 넘으면 새 세대 WAL 로 바꾸고, 현재 맵을 스냅샷으로 쓴 뒤 이전 세대 파일을 지운다.
+ *   스냅샷을 쓰는 동안에도 쓰기는 새 세대 WAL 에 계속 들어간다.
+ * - 복구: 마지막 스냅샷(헤더의 레코드 수로 맵 크기를 미리 잡는다) + 그 세대 이후의 WAL 을 다시 적용한다.
+ *   마지막 WAL 끝의 잘린 레코드는 지운다.
+ * - 나이 인덱스: 복구한 맵으로 한 번에 만들고, 이후에는 맵에 반영할 때 같이 바꾼다. (AgeIndex)
+ */
+@Slf4j
+public class UserStore implements Closeable {
+
+    private static final int SNAPSHOT_BUFFER_SIZE = 1024 * 1024;
+
+    private final UserStoreProperties properties;
+    private final Path directory;
+    private final ScheduledExecutorService compactor;
+
+    private volatile Map<String, HelloData> users;
+    private volatile AgeIndex ageIndex;
+    private WalWriter writer;
+
+    private volatile long recoveredRecords;
+    private volatile long recoveryMillis;
+    private volatile long ageIndexBuildMillis;
+    private volatile long truncatedBytes;
+    private volatile long snapshotBytes;
+    private volatile long lastCompactionMillis;
+    private final LongAdder compactions = new LongAdder();
+
+    public UserStore(UserStoreProperties properties) {
+        this.properties = properties;
+        this.directory = Paths.get(properties.getDirectory()).toAbsolutePath();
+        this.compactor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "user-store-compactor");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 파일에서 상태를 복구하고 쓰기 스레드와 압축 검사를 시작한다.
+     */
+    public void start() throws IOException {
+        long start = System.nanoTime();
+        Files.createDirectories(directory);
+        deleteFiles(WalFiles.TMP_SUFFIX, Long.MAX_VALUE);
+
+        List<Long> snapshots = WalFiles.generations(directory, WalFiles.SNAPSHOT_SUFFIX);
+        long snapshotGeneration = snapshots.isEmpty() ? 0 : snapshots.get(snapshots.size() - 1);
+        long expected = snapshotGeneration == 0 ? 0 : WalReader.snapshotRecords(WalFiles.snapshot(directory, snapshotGeneration));
+        ConcurrentHashMap<String, HelloData> recovered =
+            new ConcurrentHashMap<>((int) Math.min(Math.max(expected * 4 / 3 + 1, 16), 1 << 30));
+
+        WalReader.RecordHandler handler = new WalReader.RecordHandler() {
+            @Override
+            public void put(String key, String username, int age) {
+                recovered.put(key, helloData(username, age));
+            }
+
+            @Override
+            public void delete(String key) {
+                recovered.remove(key);
+            }
+        };
+
+        long records = 0;
+        if (snapshotGeneration > 0) {
+            WalReader.Result result = WalReader.replay(WalFiles.snapshot(directory, snapshotGeneration), true, handler);
+            if (result.isTruncated() || result.records != result.declaredRecords) {
+                throw new IOException("snapshot " + snapshotGeneration + " is corrupted at byte " + result.validBytes);
+            }
+            records += result.records;
+        }
+
+        long walGeneration = Math.max(snapshotGeneration, 1);
+        long validBytes = 0;
+        long truncated = 0;
+        List<Long> wals = WalFiles.generations(directory, WalFiles.WAL_SUFFIX);
+        wals.removeIf(generation -> generation < snapshotGeneration);
+        for (int i = 0; i < wals.size(); i++) {
+            long generation = wals.get(i);
+            WalReader.Result result = WalReader.replay(WalFiles.wal(directory, generation), false, handler);
+            records += result.records;
+            if (result.isTruncated()) {
+                if (i < wals.size() - 1) {
+                    throw new IOException("WAL " + generation + " is corrupted at byte " + result.validBytes
+                        + " and is not the last one");
+                }
+                truncated = result.fileBytes - result.validBytes;
+                log.warn("user store WAL {} has a torn tail, truncating {} bytes at {}",
+                    generation, truncated, result.validBytes);
+            }
+            walGeneration = generation;
+            validBytes = result.validBytes;
+        }
+
+        long indexStart = System.nanoTime();
+        this.ageIndex = AgeIndex.build(recovered);
+        this.ageIndexBuildMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - indexStart);
+        this.users = recovered;
+        this.writer = new WalWriter(properties, directory, walGeneration, validBytes, recovered::get, this::apply);
+        // 스냅샷을 쓴 뒤 지우지 못한 이전 세대
+        deleteFiles(WalFiles.WAL_SUFFIX, snapshotGeneration);
+        deleteFiles(WalFiles.SNAPSHOT_SUFFIX, snapshotGeneration);
+        writer.start();
+
+        this.recoveredRecords = records;
+        this.truncatedBytes = truncated;
+        this.snapshotBytes = snapshotGeneration == 0 ? 0 : Files.size(WalFiles.snapshot(directory, snapshotGeneration));
+        this.recoveryMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        log.info("user store recovered {} users from {} records in {}ms (age index {}ms, directory={}, generation={})",
+            recovered.size(), records, recoveryMillis, ageIndexBuildMillis, directory, walGeneration);
+
+        long interval = properties.getCompactionCheckInterval().toMillis();
+        compactor.scheduleWithFixedDelay(this::compactIfNeeded, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    public void put(String userId, HelloData data) {
+        writer.append(WalRecord.put(userId, data));
+    }
+
+    /**
+     * 있는지 확인하는 것도 쓰기 스레드에서 커밋 순서대로 한다.
+     *
+     * @return 지웠으면 true, 없는 회원이면 false (아무것도 쓰지 않는다)
+     */
+    public boolean delete(String userId) {
+        return writer.append(userId, current -> current == null ? null : WalRecord.delete(userId)) != null;
+    }
+
+    /**
+     * 있는 회원만 바꾼다. change 에는 현재 값의 복사본이 넘어가고, 바꾼 값을 커밋한다.
+     * 읽고 바꾸는 일을 쓰기 스레드에서 커밋 순서대로 하므로 같은 회원의 다른 쓰기가 사이에 끼지 않는다.
+     * (change 는 쓰기 스레드에서 실행되므로 짧아야 한다)
+     *
+     * @return 커밋한 값, 회원이 없으면 null (아무것도 쓰지 않는다)
+     */
+    public HelloData update(String userId, Consumer<HelloData> change) {
+        WalRecord record = writer.append(userId, current -> {
+            if (current == null) {
+                return null;
+            }
+            HelloData changed = helloData(current.getUsername(), current.getAge());
+            change.accept(changed);
+            changed.setUsername(userId);
+            return WalRecord.put(userId, changed);
+        });
+        return record == null ? null : record.toHelloData();
+    }
+
+    /**
+     * @return 복사본, 없으면 null
+     */
+    public HelloData find(String userId) {
+        HelloData data = users.get(userId);
+        return data == null ? null : helloData(data.getUsername(), data.getAge());
+    }
+
+    public int size() {
+        return users.size();
+    }
+
+    /**
+     * 나이가 minAge 이상 maxAge 이하인 회원 수
+     */
+    public long countByAge(int minAge, int maxAge) {
+        return ageIndex.count(minAge, maxAge);
+    }
+
+    /**
+     * 나이가 minAge 이상 maxAge 이하인 회원을 (나이, userId) 순서로 size 명까지
+     *
+     * @param after 이전 페이지의 next 커서 ("나이:userId"), 첫 페이지면 null
+     */
+    public AgeRangePage findByAge(int minAge, int maxAge, String after, int size) {
+        AgeIndex.Key cursor = after == null ? null : AgeIndex.Key.parse(after);
+        List<AgeIndex.Key> keys = ageIndex.scan(minAge, maxAge, cursor, size);
+        List<HelloData> page = new ArrayList<>(keys.size());
+        for (AgeIndex.Key key : keys) {
+            HelloData data = users.get(key.id);
+            // 인덱스를 읽은 뒤 바뀐 회원은 건너뛴다
+            if (data != null && data.getAge() == key.age) {
+                page.add(helloData(data.getUsername(), data.getAge()));
+            }
+        }
+        AgeRangePage result = new AgeRangePage();
+        result.setMinAge(minAge);
+        result.setMaxAge(maxAge);
+        result.setTotal(ageIndex.count(minAge, maxAge));
+        result.setUsers(page);
+        result.setNext(keys.size() == size && size > 0 ? keys.get(keys.size() - 1).toString() : null);
+        return result;
+    }
+
+    /**
+     * 쓰기 스레드에서 커밋 순서대로 호출된다. 나이 인덱스도 같은 순서로 바꾼다.
+     */
+    private void apply(WalRecord record) {
+        if (record.getType() == WalRecord.PUT) {
+            HelloData data = record.toHelloData();
+            HelloData previous = users.put(record.getKey(), data);
+            ageIndex.put(record.getKey(), previous == null ? null : previous.getAge(), data.getAge());
+        } else {
+            HelloData previous = users.remove(record.getKey());
+            if (previous != null) {
+                ageIndex.remove(record.getKey(), previous.getAge());
+            }
+        }
+    }
+
+    private void compactIfNeeded() {
+        if (writer.isFailed() || writer.getWalBytes() < properties.getCompactionThreshold().toBytes()) {
+            return;
+        }
+        try {
+            compact();
+        } catch (IOException | RuntimeException e) {
+            log.warn("user store compaction failed", e);
+        }
+    }
+
+    /**
+     * 새 세대 WAL 로 바꾸고 현재 상태를 그 세대의 스냅샷으로 쓴다.
+     * 스냅샷이 디스크에 남은 뒤에만 이전 세대 파일을 지운다.
+     */
+    public synchronized void compact() throws IOException {
+        long start = System.nanoTime();
+        long generation = writer.rotate();
+        Path snapshot = WalFiles.snapshot(directory, generation);
+        Path tmp = snapshot.resolveSibling(snapshot.getFileName() + WalFiles.TMP_SUFFIX);
+
+        long count = 0;
+        try (FileChannel channel = FileChannel.open(tmp,
+            StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            WalFiles.writeFully(channel, WalFiles.snapshotHeader(0));
+            ByteBuffer buffer = ByteBuffer.allocate(SNAPSHOT_BUFFER_SIZE);
+            for (Map.Entry<String, HelloData> entry : users.entrySet()) {
+                WalRecord record = WalRecord.put(entry.getKey(), entry.getValue());
+                if (buffer.remaining() < record.encodedSize()) {
+                    buffer.flip();
+                    WalFiles.writeFully(channel, buffer);
+                    buffer.clear();
+                }
+                record.encode(buffer);
+                count++;
+            }
+            buffer.flip();
+            WalFiles.writeFully(channel, buffer);
+            channel.write(WalFiles.snapshotHeader(count), 0);
+            channel.force(true);
+        }
+        Files.move(tmp, snapshot, StandardCopyOption.ATOMIC_MOVE);
+        WalFiles.syncDirectory(directory);
+        deleteFiles(WalFiles.WAL_SUFFIX, generation);
+        deleteFiles(WalFiles.SNAPSHOT_SUFFIX, generation);
+
+        snapshotBytes = Files.size(snapshot);
+        lastCompactionMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        compactions.increment();
+        log.info("user store compacted {} users into generation {} in {}ms", count, generation, lastCompactionMillis);
+    }
+
+    /**
+     * suffix 로 끝나고 세대가 before 보다 작은 파일을 지운다.
+     */
+    private void deleteFiles(String suffix, long before) throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "users-*" + suffix)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                long generation;
+                try {
+                    generation = Long.parseLong(name.substring("users-".length(), "users-".length() + 10));
+                } catch (NumberFormatException | IndexOutOfBoundsException e) {
+                    continue;
+                }
+                if (generation < before) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+
+    private static HelloData helloData(String username, int age) {
+        HelloData data = new HelloData();
+        data.setUsername(username);
+        data.setAge(age);
+        return data;
+    }
+
+    public UserStoreStats stats() {
+        UserStoreStats stats = new UserStoreStats();
+        stats.setDirectory(directory.toString());
+        stats.setUsers(users.size());
+        stats.setGeneration(writer.getGeneration());
+        stats.setWalBytes(writer.getWalBytes());
+        stats.setSnapshotBytes(snapshotBytes);
+        stats.setFsync(properties.isFsync());
+        writer.stats(stats);
+        stats.setRecoveredRecords(recoveredRecords);
+        stats.setRecoveryMillis(recoveryMillis);
+        stats.setTruncatedBytes(truncatedBytes);
+        stats.setCompactions(compactions.sum());
+        stats.setLastCompactionMillis(lastCompactionMillis);
+        stats.setAgeIndexBuildMillis(ageIndexBuildMillis);
+        stats.setAgeIndexPendingChanges(ageIndex.getPendingChanges());
+        stats.setAgeIndexMerges(ageIndex.getMerges());
+        return stats;
+    }
+
+    @Override
+    public void close() throws IOException {
+        compactor.shutdownNow();
+        if (writer != null) {
+            writer.close();
+        }
+        if (ageIndex != null) {
+            ageIndex.close();
+        }
+    }
+
+}
@@ -0,0 +1,17 @@
+package hello.springmvc.store;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * 쓰기 대기열이 가득 찼거나, 쓰기 스레드가 꺼내기 전에 커밋 대기 시간이 지났다.
+ * 레코드는 대기열에서 빠졌으므로 저장되지 않았고, 그대로 다시 보내도 된다.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class UserStoreBusyException extends UserStoreException {
+
+    public UserStoreBusyException(String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,18 @@
+package hello.springmvc.store;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * 쓰기 스레드가 이미 배치에 넣은 레코드의 커밋이 대기 시간 안에 끝나지 않았다.
+ * 이 레코드는 나중에 커밋될 수도, fsync 실패로 버려질 수도 있다. (결과를 알 수 없다)
+ * 호출자는 다시 읽어 보고 판단해야 한다.
+ */
+@ResponseStatus(HttpStatus.GATEWAY_TIMEOUT)
+public class UserStoreCommitUnknownException extends UserStoreException {
+
+    public UserStoreCommitUnknownException(String message) {
+        super(message);
+    }
+
+}
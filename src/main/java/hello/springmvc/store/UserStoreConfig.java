@@ -0,0 +1,24 @@
+package hello.springmvc.store;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * user-store.enabled=true 이면 /mapping/users 의 등록/수정/삭제를 WAL 에 남기고 시작할 때 복구한다.
+ */
+@Configuration
+@EnableConfigurationProperties(UserStoreProperties.class)
+@ConditionalOnProperty(prefix = "user-store", name = "enabled", havingValue = "true")
+public class UserStoreConfig {
+
+    /**
+     * 종료할 때 대기열에 남은 쓰기를 커밋하고 파일을 닫는다.
+     */
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public UserStore userStore(UserStoreProperties properties) {
+        return new UserStore(properties);
+    }
+
+}
@@ -0,0 +1,33 @@
+package hello.springmvc.store;
+
+import java.io.IOException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * 회원 저장소 상태 (그룹 커밋 배치 크기, WAL/스냅샷 크기, 복구 시간)
+ * - GET /internal/user-store
+ * - POST /internal/user-store/compact : WAL 크기와 상관없이 바로 압축
+ */
+@RestController
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "user-store", name = "enabled", havingValue = "true")
+public class UserStoreController {
+
+    private final UserStore userStore;
+
+    @GetMapping("/internal/user-store")
+    public UserStoreStats stats() {
+        return userStore.stats();
+    }
+
+    @PostMapping("/internal/user-store/compact")
+    public UserStoreStats compact() throws IOException {
+        userStore.compact();
+        return userStore.stats();
+    }
+
+}
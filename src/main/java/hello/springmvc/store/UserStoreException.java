@@ -0,0 +1,19 @@
+package hello.springmvc.store;
+
+/**
+ * WAL 쓰기/fsync 실패, 닫힌 저장소에 쓰기
+ *
+ * 대기열 초과와 커밋 대기 시간 초과는 하위 타입으로 구분한다.
+ * (UserStoreBusyException: 저장되지 않음, UserStoreCommitUnknownException: 저장 여부를 알 수 없음)
+ */
+public class UserStoreException extends RuntimeException {
+
+    public UserStoreException(String message) {
+        super(message);
+    }
+
+    public UserStoreException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+}
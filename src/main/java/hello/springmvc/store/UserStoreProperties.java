@@ -0,0 +1,33 @@
+package hello.springmvc.store;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * user-store.* 설정
+ * - directory: WAL, 스냅샷 파일을 두는 디렉터리
+ * - max-batch-size: fsync 한 번에 묶는 최대 쓰기 수 (1 이면 쓰기마다 fsync)
+ * - batch-window: 첫 쓰기가 온 뒤 다른 요청의 쓰기를 더 기다리는 시간 (0 이면 이미 쌓여 있는 것만 묶는다)
+ * - fsync: false 이면 OS 페이지 캐시까지만 쓴다 (프로세스가 죽어도 남지만, 머신이 죽으면 잃을 수 있다)
+ * - queue-capacity, commit-timeout: 쓰기 대기열 크기와 요청 스레드가 커밋을 기다리는 최대 시간
+ * - compaction-threshold, compaction-check-interval: WAL 이 이 크기를 넘으면 스냅샷을 새로 쓰고 이전 WAL 을 지운다
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "user-store")
+public class UserStoreProperties {
+
+    private boolean enabled = false;
+    private String directory = "data/user-store";
+    private int maxBatchSize = 256;
+    private Duration batchWindow = Duration.ZERO;
+    private boolean fsync = true;
+    private int queueCapacity = 10_000;
+    private Duration commitTimeout = Duration.ofSeconds(5);
+    private DataSize compactionThreshold = DataSize.ofMegabytes(64);
+    private Duration compactionCheckInterval = Duration.ofSeconds(30);
+
+}
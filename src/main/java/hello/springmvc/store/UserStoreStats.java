@@ -0,0 +1,35 @@
+package hello.springmvc.store;
+
+import lombok.Data;
+
+@Data
+public class UserStoreStats {
+    private String directory;
+    private int users;
+    private long generation;
+    private long walBytes;
+    private long snapshotBytes;
+    private boolean fsync;
+
+    /** 커밋된 쓰기 수와 fsync(배치) 수, 평균 배치 크기가 클수록 fsync 를 많이 아낀 것이다 */
+    private long appends;
+    private long batches;
+    private double averageBatchSize;
+    private long maxBatchSize;
+    /** 대기열에 들어간 뒤 커밋이 끝날 때까지 */
+    private double averageCommitMillis;
+    private int queueDepth;
+    /** WAL 쓰기/fsync 가 실패해서 쓰기를 거절하는 중 */
+    private boolean failed;
+
+    private long recoveredRecords;
+    private long recoveryMillis;
+    private long truncatedBytes;
+    private long compactions;
+    private long lastCompactionMillis;
+
+    /** 나이 인덱스: 복구 후 처음 만드는 데 걸린 시간, base 배열에 아직 합치지 않은 변경 수, 합친 횟수 */
+    private long ageIndexBuildMillis;
+    private int ageIndexPendingChanges;
+    private long ageIndexMerges;
+}
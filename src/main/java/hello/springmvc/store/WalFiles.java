@@ -0,0 +1,92 @@
+package hello.springmvc.store;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 디렉터리 안의 파일 이름과 헤더
+ * - users-<세대>.wal: 세대가 시작된 뒤의 쓰기
+ * - users-<세대>.snapshot: 세대가 시작된 시점(이후 쓰기가 일부 섞여 있을 수 있다)의 전체 레코드
+ * 복구는 가장 큰 세대의 스냅샷을 읽고, 그 세대 이상의 WAL 을 순서대로 다시 적용한다.
+ * 스냅샷에 이후 쓰기가 섞여 있어도 같은 키의 마지막 쓰기가 WAL 에서 다시 적용되므로 결과는 같다.
+ */
+final class WalFiles {
+
+    static final String WAL_SUFFIX = ".wal";
+    static final String SNAPSHOT_SUFFIX = ".snapshot";
+    static final String TMP_SUFFIX = ".tmp";
+
+    static final int WAL_MAGIC = 0x55574C31; // "UWL1"
+    static final int SNAPSHOT_MAGIC = 0x55534E31; // "USN1"
+    static final int WAL_HEADER_SIZE = 8;
+    /** 스냅샷은 복구할 때 맵 크기를 미리 잡도록 레코드 수를 함께 쓴다. */
+    static final int SNAPSHOT_HEADER_SIZE = 16;
+
+    private WalFiles() {
+    }
+
+    static Path wal(Path directory, long generation) {
+        return directory.resolve(String.format("users-%010d%s", generation, WAL_SUFFIX));
+    }
+
+    static Path snapshot(Path directory, long generation) {
+        return directory.resolve(String.format("users-%010d%s", generation, SNAPSHOT_SUFFIX));
+    }
+
+    /**
+     * @return suffix 로 끝나는 파일의 세대 번호, 오름차순
+     */
+    static List<Long> generations(Path directory, String suffix) throws IOException {
+        List<Long> generations = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "users-*" + suffix)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                try {
+                    generations.add(Long.parseLong(name.substring("users-".length(), name.length() - suffix.length())));
+                } catch (NumberFormatException e) {
+                    // 다른 파일
+                }
+            }
+        }
+        Collections.sort(generations);
+        return generations;
+    }
+
+    static ByteBuffer walHeader() {
+        ByteBuffer header = ByteBuffer.allocate(WAL_HEADER_SIZE);
+        header.putInt(WAL_MAGIC).putInt(0).flip();
+        return header;
+    }
+
+    static ByteBuffer snapshotHeader(long records) {
+        ByteBuffer header = ByteBuffer.allocate(SNAPSHOT_HEADER_SIZE);
+        header.putInt(SNAPSHOT_MAGIC).putInt(0).putLong(records).flip();
+        return header;
+    }
+
+    static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * rename 이 디스크에 남도록 디렉터리도 fsync 한다. (지원하지 않는 파일 시스템에서는 무시)
+     */
+    static void syncDirectory(Path directory) {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Windows 등
+        }
+    }
+
+}
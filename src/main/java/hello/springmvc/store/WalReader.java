@@ -0,0 +1,181 @@
+package hello.springmvc.store;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * WAL/스냅샷 파일을 처음부터 읽어서 레코드마다 handler 를 호출한다.
+ *
+ * 레코드마다 객체를 만들지 않도록 큰 버퍼(4MB)에서 바로 읽는다.
+ * 파일 끝의 잘린 레코드나 CRC 가 맞지 않는 레코드를 만나면 멈추고, 그 앞까지의 길이(validBytes)를 돌려준다.
+ */
+final class WalReader {
+
+    private static final int BUFFER_SIZE = 4 * 1024 * 1024;
+
+    interface RecordHandler {
+        void put(String key, String username, int age);
+
+        void delete(String key);
+    }
+
+    static final class Result {
+        final long records;
+        final long validBytes;
+        final long fileBytes;
+        /** 스냅샷 헤더의 레코드 수, WAL 이면 -1 */
+        final long declaredRecords;
+
+        Result(long records, long validBytes, long fileBytes, long declaredRecords) {
+            this.records = records;
+            this.validBytes = validBytes;
+            this.fileBytes = fileBytes;
+            this.declaredRecords = declaredRecords;
+        }
+
+        boolean isTruncated() {
+            return validBytes < fileBytes;
+        }
+    }
+
+    private WalReader() {
+    }
+
+    /**
+     * 스냅샷 헤더의 레코드 수만 읽는다. (맵 크기를 미리 잡는 용도)
+     */
+    static long snapshotRecords(Path snapshot) throws IOException {
+        try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(WalFiles.SNAPSHOT_HEADER_SIZE);
+            readHeader(channel, header, WalFiles.SNAPSHOT_MAGIC);
+            return header.getLong(8);
+        }
+    }
+
+    static Result replay(Path file, boolean snapshot, RecordHandler handler) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long fileBytes = channel.size();
+            int headerSize = snapshot ? WalFiles.SNAPSHOT_HEADER_SIZE : WalFiles.WAL_HEADER_SIZE;
+            if (fileBytes < headerSize) {
+                // 헤더를 쓰다가 멈춘 파일
+                return new Result(0, 0, fileBytes, -1);
+            }
+            ByteBuffer header = ByteBuffer.allocate(headerSize);
+            readHeader(channel, header, snapshot ? WalFiles.SNAPSHOT_MAGIC : WalFiles.WAL_MAGIC);
+            long declared = snapshot ? header.getLong(8) : -1;
+
+            ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(BUFFER_SIZE, Math.max(fileBytes, 64)));
+            byte[] array = buffer.array();
+            long position = headerSize;
+            long records = 0;
+            buffer.limit(0);
+
+            while (true) {
+                if (buffer.remaining() < WalRecord.HEADER_SIZE && !fill(channel, buffer, WalRecord.HEADER_SIZE)) {
+                    break;
+                }
+                int start = buffer.position();
+                int length = buffer.getInt(start);
+                if (length <= 0 || length > WalRecord.MAX_PAYLOAD_SIZE) {
+                    break;
+                }
+                if (buffer.remaining() < WalRecord.HEADER_SIZE + length) {
+                    if (buffer.capacity() < WalRecord.HEADER_SIZE + length) {
+                        buffer = grow(buffer, WalRecord.HEADER_SIZE + length);
+                        array = buffer.array();
+                    }
+                    if (!fill(channel, buffer, WalRecord.HEADER_SIZE + length)) {
+                        break;
+                    }
+                    start = buffer.position();
+                }
+                int crc = buffer.getInt(start + 4);
+                int payload = start + WalRecord.HEADER_SIZE;
+                if (crc != WalRecord.crc(array, payload, length) || !apply(array, payload, length, handler)) {
+                    break;
+                }
+                buffer.position(start + WalRecord.HEADER_SIZE + length);
+                position += WalRecord.HEADER_SIZE + length;
+                records++;
+            }
+            return new Result(records, position, fileBytes, declared);
+        }
+    }
+
+    private static boolean apply(byte[] array, int offset, int length, RecordHandler handler) {
+        int end = offset + length;
+        byte type = array[offset];
+        int keyLength = readShort(array, offset + 1);
+        int keyOffset = offset + 3;
+        if (keyOffset + keyLength > end) {
+            return false;
+        }
+        String key = new String(array, keyOffset, keyLength, StandardCharsets.UTF_8);
+        if (type == WalRecord.DELETE) {
+            handler.delete(key);
+            return true;
+        }
+        if (type != WalRecord.PUT || keyOffset + keyLength + 2 > end) {
+            return false;
+        }
+        int nameOffset = keyOffset + keyLength + 2;
+        int nameLength = readShort(array, keyOffset + keyLength);
+        if (nameOffset + nameLength + 4 != end) {
+            return false;
+        }
+        // 대부분 이름과 키가 같으므로 String 을 하나만 만든다
+        String username = Arrays.equals(array, keyOffset, keyOffset + keyLength, array, nameOffset, nameOffset + nameLength)
+            ? key : new String(array, nameOffset, nameLength, StandardCharsets.UTF_8);
+        int age = ((array[end - 4] & 0xFF) << 24) | ((array[end - 3] & 0xFF) << 16)
+            | ((array[end - 2] & 0xFF) << 8) | (array[end - 1] & 0xFF);
+        handler.put(key, username, age);
+        return true;
+    }
+
+    private static int readShort(byte[] array, int offset) {
+        return ((array[offset] & 0xFF) << 8) | (array[offset + 1] & 0xFF);
+    }
+
+    private static void readHeader(FileChannel channel, ByteBuffer header, int magic) throws IOException {
+        while (header.hasRemaining()) {
+            if (channel.read(header) < 0) {
+                throw new EOFException("header is truncated");
+            }
+        }
+        if (header.getInt(0) != magic) {
+            throw new IOException("unexpected file header " + Integer.toHexString(header.getInt(0)));
+        }
+    }
+
+    /**
+     * 남은 데이터를 버퍼 앞으로 옮기고 채운다.
+     * @return 최소 need 바이트가 남아 있으면 true, 파일이 끝났으면 false
+     */
+    private static boolean fill(FileChannel channel, ByteBuffer buffer, int need) throws IOException {
+        buffer.compact();
+        try {
+            while (buffer.position() < need) {
+                if (channel.read(buffer) < 0) {
+                    return false;
+                }
+            }
+            return true;
+        } finally {
+            buffer.flip();
+        }
+    }
+
+    private static ByteBuffer grow(ByteBuffer buffer, int capacity) {
+        ByteBuffer grown = ByteBuffer.allocate(capacity);
+        grown.put(buffer);
+        grown.flip();
+        return grown;
+    }
+
+}
@@ -0,0 +1,100 @@
+package hello.springmvc.store;
+
+import hello.springmvc.basic.HelloData;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32C;
+
+/**
+ * WAL/스냅샷 레코드 하나
+ *
+ * [int 길이][int CRC32C][byte 타입][short 키 길이][키 UTF-8]
+ *   PUT 이면 뒤에 [short 이름 길이][이름 UTF-8][int 나이]
+ * 길이와 CRC 는 타입부터 끝까지를 대상으로 한다. 마지막 레코드가 잘렸거나 CRC 가 맞지 않으면 거기까지만 유효하다.
+ */
+final class WalRecord {
+
+    static final byte PUT = 1;
+    static final byte DELETE = 2;
+    static final int HEADER_SIZE = 8;
+    /** 키와 이름 길이가 short 이므로 이보다 클 수 없다. 더 크면 깨진 레코드로 본다. */
+    static final int MAX_PAYLOAD_SIZE = 1 + 2 + 0xFFFF + 2 + 0xFFFF + 4;
+
+    private final byte type;
+    private final String key;
+    private final byte[] keyBytes;
+    private final byte[] usernameBytes;
+    private final int age;
+
+    private WalRecord(byte type, String key, String username, int age) {
+        this.type = type;
+        this.key = key;
+        this.keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        this.usernameBytes = username == null ? null : username.getBytes(StandardCharsets.UTF_8);
+        this.age = age;
+        if (keyBytes.length > 0xFFFF || (usernameBytes != null && usernameBytes.length > 0xFFFF)) {
+            throw new IllegalArgumentException("user id or username is longer than 65535 bytes");
+        }
+    }
+
+    static WalRecord put(String key, HelloData data) {
+        return new WalRecord(PUT, key, data.getUsername() == null ? "" : data.getUsername(), data.getAge());
+    }
+
+    static WalRecord delete(String key) {
+        return new WalRecord(DELETE, key, null, 0);
+    }
+
+    byte getType() {
+        return type;
+    }
+
+    String getKey() {
+        return key;
+    }
+
+    int encodedSize() {
+        return HEADER_SIZE + payloadSize();
+    }
+
+    private int payloadSize() {
+        int size = 1 + 2 + keyBytes.length;
+        if (type == PUT) {
+            size += 2 + usernameBytes.length + 4;
+        }
+        return size;
+    }
+
+    /**
+     * buffer 에 encodedSize() 만큼 쓴다. (heap 버퍼)
+     */
+    void encode(ByteBuffer buffer) {
+        int start = buffer.position();
+        int payloadSize = payloadSize();
+        buffer.putInt(payloadSize);
+        buffer.putInt(0);
+        buffer.put(type);
+        buffer.putShort((short) keyBytes.length);
+        buffer.put(keyBytes);
+        if (type == PUT) {
+            buffer.putShort((short) usernameBytes.length);
+            buffer.put(usernameBytes);
+            buffer.putInt(age);
+        }
+        buffer.putInt(start + 4, crc(buffer.array(), buffer.arrayOffset() + start + HEADER_SIZE, payloadSize));
+    }
+
+    HelloData toHelloData() {
+        HelloData data = new HelloData();
+        data.setUsername(new String(usernameBytes, StandardCharsets.UTF_8));
+        data.setAge(age);
+        return data;
+    }
+
+    static int crc(byte[] bytes, int offset, int length) {
+        CRC32C crc = new CRC32C();
+        crc.update(bytes, offset, length);
+        return (int) crc.getValue();
+    }
+
+}
@@ -0,0 +1,367 @@
+package hello.springmvc.store;
+
+import hello.springmvc.basic.HelloData;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 그룹 커밋 WAL 쓰기 스레드
+ *
+ * 1. 요청 스레드는 변경(현재 값 -> 쓸 레코드)을 대기열에 넣고 커밋 완료(future)를 기다린다. 잠금은 잡지 않는다.
+ * 2. 쓰기 스레드는 대기열에 쌓인 변경을 max-batch-size 까지 꺼내서 (batch-window 동안 더 기다릴 수 있다)
+ *    커밋 순서상 바로 앞의 값(같은 배치의 앞선 변경 포함)으로 레코드를 만들고, 버퍼 하나에 이어 쓴 뒤
+ *    FileChannel.write 와 force 를 배치마다 한 번만 호출한다. 레코드를 만들지 않은 변경(없는 회원 수정/삭제)은 쓰지 않는다.
+ * 3. fsync 가 끝나면 배치 순서대로 메모리 상태에 반영(applier)하고 기다리던 요청들을 깨운다.
+ *    (메모리 반영이 fsync 뒤이므로 다른 요청은 디스크에 남은 쓰기만 읽는다)
+ *
+ * 동시에 들어온 쓰기가 많을수록 fsync 한 번에 묶이는 수가 늘어난다.
+ * fsync 가 실패하면 어디까지 디스크에 남았는지 알 수 없으므로 이후의 쓰기를 모두 거절한다.
+ */
+@Slf4j
+class WalWriter implements Closeable {
+
+    private final UserStoreProperties properties;
+    private final Path directory;
+    private final Function<String, HelloData> state;
+    private final Consumer<WalRecord> applier;
+    /** 배치 안에서 앞선 변경이 만든 값 (쓰기 스레드만 쓴다), 삭제는 null 값 */
+    private final Map<String, HelloData> batchState = new HashMap<>();
+    private final BlockingQueue<Pending> queue;
+    private final Thread thread;
+
+    /** channel, generation, walBytes 는 lock 으로 보호한다. (쓰기 스레드와 세대 전환) */
+    private final Object lock = new Object();
+    private FileChannel channel;
+    private long generation;
+    private long walBytes;
+
+    private ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+    private volatile boolean running = true;
+    private volatile IOException failure;
+
+    private final LongAdder appends = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder totalCommitNanos = new LongAdder();
+    private final LongAccumulator maxBatch = new LongAccumulator(Math::max, 0);
+
+    WalWriter(UserStoreProperties properties, Path directory, long generation, long validBytes,
+              Function<String, HelloData> state, Consumer<WalRecord> applier) throws IOException {
+        this.properties = properties;
+        this.directory = directory;
+        this.state = state;
+        this.applier = applier;
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        open(generation, validBytes);
+        this.thread = new Thread(this::run, "user-store-wal");
+        this.thread.setDaemon(true);
+    }
+
+    void start() {
+        thread.start();
+    }
+
+    /**
+     * record 를 그대로 쓴다.
+     */
+    void append(WalRecord record) {
+        append(record.getKey(), current -> record);
+    }
+
+    /**
+     * 쓰기 스레드에서 key 의 현재 값으로 change 를 불러 쓸 레코드를 정하고, 커밋(fsync 후 메모리 반영)이 끝날 때까지 기다린다.
+     * change 는 쓰기 스레드에서 실행되므로 짧아야 하고, 넘겨받은 값을 바꾸면 안 된다.
+     *
+     * @param change 현재 값(없으면 null) -> 쓸 레코드, null 이면 아무것도 쓰지 않는다
+     * @return 커밋한 레코드, 쓰지 않았으면 null
+     *
+     * commit-timeout 이 지나면
+     * - 쓰기 스레드가 아직 꺼내지 않은 레코드는 취소한다. 저장되지 않는다. (UserStoreBusyException, 503)
+     * - 이미 배치에 들어간 레코드는 commit-timeout 만큼 더 기다린다. 그래도 끝나지 않으면
+     *   저장 여부를 알 수 없다. (UserStoreCommitUnknownException, 504)
+     */
+    WalRecord append(String key, Function<HelloData, WalRecord> change) {
+        if (failure != null) {
+            throw new UserStoreException("user store is read-only after a write failure", failure);
+        }
+        if (!running) {
+            throw new UserStoreException("user store is closed");
+        }
+        Pending pending = new Pending(key, change);
+        long timeout = properties.getCommitTimeout().toNanos();
+        try {
+            if (!queue.offer(pending, timeout, TimeUnit.NANOSECONDS)) {
+                throw new UserStoreBusyException("write queue is full (" + properties.getQueueCapacity() + ")");
+            }
+            return awaitCommit(pending, timeout);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            if (pending.cancel()) {
+                throw new UserStoreException("interrupted while waiting for commit, write was not applied", e);
+            }
+            throw new UserStoreCommitUnknownException("interrupted while waiting for commit, outcome is unknown");
+        } catch (ExecutionException e) {
+            throw new UserStoreException("write failed", e.getCause());
+        }
+    }
+
+    private WalRecord awaitCommit(Pending pending, long timeout) throws InterruptedException, ExecutionException {
+        try {
+            return pending.future.get(timeout, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            if (pending.cancel()) {
+                // 쓰기 스레드가 꺼내더라도 버린다
+                queue.remove(pending);
+                throw new UserStoreBusyException(
+                    "commit did not start in " + properties.getCommitTimeout() + ", write was not applied");
+            }
+        }
+        // 이미 배치에 들어갔다. fsync 가 곧 끝날 수 있으니 한 번 더 기다린다
+        try {
+            return pending.future.get(timeout, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            throw new UserStoreCommitUnknownException(
+                "commit did not complete in " + properties.getCommitTimeout() + ", outcome is unknown");
+        }
+    }
+
+    private void run() {
+        int maxBatchSize = Math.max(1, properties.getMaxBatchSize());
+        long windowNanos = properties.getBatchWindow().toNanos();
+        List<Pending> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Pending first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                if (windowNanos > 0) {
+                    long deadline = System.nanoTime() + windowNanos;
+                    while (batch.size() < maxBatchSize) {
+                        Pending next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                        if (next == null) {
+                            break;
+                        }
+                        batch.add(next);
+                    }
+                }
+                queue.drainTo(batch, maxBatchSize - batch.size());
+                // 호출자가 시간 초과로 취소한 레코드는 쓰지 않는다
+                batch.removeIf(pending -> !pending.claim());
+                if (!batch.isEmpty()) {
+                    commit(batch);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void commit(List<Pending> batch) {
+        if (failure != null) {
+            batch.forEach(pending -> pending.future.completeExceptionally(failure));
+            return;
+        }
+        batchState.clear();
+        int size = 0;
+        int records = 0;
+        for (Pending pending : batch) {
+            HelloData current = batchState.containsKey(pending.key) ? batchState.get(pending.key) : state.apply(pending.key);
+            try {
+                pending.record = pending.change.apply(current);
+            } catch (RuntimeException e) {
+                pending.future.completeExceptionally(e);
+                continue;
+            }
+            if (pending.record != null) {
+                batchState.put(pending.key,
+                    pending.record.getType() == WalRecord.PUT ? pending.record.toHelloData() : null);
+                size += pending.record.encodedSize();
+                records++;
+            }
+        }
+        if (records == 0) {
+            // 쓸 것이 없으면 fsync 도 하지 않는다
+            batch.forEach(pending -> pending.future.complete(null));
+            return;
+        }
+        if (buffer.capacity() < size) {
+            buffer = ByteBuffer.allocate(Math.max(size, buffer.capacity() * 2));
+        }
+        buffer.clear();
+        for (Pending pending : batch) {
+            if (pending.record != null) {
+                pending.record.encode(buffer);
+            }
+        }
+        buffer.flip();
+
+        try {
+            // 메모리 반영까지 lock 안에서 한다. 이 배치를 쓴 세대로 바꾼 직후에 스냅샷을 뜨면 반영된 상태가 보여야 한다.
+            synchronized (lock) {
+                WalFiles.writeFully(channel, buffer);
+                if (properties.isFsync()) {
+                    channel.force(false);
+                }
+                walBytes += size;
+                for (Pending pending : batch) {
+                    if (pending.record != null) {
+                        applier.accept(pending.record);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            log.error("user store WAL write failed, rejecting further writes", e);
+            failure = e;
+            batch.forEach(pending -> pending.future.completeExceptionally(e));
+            return;
+        }
+
+        // 통계를 먼저 올려야 쓰기가 끝난 호출자가 stats() 에서 자기 쓰기를 본다
+        appends.add(records);
+        batches.increment();
+        maxBatch.accumulate(records);
+        long now = System.nanoTime();
+        for (Pending pending : batch) {
+            if (pending.record != null) {
+                totalCommitNanos.add(now - pending.enqueuedAt);
+            }
+            pending.future.complete(pending.record);
+        }
+    }
+
+    /**
+     * 다음 세대 WAL 로 바꾼다. 이 시점 이후의 쓰기는 새 파일에만 들어간다.
+     * @return 새 세대 번호
+     */
+    long rotate() throws IOException {
+        synchronized (lock) {
+            long next = generation + 1;
+            FileChannel previous = channel;
+            open(next, 0);
+            previous.close();
+            return next;
+        }
+    }
+
+    private void open(long generation, long validBytes) throws IOException {
+        Path path = WalFiles.wal(directory, generation);
+        FileChannel opened = FileChannel.open(path,
+            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (validBytes < WalFiles.WAL_HEADER_SIZE) {
+            opened.truncate(0);
+            WalFiles.writeFully(opened, WalFiles.walHeader());
+            opened.force(true);
+            WalFiles.syncDirectory(directory);
+            validBytes = WalFiles.WAL_HEADER_SIZE;
+        } else if (opened.size() > validBytes) {
+            // 복구할 때 찾은 잘린 레코드를 지운다
+            opened.truncate(validBytes);
+            opened.force(true);
+        }
+        opened.position(validBytes);
+        this.channel = opened;
+        this.generation = generation;
+        this.walBytes = validBytes;
+    }
+
+    long getGeneration() {
+        synchronized (lock) {
+            return generation;
+        }
+    }
+
+    long getWalBytes() {
+        synchronized (lock) {
+            return walBytes;
+        }
+    }
+
+    int getQueueDepth() {
+        return queue.size();
+    }
+
+    boolean isFailed() {
+        return failure != null;
+    }
+
+    void stats(UserStoreStats stats) {
+        long batchCount = batches.sum();
+        long appendCount = appends.sum();
+        stats.setAppends(appendCount);
+        stats.setBatches(batchCount);
+        stats.setAverageBatchSize(batchCount == 0 ? 0 : (double) appendCount / batchCount);
+        stats.setMaxBatchSize(maxBatch.get());
+        stats.setAverageCommitMillis(appendCount == 0 ? 0 : totalCommitNanos.sum() / 1e6 / appendCount);
+        stats.setQueueDepth(queue.size());
+        stats.setFailed(failure != null);
+    }
+
+    /**
+     * 대기열에 남은 쓰기를 모두 커밋한 뒤 닫는다.
+     */
+    @Override
+    public void close() throws IOException {
+        running = false;
+        try {
+            thread.join(properties.getCommitTimeout().toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (lock) {
+            channel.close();
+        }
+    }
+
+    private static final class Pending {
+        private static final int QUEUED = 0;
+        private static final int CLAIMED = 1;
+        private static final int CANCELLED = 2;
+
+        final String key;
+        final Function<HelloData, WalRecord> change;
+        final long enqueuedAt = System.nanoTime();
+        final CompletableFuture<WalRecord> future = new CompletableFuture<>();
+        /** 쓰기 스레드가 change 로 만든 레코드, 쓰지 않으면 null */
+        WalRecord record;
+        /** 쓰기 스레드(claim)와 시간 초과한 호출자(cancel) 중 먼저 바꾼 쪽이 이긴다 */
+        private final AtomicInteger state = new AtomicInteger(QUEUED);
+
+        Pending(String key, Function<HelloData, WalRecord> change) {
+            this.key = key;
+            this.change = change;
+        }
+
+        boolean claim() {
+            return state.compareAndSet(QUEUED, CLAIMED);
+        }
+
+        boolean cancel() {
+            return state.compareAndSet(QUEUED, CANCELLED);
+        }
+    }
+
+}
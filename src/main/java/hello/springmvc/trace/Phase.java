@@ -0,0 +1,17 @@
+package hello.springmvc.trace;
+
+/**
+ * 요청 처리 단계
+ */
+public enum Phase {
+    /** HandlerMapping 조회 */
+    HANDLER_LOOKUP,
+    /** @RequestParam, @ModelAttribute, @RequestBody 등 인자 바인딩 (요청 메시지 컨버터 포함) */
+    ARGUMENT_RESOLUTION,
+    /** 핸들러 메서드 실행 */
+    HANDLER,
+    /** 반환 값 처리 (@ResponseBody, HttpEntity 메시지 컨버터) */
+    RETURN_VALUE,
+    /** 뷰 렌더링 (Thymeleaf 등) */
+    VIEW_RENDER
+}
@@ -0,0 +1,118 @@
+package hello.springmvc.trace;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+/**
+ * 요청 단위 trace 관리
+ *
+ * 모든 요청의 단계별 시각을 스레드 로컬 버퍼에 기록한다. (System.nanoTime() 호출만, 할당 없음)
+ * 요청이 끝나면 샘플링되었거나 slow-threshold를 넘은 경우에만 Trace를 만들어 최근 capacity개를 보관한다.
+ * 그래서 샘플에 뽑히지 않은 느린 요청도 어느 단계에서 시간이 걸렸는지 남는다.
+ */
+public class RequestTracer {
+
+    private static final ThreadLocal<TraceBuffer> BUFFER = ThreadLocal.withInitial(TraceBuffer::new);
+
+    private final double sampleRate;
+    private final long slowThresholdNanos;
+    private final AtomicReferenceArray<Trace> traces;
+    private final AtomicLong sequence = new AtomicLong();
+
+    public RequestTracer(TraceProperties properties) {
+        this.sampleRate = properties.getSampleRate();
+        this.slowThresholdNanos = properties.getSlowThreshold().toNanos();
+        this.traces = new AtomicReferenceArray<>(properties.getCapacity());
+    }
+
+    public void start() {
+        BUFFER.get().reset(sampleRate >= 1 || (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate));
+    }
+
+    /**
+     * @return span 번호, 버퍼가 가득 차서 기록하지 않으면 -1
+     */
+    public int begin(Phase phase) {
+        return BUFFER.get().begin(phase);
+    }
+
+    public void end(int span) {
+        if (span >= 0) {
+            BUFFER.get().end(span);
+        }
+    }
+
+    public void handler(Object handler) {
+        BUFFER.get().handler = handler;
+    }
+
+    public void finish(HttpServletRequest request, HttpServletResponse response) {
+        TraceBuffer buffer = BUFFER.get();
+        long duration = System.nanoTime() - buffer.startNanos;
+        boolean slow = duration >= slowThresholdNanos;
+        if (buffer.sampled || slow) {
+            store(toTrace(buffer, request, response, duration, slow));
+        }
+        buffer.sampled = false;
+        buffer.handler = null;
+    }
+
+    /**
+     * @return 최근 trace, 최신 순
+     */
+    public List<Trace> recent() {
+        List<Trace> result = new ArrayList<>();
+        long last = sequence.get();
+        for (long i = last - 1; i >= 0 && i >= last - traces.length(); i--) {
+            Trace trace = traces.get((int) (i % traces.length()));
+            if (trace != null) {
+                result.add(trace);
+            }
+        }
+        return result;
+    }
+
+    private void store(Trace trace) {
+        long index = sequence.getAndIncrement();
+        traces.set((int) (index % traces.length()), trace);
+    }
+
+    private static Trace toTrace(TraceBuffer buffer, HttpServletRequest request, HttpServletResponse response,
+                                 long duration, boolean slow) {
+        Trace trace = new Trace();
+        trace.setMethod(request.getMethod());
+        trace.setUri(request.getRequestURI());
+        trace.setHandler(handlerName(buffer.handler));
+        trace.setStatus(response.getStatus());
+        trace.setStartEpochMillis(buffer.startMillis);
+        trace.setDurationMicros(duration / 1000);
+        trace.setSampled(buffer.sampled);
+        trace.setSlow(slow);
+
+        List<Trace.Span> spans = new ArrayList<>(buffer.size);
+        for (int i = 0; i < buffer.size; i++) {
+            Trace.Span span = new Trace.Span();
+            span.setPhase(buffer.phases[i]);
+            span.setOffsetMicros((buffer.starts[i] - buffer.startNanos) / 1000);
+            span.setDurationMicros(buffer.ends[i] == 0 ? -1 : (buffer.ends[i] - buffer.starts[i]) / 1000);
+            spans.add(span);
+        }
+        trace.setSpans(spans);
+        return trace;
+    }
+
+    private static String handlerName(Object handler) {
+        if (handler instanceof HandlerMethod) {
+            HandlerMethod handlerMethod = (HandlerMethod) handler;
+            return handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName();
+        }
+        return handler != null ? handler.getClass().getSimpleName() : null;
+    }
+
+}
@@ -0,0 +1,29 @@
+package hello.springmvc.trace;
+
+import java.util.List;
+import lombok.Data;
+
+/**
+ * GET /internal/traces 로 내보내는 요청 하나의 기록
+ * sampled=false 이면 느린 요청이라서 남은 것이고, spans는 비어 있다.
+ */
+@Data
+public class Trace {
+    private String method;
+    private String uri;
+    private String handler;
+    private int status;
+    private long startEpochMillis;
+    private long durationMicros;
+    private boolean sampled;
+    private boolean slow;
+    private List<Span> spans;
+
+    @Data
+    public static class Span {
+        private Phase phase;
+        /** 요청 시작 시점 기준 */
+        private long offsetMicros;
+        private long durationMicros;
+    }
+}
@@ -0,0 +1,48 @@
+package hello.springmvc.trace;
+
+/**
+ * 스레드마다 하나씩 미리 할당해서 재사용하는 span 기록 버퍼
+ * 요청 처리 중에는 샘플링 여부와 관계없이 배열에 값만 기록하고 (할당 없음),
+ * 요청이 끝났을 때 보관하기로 한 경우에만 Trace로 복사한다. (느린 요청도 단계별 시간이 남는다)
+ */
+class TraceBuffer {
+
+    static final int MAX_SPANS = 32;
+
+    final Phase[] phases = new Phase[MAX_SPANS];
+    final long[] starts = new long[MAX_SPANS];
+    final long[] ends = new long[MAX_SPANS];
+    int size;
+
+    /** 이번 요청이 샘플에 뽑혔는지 (느리지 않아도 보관한다) */
+    boolean sampled;
+    long startNanos;
+    long startMillis;
+    Object handler;
+
+    void reset(boolean sampled) {
+        this.sampled = sampled;
+        this.size = 0;
+        this.handler = null;
+        this.startNanos = System.nanoTime();
+        this.startMillis = System.currentTimeMillis();
+    }
+
+    int begin(Phase phase) {
+        if (size == MAX_SPANS) {
+            return -1;
+        }
+        int span = size++;
+        phases[span] = phase;
+        starts[span] = System.nanoTime();
+        ends[span] = 0;
+        return span;
+    }
+
+    void end(int span) {
+        if (span >= 0) {
+            ends[span] = System.nanoTime();
+        }
+    }
+
+}
@@ -0,0 +1,60 @@
+package hello.springmvc.trace;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.web.servlet.DispatcherServletAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcProperties;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcRegistrations;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.servlet.DispatcherServlet;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+/**
+ * tracing.enabled=true 이면 DispatcherServlet과 RequestMappingHandlerAdapter를
+ * 단계별 span을 기록하는 구현으로 교체한다.
+ */
+@Configuration
+@EnableConfigurationProperties({TraceProperties.class, WebMvcProperties.class})
+@ConditionalOnProperty(prefix = "tracing", name = "enabled", havingValue = "true")
+public class TraceConfig {
+
+    @Bean
+    public RequestTracer requestTracer(TraceProperties properties) {
+        return new RequestTracer(properties);
+    }
+
+    @Bean
+    public FilterRegistrationBean<TracingFilter> tracingFilter(RequestTracer requestTracer) {
+        FilterRegistrationBean<TracingFilter> registration = new FilterRegistrationBean<>(new TracingFilter(requestTracer));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    /**
+     * 스프링 부트 기본 DispatcherServlet 과 같은 설정을 적용한다. (DispatcherServletAutoConfiguration 참고)
+     */
+    @Bean(name = DispatcherServletAutoConfiguration.DEFAULT_DISPATCHER_SERVLET_BEAN_NAME)
+    public DispatcherServlet dispatcherServlet(RequestTracer requestTracer, WebMvcProperties webMvcProperties) {
+        DispatcherServlet dispatcherServlet = new TracingDispatcherServlet(requestTracer);
+        dispatcherServlet.setDispatchOptionsRequest(webMvcProperties.isDispatchOptionsRequest());
+        dispatcherServlet.setDispatchTraceRequest(webMvcProperties.isDispatchTraceRequest());
+        dispatcherServlet.setThrowExceptionIfNoHandlerFound(webMvcProperties.isThrowExceptionIfNoHandlerFound());
+        dispatcherServlet.setPublishEvents(webMvcProperties.isPublishRequestHandledEvents());
+        dispatcherServlet.setEnableLoggingRequestDetails(webMvcProperties.isLogRequestDetails());
+        return dispatcherServlet;
+    }
+
+    @Bean
+    public WebMvcRegistrations tracingWebMvcRegistrations(RequestTracer requestTracer) {
+        return new WebMvcRegistrations() {
+            @Override
+            public RequestMappingHandlerAdapter getRequestMappingHandlerAdapter() {
+                return new TracingRequestMappingHandlerAdapter(requestTracer);
+            }
+        };
+    }
+
+}
@@ -0,0 +1,25 @@
+package hello.springmvc.trace;
+
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * 최근 trace 조회 (최신 순)
+ * GET /internal/traces
+ */
+@RestController
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "tracing", name = "enabled", havingValue = "true")
+public class TraceController {
+
+    private final RequestTracer tracer;
+
+    @GetMapping("/internal/traces")
+    public List<Trace> traces() {
+        return tracer.recent();
+    }
+
+}
@@ -0,0 +1,24 @@
+package hello.springmvc.trace;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * tracing.* 설정
+ * - sample-rate: 느리지 않아도 보관할 요청 비율 (0.0 ~ 1.0)
+ * - slow-threshold: 이 시간보다 오래 걸린 요청은 샘플링과 관계없이 단계별 span 과 함께 남긴다
+ * - capacity: 보관하는 최근 trace 개수
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "tracing")
+public class TraceProperties {
+
+    private boolean enabled = false;
+    private double sampleRate = 0.01;
+    private Duration slowThreshold = Duration.ofMillis(500);
+    private int capacity = 100;
+
+}
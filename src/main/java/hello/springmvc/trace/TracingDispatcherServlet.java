@@ -0,0 +1,44 @@
+package hello.springmvc.trace;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.DispatcherServlet;
+import org.springframework.web.servlet.HandlerExecutionChain;
+import org.springframework.web.servlet.ModelAndView;
+
+/**
+ * 핸들러 조회와 뷰 렌더링 구간을 기록하는 DispatcherServlet
+ */
+public class TracingDispatcherServlet extends DispatcherServlet {
+
+    private final RequestTracer tracer;
+
+    public TracingDispatcherServlet(RequestTracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Override
+    protected HandlerExecutionChain getHandler(HttpServletRequest request) throws Exception {
+        int span = tracer.begin(Phase.HANDLER_LOOKUP);
+        try {
+            HandlerExecutionChain chain = super.getHandler(request);
+            if (chain != null) {
+                tracer.handler(chain.getHandler());
+            }
+            return chain;
+        } finally {
+            tracer.end(span);
+        }
+    }
+
+    @Override
+    protected void render(ModelAndView mv, HttpServletRequest request, HttpServletResponse response) throws Exception {
+        int span = tracer.begin(Phase.VIEW_RENDER);
+        try {
+            super.render(mv, request, response);
+        } finally {
+            tracer.end(span);
+        }
+    }
+
+}
@@ -0,0 +1,35 @@
+package hello.springmvc.trace;
+
+import java.io.IOException;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * 요청의 시작과 끝을 RequestTracer에 알린다.
+ */
+@RequiredArgsConstructor
+public class TracingFilter extends OncePerRequestFilter {
+
+    private final RequestTracer tracer;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+        throws ServletException, IOException {
+        tracer.start();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            tracer.finish(request, response);
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith("/internal/");
+    }
+
+}
@@ -0,0 +1,90 @@
+package hello.springmvc.trace;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.method.support.HandlerMethodReturnValueHandlerComposite;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+import org.springframework.web.servlet.mvc.method.annotation.ServletInvocableHandlerMethod;
+
+/**
+ * 인자 바인딩, 핸들러 실행, 반환 값 처리 구간을 기록하는 RequestMappingHandlerAdapter
+ */
+public class TracingRequestMappingHandlerAdapter extends RequestMappingHandlerAdapter {
+
+    private final RequestTracer tracer;
+
+    public TracingRequestMappingHandlerAdapter(RequestTracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Override
+    protected ServletInvocableHandlerMethod createInvocableHandlerMethod(HandlerMethod handlerMethod) {
+        return new TracingInvocableHandlerMethod(handlerMethod, tracer);
+    }
+
+    static class TracingInvocableHandlerMethod extends ServletInvocableHandlerMethod {
+
+        private final RequestTracer tracer;
+
+        TracingInvocableHandlerMethod(HandlerMethod handlerMethod, RequestTracer tracer) {
+            super(handlerMethod);
+            this.tracer = tracer;
+        }
+
+        @Override
+        protected Object[] getMethodArgumentValues(NativeWebRequest request, ModelAndViewContainer mavContainer,
+                                                   Object... providedArgs) throws Exception {
+            int span = tracer.begin(Phase.ARGUMENT_RESOLUTION);
+            try {
+                return super.getMethodArgumentValues(request, mavContainer, providedArgs);
+            } finally {
+                tracer.end(span);
+            }
+        }
+
+        @Override
+        protected Object doInvoke(Object... args) throws Exception {
+            int span = tracer.begin(Phase.HANDLER);
+            try {
+                return super.doInvoke(args);
+            } finally {
+                tracer.end(span);
+            }
+        }
+
+        @Override
+        public void setHandlerMethodReturnValueHandlers(HandlerMethodReturnValueHandlerComposite handlers) {
+            super.setHandlerMethodReturnValueHandlers(new TracingReturnValueHandlers(handlers, tracer));
+        }
+    }
+
+    static class TracingReturnValueHandlers extends HandlerMethodReturnValueHandlerComposite {
+
+        private final HandlerMethodReturnValueHandlerComposite delegate;
+        private final RequestTracer tracer;
+
+        TracingReturnValueHandlers(HandlerMethodReturnValueHandlerComposite delegate, RequestTracer tracer) {
+            this.delegate = delegate;
+            this.tracer = tracer;
+        }
+
+        @Override
+        public boolean supportsReturnType(MethodParameter returnType) {
+            return delegate.supportsReturnType(returnType);
+        }
+
+        @Override
+        public void handleReturnValue(Object returnValue, MethodParameter returnType,
+                                      ModelAndViewContainer mavContainer, NativeWebRequest webRequest) throws Exception {
+            int span = tracer.begin(Phase.RETURN_VALUE);
+            try {
+                delegate.handleReturnValue(returnValue, returnType, mavContainer, webRequest);
+            } finally {
+                tracer.end(span);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,82 @@
+package hello.springmvc.view;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * getWriter()로 chunkSize 글자를 쓸 때마다 실제 응답을 flush 하는 래퍼
+ * 전체 출력을 모으지 않고 렌더링 중간에 Transfer-Encoding: chunked 로 내보낸다.
+ */
+class ChunkedFlushingResponse extends HttpServletResponseWrapper {
+
+    private final int chunkSize;
+    private PrintWriter writer;
+
+    ChunkedFlushingResponse(HttpServletResponse response, int chunkSize) {
+        super(response);
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (writer == null) {
+            writer = new PrintWriter(new FlushingWriter(super.getWriter(), chunkSize));
+        }
+        return writer;
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        super.flushBuffer();
+    }
+
+    private static class FlushingWriter extends Writer {
+
+        private final Writer delegate;
+        private final int chunkSize;
+        private int pending;
+
+        private FlushingWriter(Writer delegate, int chunkSize) {
+            this.delegate = delegate;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        public void write(char[] buffer, int offset, int length) throws IOException {
+            delegate.write(buffer, offset, length);
+            pending += length;
+            if (pending >= chunkSize) {
+                delegate.flush();
+                pending = 0;
+            }
+        }
+
+        @Override
+        public void write(String text, int offset, int length) throws IOException {
+            delegate.write(text, offset, length);
+            pending += length;
+            if (pending >= chunkSize) {
+                delegate.flush();
+                pending = 0;
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            delegate.flush();
+            pending = 0;
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+    }
+
+}
@@ -0,0 +1,35 @@
+package hello.springmvc.view;
+
+import java.util.Map;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.View;
+
+/**
+ * 실제 뷰(Thymeleaf)의 출력을 chunkSize 단위로 클라이언트에 흘려보내는 뷰
+ * 모델의 Iterable/Iterator 속성은 th:each가 하나씩 꺼내므로, 전체 목록을 메모리에 올리지 않아도 된다.
+ */
+public class ChunkedStreamingView implements View {
+
+    private final View delegate;
+    private final int chunkSize;
+
+    public ChunkedStreamingView(View delegate, int chunkSize) {
+        this.delegate = delegate;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public String getContentType() {
+        return delegate.getContentType();
+    }
+
+    @Override
+    public void render(Map<String, ?> model, HttpServletRequest request, HttpServletResponse response) throws Exception {
+        response.setBufferSize(chunkSize);
+        ChunkedFlushingResponse chunkedResponse = new ChunkedFlushingResponse(response, chunkSize);
+        delegate.render(model, request, chunkedResponse);
+        chunkedResponse.flushBuffer();
+    }
+
+}
@@ -0,0 +1,18 @@
+package hello.springmvc.view;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.thymeleaf.spring5.view.ThymeleafViewResolver;
+
+@Configuration
+@EnableConfigurationProperties(StreamingViewProperties.class)
+public class StreamingViewConfig {
+
+    @Bean
+    public StreamingViewResolver streamingViewResolver(ThymeleafViewResolver thymeleafViewResolver,
+                                                       StreamingViewProperties properties) {
+        return new StreamingViewResolver(thymeleafViewResolver, (int) properties.getChunkSize().toBytes());
+    }
+
+}
@@ -0,0 +1,19 @@
+package hello.springmvc.view;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * streaming-view.* 설정
+ * - chunk-size: 렌더링 중 이 크기만큼 출력이 쌓일 때마다 클라이언트로 flush
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "streaming-view")
+public class StreamingViewProperties {
+
+    private DataSize chunkSize = DataSize.ofKilobytes(8);
+
+}
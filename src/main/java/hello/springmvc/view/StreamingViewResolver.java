@@ -0,0 +1,39 @@
+package hello.springmvc.view;
+
+import java.util.Locale;
+import org.springframework.core.Ordered;
+import org.springframework.web.servlet.View;
+import org.springframework.web.servlet.ViewResolver;
+import org.thymeleaf.spring5.view.ThymeleafViewResolver;
+
+/**
+ * "stream:" 으로 시작하는 뷰 이름을 처리한다. ("redirect:", "forward:" 와 같은 방식)
+ * 예) return "stream:response/report" -> templates/response/report.html 을 스트리밍 렌더링
+ */
+public class StreamingViewResolver implements ViewResolver, Ordered {
+
+    public static final String STREAM_URL_PREFIX = "stream:";
+
+    private final ThymeleafViewResolver thymeleafViewResolver;
+    private final int chunkSize;
+
+    public StreamingViewResolver(ThymeleafViewResolver thymeleafViewResolver, int chunkSize) {
+        this.thymeleafViewResolver = thymeleafViewResolver;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public View resolveViewName(String viewName, Locale locale) throws Exception {
+        if (!viewName.startsWith(STREAM_URL_PREFIX)) {
+            return null;
+        }
+        View view = thymeleafViewResolver.resolveViewName(viewName.substring(STREAM_URL_PREFIX.length()), locale);
+        return view != null ? new ChunkedStreamingView(view, chunkSize) : null;
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+}
@@ -0,0 +1,51 @@
+package hello.springmvc.warmup;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * 워밍업이 끝난 뒤 들어온 첫 실제 요청의 지연 시간을 잰다.
+ * 워밍업 요청(X-Warmup 헤더)과 exclude-patterns 경로(/internal/** 등)는 세지 않는다.
+ */
+public class FirstRequestFilter extends OncePerRequestFilter {
+
+    private final WarmupRunner warmupRunner;
+    private final WarmupRequestFactory requestFactory;
+    private final WarmupProperties properties;
+    private final AtomicBoolean recorded = new AtomicBoolean();
+
+    public FirstRequestFilter(WarmupRunner warmupRunner, WarmupRequestFactory requestFactory, WarmupProperties properties) {
+        this.warmupRunner = warmupRunner;
+        this.requestFactory = requestFactory;
+        this.properties = properties;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+        throws ServletException, IOException {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (recorded.get() || !warmupRunner.isFinished() || request.getHeader(properties.getRequestHeader()) != null
+            || requestFactory.isExcluded(request.getMethod(), path)) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            if (recorded.compareAndSet(false, true)) {
+                Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                warmupRunner.recordFirstRequest(request.getMethod(), pattern != null ? pattern.toString() : path, elapsed);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,65 @@
+package hello.springmvc.warmup;
+
+/**
+ * 매핑 하나의 워밍업 결과
+ * 첫 호출(인터프리터, 클래스 로딩 포함)과 마지막 호출(JIT 컴파일 후)의 지연 시간을 남긴다.
+ */
+public class MappingWarmup {
+
+    private final String key;
+    private final String request;
+    private long calls;
+    private long errors;
+    private int lastStatus;
+    private long firstNanos;
+    private long lastNanos;
+
+    MappingWarmup(String key, String request) {
+        this.key = key;
+        this.request = request;
+    }
+
+    /**
+     * @param status HTTP 상태 코드, 전송에 실패하면 -1
+     */
+    synchronized void record(long nanos, int status) {
+        if (calls == 0) {
+            firstNanos = nanos;
+        }
+        calls++;
+        lastNanos = nanos;
+        lastStatus = status;
+        if (status < 0 || status >= 500) {
+            errors++;
+        }
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public String getRequest() {
+        return request;
+    }
+
+    public synchronized long getCalls() {
+        return calls;
+    }
+
+    public synchronized long getErrors() {
+        return errors;
+    }
+
+    public synchronized int getLastStatus() {
+        return lastStatus;
+    }
+
+    public synchronized double getFirstMillis() {
+        return firstNanos / 1e6;
+    }
+
+    public synchronized double getLastMillis() {
+        return lastNanos / 1e6;
+    }
+
+}
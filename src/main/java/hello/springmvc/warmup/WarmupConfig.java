@@ -0,0 +1,48 @@
+package hello.springmvc.warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.logging.LoggingSystem;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+/**
+ * warmup.enabled=true 이면 준비 완료를 알리기 전에 모든 핸들러 매핑에 합성 요청을 보낸다.
+ */
+@Configuration
+@EnableConfigurationProperties(WarmupProperties.class)
+@ConditionalOnProperty(prefix = "warmup", name = "enabled", havingValue = "true")
+public class WarmupConfig {
+
+    @Bean
+    public WarmupRequestFactory warmupRequestFactory(WarmupProperties properties, ObjectMapper objectMapper) {
+        return new WarmupRequestFactory(properties, objectMapper);
+    }
+
+    @Bean
+    public WarmupRunner warmupRunner(WarmupProperties properties, WarmupRequestFactory warmupRequestFactory,
+                                     RequestMappingHandlerMapping requestMappingHandlerMapping,
+                                     ApplicationContext applicationContext, LoggingSystem loggingSystem) {
+        return new WarmupRunner(properties, warmupRequestFactory, requestMappingHandlerMapping,
+            applicationContext, loggingSystem);
+    }
+
+    /**
+     * 다른 필터(trace, 워커 풀 지연 시간 측정, 바디 스풀)를 포함한 시간을 재도록 앞쪽에 등록한다.
+     */
+    @Bean
+    public FilterRegistrationBean<FirstRequestFilter> firstRequestFilter(WarmupRunner warmupRunner,
+                                                                       WarmupRequestFactory warmupRequestFactory,
+                                                                       WarmupProperties properties) {
+        FilterRegistrationBean<FirstRequestFilter> registration =
+            new FilterRegistrationBean<>(new FirstRequestFilter(warmupRunner, warmupRequestFactory, properties));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return registration;
+    }
+
+}
@@ -0,0 +1,28 @@
+package hello.springmvc.warmup;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * 워밍업 상태, 매핑별 첫 호출/마지막 호출 지연 시간, 워밍업 이후 첫 실제 요청
+ * GET /internal/warmup
+ */
+@RestController
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "warmup", name = "enabled", havingValue = "true")
+public class WarmupController {
+
+    private final WarmupRunner warmupRunner;
+    private final ApplicationAvailability applicationAvailability;
+
+    @GetMapping("/internal/warmup")
+    public WarmupStats stats() {
+        WarmupStats stats = warmupRunner.stats();
+        stats.setReadiness(applicationAvailability.getReadinessState().name());
+        return stats;
+    }
+
+}
@@ -0,0 +1,41 @@
+package hello.springmvc.warmup;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * warmup.* 설정
+ * - iterations, max-duration: 모든 매핑을 한 바퀴 도는 것을 iterations 번 반복한다. max-duration 이 먼저 지나면 멈춘다.
+ * - concurrency: 동시에 요청을 보내는 스레드 수
+ * - methods: 합성 요청을 보낼 HTTP 메서드 (기본 GET, HEAD). 상태를 바꿀 수 있는 POST, PUT, PATCH, DELETE 는
+ *   여기에 넣어야 보내므로, 쓰기 요청을 보내도 되는지 exclude-patterns 와 함께 확인하고 켠다.
+ * - exclude-patterns: 호출하지 않을 경로 (Ant 패턴, "DELETE /mapping/users/**" 처럼 메서드를 붙일 수 있다)
+ * - sample-values: 경로 변수, 요청 파라미터, 헤더, JSON 필드 이름별 값 (없으면 타입에 맞는 기본 값)
+ * - default-body: 타입으로 바디를 만들 수 없을 때(String, InputStream 등) 보내는 바디
+ * - quiet-loggers: 워밍업 동안 끌 로거 (핸들러가 요청마다 남기는 로그)
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "warmup")
+public class WarmupProperties {
+
+    private boolean enabled = false;
+    private int iterations = 200;
+    private Duration maxDuration = Duration.ofSeconds(30);
+    private int concurrency = 2;
+    private Duration requestTimeout = Duration.ofSeconds(5);
+    private String requestHeader = "X-Warmup";
+    private List<String> methods = new ArrayList<>(Arrays.asList("GET", "HEAD"));
+    private List<String> excludePatterns = new ArrayList<>(Arrays.asList("/internal/**", "/error"));
+    private Map<String, String> sampleValues = new LinkedHashMap<>();
+    private String defaultBody = "{\"username\": \"warmup\", \"age\": 20}";
+    private List<String> quietLoggers = new ArrayList<>(Arrays.asList("hello.springmvc.basic"));
+
+}
@@ -0,0 +1,32 @@
+package hello.springmvc.warmup;
+
+import java.util.Map;
+import lombok.Getter;
+
+/**
+ * 매핑 하나에 보내는 합성 요청
+ * key 는 "메서드 매핑 패턴" 이고, 실제 요청의 통계와 맞춰 보는 데 쓴다.
+ */
+@Getter
+class WarmupRequest {
+
+    private final String key;
+    private final String method;
+    private final String uri;
+    private final Map<String, String> headers;
+    private final String body;
+
+    WarmupRequest(String key, String method, String uri, Map<String, String> headers, String body) {
+        this.key = key;
+        this.method = method;
+        this.uri = uri;
+        this.headers = headers;
+        this.body = body;
+    }
+
+    @Override
+    public String toString() {
+        return method + " " + uri;
+    }
+
+}
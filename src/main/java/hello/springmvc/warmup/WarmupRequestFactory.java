@@ -0,0 +1,339 @@
+package hello.springmvc.warmup;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.beans.PropertyDescriptor;
+import java.io.InputStream;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import javax.servlet.ServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.StringUtils;
+import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ValueConstants;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.condition.NameValueExpression;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * 핸들러 매핑 정보로 합성 요청을 만든다.
+ * - 경로 변수 {userId} -> sample-values 또는 @PathVariable 타입의 기본 값
+ * - params/headers 조건 (mode=debug) -> 그대로 파라미터/헤더로 넣는다
+ * - consumes/produces -> Content-Type/Accept
+ * - @RequestParam, 애노테이션 없는 단순 타입 인자 -> 요청 파라미터
+ * - @ModelAttribute 객체 -> 쓰기 가능한 단순 타입 프로퍼티를 요청 파라미터로
+ * - @RequestBody, HttpEntity 객체 -> 단순 타입 프로퍼티를 채운 객체를 JSON 으로
+ * 바디를 만들 수 없는 타입(String, InputStream, Reader 등)이거나 POST/PUT/PATCH 인데 바디가 없으면 default-body 를 보낸다.
+ *
+ * 실패해도 되는 요청이다. (필수 값이 빠져 400 이 나와도 매핑 조회, 바인딩, 예외 처리 경로는 실행된다)
+ */
+@Slf4j
+public class WarmupRequestFactory {
+
+    private static final Pattern PATH_VARIABLE = Pattern.compile("\\{([^}:]+)(?::[^}]*)?}");
+    private static final Set<String> RESTRICTED_HEADERS = Set.of("host", "connection", "content-length", "expect", "upgrade");
+
+    private final WarmupProperties properties;
+    private final ObjectMapper objectMapper;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final ParameterNameDiscoverer parameterNameDiscoverer = new DefaultParameterNameDiscoverer();
+
+    public WarmupRequestFactory(WarmupProperties properties, ObjectMapper objectMapper) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+    }
+
+    public List<WarmupRequest> create(Map<RequestMappingInfo, HandlerMethod> handlerMethods) {
+        List<WarmupRequest> requests = new ArrayList<>();
+        handlerMethods.forEach((info, handlerMethod) -> {
+            for (String pattern : info.getPatternValues()) {
+                if (pattern.contains("*")) {
+                    continue;
+                }
+                String missing = missingPathVariable(handlerMethod, pattern);
+                if (missing != null) {
+                    log.warn("warm-up skips {} {}: @PathVariable {} is not in the pattern", pattern, handlerMethod, missing);
+                    continue;
+                }
+                WarmupRequest request = create(info, handlerMethod, pattern);
+                if (isAllowedMethod(request.getMethod()) && !isExcluded(request.getMethod(), pattern)) {
+                    requests.add(request);
+                }
+            }
+        });
+        return requests;
+    }
+
+    private WarmupRequest create(RequestMappingInfo info, HandlerMethod handlerMethod, String pattern) {
+        Map<String, Class<?>> pathVariableTypes = new LinkedHashMap<>();
+        Map<String, String> params = new LinkedHashMap<>();
+        Map<String, String> headers = new LinkedHashMap<>();
+        String body = null;
+        boolean bodyParameter = false;
+
+        for (MethodParameter handlerParameter : handlerMethod.getMethodParameters()) {
+            // 핸들러 실행에 쓰는 인스턴스는 건드리지 않는다
+            MethodParameter parameter = handlerParameter.clone();
+            parameter.initParameterNameDiscovery(parameterNameDiscoverer);
+            Class<?> type = parameter.getParameterType();
+
+            PathVariable pathVariable = parameter.getParameterAnnotation(PathVariable.class);
+            if (pathVariable != null) {
+                pathVariableTypes.put(name(pathVariable.name(), parameter), type);
+                continue;
+            }
+            RequestParam requestParam = parameter.getParameterAnnotation(RequestParam.class);
+            if (requestParam != null) {
+                String name = name(requestParam.name(), parameter);
+                boolean hasDefault = !ValueConstants.DEFAULT_NONE.equals(requestParam.defaultValue());
+                if (!Map.class.isAssignableFrom(type) && (!hasDefault || properties.getSampleValues().containsKey(name))) {
+                    params.put(name, sampleValue(name, type));
+                }
+                continue;
+            }
+            RequestHeader requestHeader = parameter.getParameterAnnotation(RequestHeader.class);
+            if (requestHeader != null) {
+                String name = name(requestHeader.name(), parameter);
+                if (!Map.class.isAssignableFrom(type) && !HttpHeaders.class.isAssignableFrom(type)
+                    && !RESTRICTED_HEADERS.contains(name.toLowerCase())) {
+                    headers.put(name, sampleValue(name, type));
+                }
+                continue;
+            }
+            if (parameter.hasParameterAnnotation(RequestBody.class) || HttpEntity.class.isAssignableFrom(type)) {
+                bodyParameter = true;
+                Class<?> bodyType = HttpEntity.class.isAssignableFrom(type)
+                    ? parameter.nested().getNestedParameterType() : type;
+                body = Collection.class.isAssignableFrom(bodyType) || bodyType.isArray()
+                    ? jsonArrayBody(parameter) : jsonBody(bodyType);
+                continue;
+            }
+            if (InputStream.class.isAssignableFrom(type) || Reader.class.isAssignableFrom(type)) {
+                bodyParameter = true;
+                continue;
+            }
+            if (ServletRequest.class.isAssignableFrom(type)) {
+                // 어떤 파라미터를 직접 읽는지 알 수 없으므로 sample-values 를 모두 넣는다
+                properties.getSampleValues().forEach(params::putIfAbsent);
+                continue;
+            }
+            if (isSimpleParameter(type) && parameter.getParameterName() != null && parameter.getParameterAnnotations().length == 0) {
+                params.put(parameter.getParameterName(), sampleValue(parameter.getParameterName(), type));
+                continue;
+            }
+            if (parameter.hasParameterAnnotation(ModelAttribute.class) || isModelAttributeCandidate(type)) {
+                beanProperties(type).forEach(params::putIfAbsent);
+            }
+        }
+
+        for (NameValueExpression<String> expression : info.getParamsCondition().getExpressions()) {
+            if (!expression.isNegated()) {
+                params.put(expression.getName(), expression.getValue() != null
+                    ? expression.getValue() : sampleValue(expression.getName(), String.class));
+            }
+        }
+        for (NameValueExpression<String> expression : info.getHeadersCondition().getExpressions()) {
+            if (!expression.isNegated() && !RESTRICTED_HEADERS.contains(expression.getName().toLowerCase())) {
+                headers.put(expression.getName(), expression.getValue() != null
+                    ? expression.getValue() : sampleValue(expression.getName(), String.class));
+            }
+        }
+
+        String method = method(info, bodyParameter);
+        if (body == null && (bodyParameter || "POST".equals(method) || "PUT".equals(method) || "PATCH".equals(method))) {
+            body = properties.getDefaultBody();
+        }
+        if (body != null) {
+            headers.putIfAbsent(HttpHeaders.CONTENT_TYPE, first(info.getConsumesCondition().getConsumableMediaTypes(),
+                MediaType.APPLICATION_JSON_VALUE));
+        }
+        String accept = first(info.getProducesCondition().getProducibleMediaTypes(), null);
+        if (accept != null) {
+            headers.putIfAbsent(HttpHeaders.ACCEPT, accept);
+        }
+        headers.put(properties.getRequestHeader(), "true");
+
+        UriComponentsBuilder uri = UriComponentsBuilder.fromPath(expandPath(pattern, pathVariableTypes));
+        params.forEach(uri::queryParam);
+        return new WarmupRequest(method + " " + pattern, method, uri.encode().build().toUriString(), headers, body);
+    }
+
+    /**
+     * 경로에 없는 필수 @PathVariable 은 항상 500 이므로 호출하지 않는다.
+     */
+    private String missingPathVariable(HandlerMethod handlerMethod, String pattern) {
+        Set<String> variables = new HashSet<>();
+        Matcher matcher = PATH_VARIABLE.matcher(pattern);
+        while (matcher.find()) {
+            variables.add(matcher.group(1));
+        }
+        for (MethodParameter handlerParameter : handlerMethod.getMethodParameters()) {
+            PathVariable pathVariable = handlerParameter.getParameterAnnotation(PathVariable.class);
+            if (pathVariable == null || !pathVariable.required() || handlerParameter.isOptional()
+                || Map.class.isAssignableFrom(handlerParameter.getParameterType())) {
+                continue;
+            }
+            MethodParameter parameter = handlerParameter.clone();
+            parameter.initParameterNameDiscovery(parameterNameDiscoverer);
+            String name = name(pathVariable.name(), parameter);
+            if (!variables.contains(name)) {
+                return name;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * exclude-patterns 항목은 "/internal/**" 처럼 경로만 쓰거나 "DELETE /mapping/users/**" 처럼 메서드를 앞에 붙인다.
+     */
+    private boolean isAllowedMethod(String method) {
+        return properties.getMethods().stream().anyMatch(allowed -> allowed.trim().equalsIgnoreCase(method));
+    }
+
+    public boolean isExcluded(String method, String path) {
+        for (String exclude : properties.getExcludePatterns()) {
+            String pattern = exclude.trim();
+            int space = pattern.indexOf(' ');
+            if (space > 0) {
+                if (!pattern.substring(0, space).equalsIgnoreCase(method)) {
+                    continue;
+                }
+                pattern = pattern.substring(space + 1).trim();
+            }
+            if (pathMatcher.match(pattern, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 선언된 메서드가 여러 개면 GET 을 먼저 고른다. 선언이 없으면 바디가 필요한 핸들러는 POST, 나머지는 GET
+     */
+    private static String method(RequestMappingInfo info, boolean bodyParameter) {
+        Set<RequestMethod> methods = info.getMethodsCondition().getMethods();
+        if (methods.isEmpty()) {
+            return bodyParameter ? "POST" : "GET";
+        }
+        return methods.contains(RequestMethod.GET) ? "GET" : methods.iterator().next().name();
+    }
+
+    private String expandPath(String pattern, Map<String, Class<?>> pathVariableTypes) {
+        Matcher matcher = PATH_VARIABLE.matcher(pattern);
+        StringBuffer path = new StringBuffer();
+        while (matcher.find()) {
+            String name = matcher.group(1);
+            String value = sampleValue(name, pathVariableTypes.getOrDefault(name, String.class));
+            matcher.appendReplacement(path, Matcher.quoteReplacement(value));
+        }
+        matcher.appendTail(path);
+        return path.toString();
+    }
+
+    private String jsonBody(Class<?> type) {
+        if (!isModelAttributeCandidate(type)) {
+            return null;
+        }
+        try {
+            Object value = BeanUtils.instantiateClass(type);
+            BeanWrapper wrapper = PropertyAccessorFactory.forBeanPropertyAccess(value);
+            beanProperties(type).forEach(wrapper::setPropertyValue);
+            return objectMapper.writeValueAsString(value);
+        } catch (RuntimeException | JsonProcessingException e) {
+            log.debug("warm-up body for {} failed, using default body", type.getName(), e);
+            return null;
+        }
+    }
+
+    /**
+     * 배열 바디는 요소 하나를 담은 배열로 보낸다. 요소 타입이 객체가 아니면(JsonNode 등) default-body 를 담는다.
+     */
+    private String jsonArrayBody(MethodParameter parameter) {
+        ResolvableType type = ResolvableType.forMethodParameter(parameter);
+        if (HttpEntity.class.isAssignableFrom(parameter.getParameterType())) {
+            type = type.getGeneric(0);
+        }
+        Class<?> elementType = type.isArray() ? type.getComponentType().resolve() : type.asCollection().resolveGeneric(0);
+        String element = elementType != null ? jsonBody(elementType) : null;
+        return "[" + (element != null ? element : properties.getDefaultBody()) + "]";
+    }
+
+    private Map<String, String> beanProperties(Class<?> type) {
+        Map<String, String> values = new LinkedHashMap<>();
+        for (PropertyDescriptor descriptor : BeanUtils.getPropertyDescriptors(type)) {
+            if (descriptor.getWriteMethod() != null && isSimpleParameter(descriptor.getPropertyType())) {
+                values.put(descriptor.getName(), sampleValue(descriptor.getName(), descriptor.getPropertyType()));
+            }
+        }
+        return values;
+    }
+
+    private String sampleValue(String name, Class<?> type) {
+        String value = properties.getSampleValues().get(name);
+        if (value != null) {
+            return value;
+        }
+        Class<?> wrapper = ClassUtils.resolvePrimitiveIfNecessary(type);
+        if (Number.class.isAssignableFrom(wrapper)) {
+            return "1";
+        }
+        if (Boolean.class == wrapper) {
+            return "true";
+        }
+        return "warmup";
+    }
+
+    private static String name(String annotated, MethodParameter parameter) {
+        return StringUtils.hasText(annotated) ? annotated : parameter.getParameterName();
+    }
+
+    private static boolean isSimpleParameter(Class<?> type) {
+        Class<?> wrapper = ClassUtils.resolvePrimitiveIfNecessary(type);
+        return CharSequence.class.isAssignableFrom(wrapper) || Number.class.isAssignableFrom(wrapper)
+            || Boolean.class == wrapper;
+    }
+
+    /**
+     * 애플리케이션 패키지의 기본 생성자가 있는 클래스만 (서블릿, 스프링 타입은 프레임워크가 채운다)
+     */
+    private static boolean isModelAttributeCandidate(Class<?> type) {
+        return !BeanUtils.isSimpleProperty(type) && !type.getName().startsWith("java")
+            && !type.getName().startsWith("org.springframework.") && ClassUtils.hasConstructor(type);
+    }
+
+    private static String first(Set<MediaType> mediaTypes, String defaultValue) {
+        for (MediaType mediaType : mediaTypes) {
+            if (mediaType.isConcrete()) {
+                return mediaType.toString();
+            }
+        }
+        return defaultValue;
+    }
+
+}
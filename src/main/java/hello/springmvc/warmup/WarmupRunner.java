@@ -0,0 +1,243 @@
+package hello.springmvc.warmup;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.ToDoubleFunction;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.logging.LogLevel;
+import org.springframework.boot.logging.LoggerConfiguration;
+import org.springframework.boot.logging.LoggingSystem;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ApplicationContext;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+/**
+ * 웹 서버가 뜬 다음, 준비 완료(ReadinessState.ACCEPTING_TRAFFIC)를 알리기 전에 모든 매핑에 합성 요청을 보낸다.
+ *
+ * 스프링 부트는 ApplicationRunner 가 모두 끝난 뒤에 ApplicationReadyEvent 와 ACCEPTING_TRAFFIC 을 발행하므로,
+ * 로드밸런서가 readiness 를 보고 트래픽을 넣는다면 첫 실제 요청은 JIT 컴파일된 코드(바인딩, 변환, Jackson, 뷰)를 탄다.
+ * 요청은 실제 포트로 보내서 Tomcat, 필터, 인터셉터 경로도 함께 데운다.
+ */
+@Slf4j
+public class WarmupRunner implements ApplicationRunner {
+
+    private final WarmupProperties properties;
+    private final WarmupRequestFactory requestFactory;
+    private final RequestMappingHandlerMapping handlerMapping;
+    private final ApplicationContext applicationContext;
+    private final LoggingSystem loggingSystem;
+
+    private final Map<String, MappingWarmup> mappings = new LinkedHashMap<>();
+    private final AtomicInteger completedIterations = new AtomicInteger();
+    private volatile String state = "PENDING";
+    private volatile long durationNanos;
+    private volatile boolean timedOut;
+    private volatile String firstRequest;
+    private volatile long firstRequestNanos;
+
+    public WarmupRunner(WarmupProperties properties, WarmupRequestFactory requestFactory,
+                        RequestMappingHandlerMapping handlerMapping, ApplicationContext applicationContext,
+                        LoggingSystem loggingSystem) {
+        this.properties = properties;
+        this.requestFactory = requestFactory;
+        this.handlerMapping = handlerMapping;
+        this.applicationContext = applicationContext;
+        this.loggingSystem = loggingSystem;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        if (properties.getIterations() <= 0 || !(applicationContext instanceof WebServerApplicationContext)
+            || ((WebServerApplicationContext) applicationContext).getWebServer() == null) {
+            state = "SKIPPED";
+            log.info("warm-up skipped (iterations={}, web server not running or disabled)", properties.getIterations());
+            return;
+        }
+
+        List<WarmupRequest> requests = requestFactory.create(handlerMapping.getHandlerMethods());
+        synchronized (mappings) {
+            for (WarmupRequest request : requests) {
+                mappings.put(request.getKey(), new MappingWarmup(request.getKey(), request.toString()));
+            }
+        }
+        state = "RUNNING";
+        log.info("warm-up start: mappings={}, iterations={}, concurrency={}, max-duration={}",
+            requests.size(), properties.getIterations(), properties.getConcurrency(), properties.getMaxDuration());
+
+        Map<String, LogLevel> quieted = quietLoggers();
+        long start = System.nanoTime();
+        try {
+            runIterations(requests, baseUrl(), start + properties.getMaxDuration().toNanos());
+        } finally {
+            durationNanos = System.nanoTime() - start;
+            quieted.forEach(loggingSystem::setLogLevel);
+            state = "DONE";
+        }
+
+        WarmupStats stats = stats();
+        log.info("warm-up done in {}ms: mappings={}, iterations={}, requests={}, errors={}, timedOut={}, "
+                + "median latency first call={}ms -> last call={}ms",
+            stats.getDurationMillis(), stats.getMappings(), stats.getIterations(), stats.getRequests(), stats.getErrors(),
+            stats.isTimedOut(), String.format("%.2f", stats.getMedianFirstCallMillis()),
+            String.format("%.2f", stats.getMedianLastCallMillis()));
+        for (MappingWarmup mapping : stats.getMappingResults()) {
+            if (mapping.getErrors() > 0) {
+                log.warn("warm-up {} failed {}/{} (last status {})",
+                    mapping.getRequest(), mapping.getErrors(), mapping.getCalls(), mapping.getLastStatus());
+            }
+        }
+    }
+
+    private void runIterations(List<WarmupRequest> requests, String baseUrl, long deadline) throws InterruptedException {
+        HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(properties.getRequestTimeout())
+            .build();
+        int concurrency = Math.max(1, properties.getConcurrency());
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency, runnable -> {
+            Thread thread = new Thread(runnable, "warmup-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger nextIteration = new AtomicInteger();
+        try {
+            for (int worker = 0; worker < concurrency; worker++) {
+                // 스레드마다 시작 위치를 달리해서 같은 매핑을 동시에 부르지 않게 한다
+                int offset = worker * requests.size() / concurrency;
+                workers.execute(() -> {
+                    while (nextIteration.getAndIncrement() < properties.getIterations()) {
+                        for (int i = 0; i < requests.size(); i++) {
+                            if (System.nanoTime() >= deadline || Thread.currentThread().isInterrupted()) {
+                                timedOut = true;
+                                return;
+                            }
+                            send(client, baseUrl, requests.get((offset + i) % requests.size()));
+                        }
+                        completedIterations.incrementAndGet();
+                    }
+                });
+            }
+        } finally {
+            workers.shutdown();
+            long waitNanos = deadline - System.nanoTime() + properties.getRequestTimeout().toNanos();
+            if (!workers.awaitTermination(Math.max(waitNanos, 0), TimeUnit.NANOSECONDS)) {
+                workers.shutdownNow();
+                timedOut = true;
+            }
+        }
+    }
+
+    private void send(HttpClient client, String baseUrl, WarmupRequest request) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + request.getUri()))
+            .timeout(properties.getRequestTimeout());
+        request.getHeaders().forEach(builder::header);
+        builder.method(request.getMethod(), request.getBody() == null
+            ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(request.getBody()));
+
+        long start = System.nanoTime();
+        int status;
+        try {
+            status = client.send(builder.build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (IOException e) {
+            log.debug("warm-up {} failed", request, e);
+            status = -1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        mappings.get(request.getKey()).record(System.nanoTime() - start, status);
+    }
+
+    private String baseUrl() {
+        int port = ((WebServerApplicationContext) applicationContext).getWebServer().getPort();
+        String contextPath = applicationContext instanceof ServletWebServerApplicationContext
+            ? ((ServletWebServerApplicationContext) applicationContext).getServletContext().getContextPath() : "";
+        return "http://localhost:" + port + contextPath;
+    }
+
+    /**
+     * 핸들러가 요청마다 남기는 로그로 시작 로그가 덮이지 않도록 워밍업 동안 끈다.
+     * @return 원래 설정 (null 이면 상위 로거를 따르던 로거)
+     */
+    private Map<String, LogLevel> quietLoggers() {
+        Map<String, LogLevel> previous = new LinkedHashMap<>();
+        for (String name : properties.getQuietLoggers()) {
+            LoggerConfiguration configuration = loggingSystem.getLoggerConfiguration(name);
+            previous.put(name, configuration == null ? null : configuration.getConfiguredLevel());
+            loggingSystem.setLogLevel(name, LogLevel.OFF);
+        }
+        return previous;
+    }
+
+    public boolean isFinished() {
+        return "DONE".equals(state) || "SKIPPED".equals(state);
+    }
+
+    /**
+     * 워밍업 이후 첫 실제 요청의 지연 시간을 같은 매핑의 워밍업 첫 호출/마지막 호출과 비교해서 남긴다.
+     * 워밍업을 끈 경우(iterations=0)와 비교하면 워밍업 효과를 볼 수 있다.
+     */
+    void recordFirstRequest(String method, String pattern, long nanos) {
+        String key = method + " " + pattern;
+        firstRequest = key;
+        firstRequestNanos = nanos;
+
+        MappingWarmup mapping;
+        synchronized (mappings) {
+            mapping = mappings.get(key);
+        }
+        if (mapping == null || mapping.getCalls() == 0) {
+            log.info("first request {} took {}ms (not warmed up)", key, String.format("%.2f", nanos / 1e6));
+            return;
+        }
+        log.info("first request {} took {}ms (warm-up first call {}ms, last call {}ms)", key,
+            String.format("%.2f", nanos / 1e6), String.format("%.2f", mapping.getFirstMillis()),
+            String.format("%.2f", mapping.getLastMillis()));
+    }
+
+    public WarmupStats stats() {
+        List<MappingWarmup> results;
+        synchronized (mappings) {
+            results = new ArrayList<>(mappings.values());
+        }
+        WarmupStats stats = new WarmupStats();
+        stats.setState(state);
+        stats.setMappings(results.size());
+        stats.setIterations(completedIterations.get());
+        stats.setRequests(results.stream().mapToLong(MappingWarmup::getCalls).sum());
+        stats.setErrors(results.stream().mapToLong(MappingWarmup::getErrors).sum());
+        stats.setDurationMillis(TimeUnit.NANOSECONDS.toMillis(durationNanos));
+        stats.setTimedOut(timedOut);
+        stats.setMedianFirstCallMillis(median(results, MappingWarmup::getFirstMillis));
+        stats.setMedianLastCallMillis(median(results, MappingWarmup::getLastMillis));
+        stats.setFirstRequest(firstRequest);
+        stats.setFirstRequestMillis(firstRequestNanos / 1e6);
+        stats.setMappingResults(results);
+        return stats;
+    }
+
+    private static double median(List<MappingWarmup> results, ToDoubleFunction<MappingWarmup> latency) {
+        double[] values = results.stream()
+            .filter(mapping -> mapping.getCalls() > 0)
+            .mapToDouble(latency)
+            .sorted()
+            .toArray();
+        return values.length == 0 ? 0 : values[values.length / 2];
+    }
+
+}
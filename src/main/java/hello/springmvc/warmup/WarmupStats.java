@@ -0,0 +1,29 @@
+package hello.springmvc.warmup;
+
+import java.util.List;
+import lombok.Data;
+
+@Data
+public class WarmupStats {
+    /** PENDING, RUNNING, DONE, SKIPPED */
+    private String state;
+    /** ApplicationAvailability 의 ReadinessState, 워밍업이 끝나야 ACCEPTING_TRAFFIC 이 된다 */
+    private String readiness;
+
+    private int mappings;
+    private int iterations;
+    private long requests;
+    /** 5xx 응답 또는 전송 실패 (필수 값이 없어 나는 4xx 는 세지 않는다) */
+    private long errors;
+    private long durationMillis;
+    private boolean timedOut;
+    /** 매핑별 첫 호출/마지막 호출 지연 시간의 중앙값 */
+    private double medianFirstCallMillis;
+    private double medianLastCallMillis;
+
+    /** 워밍업 이후 첫 실제 요청 (워밍업 요청과 exclude-patterns 경로는 제외) */
+    private String firstRequest;
+    private double firstRequestMillis;
+
+    private List<MappingWarmup> mappingResults;
+}
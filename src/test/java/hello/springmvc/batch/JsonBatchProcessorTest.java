@@ -0,0 +1,174 @@
+package hello.springmvc.batch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import hello.springmvc.basic.HelloData;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+class JsonBatchProcessorTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private JsonBatchProcessor processor;
+
+    @AfterEach
+    void close() throws InterruptedException {
+        processor.close();
+    }
+
+    @Test
+    void keepsInputOrderAcrossWorkers() {
+        processor = processor(4, 8, 1000);
+        List<JsonNode> nodes = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            nodes.add(item("user" + i, i));
+        }
+
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+        JsonBatchResult<HelloData> result = processor.process(nodes, HelloData.class, true,
+            data -> threads.add(Thread.currentThread().getName()));
+
+        assertThat(result.getTotal()).isEqualTo(500);
+        assertThat(result.getSucceeded()).isEqualTo(500);
+        assertThat(result.getFailed()).isZero();
+        for (int i = 0; i < 500; i++) {
+            JsonBatchItem<HelloData> item = result.getResults().get(i);
+            assertThat(item.getIndex()).isEqualTo(i);
+            assertThat(item.getStatus()).isEqualTo(200);
+            assertThat(item.getData().getUsername()).isEqualTo("user" + i);
+            assertThat(item.getData().getAge()).isEqualTo(i);
+        }
+        // 범위를 나눈 작업은 모두 전용 풀에서 실행된다
+        assertThat(threads).allMatch(name -> name.startsWith("json-batch-"));
+        assertThat(processor.stats().getItems()).isEqualTo(500);
+    }
+
+    @Test
+    void smallBatchRunsOnCallerThread() {
+        processor = processor(4, 8, 1000);
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+        processor.process(List.of(item("a", 1), item("b", 2)), HelloData.class, true,
+            data -> threads.add(Thread.currentThread().getName()));
+
+        assertThat(threads).containsExactly(Thread.currentThread().getName());
+    }
+
+    @Test
+    void reportsFailuresPerItem() {
+        processor = processor(2, 1, 1000);
+        List<JsonNode> nodes = new ArrayList<>();
+        nodes.add(item("ok", 20));
+        nodes.add(JsonNodeFactory.instance.nullNode());
+        nodes.add(JsonNodeFactory.instance.objectNode().put("username", "bad").put("age", "twenty"));
+        nodes.add(item("boom", 40));
+        nodes.add(JsonNodeFactory.instance.textNode("not an object"));
+
+        JsonBatchResult<HelloData> result = processor.process(nodes, HelloData.class, true, data -> {
+            if ("boom".equals(data.getUsername())) {
+                throw new IllegalStateException("boom");
+            }
+        });
+
+        assertThat(result.getSucceeded()).isEqualTo(1);
+        assertThat(result.getFailed()).isEqualTo(4);
+        assertThat(result.getResults()).extracting(JsonBatchItem::getStatus).containsExactly(200, 400, 400, 500, 400);
+        assertThat(result.getResults().get(0).getData().getUsername()).isEqualTo("ok");
+        assertThat(result.getResults().get(1).getError()).contains("NULL");
+        assertThat(result.getResults().get(2).getError()).contains("twenty");
+        assertThat(result.getResults().get(3).getError()).contains("boom");
+        assertThat(result.getResults().get(3).getData()).isNull();
+
+        assertThat(processor.status(result, true)).isEqualTo(HttpStatus.MULTI_STATUS);
+        assertThat(processor.status(result, false)).isEqualTo(HttpStatus.BAD_REQUEST);
+        JsonBatchStats stats = processor.stats();
+        assertThat(stats.getFailedItems()).isEqualTo(4);
+        assertThat(stats.getPartialBatches()).isEqualTo(1);
+        assertThat(stats.getRejectedBatches()).isEqualTo(1);
+    }
+
+    @Test
+    void doesNotHandleAnyItemWhenOneIsInvalidAndNotPartial() {
+        processor = processor(4, 8, 1000);
+        List<JsonNode> nodes = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            nodes.add(item("user" + i, i));
+        }
+        nodes.set(70, JsonNodeFactory.instance.objectNode().put("username", "bad").put("age", "seventy"));
+
+        LongAdder handled = new LongAdder();
+        JsonBatchResult<HelloData> result = processor.process(nodes, HelloData.class, false, data -> handled.increment());
+
+        assertThat(handled.sum()).isZero();
+        assertThat(result.getSucceeded()).isZero();
+        assertThat(result.getResults().get(70).getStatus()).isEqualTo(400);
+        assertThat(result.getResults()).filteredOn(item -> item.getIndex() != 70)
+            .allSatisfy(item -> {
+                assertThat(item.getStatus()).isEqualTo(424);
+                assertThat(item.getData()).isNull();
+            });
+        assertThat(processor.status(result, false)).isEqualTo(HttpStatus.BAD_REQUEST);
+
+        nodes.set(70, item("user70", 70));
+        result = processor.process(nodes, HelloData.class, false, data -> handled.increment());
+        assertThat(handled.sum()).isEqualTo(100);
+        assertThat(result.getSucceeded()).isEqualTo(100);
+    }
+
+    @Test
+    void rejectsOversizedBatch() {
+        processor = processor(1, 8, 10);
+        processor.checkSize(10);
+
+        assertThatThrownBy(() -> processor.checkSize(11))
+            .isInstanceOf(ResponseStatusException.class)
+            .satisfies(e -> assertThat(((ResponseStatusException) e).getStatus()).isEqualTo(HttpStatus.PAYLOAD_TOO_LARGE));
+        assertThat(processor.stats().getOversizedBatches()).isEqualTo(1);
+    }
+
+    @Test
+    void stopsReadingArrayAfterMaxItems() throws Exception {
+        processor = processor(1, 8, 3);
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("jsonBatchProcessor", processor);
+        ObjectMapper batchMapper = new ObjectMapper().registerModule(new SimpleModule().addDeserializer(
+            JsonBatchItems.class, new JsonBatchItemsDeserializer(beanFactory.getBeanProvider(JsonBatchProcessor.class))));
+
+        JsonBatchItems items = batchMapper.readValue("[{\"age\": 1}, null, {\"age\": 3}]", JsonBatchItems.class);
+        assertThat(items).hasSize(3);
+        assertThat(items.get(1).isNull()).isTrue();
+
+        // 네 번째 항목에서 멈추므로 뒤의 잘못된 JSON 까지 읽지 않는다
+        assertThatThrownBy(() -> batchMapper.readValue("[{}, {}, {}, {}, not json", JsonBatchItems.class))
+            .isInstanceOfSatisfying(ResponseStatusException.class,
+                e -> assertThat(e.getStatus()).isEqualTo(HttpStatus.PAYLOAD_TOO_LARGE));
+        assertThatThrownBy(() -> batchMapper.readValue("{\"age\": 1}", JsonBatchItems.class))
+            .isInstanceOf(MismatchedInputException.class);
+    }
+
+    private JsonBatchProcessor processor(int parallelism, int splitThreshold, int maxItems) {
+        JsonBatchProperties properties = new JsonBatchProperties();
+        properties.setParallelism(parallelism);
+        properties.setSplitThreshold(splitThreshold);
+        properties.setMaxItems(maxItems);
+        return new JsonBatchProcessor(properties, objectMapper);
+    }
+
+    private JsonNode item(String username, int age) {
+        return JsonNodeFactory.instance.objectNode().put("username", username).put("age", age);
+    }
+
+}
@@ -0,0 +1,126 @@
+package hello.springmvc.body;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+class BodySpoolerTest {
+
+    @TempDir
+    Path directory;
+
+    BodySpooler spooler;
+
+    @BeforeEach
+    void setUp() {
+        BodySpoolProperties properties = new BodySpoolProperties();
+        properties.setThreshold(DataSize.ofBytes(16));
+        properties.setMaxSize(DataSize.ofBytes(64));
+        properties.setPoolSize(1);
+        properties.setDirectory(directory.toString());
+        spooler = new BodySpooler(properties);
+    }
+
+    @Test
+    void keepsSmallBodyInPooledBuffer() throws Exception {
+        byte[] data = bytes(16);
+
+        try (SpooledBody body = spooler.read(new ByteArrayInputStream(data), -1)) {
+            assertThat(body.isSpooled()).isFalse();
+            assertThat(toArray(body.asByteBuffer())).isEqualTo(data);
+            assertThat(spooler.stats().getPooledBuffersAvailable()).isZero();
+        }
+        assertThat(spooler.stats().getPooledBuffersAvailable()).isEqualTo(1);
+    }
+
+    @Test
+    void readsSmallKnownLengthIntoExactBufferWithoutPool() throws Exception {
+        byte[] data = bytes(5);
+
+        try (SpooledBody body = spooler.read(new ByteArrayInputStream(data), 5)) {
+            assertThat(body.isSpooled()).isFalse();
+            assertThat(toArray(body.asByteBuffer())).isEqualTo(data);
+            assertThat(spooler.stats().getPooledBuffersAvailable()).isEqualTo(1);
+        }
+        // 딱 맞춘 버퍼는 풀에 들어가지 않는다
+        assertThat(spooler.stats().getPooledBuffersAvailable()).isEqualTo(1);
+        assertThat(spooler.stats().getExactSizeBuffers()).isEqualTo(1);
+        assertThat(spooler.stats().getPoolMisses()).isZero();
+    }
+
+    @Test
+    void bodyLongerThanContentLengthIsStillReadCompletely() throws Exception {
+        byte[] data = bytes(20);
+
+        try (SpooledBody body = spooler.read(new ByteArrayInputStream(data), 5)) {
+            assertThat(body.isSpooled()).isTrue();
+            assertThat(toArray(body.asByteBuffer())).isEqualTo(data);
+        }
+        assertThat(spooler.stats().getPooledBuffersAvailable()).isEqualTo(1);
+    }
+
+    @Test
+    void allocatesWhenPoolIsExhaustedAndDropsExtraBuffersOnRelease() throws Exception {
+        SpooledBody first = spooler.read(new ByteArrayInputStream(bytes(16)), -1);
+        SpooledBody second = spooler.read(new ByteArrayInputStream(bytes(16)), 16);
+        assertThat(spooler.stats().getPooledBuffersAvailable()).isZero();
+        assertThat(spooler.stats().getPoolMisses()).isEqualTo(1);
+        assertThat(toArray(second.asByteBuffer())).isEqualTo(bytes(16));
+
+        first.close();
+        second.close();
+
+        // 풀 크기(1)를 넘는 버퍼는 버려진다
+        assertThat(spooler.stats().getPooledBuffersAvailable()).isEqualTo(1);
+    }
+
+    @Test
+    void spoolsLargeBodyToFileAndDeletesOnClose() throws Exception {
+        byte[] data = bytes(40);
+
+        try (SpooledBody body = spooler.read(new ByteArrayInputStream(data), -1)) {
+            assertThat(body.isSpooled()).isTrue();
+            assertThat(body.size()).isEqualTo(40);
+            assertThat(toArray(body.asByteBuffer())).isEqualTo(data);
+            assertThat(spooler.stats().getActiveSpoolFiles()).isEqualTo(1);
+        }
+        assertThat(spooler.stats().getActiveSpoolFiles()).isZero();
+        assertThat(spooler.stats().getPooledBuffersAvailable()).isEqualTo(1);
+        assertThat(Files.list(directory)).isEmpty();
+    }
+
+    @Test
+    void rejectsOversizedBody() throws Exception {
+        assertThatThrownBy(() -> spooler.read(new ByteArrayInputStream(bytes(10)), 100))
+            .isInstanceOf(BodyTooLargeException.class);
+        assertThatThrownBy(() -> spooler.read(new ByteArrayInputStream(bytes(100)), -1))
+            .isInstanceOf(BodyTooLargeException.class);
+
+        assertThat(spooler.stats().getRejected()).isEqualTo(2);
+        assertThat(spooler.stats().getActiveSpoolFiles()).isZero();
+        assertThat(Files.list(directory)).isEmpty();
+    }
+
+    private static byte[] bytes(int length) {
+        byte[] data = new byte[length];
+        for (int i = 0; i < length; i++) {
+            data[i] = (byte) i;
+        }
+        return data;
+    }
+
+    private static byte[] toArray(ByteBuffer buffer) {
+        byte[] data = new byte[buffer.remaining()];
+        buffer.get(data);
+        return data;
+    }
+
+}
@@ -0,0 +1,74 @@
+package hello.springmvc.bulkhead;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class BulkheadTest {
+
+    @Test
+    void rejectsWhenQueueIsFull() throws InterruptedException {
+        Bulkhead bulkhead = new Bulkhead("body", group(1, 1, Duration.ofSeconds(5)));
+        assertThat(bulkhead.tryEnter()).isTrue();
+
+        // 두 번째 요청은 대기열에서 기다린다
+        CountDownLatch entered = new CountDownLatch(1);
+        Thread waiter = new Thread(() -> {
+            if (bulkhead.tryEnter()) {
+                entered.countDown();
+                bulkhead.exit(0);
+            }
+        });
+        waiter.start();
+        while (bulkhead.stats().getQueued() == 0) {
+            Thread.onSpinWait();
+        }
+
+        // 세 번째 요청은 대기열이 차 있으므로 기다리지 않고 거절
+        assertThat(bulkhead.tryEnter()).isFalse();
+        assertThat(bulkhead.stats().getRejectedQueueFull()).isEqualTo(1);
+
+        bulkhead.exit(0);
+        assertThat(entered.await(1, TimeUnit.SECONDS)).isTrue();
+        waiter.join();
+        assertThat(bulkhead.stats().getAccepted()).isEqualTo(2);
+        assertThat(bulkhead.stats().getActive()).isZero();
+    }
+
+    @Test
+    void rejectsAfterMaxWait() {
+        Bulkhead bulkhead = new Bulkhead("body", group(1, 1, Duration.ofMillis(20)));
+        assertThat(bulkhead.tryEnter()).isTrue();
+
+        assertThat(bulkhead.tryEnter()).isFalse();
+        assertThat(bulkhead.stats().getRejectedTimeout()).isEqualTo(1);
+        assertThat(bulkhead.stats().getQueued()).isZero();
+    }
+
+    @Test
+    void findsGroupByMethodAndPath() {
+        BulkheadProperties.Group light = group(4, 4, Duration.ofMillis(100));
+        light.setMethods(List.of("GET"));
+        light.setPathPatterns(List.of("/mapping/users/{userId}"));
+        BulkheadProperties properties = new BulkheadProperties();
+        properties.getGroups().put("light", light);
+        BulkheadRegistry registry = new BulkheadRegistry(properties);
+
+        assertThat(registry.find("GET", "/mapping/users/1").getName()).isEqualTo("light");
+        assertThat(registry.find("DELETE", "/mapping/users/1")).isNull();
+        assertThat(registry.find("GET", "/mapping/users")).isNull();
+    }
+
+    private static BulkheadProperties.Group group(int maxConcurrent, int maxQueue, Duration maxWait) {
+        BulkheadProperties.Group group = new BulkheadProperties.Group();
+        group.setMaxConcurrent(maxConcurrent);
+        group.setMaxQueue(maxQueue);
+        group.setMaxWait(maxWait);
+        return group;
+    }
+
+}
@@ -0,0 +1,198 @@
+package hello.springmvc.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import hello.springmvc.cache.InvalidationMessage.Type;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ClusterInvalidatorTest {
+
+    static final long EPOCH = 1L;
+
+    ClusterInvalidator invalidator;
+    ResponseCache cache;
+
+    @BeforeEach
+    void setUp() {
+        ResponseCacheProperties properties = new ResponseCacheProperties();
+        properties.setNodeId("self");
+        invalidator = new ClusterInvalidator(properties, new NoopTransport());
+        cache = new ResponseCache(100, invalidator);
+        invalidator.start(cache);
+        // 처음 보는 노드는 캐시를 비우므로 먼저 등록해 둔다
+        invalidator.receive(message(Type.HEARTBEAT, 0));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        invalidator.close();
+    }
+
+    @Test
+    void evictsReceivedKeysInOrder() {
+        cache.get("users:1", () -> "a");
+        cache.get("users:2", () -> "b");
+
+        invalidator.receive(message(Type.KEYS, 1, "users:1"));
+
+        assertThat(cache.get("users:1", () -> "a2")).isEqualTo("a2");
+        assertThat(cache.get("users:2", () -> "b2")).isEqualTo("b");
+        assertThat(invalidator.stats().getGaps()).isZero();
+    }
+
+    @Test
+    void repeatedInvalidateAndReloadKeepsKeyNewest() {
+        ResponseCache small = new ResponseCache(3, invalidator);
+        small.get("users:A", () -> "a");
+        small.get("users:B", () -> "b");
+        // PATCH 후 GET 을 반복해도 A 는 한 번만 들어 있고, 다시 넣을 때마다 가장 새 값이 된다
+        for (int i = 0; i < 10_000; i++) {
+            small.invalidate("users:A");
+            small.get("users:A", () -> "a");
+        }
+        small.get("users:C", () -> "c");
+        small.get("users:D", () -> "d");
+
+        assertThat(small.stats().getSize()).isEqualTo(3);
+        assertThat(small.stats().getEvictions()).isEqualTo(1);
+        assertThat(small.get("users:A", () -> "reloaded")).isEqualTo("a");
+        assertThat(small.get("users:B", () -> "reloaded")).isEqualTo("reloaded");
+    }
+
+    @Test
+    void flushesOnSequenceGap() {
+        cache.get("users:2", () -> "b");
+
+        invalidator.receive(message(Type.KEYS, 2, "users:1"));
+
+        assertThat(cache.get("users:2", () -> "b2")).isEqualTo("b2");
+        assertThat(invalidator.stats().getGaps()).isEqualTo(1);
+    }
+
+    @Test
+    void flushesWhenHeartbeatReportsMissedMessage() {
+        cache.get("users:2", () -> "b");
+
+        invalidator.receive(message(Type.HEARTBEAT, 1));
+
+        assertThat(cache.get("users:2", () -> "b2")).isEqualTo("b2");
+        assertThat(invalidator.stats().getPeers()).containsEntry("peer", 1L);
+    }
+
+    @Test
+    void ignoresDuplicatesAndOwnMessages() {
+        invalidator.receive(message(Type.KEYS, 1, "users:1"));
+        cache.get("users:1", () -> "a");
+
+        invalidator.receive(message(Type.KEYS, 1, "users:1"));
+        invalidator.receive(new InvalidationMessage(Type.FLUSH, "self", EPOCH, 5, Collections.emptyList()).encode());
+
+        assertThat(cache.get("users:1", () -> "a2")).isEqualTo("a");
+        assertThat(invalidator.stats().getDuplicates()).isEqualTo(1);
+    }
+
+    @Test
+    void doesNotStoreValueLoadedAcrossInvalidation() {
+        String value = cache.get("users:1", () -> {
+            invalidator.receive(message(Type.KEYS, 1, "users:1"));
+            return "stale";
+        });
+
+        assertThat(value).isEqualTo("stale");
+        assertThat(cache.get("users:1", () -> "fresh")).isEqualTo("fresh");
+    }
+
+    @Test
+    void sendsFlushWhenKeyDoesNotFitInDatagram() throws Exception {
+        RecordingTransport transport = new RecordingTransport();
+        ClusterInvalidator sender = new ClusterInvalidator(senderProperties(), transport);
+        sender.start(new ResponseCache(100, sender));
+        try {
+            sender.publish("k".repeat(70_000));
+            sender.publish("users:1");
+            sender.sendPending();
+            sender.publish("users:2");
+            sender.sendPending();
+
+            assertThat(transport.sent).extracting(InvalidationMessage::getType).containsExactly(Type.FLUSH, Type.KEYS);
+            assertThat(transport.sent.get(1).getKeys()).containsExactly("users:2");
+        } finally {
+            sender.close();
+        }
+    }
+
+    @Test
+    void keepsSendingAfterTransportThrows() throws Exception {
+        RecordingTransport transport = new RecordingTransport();
+        ClusterInvalidator sender = new ClusterInvalidator(senderProperties(), transport);
+        sender.start(new ResponseCache(100, sender));
+        try {
+            transport.failure = new IllegalStateException("broken");
+            sender.publish("users:1");
+            sender.sendPending();
+            assertThat(sender.stats().getSendFailures()).isEqualTo(1);
+
+            // 보내지 못한 키 대신 다음 주기에 전체 flush
+            transport.failure = null;
+            sender.sendPending();
+            assertThat(transport.sent).extracting(InvalidationMessage::getType).containsExactly(Type.FLUSH);
+        } finally {
+            sender.close();
+        }
+    }
+
+    /**
+     * 스케줄러가 끼어들지 않도록 sendPending 을 테스트에서 직접 호출한다
+     */
+    private static ResponseCacheProperties senderProperties() {
+        ResponseCacheProperties properties = new ResponseCacheProperties();
+        properties.setNodeId("sender");
+        properties.setBatchWindow(Duration.ofHours(1));
+        properties.setHeartbeatInterval(Duration.ofHours(1));
+        return properties;
+    }
+
+    private static byte[] message(Type type, long sequence, String... keys) {
+        return new InvalidationMessage(type, "peer", EPOCH, sequence, List.of(keys)).encode();
+    }
+
+    static class RecordingTransport extends NoopTransport {
+        final List<InvalidationMessage> sent = new ArrayList<>();
+        RuntimeException failure;
+
+        @Override
+        public void send(byte[] packet) {
+            if (failure != null) {
+                throw failure;
+            }
+            sent.add(InvalidationMessage.decode(packet));
+        }
+    }
+
+    static class NoopTransport implements InvalidationTransport {
+        @Override
+        public void start(Consumer<byte[]> receiver) {
+        }
+
+        @Override
+        public void send(byte[] packet) {
+        }
+
+        @Override
+        public String describe() {
+            return "noop";
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+}
@@ -0,0 +1,155 @@
+package hello.springmvc.constant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import hello.springmvc.negotiation.HeaderCache;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.StringHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.method.support.HandlerMethodReturnValueHandler;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestResponseBodyMethodProcessor;
+
+class ConstantResponseReturnValueHandlerTest {
+
+    private final List<HttpMessageConverter<?>> converters =
+        List.of(new StringHttpMessageConverter(StandardCharsets.UTF_8), new MappingJackson2HttpMessageConverter());
+    private final List<HandlerMethodReturnValueHandler> fallback =
+        List.of(new RequestResponseBodyMethodProcessor(converters));
+
+    private ConstantResponseReturnValueHandler handler;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @BeforeEach
+    void setUp() throws NoSuchMethodException {
+        handler = new ConstantResponseReturnValueHandler(new HeaderCache<>("test", 16));
+        handler.register(Map.of(
+            RequestMappingInfo.paths("/ok").build(), new HandlerMethod(new ConstantController(), "ok"),
+            RequestMappingInfo.paths("/status").build(), new HandlerMethod(new ConstantController(), "status")),
+            converters, () -> fallback);
+        request = new MockHttpServletRequest();
+        response = new MockHttpServletResponse();
+    }
+
+    @Test
+    void writesPreEncodedString() throws Exception {
+        ModelAndViewContainer mavContainer = handle("ok", "OK");
+
+        assertThat(mavContainer.isRequestHandled()).isTrue();
+        assertThat(response.getContentType()).isEqualTo("text/plain;charset=UTF-8");
+        assertThat(response.getContentLength()).isEqualTo(2);
+        assertThat(response.getContentAsString()).isEqualTo("OK");
+        assertThat(handler.stats()).extracting(ConstantResponseStats::getFallbacks).containsOnly(0L);
+    }
+
+    @Test
+    void encodesEnumConstantsWithConverter() throws Exception {
+        handle("status", ConstantController.Status.READY);
+
+        assertThat(response.getContentType()).isEqualTo("application/json");
+        assertThat(response.getContentAsString()).isEqualTo("\"READY\"");
+    }
+
+    @Test
+    void fallsBackWhenValueOrAcceptDiffers() throws Exception {
+        handle("ok", "NOT OK");
+        assertThat(response.getContentAsString()).isEqualTo("NOT OK");
+
+        response = new MockHttpServletResponse();
+        request.addHeader("Accept", "application/json");
+        handle("ok", "OK");
+        assertThat(response.getContentType()).startsWith("application/json");
+
+        ConstantResponseStats stats = handler.stats().stream()
+            .filter(s -> s.getHandler().endsWith("#ok()")).findFirst().orElseThrow();
+        assertThat(stats.getFallbacks()).isEqualTo(2);
+        assertThat(stats.getBodies().get(0).getHits()).isZero();
+    }
+
+    @Test
+    void fallsBackWhenNegotiationPicksAnotherType() throws Exception {
+        // 브라우저 Accept: */*;q=0.8 로 text/plain 을 받기는 하지만 원래 처리기는 text/html 을 고른다
+        request.addHeader("Accept", "text/html,application/xhtml+xml,application/xml;q=0.9,*/*;q=0.8");
+        ModelAndViewContainer mavContainer = handle("ok", "OK");
+        assertThat(mavContainer.isRequestHandled()).isTrue();
+        assertThat(response.getContentType()).startsWith("text/html");
+        assertThat(response.getContentAsString()).isEqualTo("OK");
+
+        // 협상 결과가 미리 인코딩한 타입과 같으면 바로 쓴다
+        request = new MockHttpServletRequest();
+        request.addHeader("Accept", "text/plain, */*;q=0.1");
+        response = new MockHttpServletResponse();
+        handle("ok", "OK");
+        assertThat(response.getContentType()).isEqualTo("text/plain;charset=UTF-8");
+
+        request = new MockHttpServletRequest();
+        request.addHeader("Accept", "application/json, text/plain, */*");
+        response = new MockHttpServletResponse();
+        handle("status", ConstantController.Status.READY);
+        assertThat(response.getContentType()).isEqualTo("application/json");
+
+        ConstantResponseStats stats = handler.stats().stream()
+            .filter(s -> s.getHandler().endsWith("#ok()")).findFirst().orElseThrow();
+        assertThat(stats.getFallbacks()).isEqualTo(1);
+        assertThat(stats.getBodies().get(0).getHits()).isEqualTo(1);
+    }
+
+    @Test
+    void requiresResponseBody() {
+        assertThatThrownBy(() -> handler.register(
+            Map.of(RequestMappingInfo.paths("/view").build(), new HandlerMethod(new ViewController(), "view")),
+            converters, Collections::emptyList))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("@ResponseBody");
+    }
+
+    private ModelAndViewContainer handle(String methodName, Object returnValue) throws Exception {
+        MethodParameter returnType = new MethodParameter(ConstantController.class.getMethod(methodName), -1);
+        assertThat(handler.supportsReturnType(returnType)).isTrue();
+        ModelAndViewContainer mavContainer = new ModelAndViewContainer();
+        handler.handleReturnValue(returnValue, returnType, mavContainer, new ServletWebRequest(request, response));
+        return mavContainer;
+    }
+
+    @RestController
+    static class ConstantController {
+
+        enum Status { READY, DRAINING }
+
+        @ConstantResponse("OK")
+        public String ok() {
+            return "OK";
+        }
+
+        @ConstantResponse
+        public Status status() {
+            return Status.READY;
+        }
+    }
+
+    @Controller
+    static class ViewController {
+
+        @ConstantResponse("home")
+        public String view() {
+            return "home";
+        }
+    }
+
+}
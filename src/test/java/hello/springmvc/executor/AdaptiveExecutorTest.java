@@ -0,0 +1,72 @@
+package hello.springmvc.executor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.Test;
+
+class AdaptiveExecutorTest {
+
+    @Test
+    void startsFromTomcatDefaults() {
+        AdaptiveExecutor executor = new AdaptiveExecutor(new AdaptiveExecutorProperties(), new HandlerLatencyTracker());
+        try {
+            assertThat(executor.getLimit()).isEqualTo(200);
+            assertThat(executor.getQueue().remainingCapacity()).isEqualTo(Integer.MAX_VALUE);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void overflowRunsOnSheddingThreadInsteadOfRejecting() throws InterruptedException {
+        AdaptiveExecutorProperties properties = new AdaptiveExecutorProperties();
+        properties.setMinLimit(1);
+        properties.setInitialLimit(1);
+        properties.setMaxQueueSize(1);
+        properties.setOverflowThreads(1);
+        properties.setOverflowQueueSize(1);
+        AdaptiveExecutor executor = new AdaptiveExecutor(properties, new HandlerLatencyTracker());
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            // 워커 하나와 대기열 하나를 채운다
+            executor.execute(() -> await(release));
+            executor.execute(() -> await(release));
+
+            // 넘친 요청은 overflow 스레드에서 shedding 상태로 실행된다 (OverloadValve 가 503 응답)
+            AtomicBoolean shedding = new AtomicBoolean();
+            CountDownLatch shed = new CountDownLatch(1);
+            executor.execute(() -> {
+                shedding.set(AdaptiveExecutor.isShedding());
+                shed.countDown();
+                await(release);
+            });
+            assertThat(shed.await(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(shedding).isTrue();
+            assertThat(AdaptiveExecutor.isShedding()).isFalse();
+
+            // overflow 풀까지 가득 차면 거절한다 (Tomcat 이 연결을 닫는다)
+            executor.execute(() -> await(release));
+            assertThatThrownBy(() -> executor.execute(() -> { }))
+                .isInstanceOf(RejectedExecutionException.class);
+            assertThat(executor.getRejectedCount()).isEqualTo(2);
+            assertThat(executor.getDroppedCount()).isEqualTo(1);
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
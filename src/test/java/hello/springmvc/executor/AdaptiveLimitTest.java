@@ -0,0 +1,60 @@
+package hello.springmvc.executor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class AdaptiveLimitTest {
+
+    private static final long QUEUEING = Duration.ofMillis(50).toNanos();
+
+    AdaptiveExecutorProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new AdaptiveExecutorProperties();
+        properties.setMinLimit(10);
+        properties.setMaxLimit(40);
+        properties.setInitialLimit(20);
+        properties.setIncreaseStep(4);
+        properties.setBackoffRatio(0.5);
+    }
+
+    @Test
+    void queueingIncreasesUpToCeiling() {
+        AdaptiveLimit limit = new AdaptiveLimit(properties);
+
+        assertThat(limit.update(QUEUEING, 1.0, 20)).isEqualTo(24);
+        for (int i = 0; i < 10; i++) {
+            limit.update(QUEUEING, 1.0, limit.getLimit());
+        }
+        assertThat(limit.getLimit()).isEqualTo(40);
+    }
+
+    @Test
+    void latencyGradientBacksOffToFloor() {
+        AdaptiveLimit limit = new AdaptiveLimit(properties);
+
+        // 대기열이 있어도 핸들러가 느려졌으면 줄인다
+        assertThat(limit.update(QUEUEING, 3.0, 20)).isEqualTo(10);
+        assertThat(limit.update(QUEUEING, 3.0, 10)).isEqualTo(10);
+    }
+
+    @Test
+    void idleShrinksTowardsPeakInFlight() {
+        AdaptiveLimit limit = new AdaptiveLimit(properties);
+
+        assertThat(limit.update(0, 1.0, 2)).isEqualTo(10);
+        assertThat(limit.update(0, 1.0, 8)).isEqualTo(10);
+    }
+
+    @Test
+    void busyWithoutQueueingKeepsLimit() {
+        AdaptiveLimit limit = new AdaptiveLimit(properties);
+
+        assertThat(limit.update(0, 1.0, 18)).isEqualTo(20);
+    }
+
+}
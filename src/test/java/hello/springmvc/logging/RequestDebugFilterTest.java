@@ -0,0 +1,64 @@
+package hello.springmvc.logging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+class RequestDebugFilterTest {
+
+    LoggerContext loggerContext;
+    RequestDebugSwitch debugSwitch;
+    LogControlProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        loggerContext = new LoggerContext();
+        loggerContext.getLogger(Logger.ROOT_LOGGER_NAME).setLevel(Level.INFO);
+        debugSwitch = new RequestDebugSwitch(loggerContext, new RequestDebugTurboFilter(List.of("hello.springmvc")));
+        properties = new LogControlProperties();
+    }
+
+    @Test
+    void ignoresHeaderWhenNoTokenIsConfigured() throws Exception {
+        MockHttpServletRequest request = debugRequest(null);
+
+        assertThat(debugEnabledDuring(request)).isFalse();
+        assertThat(debugSwitch.stats().getRejectedRequests()).isEqualTo(1);
+    }
+
+    @Test
+    void appliesHeaderOnlyWithMatchingToken() throws Exception {
+        properties.setToken("secret");
+
+        assertThat(debugEnabledDuring(debugRequest("wrong"))).isFalse();
+        assertThat(debugEnabledDuring(debugRequest("secret"))).isTrue();
+        assertThat(debugSwitch.stats().getRejectedRequests()).isEqualTo(1);
+        assertThat(debugSwitch.stats().getDebugRequests()).isEqualTo(1);
+    }
+
+    private boolean debugEnabledDuring(MockHttpServletRequest request) throws Exception {
+        Logger appLogger = loggerContext.getLogger("hello.springmvc.basic.LogTestController");
+        AtomicBoolean enabled = new AtomicBoolean();
+        new RequestDebugFilter(debugSwitch, properties)
+            .doFilter(request, new MockHttpServletResponse(), (req, res) -> enabled.set(appLogger.isDebugEnabled()));
+        return enabled.get();
+    }
+
+    private static MockHttpServletRequest debugRequest(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/log-test");
+        request.addHeader("X-Debug-Log", "debug");
+        if (token != null) {
+            request.addHeader("X-Debug-Token", token);
+        }
+        return request;
+    }
+
+}
@@ -0,0 +1,58 @@
+package hello.springmvc.logging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class RequestDebugSwitchTest {
+
+    LoggerContext loggerContext;
+    RequestDebugSwitch debugSwitch;
+
+    @BeforeEach
+    void setUp() {
+        loggerContext = new LoggerContext();
+        loggerContext.getLogger(Logger.ROOT_LOGGER_NAME).setLevel(Level.INFO);
+        debugSwitch = new RequestDebugSwitch(loggerContext, new RequestDebugTurboFilter(List.of("hello.springmvc")));
+    }
+
+    @Test
+    void enablesDebugOnlyForFlaggedThreadAndPrefix() throws Exception {
+        Logger appLogger = loggerContext.getLogger("hello.springmvc.basic.LogTestController");
+        Logger frameworkLogger = loggerContext.getLogger("org.springframework.web");
+
+        debugSwitch.begin(Level.DEBUG);
+        try {
+            assertThat(appLogger.isDebugEnabled()).isTrue();
+            assertThat(appLogger.isTraceEnabled()).isFalse();
+            assertThat(frameworkLogger.isDebugEnabled()).isFalse();
+            assertThat(CompletableFuture.supplyAsync(appLogger::isDebugEnabled).get()).isFalse();
+        } finally {
+            debugSwitch.end();
+        }
+
+        assertThat(appLogger.isDebugEnabled()).isFalse();
+    }
+
+    @Test
+    void installsFilterOnlyWhileDebugRequestIsActive() {
+        assertThat(loggerContext.getTurboFilterList()).isEmpty();
+
+        debugSwitch.begin(Level.DEBUG);
+        debugSwitch.begin(Level.TRACE);
+        assertThat(loggerContext.getTurboFilterList()).hasSize(1);
+        debugSwitch.end();
+        assertThat(loggerContext.getTurboFilterList()).hasSize(1);
+        debugSwitch.end();
+
+        assertThat(loggerContext.getTurboFilterList()).isEmpty();
+        assertThat(debugSwitch.stats().getDebugRequests()).isEqualTo(2);
+    }
+
+}
@@ -0,0 +1,124 @@
+package hello.springmvc.negotiation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import hello.springmvc.basic.HelloData;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import org.springframework.web.servlet.mvc.method.annotation.RequestResponseBodyMethodProcessor;
+
+class CachingResponseBodyReturnValueHandlerTest {
+
+    private static final Type HELLO_LIST = new ParameterizedTypeReference<List<HelloData>>() { }.getType();
+
+    RecordingConverter converter = new RecordingConverter();
+    HeaderCache<CachingResponseBodyReturnValueHandler.Key, CachingResponseBodyReturnValueHandler.Selection> cache =
+        new HeaderCache<>("test", 16);
+    CachingResponseBodyReturnValueHandler handler = new CachingResponseBodyReturnValueHandler(
+        new RequestResponseBodyMethodProcessor(List.of(converter)), List.of(converter),
+        cache, new HeaderCache<>("test-content-type", 16));
+
+    @Test
+    void cachedPathWritesWithDeclaredGenericType() throws Exception {
+        MethodParameter returnType = new HandlerMethod(new ListController(), "users").getReturnType();
+        HelloData data = new HelloData();
+        data.setUsername("hello");
+        data.setAge(20);
+
+        String first = handle(returnType, List.of(data));
+        String second = handle(returnType, List.of(data));
+
+        // 첫 요청은 원래 처리기, 두 번째는 캐시된 컨버터로 쓰지만 컨버터가 받는 타입과 응답은 같다
+        assertThat(converter.types).containsExactly(HELLO_LIST, HELLO_LIST);
+        assertThat(second).isEqualTo(first).isEqualTo("[{\"username\":\"hello\",\"age\":20}]");
+    }
+
+    @Test
+    void presetContentTypeAndRfdPathsBypassCache() throws Exception {
+        MethodParameter returnType = new HandlerMethod(new ListController(), "users").getReturnType();
+
+        for (int i = 0; i < 2; i++) {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            response.setContentType("application/vnd.hello+json");
+            handle(request("/users", "application/json"), response, returnType);
+            // 원래 처리기는 미리 정한 Content-Type 을 그대로 쓴다
+            assertThat(response.getContentType()).isEqualTo("application/vnd.hello+json");
+        }
+        for (int i = 0; i < 2; i++) {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            handle(request("/users;a=b.bat", "application/json"), response, returnType);
+            assertThat(response.getHeader("Content-Disposition")).isEqualTo("inline;filename=f.txt");
+        }
+
+        assertThat(cache.stats().getSize()).isZero();
+    }
+
+    @Test
+    void keyUsesEveryAcceptHeaderValue() throws Exception {
+        MethodParameter returnType = new HandlerMethod(new ListController(), "users").getReturnType();
+        MockHttpServletRequest request = request("/users", "application/json");
+        request.addHeader("Accept", "text/plain");
+
+        handle(request("/users", "application/json"), new MockHttpServletResponse(), returnType);
+        handle(request, new MockHttpServletResponse(), returnType);
+
+        // 첫 번째 Accept 값만 같은 요청은 다른 키로 저장된다
+        assertThat(cache.stats().getSize()).isEqualTo(2);
+        assertThat(cache.stats().getHits()).isZero();
+    }
+
+    private String handle(MethodParameter returnType, Object returnValue) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        handle(request("/users", "application/json"), response, returnType, returnValue);
+        return response.getContentAsString();
+    }
+
+    private void handle(MockHttpServletRequest request, MockHttpServletResponse response,
+                        MethodParameter returnType) throws Exception {
+        handle(request, response, returnType, List.of(new HelloData()));
+    }
+
+    private void handle(MockHttpServletRequest request, MockHttpServletResponse response,
+                        MethodParameter returnType, Object returnValue) throws Exception {
+        handler.handleReturnValue(returnValue, returnType, new ModelAndViewContainer(),
+            new ServletWebRequest(request, response));
+    }
+
+    private static MockHttpServletRequest request(String uri, String accept) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        request.addHeader("Accept", accept);
+        return request;
+    }
+
+    static class RecordingConverter extends MappingJackson2HttpMessageConverter {
+        private final List<Type> types = new ArrayList<>();
+
+        @Override
+        protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage) throws IOException {
+            types.add(type);
+            super.writeInternal(object, type, outputMessage);
+        }
+    }
+
+    static class ListController {
+        @ResponseBody
+        public List<HelloData> users() {
+            return List.of();
+        }
+    }
+
+}
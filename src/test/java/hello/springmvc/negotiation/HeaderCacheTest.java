@@ -0,0 +1,45 @@
+package hello.springmvc.negotiation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class HeaderCacheTest {
+
+    @Test
+    void countsHitsAndMisses() {
+        HeaderCache<String, Integer> cache = new HeaderCache<>("test", 10);
+
+        cache.get("a", String::length);
+        cache.get("a", String::length);
+        cache.get("a", String::length);
+
+        CacheStats stats = cache.stats();
+        assertThat(stats.getMisses()).isEqualTo(1);
+        assertThat(stats.getHits()).isEqualTo(2);
+        assertThat(stats.getHitRate()).isEqualTo(2.0 / 3);
+    }
+
+    @Test
+    void evictsEldestOverMaxSize() {
+        HeaderCache<String, Integer> cache = new HeaderCache<>("test", 2);
+
+        cache.put("a", 1);
+        cache.put("b", 2);
+        cache.put("c", 3);
+
+        assertThat(cache.stats().getSize()).isEqualTo(2);
+        assertThat(cache.stats().getEvictions()).isEqualTo(1);
+        assertThat(cache.getIfPresent("a")).isNull();
+        assertThat(cache.getIfPresent("c")).isEqualTo(3);
+    }
+
+    @Test
+    void nullValueIsNotCached() {
+        HeaderCache<String, Integer> cache = new HeaderCache<>("test", 2);
+
+        assertThat(cache.get("a", key -> null)).isNull();
+        assertThat(cache.stats().getSize()).isZero();
+    }
+
+}
@@ -0,0 +1,139 @@
+package hello.springmvc.profiling;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Map;
+import java.util.concurrent.CyclicBarrier;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+class HandlerCostInterceptorTest {
+
+    private static final int ALLOCATION = 1 << 20;
+
+    static volatile Object sink;
+
+    @Test
+    void attributesCostToHandlerMethod() throws Exception {
+        HandlerCostRecorder recorder = recorder(1.0);
+        HandlerCostInterceptor interceptor = new HandlerCostInterceptor(recorder);
+
+        handle(interceptor, handlerMethod("allocate"), SampleController::allocate);
+        handle(interceptor, handlerMethod("spin"), SampleController::spin);
+
+        Map<String, HandlerCost> costs = costs(recorder);
+        HandlerCost allocate = costs.get("SampleController.allocate");
+        HandlerCost spin = costs.get("SampleController.spin");
+        assertThat(allocate.getSamples()).isEqualTo(1);
+        assertThat(allocate.getAllocatedBytesPerRequest()).isGreaterThanOrEqualTo(ALLOCATION);
+        assertThat(spin.getAllocatedBytesPerRequest()).isLessThan(ALLOCATION / 2);
+        assertThat(spin.getCpuMicrosPerRequest()).isGreaterThan(allocate.getCpuMicrosPerRequest());
+        assertThat(spin.getCpuMicrosPerRequest()).isGreaterThanOrEqualTo(10_000);
+    }
+
+    @Test
+    void concurrentRequestsDoNotMixCosts() throws Exception {
+        HandlerCostRecorder recorder = recorder(1.0);
+        HandlerCostInterceptor interceptor = new HandlerCostInterceptor(recorder);
+        HandlerMethod allocate = handlerMethod("allocate");
+        HandlerMethod light = handlerMethod("light");
+        int iterations = 20;
+
+        // 두 스레드가 매 요청을 동시에 시작하므로 요청 구간이 겹친다
+        CyclicBarrier barrier = new CyclicBarrier(2);
+        Thread heavyThread = new Thread(() -> {
+            for (int i = 0; i < iterations; i++) {
+                await(barrier);
+                handle(interceptor, allocate, SampleController::allocate);
+            }
+        });
+        heavyThread.start();
+        for (int i = 0; i < iterations; i++) {
+            await(barrier);
+            handle(interceptor, light, SampleController::light);
+        }
+        heavyThread.join();
+
+        Map<String, HandlerCost> costs = costs(recorder);
+        assertThat(costs.get("SampleController.allocate").getSamples()).isEqualTo(iterations);
+        assertThat(costs.get("SampleController.light").getSamples()).isEqualTo(iterations);
+        assertThat(costs.get("SampleController.allocate").getAllocatedBytesPerRequest()).isGreaterThanOrEqualTo(ALLOCATION);
+        // 다른 스레드의 1MB 할당이 섞이지 않는다
+        assertThat(costs.get("SampleController.light").getMaxAllocatedBytes()).isLessThan(ALLOCATION / 2);
+    }
+
+    @Test
+    void skipsUnsampledAndNonHandlerMethodRequests() throws Exception {
+        HandlerCostRecorder unsampled = recorder(0.0);
+        handle(new HandlerCostInterceptor(unsampled), handlerMethod("allocate"), SampleController::allocate);
+        assertThat(unsampled.snapshot()).isEmpty();
+
+        HandlerCostRecorder recorder = recorder(1.0);
+        HandlerCostInterceptor interceptor = new HandlerCostInterceptor(recorder);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        Object resourceHandler = new Object();
+        assertThat(interceptor.preHandle(request, response, resourceHandler)).isTrue();
+        interceptor.afterCompletion(request, response, resourceHandler, null);
+        assertThat(recorder.snapshot()).isEmpty();
+    }
+
+    private static void handle(HandlerCostInterceptor interceptor, HandlerMethod handler, Runnable body) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        interceptor.preHandle(request, response, handler);
+        body.run();
+        interceptor.afterCompletion(request, response, handler, null);
+    }
+
+    private static HandlerCostRecorder recorder(double sampleRate) {
+        HandlerCostProperties properties = new HandlerCostProperties();
+        properties.setSampleRate(sampleRate);
+        return new HandlerCostRecorder(properties);
+    }
+
+    private static Map<String, HandlerCost> costs(HandlerCostRecorder recorder) {
+        return recorder.snapshot().stream().collect(Collectors.toMap(HandlerCost::getHandler, cost -> cost));
+    }
+
+    private static HandlerMethod handlerMethod(String name) throws NoSuchMethodException {
+        return new HandlerMethod(new SampleController(), SampleController.class.getDeclaredMethod(name));
+    }
+
+    private static void await(CyclicBarrier barrier) {
+        try {
+            barrier.await();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static class SampleController {
+
+        static void allocate() {
+            sink = new byte[ALLOCATION];
+        }
+
+        static void light() {
+            sink = "ok";
+        }
+
+        static void spin() {
+            // 벽시계가 아니라 이 스레드의 CPU 시간으로 기다린다 (CPU 가 하나뿐이면 다른 스레드에 밀릴 수 있다)
+            ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+            long end = threads.getCurrentThreadCpuTime() + 30_000_000L;
+            long x = 0;
+            while (threads.getCurrentThreadCpuTime() < end) {
+                x += x * 31 + 7;
+            }
+            sink = x;
+        }
+
+    }
+
+}
@@ -0,0 +1,109 @@
+package hello.springmvc.store;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import hello.springmvc.basic.HelloData;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeSet;
+import org.junit.jupiter.api.Test;
+
+class AgeIndexTest {
+
+    @Test
+    void countsAndPagesAcrossBaseAndChanges() throws InterruptedException {
+        Map<String, HelloData> users = new HashMap<>();
+        for (int i = 0; i < 5000; i++) {
+            users.put("user" + i, helloData("user" + i, i % 100));
+        }
+        AgeIndex index = AgeIndex.build(users);
+        TreeSet<AgeIndex.Key> expected = new TreeSet<>();
+        users.forEach((id, data) -> expected.add(new AgeIndex.Key(data.getAge(), id)));
+
+        // 변경분이 merge-threshold 를 여러 번 넘도록 바꾼다
+        Random random = new Random(1);
+        for (int i = 0; i < 30_000; i++) {
+            String id = "user" + random.nextInt(8000);
+            HelloData previous = users.get(id);
+            if (random.nextInt(4) == 0) {
+                if (previous != null) {
+                    users.remove(id);
+                    index.remove(id, previous.getAge());
+                    expected.remove(new AgeIndex.Key(previous.getAge(), id));
+                }
+            } else {
+                int age = random.nextInt(100);
+                users.put(id, helloData(id, age));
+                index.put(id, previous == null ? null : previous.getAge(), age);
+                if (previous != null) {
+                    expected.remove(new AgeIndex.Key(previous.getAge(), id));
+                }
+                expected.add(new AgeIndex.Key(age, id));
+            }
+            if (i % 5000 == 0) {
+                assertMatches(index, expected);
+            }
+        }
+        waitForMerge(index);
+        assertThat(index.getMerges()).isPositive();
+        assertMatches(index, expected);
+        index.close();
+    }
+
+    @Test
+    void emptyAndExtremeRanges() {
+        Map<String, HelloData> users = new HashMap<>();
+        users.put("min", helloData("min", Integer.MIN_VALUE));
+        users.put("max", helloData("max", Integer.MAX_VALUE));
+        AgeIndex index = AgeIndex.build(users);
+
+        assertThat(index.count(Integer.MIN_VALUE, Integer.MAX_VALUE)).isEqualTo(2);
+        assertThat(index.count(Integer.MAX_VALUE, Integer.MAX_VALUE)).isEqualTo(1);
+        assertThat(index.count(10, 1)).isZero();
+        assertThat(index.scan(Integer.MIN_VALUE, Integer.MAX_VALUE, null, 10))
+            .extracting(key -> key.id).containsExactly("min", "max");
+        index.put("max", Integer.MAX_VALUE, 0);
+        assertThat(index.count(Integer.MAX_VALUE, Integer.MAX_VALUE)).isZero();
+        assertThat(index.scan(0, Integer.MAX_VALUE, null, 10)).extracting(key -> key.id).containsExactly("max");
+        index.close();
+    }
+
+    private static void assertMatches(AgeIndex index, TreeSet<AgeIndex.Key> expected) {
+        assertThat(index.size()).isEqualTo(expected.size());
+        for (int min = 0; min < 100; min += 17) {
+            int max = min + 25;
+            long count = expected.subSet(new AgeIndex.Key(min, null), true, new AgeIndex.Key(max + 1, null), false).size();
+            assertThat(index.count(min, max)).isEqualTo(count);
+
+            List<AgeIndex.Key> all = new ArrayList<>();
+            AgeIndex.Key after = null;
+            List<AgeIndex.Key> page;
+            do {
+                page = index.scan(min, max, after, 37);
+                all.addAll(page);
+                after = page.isEmpty() ? null : page.get(page.size() - 1);
+            } while (page.size() == 37);
+            assertThat(all).containsExactlyElementsOf(
+                expected.subSet(new AgeIndex.Key(min, null), true, new AgeIndex.Key(max + 1, null), false));
+        }
+    }
+
+    private static void waitForMerge(AgeIndex index) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        long merges = index.getMerges();
+        while (index.getMerges() == merges && index.getPendingChanges() > 4096 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private static HelloData helloData(String username, int age) {
+        HelloData data = new HelloData();
+        data.setUsername(username);
+        data.setAge(age);
+        return data;
+    }
+
+}
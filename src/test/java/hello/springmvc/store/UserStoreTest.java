@@ -0,0 +1,279 @@
+package hello.springmvc.store;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hello.springmvc.basic.HelloData;
+import hello.springmvc.basic.requestmapping.MappingClassController;
+import hello.springmvc.cache.ResponseCache;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+class UserStoreTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void patchMergesPresentFieldsAndRejectsUnknownUser() throws IOException {
+        try (UserStore store = open()) {
+            store.put("userA", helloData("userA", 20));
+            MappingClassController controller = new MappingClassController(
+                new StaticListableBeanFactory().getBeanProvider(ResponseCache.class),
+                new StaticListableBeanFactory(Map.of("userStore", store)).getBeanProvider(UserStore.class));
+            ObjectMapper objectMapper = new ObjectMapper();
+
+            // 나이가 없는 PATCH 는 저장된 나이를 지우지 않고, WAL 에 쓰지도 않는다
+            long appends = store.stats().getAppends();
+            controller.updateUser("userA", objectMapper.readTree("{\"username\": \"renamed\"}"));
+            assertThat(store.find("userA").getAge()).isEqualTo(20);
+            assertThat(store.stats().getAppends()).isEqualTo(appends);
+
+            controller.updateUser("userA", objectMapper.readTree("{\"age\": 21}"));
+            assertThat(store.find("userA").getAge()).isEqualTo(21);
+            assertThat(store.find("userA").getUsername()).isEqualTo("userA");
+
+            // 없는 회원은 만들지 않고 404
+            assertThatThrownBy(() -> controller.updateUser("nobody", objectMapper.readTree("{\"age\": 30}")))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                    e -> assertThat(e.getStatus()).isEqualTo(HttpStatus.NOT_FOUND));
+            assertThat(store.find("nobody")).isNull();
+            assertThatThrownBy(() -> controller.updateUser("userA", objectMapper.readTree("{\"age\": \"x\"}")))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                    e -> assertThat(e.getStatus()).isEqualTo(HttpStatus.BAD_REQUEST));
+        }
+
+        try (UserStore store = open()) {
+            assertThat(store.find("userA").getAge()).isEqualTo(21);
+            assertThat(store.size()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void deleteOfUnknownUserWritesNothingAnd404s() throws IOException {
+        try (UserStore store = open()) {
+            store.put("userA", helloData("userA", 20));
+            MappingClassController controller = new MappingClassController(
+                new StaticListableBeanFactory().getBeanProvider(ResponseCache.class),
+                new StaticListableBeanFactory(Map.of("userStore", store)).getBeanProvider(UserStore.class));
+
+            long appends = store.stats().getAppends();
+            long batches = store.stats().getBatches();
+            assertThatThrownBy(() -> controller.deleteUser("nobody"))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                    e -> assertThat(e.getStatus()).isEqualTo(HttpStatus.NOT_FOUND));
+            assertThat(store.stats().getAppends()).isEqualTo(appends);
+            assertThat(store.stats().getBatches()).isEqualTo(batches);
+
+            controller.deleteUser("userA");
+            assertThat(store.find("userA")).isNull();
+            assertThat(store.delete("userA")).isFalse();
+        }
+    }
+
+    @Test
+    void concurrentUpdatesReadTheCommittedValue() throws Exception {
+        // 128개 스레드가 같은 회원을 동시에 읽고 바꿔도 하나도 잃지 않는다
+        ExecutorService executor = Executors.newFixedThreadPool(128);
+        try (UserStore store = open()) {
+            store.put("counter", helloData("counter", 0));
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 1000; i++) {
+                futures.add(executor.submit(() -> store.update("counter", user -> user.setAge(user.getAge() + 1))));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            assertThat(store.find("counter").getAge()).isEqualTo(1000);
+            assertThat(store.stats().getBatches()).isLessThan(1001);
+        } finally {
+            executor.shutdown();
+        }
+        try (UserStore store = open()) {
+            assertThat(store.find("counter").getAge()).isEqualTo(1000);
+        }
+    }
+
+    @Test
+    void recoversPutsAndDeletesAfterRestart() throws IOException {
+        try (UserStore store = open()) {
+            store.put("userA", helloData("userA", 20));
+            store.put("userB", helloData("userB", 30));
+            store.put("userA", helloData("userA", 21));
+            store.delete("userB");
+        }
+
+        try (UserStore store = open()) {
+            assertThat(store.size()).isEqualTo(1);
+            assertThat(store.find("userA").getAge()).isEqualTo(21);
+            assertThat(store.find("userB")).isNull();
+            assertThat(store.stats().getRecoveredRecords()).isEqualTo(4);
+        }
+    }
+
+    @Test
+    void concurrentWritesShareFsync() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        try (UserStore store = open()) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 2000; i++) {
+                String userId = "user" + i;
+                futures.add(executor.submit(() -> store.put(userId, helloData(userId, 1))));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            UserStoreStats stats = store.stats();
+            assertThat(stats.getAppends()).isEqualTo(2000);
+            assertThat(stats.getBatches()).isLessThan(2000);
+        } finally {
+            executor.shutdown();
+        }
+        try (UserStore store = open()) {
+            assertThat(store.size()).isEqualTo(2000);
+        }
+    }
+
+    @Test
+    void commitTimeoutCancelsQueuedWriteAndReportsInFlightAsUnknown() throws Exception {
+        UserStoreProperties properties = new UserStoreProperties();
+        properties.setCommitTimeout(Duration.ofMillis(200));
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> applied = new CopyOnWriteArrayList<>();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        // 첫 레코드를 반영하는 동안 쓰기 스레드를 붙잡아 둔다
+        try (WalWriter writer = new WalWriter(properties, directory, 1, 0, key -> null, record -> {
+            applied.add(record.getKey());
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        })) {
+            writer.start();
+            Future<?> inFlight = executor.submit(() -> writer.append(WalRecord.put("userA", helloData("userA", 1))));
+            while (applied.isEmpty()) {
+                Thread.sleep(1);
+            }
+
+            // 쓰기 스레드가 꺼내지 못한 레코드는 취소되고 저장되지 않는다
+            assertThatThrownBy(() -> writer.append(WalRecord.put("userB", helloData("userB", 2))))
+                .isInstanceOf(UserStoreBusyException.class);
+            assertThat(writer.getQueueDepth()).isZero();
+
+            // 이미 배치에 들어간 레코드는 결과를 알 수 없다고 알린다
+            assertThatThrownBy(inFlight::get).hasCauseInstanceOf(UserStoreCommitUnknownException.class);
+
+            release.countDown();
+            writer.append(WalRecord.put("userC", helloData("userC", 3)));
+            assertThat(applied).containsExactly("userA", "userC");
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void truncatesTornTail() throws IOException {
+        try (UserStore store = open()) {
+            store.put("userA", helloData("userA", 20));
+            store.put("userB", helloData("userB", 30));
+        }
+        // 마지막 레코드를 쓰다가 죽은 것처럼 3 바이트를 잘라낸다
+        Path wal = WalFiles.wal(directory, 1);
+        try (FileChannel channel = FileChannel.open(wal, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 3);
+        }
+
+        try (UserStore store = open()) {
+            assertThat(store.find("userA")).isNotNull();
+            assertThat(store.find("userB")).isNull();
+            assertThat(store.stats().getTruncatedBytes()).isPositive();
+            store.put("userC", helloData("userC", 40));
+        }
+        try (UserStore store = open()) {
+            assertThat(store.size()).isEqualTo(2);
+            assertThat(store.stats().getTruncatedBytes()).isZero();
+        }
+    }
+
+    @Test
+    void compactionWritesSnapshotAndRemovesOldWal() throws IOException {
+        try (UserStore store = open()) {
+            for (int i = 0; i < 100; i++) {
+                store.put("userA", helloData("userA", i));
+            }
+            store.put("userB", helloData("userB", 30));
+            store.compact();
+            store.put("userC", helloData("userC", 40));
+
+            assertThat(Files.exists(WalFiles.wal(directory, 1))).isFalse();
+            assertThat(Files.exists(WalFiles.snapshot(directory, 2))).isTrue();
+        }
+
+        try (UserStore store = open()) {
+            assertThat(store.size()).isEqualTo(3);
+            assertThat(store.find("userA").getAge()).isEqualTo(99);
+            // 스냅샷 2건 + 압축 뒤 WAL 1건
+            assertThat(store.stats().getRecoveredRecords()).isEqualTo(3);
+        }
+    }
+
+    @Test
+    void ageIndexFollowsWritesAndRecovery() throws IOException {
+        try (UserStore store = open()) {
+            store.put("userA", helloData("userA", 20));
+            store.put("userB", helloData("userB", 25));
+            store.put("userC", helloData("userC", 25));
+            store.put("userA", helloData("userA", 40));
+            store.delete("userC");
+            assertThat(store.countByAge(20, 29)).isEqualTo(1);
+        }
+
+        try (UserStore store = open()) {
+            assertThat(store.countByAge(20, 29)).isEqualTo(1);
+            store.put("userD", helloData("userD", 21));
+
+            AgeRangePage first = store.findByAge(20, 50, null, 2);
+            assertThat(first.getTotal()).isEqualTo(3);
+            assertThat(first.getUsers()).extracting(HelloData::getUsername).containsExactly("userD", "userB");
+            AgeRangePage second = store.findByAge(20, 50, first.getNext(), 2);
+            assertThat(second.getUsers()).extracting(HelloData::getUsername).containsExactly("userA");
+            assertThat(second.getNext()).isNull();
+        }
+    }
+
+    private UserStore open() throws IOException {
+        UserStoreProperties properties = new UserStoreProperties();
+        properties.setDirectory(directory.toString());
+        UserStore store = new UserStore(properties);
+        store.start();
+        return store;
+    }
+
+    private static HelloData helloData(String username, int age) {
+        HelloData data = new HelloData();
+        data.setUsername(username);
+        data.setAge(age);
+        return data;
+    }
+
+}
@@ -0,0 +1,71 @@
+package hello.springmvc.trace;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+class RequestTracerTest {
+
+    @Test
+    void unsampledFastRequestIsDropped() {
+        RequestTracer tracer = new RequestTracer(properties(0.0, Duration.ofSeconds(10), 10));
+
+        request(tracer, "/fast", 0);
+
+        assertThat(tracer.recent()).isEmpty();
+    }
+
+    @Test
+    void slowUnsampledRequestIsKeptWithSpans() {
+        RequestTracer tracer = new RequestTracer(properties(0.0, Duration.ofMillis(5), 10));
+
+        request(tracer, "/slow", 10);
+
+        List<Trace> traces = tracer.recent();
+        assertThat(traces).hasSize(1);
+        assertThat(traces.get(0).isSlow()).isTrue();
+        assertThat(traces.get(0).isSampled()).isFalse();
+        assertThat(traces.get(0).getSpans()).singleElement().satisfies(span -> {
+            assertThat(span.getPhase()).isEqualTo(Phase.HANDLER);
+            assertThat(span.getDurationMicros()).isGreaterThanOrEqualTo(10_000);
+        });
+    }
+
+    @Test
+    void sampledRequestKeepsSpansAndOnlyLastCapacity() {
+        RequestTracer tracer = new RequestTracer(properties(1.0, Duration.ofSeconds(10), 2));
+
+        request(tracer, "/a", 0);
+        request(tracer, "/b", 0);
+        request(tracer, "/c", 0);
+
+        List<Trace> traces = tracer.recent();
+        assertThat(traces).extracting(Trace::getUri).containsExactly("/c", "/b");
+        assertThat(traces.get(0).getSpans()).extracting(Trace.Span::getPhase).containsExactly(Phase.HANDLER);
+    }
+
+    private static void request(RequestTracer tracer, String uri, long sleepMillis) {
+        tracer.start();
+        int span = tracer.begin(Phase.HANDLER);
+        try {
+            Thread.sleep(sleepMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        tracer.end(span);
+        tracer.finish(new MockHttpServletRequest("GET", uri), new MockHttpServletResponse());
+    }
+
+    private static TraceProperties properties(double sampleRate, Duration slowThreshold, int capacity) {
+        TraceProperties properties = new TraceProperties();
+        properties.setSampleRate(sampleRate);
+        properties.setSlowThreshold(slowThreshold);
+        properties.setCapacity(capacity);
+        return properties;
+    }
+
+}
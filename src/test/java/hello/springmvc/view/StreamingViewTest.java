@@ -0,0 +1,160 @@
+package hello.springmvc.view;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import hello.springmvc.basic.HelloData;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntSupplier;
+import javax.servlet.http.HttpServletResponseWrapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.web.context.support.StaticWebApplicationContext;
+import org.springframework.web.servlet.DispatcherServlet;
+import org.springframework.web.servlet.View;
+import org.thymeleaf.spring5.SpringTemplateEngine;
+import org.thymeleaf.spring5.view.ThymeleafViewResolver;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+class StreamingViewTest {
+
+    StaticWebApplicationContext context;
+    StreamingViewResolver resolver;
+
+    @BeforeEach
+    void setUp() {
+        context = new StaticWebApplicationContext();
+        context.setServletContext(new MockServletContext());
+        context.refresh();
+
+        ClassLoaderTemplateResolver templateResolver = new ClassLoaderTemplateResolver();
+        templateResolver.setPrefix("templates/");
+        templateResolver.setSuffix(".html");
+        SpringTemplateEngine templateEngine = new SpringTemplateEngine();
+        templateEngine.setTemplateResolver(templateResolver);
+        ThymeleafViewResolver thymeleafViewResolver = new ThymeleafViewResolver();
+        thymeleafViewResolver.setTemplateEngine(templateEngine);
+        thymeleafViewResolver.setApplicationContext(context);
+
+        resolver = new StreamingViewResolver(thymeleafViewResolver, 1024);
+    }
+
+    @Test
+    void resolvesOnlyStreamPrefixedViewNames() throws Exception {
+        assertThat(resolver.resolveViewName("response/report", Locale.KOREAN)).isNull();
+        assertThat(resolver.resolveViewName("redirect:/response/report", Locale.KOREAN)).isNull();
+        assertThat(resolver.resolveViewName("stream:response/report", Locale.KOREAN))
+            .isInstanceOf(ChunkedStreamingView.class);
+    }
+
+    @Test
+    void flushesEveryChunkSizeChars() throws Exception {
+        View delegate = (model, request, response) -> {
+            for (int i = 0; i < 10; i++) {
+                response.getWriter().write("0123456789");
+            }
+        };
+        FlushRecordingResponse response = new FlushRecordingResponse(() -> 0);
+
+        new ChunkedStreamingView(delegate, 25).render(Map.of(), new MockHttpServletRequest(), response);
+
+        // 25 글자를 넘긴 쓰기마다 한 번, 렌더링이 끝나면 남은 10 글자를 한 번
+        assertThat(response.flushedChars).containsExactly(30L, 60L, 90L, 100L);
+    }
+
+    @Test
+    void rendersLazyIterableWithoutMaterializingIt() throws Exception {
+        int rows = 2000;
+        AtomicInteger produced = new AtomicInteger();
+        Iterable<HelloData> lazyRows = () -> new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return produced.get() < rows;
+            }
+
+            @Override
+            public HelloData next() {
+                HelloData data = new HelloData();
+                data.setUsername("user" + produced.get());
+                data.setAge(produced.getAndIncrement() % 100);
+                return data;
+            }
+        };
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/response-view-report");
+        request.setAttribute(DispatcherServlet.WEB_APPLICATION_CONTEXT_ATTRIBUTE, context);
+        FlushRecordingResponse response = new FlushRecordingResponse(produced::get);
+
+        resolver.resolveViewName("stream:response/report", Locale.KOREAN)
+            .render(Map.of("rows", lazyRows), request, response);
+
+        // 첫 flush 때는 행을 조금만 만들었어야 한다 (전체 목록을 먼저 만들지 않는다)
+        assertThat(response.flushedChars.size()).isGreaterThan(10);
+        assertThat(response.rowsAtFlush.get(0)).isLessThan(rows / 10);
+        assertThat(produced.get()).isEqualTo(rows);
+        assertThat(response.delegate.getContentAsString()).contains("user1999");
+    }
+
+    /**
+     * 실제 응답 writer 가 flush 될 때마다 그때까지 쓴 글자 수와 만든 행 수를 기록한다.
+     */
+    static class FlushRecordingResponse extends HttpServletResponseWrapper {
+
+        private final MockHttpServletResponse delegate;
+        private final List<Long> flushedChars = new ArrayList<>();
+        private final List<Integer> rowsAtFlush = new ArrayList<>();
+        private final IntSupplier rows;
+        private PrintWriter writer;
+
+        FlushRecordingResponse(IntSupplier rows) {
+            this(new MockHttpServletResponse(), rows);
+        }
+
+        private FlushRecordingResponse(MockHttpServletResponse delegate, IntSupplier rows) {
+            super(delegate);
+            this.delegate = delegate;
+            this.rows = rows;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (writer == null) {
+                Writer target = delegate.getWriter();
+                writer = new PrintWriter(new Writer() {
+                    private long chars;
+
+                    @Override
+                    public void write(char[] buffer, int offset, int length) throws IOException {
+                        target.write(buffer, offset, length);
+                        chars += length;
+                    }
+
+                    @Override
+                    public void flush() throws IOException {
+                        target.flush();
+                        if (flushedChars.isEmpty() || flushedChars.get(flushedChars.size() - 1) != chars) {
+                            flushedChars.add(chars);
+                            rowsAtFlush.add(rows.getAsInt());
+                        }
+                    }
+
+                    @Override
+                    public void close() throws IOException {
+                        target.close();
+                    }
+                });
+            }
+            return writer;
+        }
+    }
+
+}
@@ -0,0 +1,123 @@
+package hello.springmvc.warmup;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hello.springmvc.basic.HelloData;
+import java.lang.reflect.Method;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+
+class WarmupRequestFactoryTest {
+
+    WarmupRequestFactory factory;
+
+    @BeforeEach
+    void setUp() {
+        WarmupProperties properties = new WarmupProperties();
+        properties.getSampleValues().put("userId", "userA");
+        properties.getExcludePatterns().add("DELETE /users/**");
+        properties.getMethods().addAll(List.of("POST", "DELETE"));
+        factory = new WarmupRequestFactory(properties, new ObjectMapper());
+    }
+
+    @Test
+    void fillsPathVariablesParamsAndConditions() throws NoSuchMethodException {
+        WarmupRequest request = single(RequestMappingInfo.paths("/users/{userId}/orders/{orderId}")
+            .params("mode=debug").produces("text/html").build(), "order");
+
+        assertThat(request.getKey()).isEqualTo("GET /users/{userId}/orders/{orderId}");
+        assertThat(request.getUri()).isEqualTo("/users/userA/orders/1?size=1&mode=debug");
+        assertThat(request.getHeaders()).containsEntry("Accept", "text/html").containsEntry("X-Warmup", "true");
+        assertThat(request.getBody()).isNull();
+    }
+
+    @Test
+    void requestBodyIsJsonOfSampleObject() throws NoSuchMethodException {
+        WarmupRequest request = single(RequestMappingInfo.paths("/hello").build(), "create");
+
+        assertThat(request.getMethod()).isEqualTo("POST");
+        assertThat(request.getBody()).isEqualTo("{\"username\":\"warmup\",\"age\":1}");
+        assertThat(request.getHeaders()).containsEntry("Content-Type", "application/json");
+    }
+
+    @Test
+    void collectionBodyIsArrayOfOneElement() throws NoSuchMethodException {
+        WarmupRequest request = single(RequestMappingInfo.paths("/hello/batch").build(), "createAll");
+        assertThat(request.getBody()).isEqualTo("[{\"username\":\"warmup\",\"age\":1}]");
+
+        // 요소 타입이 객체가 아니면 default-body 를 담는다
+        request = single(RequestMappingInfo.paths("/hello/nodes").build(), "createNodes");
+        assertThat(request.getBody()).isEqualTo("[" + new WarmupProperties().getDefaultBody() + "]");
+    }
+
+    @Test
+    void sendsOnlySafeMethodsByDefault() throws NoSuchMethodException {
+        factory = new WarmupRequestFactory(new WarmupProperties(), new ObjectMapper());
+        Map<RequestMappingInfo, HandlerMethod> handlerMethods = new LinkedHashMap<>();
+        handlerMethods.put(RequestMappingInfo.paths("/hello").build(), handlerMethod("create"));
+        handlerMethods.put(RequestMappingInfo.paths("/users/{userId}/orders/{orderId}")
+            .methods(RequestMethod.DELETE).build(), handlerMethod("order"));
+        handlerMethods.put(RequestMappingInfo.paths("/users/{userId}/orders/{orderId}")
+            .methods(RequestMethod.GET).build(), handlerMethod("order"));
+
+        assertThat(factory.create(handlerMethods)).extracting(WarmupRequest::getMethod).containsExactly("GET");
+    }
+
+    @Test
+    void skipsExcludedMappingsAndMissingPathVariables() throws NoSuchMethodException {
+        Map<RequestMappingInfo, HandlerMethod> handlerMethods = new LinkedHashMap<>();
+        handlerMethods.put(RequestMappingInfo.paths("/internal/stats").build(), handlerMethod("order"));
+        handlerMethods.put(RequestMappingInfo.paths("/users/test").build(), handlerMethod("order"));
+        handlerMethods.put(RequestMappingInfo.paths("/users/{userId}/orders/{orderId}")
+            .methods(RequestMethod.DELETE).build(), handlerMethod("order"));
+
+        assertThat(factory.create(handlerMethods)).isEmpty();
+    }
+
+    private WarmupRequest single(RequestMappingInfo info, String methodName) throws NoSuchMethodException {
+        List<WarmupRequest> requests = factory.create(Map.of(info, handlerMethod(methodName)));
+        assertThat(requests).hasSize(1);
+        return requests.get(0);
+    }
+
+    private static HandlerMethod handlerMethod(String name) throws NoSuchMethodException {
+        for (Method method : SampleController.class.getDeclaredMethods()) {
+            if (method.getName().equals(name)) {
+                return new HandlerMethod(new SampleController(), method);
+            }
+        }
+        throw new NoSuchMethodException(name);
+    }
+
+    static class SampleController {
+
+        String order(@PathVariable String userId, @PathVariable Long orderId, @RequestParam int size) {
+            return "ok";
+        }
+
+        String create(@RequestBody HelloData helloData) {
+            return "ok";
+        }
+
+        String createAll(@RequestBody List<HelloData> helloData) {
+            return "ok";
+        }
+
+        String createNodes(@RequestBody JsonNode[] nodes) {
+            return "ok";
+        }
+
+    }
+
+}